@@ -93,6 +93,29 @@ public class Config {
     /** lookahead 预载：每 tick 新增预载 ticket 上限（慢速，默认 6） */
     public static int preloadPrewarmRequestsPerTick = 6;
 
+    // ===== 音频配置 =====
+
+    /** 音频片段提前解码量（秒）：片段开始前多少秒在后台解码，0 = 到点才解码 */
+    public static float audioLookaheadSeconds = 5.0f;
+    /** 已解码音频缓存上限（MB）：超出后淘汰最久未用且无人引用的条目 */
+    public static int audioCacheBudgetMb = 64;
+
+    // ===== 叠加层配置 =====
+
+    /** 图片预取量（秒）：OVERLAY 图片片段开始前多少秒在后台加载，0 = 到点才加载 */
+    public static float overlayPrefetchSeconds = 3.0f;
+    /** 图片未加载完成时是否绘制半透明占位框（默认不画） */
+    public static boolean overlayImagePlaceholder = false;
+    /** 图片纹理缓存上限（MB）：超出后释放最久未用且无片段引用的纹理 */
+    public static int overlayTextureBudgetMb = 128;
+    /** 开场资源等待上限（秒）：脚本开始时黑屏等待开场音频/图片就绪，最多等这么久；0 = 不等待 */
+    public static float assetHoldMaxSeconds = 0f;
+
+    // ===== 服务端脚本配置 =====
+
+    /** 脚本目录热重载：监听 immersive_cinematics/scripts，改动的文件自动重新解析生效（开发 / 测试服用） */
+    public static boolean scriptHotReload = false;
+
     private static ConfigProvider provider;
 
     /**
@@ -147,12 +170,19 @@ public class Config {
             int preloadForceRadiusValue,
             float preloadPrewarmLeadSeconds,
             int preloadPrewarmRadius,
-            int preloadPrewarmRequestsPerTick
+            int preloadPrewarmRequestsPerTick,
+            float audioLookaheadSeconds,
+            int audioCacheBudgetMb,
+            float overlayPrefetchSeconds,
+            boolean overlayImagePlaceholder,
+            int overlayTextureBudgetMb,
+            float assetHoldMaxSeconds,
+            boolean scriptHotReload
     ) {
         /** 使用默认值构造 */
         public static ConfigValues defaults() {
             return new ConfigValues(3000, true, 100, false, 20, 40, 20, 20, 20, true,
-                    true, 2, 256, 64, 2, 15, 2.0f, 20, 8, 4, 20, 8, 2, 32, false, 8, 2.0f, 8, 6);
+                    true, 2, 256, 64, 2, 15, 2.0f, 20, 8, 4, 20, 8, 2, 32, false, 8, 2.0f, 8, 6, 5.0f, 64, 3.0f, false, 128, 0f, false);
         }
     }
 
@@ -199,6 +229,13 @@ public class Config {
         preloadPrewarmLeadSeconds = values.preloadPrewarmLeadSeconds();
         preloadPrewarmRadius = values.preloadPrewarmRadius();
         preloadPrewarmRequestsPerTick = values.preloadPrewarmRequestsPerTick();
+        audioLookaheadSeconds = values.audioLookaheadSeconds();
+        audioCacheBudgetMb = values.audioCacheBudgetMb();
+        overlayPrefetchSeconds = values.overlayPrefetchSeconds();
+        overlayImagePlaceholder = values.overlayImagePlaceholder();
+        overlayTextureBudgetMb = values.overlayTextureBudgetMb();
+        assetHoldMaxSeconds = values.assetHoldMaxSeconds();
+        scriptHotReload = values.scriptHotReload();
     }
 
     // ===== ConfigScreen 写入接口 =====
@@ -319,4 +356,45 @@ public class Config {
         preloadPrewarmRequestsPerTick = value;
         if (provider != null) provider.setInt("preloadPrewarmRequestsPerTick", value);
     }
+
+    // ===== 音频配置写入接口 =====
+
+    public static void setAudioLookaheadSeconds(float value) {
+        audioLookaheadSeconds = value;
+        if (provider != null) provider.setFloat("audioLookaheadSeconds", value);
+    }
+
+    public static void setAudioCacheBudgetMb(int value) {
+        audioCacheBudgetMb = value;
+        if (provider != null) provider.setInt("audioCacheBudgetMb", value);
+    }
+
+    // ===== 叠加层配置写入接口 =====
+
+    public static void setOverlayPrefetchSeconds(float value) {
+        overlayPrefetchSeconds = value;
+        if (provider != null) provider.setFloat("overlayPrefetchSeconds", value);
+    }
+
+    public static void setOverlayImagePlaceholder(boolean value) {
+        overlayImagePlaceholder = value;
+        if (provider != null) provider.setBoolean("overlayImagePlaceholder", value);
+    }
+
+    public static void setOverlayTextureBudgetMb(int value) {
+        overlayTextureBudgetMb = value;
+        if (provider != null) provider.setInt("overlayTextureBudgetMb", value);
+    }
+
+    public static void setAssetHoldMaxSeconds(float value) {
+        assetHoldMaxSeconds = value;
+        if (provider != null) provider.setFloat("assetHoldMaxSeconds", value);
+    }
+
+    // ===== 服务端脚本配置写入接口 =====
+
+    public static void setScriptHotReload(boolean value) {
+        scriptHotReload = value;
+        if (provider != null) provider.setBoolean("scriptHotReload", value);
+    }
 }
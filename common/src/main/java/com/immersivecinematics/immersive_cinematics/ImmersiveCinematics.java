@@ -1,8 +1,10 @@
 package com.immersivecinematics.immersive_cinematics;
 
 import com.immersivecinematics.immersive_cinematics.trigger.server.ListenStrategy;
+import com.immersivecinematics.immersive_cinematics.trigger.server.PlayerPollState;
 import com.immersivecinematics.immersive_cinematics.trigger.server.TriggerRegistry;
 import com.immersivecinematics.immersive_cinematics.trigger.server.TriggerType;
+import com.immersivecinematics.immersive_cinematics.trigger.server.evaluator.Conditions;
 import com.immersivecinematics.immersive_cinematics.trigger.server.evaluator.Evaluators;
 import com.immersivecinematics.immersive_cinematics.trigger.network.NetworkHandler;
 
@@ -19,30 +21,37 @@ public final class ImmersiveCinematics {
     }
 
     private static void registerTriggerTypes() {
-        TriggerRegistry.register(new TriggerType("location", ListenStrategy.POLLING, Config.triggerPollIntervalLocation, Evaluators::evaluateLocation));
-        TriggerRegistry.register(new TriggerType("advancement", ListenStrategy.EVENT_DRIVEN, 0, Evaluators::evaluateAdvancement));
-        TriggerRegistry.register(new TriggerType("biome", ListenStrategy.POLLING, Config.triggerPollIntervalBiome, Evaluators::evaluateBiome));
-        TriggerRegistry.register(new TriggerType("entity_kill", ListenStrategy.EVENT_DRIVEN, 0, Evaluators::evaluateEntityKill));
-        TriggerRegistry.register(new TriggerType("entity_interact", ListenStrategy.EVENT_DRIVEN, 0, Evaluators::evaluateInteract));
-        TriggerRegistry.register(new TriggerType("dimension_change", ListenStrategy.EVENT_DRIVEN, 0, Evaluators::evaluateDimensionChange));
-        TriggerRegistry.register(new TriggerType("login", ListenStrategy.EVENT_DRIVEN, 0, Evaluators::evaluateLogin));
-        TriggerRegistry.register(new TriggerType("inventory", ListenStrategy.POLLING, Config.triggerPollIntervalInventory, Evaluators::evaluateInventory));
-        TriggerRegistry.register(new TriggerType("item_craft", ListenStrategy.EVENT_DRIVEN, 0, Evaluators::evaluateItemCraft));
-        TriggerRegistry.register(new TriggerType("structure", ListenStrategy.POLLING, Config.triggerPollIntervalStructure, Evaluators::evaluateStructure));
-        TriggerRegistry.register(new TriggerType("gamestage", ListenStrategy.POLLING, Config.triggerPollIntervalGamestage, Evaluators::evaluateGamestage));
-        TriggerRegistry.register(new TriggerType("item_use", ListenStrategy.EVENT_DRIVEN, 0, Evaluators::evaluateItemUse));
-        TriggerRegistry.register(new TriggerType("item_consume", ListenStrategy.EVENT_DRIVEN, 0, Evaluators::evaluateItemConsume));
-        TriggerRegistry.register(new TriggerType("item_release", ListenStrategy.EVENT_DRIVEN, 0, Evaluators::evaluateItemRelease));
-        TriggerRegistry.register(new TriggerType("item_instant_use", ListenStrategy.EVENT_DRIVEN, 0, Evaluators::evaluateItemInstantUse));
-        TriggerRegistry.register(new TriggerType("item_use_interrupt", ListenStrategy.EVENT_DRIVEN, 0, Evaluators::evaluateItemUseInterrupt));
-        TriggerRegistry.register(new TriggerType("block_interact", ListenStrategy.EVENT_DRIVEN, 0, Evaluators::evaluateBlockInteract));
-        TriggerRegistry.register(new TriggerType("item_on_interact", ListenStrategy.EVENT_DRIVEN, 0, Evaluators::evaluateItemOnInteract));
-        TriggerRegistry.register(new TriggerType("xp", ListenStrategy.POLLING, Config.triggerPollIntervalLocation, Evaluators::evaluateXp));
-        // dimension 驻留型：与 dimension_change 共用求值器（"当前维度 matchesId 条件"语义一致）
-        TriggerRegistry.register(new TriggerType("dimension", ListenStrategy.POLLING, Config.triggerPollIntervalLocation, Evaluators::evaluateDimensionChange));
-        TriggerRegistry.register(new TriggerType("item_pickup", ListenStrategy.EVENT_DRIVEN, 0, Evaluators::evaluateItemPickup));
-        TriggerRegistry.register(new TriggerType("item_drop", ListenStrategy.EVENT_DRIVEN, 0, Evaluators::evaluateItemDrop));
+        // 轮询类型声明其依赖的玩家状态通道：通道未变化时复用上次求值结果（gamestage / observation 无可靠变化来源，每次求值）
+        TriggerRegistry.register(new TriggerType<>("location", ListenStrategy.POLLING, Config.triggerPollIntervalLocation, PlayerPollState.BLOCK | PlayerPollState.DIMENSION,
+                Conditions.Location::parse, Evaluators::evaluateLocation));
+        TriggerRegistry.register(new TriggerType<>("advancement", ListenStrategy.EVENT_DRIVEN, 0, c -> Conditions.IdPattern.parse(c, "advancement"), Evaluators::evaluateAdvancement));
+        TriggerRegistry.register(new TriggerType<>("biome", ListenStrategy.POLLING, Config.triggerPollIntervalBiome, PlayerPollState.BLOCK | PlayerPollState.DIMENSION,
+                c -> Conditions.IdPattern.parse(c, "biome"), Evaluators::evaluateBiome));
+        TriggerRegistry.register(new TriggerType<>("entity_kill", ListenStrategy.EVENT_DRIVEN, 0, Conditions.EntityKill::parse, Evaluators::evaluateEntityKill));
+        TriggerRegistry.register(new TriggerType<>("entity_interact", ListenStrategy.EVENT_DRIVEN, 0, Conditions.Interact::parse, Evaluators::evaluateInteract));
+        TriggerRegistry.register(new TriggerType<>("dimension_change", ListenStrategy.EVENT_DRIVEN, 0, Conditions.DimensionChange::parse, Evaluators::evaluateDimensionChange));
+        TriggerRegistry.register(new TriggerType<>("login", ListenStrategy.EVENT_DRIVEN, 0, Conditions.None::parse, Evaluators::evaluateLogin));
+        TriggerRegistry.register(new TriggerType<>("inventory", ListenStrategy.POLLING, Config.triggerPollIntervalInventory, PlayerPollState.INVENTORY,
+                Conditions.Inventory::parse, Evaluators::evaluateInventory));
+        TriggerRegistry.register(new TriggerType<>("item_craft", ListenStrategy.EVENT_DRIVEN, 0, c -> Conditions.IdPattern.parse(c, "item"), Evaluators::evaluateItemCraft));
+        TriggerRegistry.register(new TriggerType<>("structure", ListenStrategy.POLLING, Config.triggerPollIntervalStructure, PlayerPollState.BLOCK | PlayerPollState.DIMENSION,
+                Conditions.Structure::parse, Evaluators::evaluateStructure));
+        TriggerRegistry.register(new TriggerType<>("gamestage", ListenStrategy.POLLING, Config.triggerPollIntervalGamestage, Conditions.Gamestage::parse, Evaluators::evaluateGamestage));
+        TriggerRegistry.register(new TriggerType<>("item_use", ListenStrategy.EVENT_DRIVEN, 0, c -> Conditions.IdPattern.parse(c, "item"), Evaluators::evaluateItemUse));
+        TriggerRegistry.register(new TriggerType<>("item_consume", ListenStrategy.EVENT_DRIVEN, 0, c -> Conditions.IdPattern.parse(c, "item"), Evaluators::evaluateItemConsume));
+        TriggerRegistry.register(new TriggerType<>("item_release", ListenStrategy.EVENT_DRIVEN, 0, c -> Conditions.IdPattern.parse(c, "item"), Evaluators::evaluateItemRelease));
+        TriggerRegistry.register(new TriggerType<>("item_instant_use", ListenStrategy.EVENT_DRIVEN, 0, c -> Conditions.IdPattern.parse(c, "item"), Evaluators::evaluateItemInstantUse));
+        TriggerRegistry.register(new TriggerType<>("item_use_interrupt", ListenStrategy.EVENT_DRIVEN, 0, c -> Conditions.IdPattern.parse(c, "item"), Evaluators::evaluateItemUseInterrupt));
+        TriggerRegistry.register(new TriggerType<>("block_interact", ListenStrategy.EVENT_DRIVEN, 0, c -> Conditions.IdPattern.parse(c, "target"), Evaluators::evaluateBlockInteract));
+        TriggerRegistry.register(new TriggerType<>("item_on_interact", ListenStrategy.EVENT_DRIVEN, 0, Conditions.ItemOnInteract::parse, Evaluators::evaluateItemOnInteract));
+        TriggerRegistry.register(new TriggerType<>("xp", ListenStrategy.POLLING, Config.triggerPollIntervalLocation, PlayerPollState.XP,
+                Conditions.Xp::parse, Evaluators::evaluateXp));
+        // dimension 驻留型：与 dimension_change 共用条件与求值器（"当前维度匹配条件"语义一致）
+        TriggerRegistry.register(new TriggerType<>("dimension", ListenStrategy.POLLING, Config.triggerPollIntervalLocation, PlayerPollState.DIMENSION,
+                Conditions.DimensionChange::parse, Evaluators::evaluateDimensionChange));
+        TriggerRegistry.register(new TriggerType<>("item_pickup", ListenStrategy.EVENT_DRIVEN, 0, Conditions.ItemPickup::parse, Evaluators::evaluateItemPickup));
+        TriggerRegistry.register(new TriggerType<>("item_drop", ListenStrategy.EVENT_DRIVEN, 0, c -> Conditions.IdPattern.parse(c, "item"), Evaluators::evaluateItemDrop));
         // 5 tick ≈ 0.25s 轮询，保证注视响应及时
-        TriggerRegistry.register(new TriggerType("observation", ListenStrategy.POLLING, 5, Evaluators::evaluateObservation));
+        TriggerRegistry.register(new TriggerType<>("observation", ListenStrategy.POLLING, 5, Conditions.Observation::parse, Evaluators::evaluateObservation));
     }
 }
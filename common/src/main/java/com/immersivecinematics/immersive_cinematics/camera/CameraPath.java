@@ -1,5 +1,6 @@
 package com.immersivecinematics.immersive_cinematics.camera;
 
+import com.immersivecinematics.immersive_cinematics.util.MathUtil.MutableVec3;
 import net.minecraft.world.phys.Vec3;
 
 /**
@@ -14,14 +15,17 @@ import net.minecraft.world.phys.Vec3;
  */
 public class CameraPath {
 
-    // --- 当前值 ---
-    private Vec3 currentPosition = Vec3.ZERO;
+    // --- 当前值（原始分量存储；Vec3 视图按需物化，见 getPosition()） ---
+    private final MutableVec3 currentPosition = new MutableVec3();
+
+    /** getPosition() 物化的 Vec3 缓存（位置变化后置 null，下次读取时重建） */
+    private Vec3 positionView = Vec3.ZERO;
 
     // --- 目标值（供 staged 缓冲区过渡插值使用） ---
-    private Vec3 targetPosition = Vec3.ZERO;
+    private final MutableVec3 targetPosition = new MutableVec3();
 
     // --- 插值控制（供 staged 缓冲区过渡插值使用） ---
-    private Vec3 startPosition = Vec3.ZERO;
+    private final MutableVec3 startPosition = new MutableVec3();
     private float transitionDuration = 0f;   // 过渡时长（秒），0 = 瞬时
     private float transitionProgress = 1f;   // 0~1，1 = 已完成
 
@@ -31,17 +35,24 @@ public class CameraPath {
      * 由 CameraTrackPlayer.onRenderFrame() 每帧调用，
      * 直接写入精确计算的位置，无需过渡插值。
      * 类似 ReplayMod CameraEntity.setCameraPosition() 的 prevX=x 语义。
-     *
-     * @param pos 精确计算的相机位置
+     * <p>
+     * 只拷贝分量，不持有调用方对象（调用方可继续复用自己的临时向量），不分配。
      */
-    public void setPositionDirect(Vec3 pos) {
-        this.currentPosition = pos;
+    public void setPositionDirect(double x, double y, double z) {
+        currentPosition.set(x, y, z);
+        positionView = null;
         // 同步目标值，保持一致性
-        this.targetPosition = pos;
-        this.startPosition = pos;
+        targetPosition.set(x, y, z);
+        startPosition.set(x, y, z);
         this.transitionProgress = 1f;
     }
 
+    /** {@link #setPositionDirect(double, double, double)} 的 Vec3 形式 */
+    public void setPositionDirect(Vec3 pos) {
+        setPositionDirect(pos.x, pos.y, pos.z);
+        positionView = pos;
+    }
+
     /**
      * 设置目标位置（带过渡时长）
      * <p>
@@ -53,14 +64,15 @@ public class CameraPath {
      * @param duration 过渡时长（秒），0 = 瞬时跳转
      */
     public void setTargetPosition(Vec3 pos, float duration) {
-        this.startPosition = this.currentPosition;
-        this.targetPosition = pos;
+        startPosition.set(currentPosition);
+        targetPosition.set(pos);
         this.transitionDuration = duration;
         this.transitionProgress = 0f;
 
         // duration 为 0 时瞬时跳转
         if (duration <= 0f) {
-            this.currentPosition = pos;
+            currentPosition.set(pos);
+            positionView = pos;
             this.transitionProgress = 1f;
         }
     }
@@ -76,7 +88,8 @@ public class CameraPath {
     public void tick(float deltaTime) {
         if (transitionProgress < 1f) {
             transitionProgress = Math.min(1f, transitionProgress + deltaTime / transitionDuration);
-            currentPosition = startPosition.lerp(targetPosition, transitionProgress);
+            currentPosition.lerp(startPosition, targetPosition, transitionProgress);
+            positionView = null;
         }
     }
 
@@ -85,9 +98,29 @@ public class CameraPath {
      * <p>
      * 🎬 帧回调驱动模式下直接返回 currentPosition，
      * 不需要 partialTick 插值，因为每帧都已精确重算。
+     * <p>
+     * 位置变化后首次调用会物化一个 Vec3（同一帧内多次读取复用）；
+     * 每帧必读的热路径（CameraMixin 等）改用 {@link #getX()}/{@link #getY()}/{@link #getZ()}，不分配。
      */
     public Vec3 getPosition() {
-        return currentPosition;
+        Vec3 view = positionView;
+        if (view == null) {
+            view = currentPosition.toVec3();
+            positionView = view;
+        }
+        return view;
+    }
+
+    public double getX() {
+        return currentPosition.x;
+    }
+
+    public double getY() {
+        return currentPosition.y;
+    }
+
+    public double getZ() {
+        return currentPosition.z;
     }
 
     /**
@@ -98,9 +131,10 @@ public class CameraPath {
      * @param source 源实例（通常是 staged 缓冲区）
      */
     public void overrideFrom(CameraPath source) {
-        this.currentPosition = source.currentPosition;
-        this.targetPosition = source.currentPosition;
-        this.startPosition = source.currentPosition;
+        currentPosition.set(source.currentPosition);
+        positionView = source.positionView;
+        targetPosition.set(source.currentPosition);
+        startPosition.set(source.currentPosition);
         this.transitionDuration = 0f;
         this.transitionProgress = 1f;
     }
@@ -109,9 +143,10 @@ public class CameraPath {
      * 重置到原点
      */
     public void reset() {
-        currentPosition = Vec3.ZERO;
-        targetPosition = Vec3.ZERO;
-        startPosition = Vec3.ZERO;
+        currentPosition.set(0, 0, 0);
+        positionView = Vec3.ZERO;
+        targetPosition.set(0, 0, 0);
+        startPosition.set(0, 0, 0);
         transitionDuration = 0f;
         transitionProgress = 1f;
     }
@@ -133,14 +133,10 @@ public class CinematicCommand {
         // 结构坐标解析：脚本关键帧中的 look_at_target_structure 字段 → 服务端定位结构中心 → 替换为 look_at_target_x/y/z
         // （坐标按执行者所在维度/位置定位最近结构，随脚本 JSON 推送；脚本文件本身不被修改）
         final String resolvedJson = resolveStructureTargets(json, source);
-        com.immersivecinematics.immersive_cinematics.trigger.network.AckTracker.expect(refId, () -> {
-            for (ServerPlayer p : ackTargets) {
-                S2CPlayScriptPacket.send(p, resolvedJson, refId);
-            }
-        });
-        for (ServerPlayer player : targets) {
-            S2CPlayScriptPacket.send(player, resolvedJson, refId);
-        }
+        // 同一 JSON 发给所有目标：编码 / 压缩只做一次
+        com.immersivecinematics.immersive_cinematics.trigger.network.AckTracker.expect(refId,
+                () -> S2CPlayScriptPacket.sendToAll(ackTargets, resolvedJson, refId));
+        S2CPlayScriptPacket.sendToAll(targets, resolvedJson, refId);
 
         final int count = targets.size();
         LOGGER.info("已向 {} 名玩家推送脚本: {} (总时长: {}s)",
@@ -94,6 +94,8 @@ public class EditorScreen extends Screen {
         this.sel = new EditorSelection();
         this.playback = new EditorPlayback();
         this.output = new EditorOutput(bridge);
+        // 会话间可能替换过音频文件：波形按当前内容重新取
+        com.immersivecinematics.immersive_cinematics.script.WaveformPeaks.invalidateAll();
 
         sel.setListener((clips, kf) -> {
             try {
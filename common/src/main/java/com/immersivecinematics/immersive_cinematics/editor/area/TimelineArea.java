@@ -10,10 +10,7 @@ import com.immersivecinematics.immersive_cinematics.editor.widget.*;
 import net.minecraft.client.resources.language.I18n;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
@@ -59,10 +56,6 @@ public class TimelineArea extends UIComponent {
     // D2 clip 悬停 tooltip
     private String hoveredClipTooltip;
 
-    // E1 AUDIO 波形缓存（会话内不淘汰；失败 blacklist 不重试）
-    private final Map<String, float[]> waveformCache = new HashMap<>();
-    private final Set<String> waveformFailed = new HashSet<>();
-
     // A9 音频拖拽实时预览（仅 AUDIO 轨道，100ms 节流）
     private Runnable onDragLivePreview;
     private long lastLivePreviewMs;
@@ -720,19 +713,11 @@ public class TimelineArea extends UIComponent {
         }
     }
     
-    /** E1：AUDIO 波形列（半透明白，clip 填充色之上） */
+    /** E1：AUDIO 波形列（半透明白，clip 填充色之上）；按缩放取峰值金字塔的对应层，生成中画占位中线 */
     private void drawWaveform(UIContext ctx, JsonObject clip, int ty) {
         String sound = clip.has("sound") ? clip.get("sound").getAsString() : "";
         String source = clip.has("source") ? clip.get("source").getAsString() : "file";
         if (sound.isEmpty()) return;
-        String key = source + "|" + sound;
-        float[] peaks = waveformCache.get(key);
-        if (peaks == null && !waveformFailed.contains(key)) {
-            peaks = com.immersivecinematics.immersive_cinematics.script.CinematicAudioInstance.decodePeaks(sound, source, 256);
-            if (peaks == null) waveformFailed.add(key);
-            else waveformCache.put(key, peaks);
-        }
-        if (peaks == null) return;
 
         float sx = timeToX(visualStart(clip));
         float ex = timeToX(EditorOperations.getEnd(clip));
@@ -740,15 +725,45 @@ public class TimelineArea extends UIComponent {
         if (ex < cx || sx > cx + cw) return;
         int clipX = Math.max(cx, (int) sx), clipW = Math.min(cx + cw, (int) ex) - clipX;
         if (clipW < 2) clipW = 2;
-
-        float dur = Math.max(0.001f, EditorOperations.getDuration(clip));
         int midY = ty + trackH() / 2;
+
+        com.immersivecinematics.immersive_cinematics.script.WaveformPeaks peaks =
+                com.immersivecinematics.immersive_cinematics.script.WaveformPeaks.get(sound, source);
+        if (peaks == null) {
+            if (!com.immersivecinematics.immersive_cinematics.script.WaveformPeaks.isFailed(sound, source)) {
+                ctx.graphics.fill(clipX, midY, clipX + clipW, midY + 1, 0x44FFFFFF);
+            }
+            return;
+        }
+
+        float audioDur = peaks.getDuration();
+        if (audioDur <= 0f) return;
+        boolean loop = clip.has("loop") && clip.get("loop").getAsBoolean();
+        float secondsPerPixel = 1f / pixelsPerSecond;
+        int level = peaks.levelFor(secondsPerPixel);
+        float bucketSec = peaks.bucketSeconds(level);
+        int buckets = peaks.bucketCount(level);
+        int halfH = (trackH() - 6) / 2;
+        float start = EditorOperations.getStart(clip);
         for (int px = clipX; px < clipX + clipW; px++) {
-            float local = (xToTime(px) - EditorOperations.getStart(clip)) / dur;
-            int idx = (int) (local * peaks.length);
-            if (idx < 0 || idx >= peaks.length) continue;
-            int h = Math.max(1, (int) (peaks[idx] * (trackH() - 6)));
-            ctx.graphics.fill(px, midY - h / 2, px + 1, midY + h / 2, 0x99FFFFFF);
+            float t = xToTime(px) - start;
+            if (t < 0f) continue;
+            if (t >= audioDur) {
+                if (!loop) break;
+                t %= audioDur;
+            }
+            // 像素覆盖的时间段内所有桶取 min/max
+            int b0 = (int) (t / bucketSec);
+            int b1 = Math.min(buckets - 1, Math.max(b0, (int) ((t + secondsPerPixel) / bucketSec) - 1));
+            if (b0 >= buckets) continue;
+            float lo = 0f, hi = 0f;
+            for (int b = b0; b <= b1; b++) {
+                lo = Math.min(lo, peaks.minAt(level, b));
+                hi = Math.max(hi, peaks.maxAt(level, b));
+            }
+            int top = midY - Math.max(0, (int) (hi * halfH));
+            int bottom = midY + Math.max(1, (int) (-lo * halfH));
+            ctx.graphics.fill(px, top, px + 1, bottom, 0x99FFFFFF);
         }
     }
 
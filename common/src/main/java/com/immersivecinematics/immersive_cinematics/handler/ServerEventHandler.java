@@ -1,11 +1,10 @@
 package com.immersivecinematics.immersive_cinematics.handler;
 
 import com.immersivecinematics.immersive_cinematics.script.ScriptManager;
+import com.immersivecinematics.immersive_cinematics.script.ScriptWatcher;
 import com.immersivecinematics.immersive_cinematics.trigger.server.ScriptEventManager;
 import com.immersivecinematics.immersive_cinematics.trigger.server.TriggerEngine;
-import com.immersivecinematics.immersive_cinematics.trigger.network.S2CTriggerStateSyncPacket;
 import com.immersivecinematics.immersive_cinematics.trigger.server.evaluator.Evaluators;
-import com.immersivecinematics.immersive_cinematics.trigger.server.store.PlayerTriggerState;
 import com.immersivecinematics.immersive_cinematics.trigger.server.store.TriggerStateStore;
 import com.mojang.brigadier.CommandDispatcher;
 import net.minecraft.advancements.Advancement;
@@ -40,18 +39,23 @@ public final class ServerEventHandler {
         TriggerStateStore.INSTANCE.initialize(server);
         TriggerEngine.INSTANCE.initialize();
         ScriptManager.INSTANCE.registerAllTriggers();
+        ScriptWatcher.INSTANCE.start(ScriptManager.getScriptDir(server));
     }
 
     public static void onServerStopping(MinecraftServer server) {
+        ScriptWatcher.INSTANCE.stop();
         TriggerStateStore.INSTANCE.saveAll();
+        TriggerStateStore.INSTANCE.flush();
+        Evaluators.StructureTracker.clearAll();
+        com.immersivecinematics.immersive_cinematics.trigger.server.ScriptDelivery.clearAll();
+        com.immersivecinematics.immersive_cinematics.trigger.server.TriggerStateSync.clearAll();
     }
 
     public static void onPlayerJoin(ServerPlayer serverPlayer) {
         if (serverPlayer instanceof com.immersivecinematics.immersive_cinematics.trigger.server.CameraFakePlayer) return;
         TriggerStateStore.INSTANCE.loadForPlayer(serverPlayer.getUUID());
-        PlayerTriggerState joinState = TriggerStateStore.INSTANCE.getOrCreate(serverPlayer.getUUID());
-        S2CTriggerStateSyncPacket.send(
-                serverPlayer, joinState.getTriggeredScripts(), joinState.getCompletedScripts());
+        // 登录时下发一次全量快照，之后只发增量
+        com.immersivecinematics.immersive_cinematics.trigger.server.TriggerStateSync.sendSnapshot(serverPlayer);
         TriggerEngine.INSTANCE.onGameEvent("login", serverPlayer);
     }
 
@@ -68,9 +72,15 @@ public final class ServerEventHandler {
         Evaluators.PickupDropTracker.clear(uuid);
         Evaluators.InventoryTracker.clear(uuid);
         Evaluators.DimensionTracker.clear(uuid);
+        Evaluators.StructureTracker.clear(uuid);
+        TriggerEngine.INSTANCE.onPlayerQuit(uuid);
+        com.immersivecinematics.immersive_cinematics.trigger.server.ScriptDelivery.onPlayerQuit(uuid);
+        com.immersivecinematics.immersive_cinematics.trigger.server.TriggerStateSync.onPlayerQuit(uuid);
     }
 
     public static void onServerTick(MinecraftServer server) {
+        // 热重载换入放在 tick 开头：本 tick 的触发器求值看到的是完整的新脚本集
+        ScriptWatcher.INSTANCE.applyPending(server);
         TriggerEngine.INSTANCE.onServerTick(server);
         ScriptEventManager.INSTANCE.onServerTick(server);
         com.immersivecinematics.immersive_cinematics.trigger.server.ChunkPreloadManager.INSTANCE.tick();
@@ -159,4 +169,8 @@ public final class ServerEventHandler {
     public static void onLevelSave() {
         TriggerStateStore.INSTANCE.saveAll();
     }
+
+    public static void onChunkUnload(ServerLevel level, int chunkX, int chunkZ) {
+        Evaluators.StructureTracker.invalidate(level, chunkX, chunkZ);
+    }
 }
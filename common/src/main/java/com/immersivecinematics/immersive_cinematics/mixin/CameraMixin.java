@@ -1,12 +1,12 @@
 package com.immersivecinematics.immersive_cinematics.mixin;
 
 import com.immersivecinematics.immersive_cinematics.camera.CameraManager;
+import com.immersivecinematics.immersive_cinematics.camera.CameraPath;
 import com.immersivecinematics.immersive_cinematics.control.CinematicController;
 import net.minecraft.client.Camera;
 import net.minecraft.client.Minecraft;
 import net.minecraft.world.level.BlockGetter;
 import net.minecraft.world.entity.Entity;
-import net.minecraft.world.phys.Vec3;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.injection.At;
@@ -95,8 +95,8 @@ public abstract class CameraMixin {
         this.detached = detached;
 
         // 直接读取精确值（每帧已由 onRenderFrame 精确重算，不需要 partialTick 插值）
-        Vec3 pos = mgr.getPath().getPosition();
-        setPosition(pos.x, pos.y, pos.z);
+        CameraPath path = mgr.getPath();
+        setPosition(path.getX(), path.getY(), path.getZ());
         float yaw = mgr.getProperties().getYaw();
         float pitch = mgr.getProperties().getPitch();
         setRotation(yaw, pitch);
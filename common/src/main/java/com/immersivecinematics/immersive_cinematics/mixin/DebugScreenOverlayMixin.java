@@ -0,0 +1,40 @@
+package com.immersivecinematics.immersive_cinematics.mixin;
+
+import com.immersivecinematics.immersive_cinematics.script.AudioCache;
+import com.immersivecinematics.immersive_cinematics.util.TextureLoader;
+import net.minecraft.client.gui.components.DebugScreenOverlay;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.List;
+
+/**
+ * F3 调试界面左栏追加资源缓存读数：音频缓存汇总、纹理缓存汇总与每个纹理的驻留字节（最久未用在前）。
+ */
+@Mixin(DebugScreenOverlay.class)
+public class DebugScreenOverlayMixin {
+
+    /** 逐纹理行的上限（其余折叠为一行计数） */
+    @Unique
+    private static final int immersive_cinematics$MAX_TEXTURE_LINES = 8;
+
+    @Inject(method = "getGameInformation", at = @At("RETURN"))
+    private void onGetGameInformation(CallbackInfoReturnable<List<String>> cir) {
+        List<String> lines = cir.getReturnValue();
+        lines.add("");
+        lines.add("[ImmersiveCinematics] " + AudioCache.debugSummary());
+        // debugLines 首行为汇总，其后每个纹理一行
+        List<String> textures = TextureLoader.debugLines();
+        lines.add("[ImmersiveCinematics] " + textures.get(0));
+        int shown = Math.min(textures.size() - 1, immersive_cinematics$MAX_TEXTURE_LINES);
+        for (int i = 1; i <= shown; i++) {
+            lines.add(textures.get(i));
+        }
+        if (textures.size() - 1 > shown) {
+            lines.add("  ... +" + (textures.size() - 1 - shown) + " more");
+        }
+    }
+}
@@ -1,8 +1,8 @@
 package com.immersivecinematics.immersive_cinematics.mixin;
 
 import com.immersivecinematics.immersive_cinematics.camera.CameraManager;
+import com.immersivecinematics.immersive_cinematics.camera.CameraPath;
 import net.minecraft.client.renderer.LevelRenderer;
-import net.minecraft.world.phys.Vec3;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.ModifyVariable;
@@ -23,26 +23,27 @@ public class LevelRendererMixin {
     @ModifyVariable(method = "setupRender", at = @At(value = "INVOKE_ASSIGN",
             target = "Lnet/minecraft/client/player/LocalPlayer;getX()D"), ordinal = 0)
     private double immersivecinematics_cameraSectionX(double coord) {
-        Vec3 v = cinematicViewCenter();
-        return v != null ? v.x : coord;
+        CameraPath path = cinematicViewCenter();
+        return path != null ? path.getX() : coord;
     }
 
     @ModifyVariable(method = "setupRender", at = @At(value = "INVOKE_ASSIGN",
             target = "Lnet/minecraft/client/player/LocalPlayer;getY()D"), ordinal = 1)
     private double immersivecinematics_cameraSectionY(double coord) {
-        Vec3 v = cinematicViewCenter();
-        return v != null ? v.y : coord;
+        CameraPath path = cinematicViewCenter();
+        return path != null ? path.getY() : coord;
     }
 
     @ModifyVariable(method = "setupRender", at = @At(value = "INVOKE_ASSIGN",
             target = "Lnet/minecraft/client/player/LocalPlayer;getZ()D"), ordinal = 2)
     private double immersivecinematics_cameraSectionZ(double coord) {
-        Vec3 v = cinematicViewCenter();
-        return v != null ? v.z : coord;
+        CameraPath path = cinematicViewCenter();
+        return path != null ? path.getZ() : coord;
     }
 
-    private static Vec3 cinematicViewCenter() {
+    /** 过场激活且非预览时返回相机路径（按分量读取坐标，不物化 Vec3），否则 null */
+    private static CameraPath cinematicViewCenter() {
         if (!CameraManager.INSTANCE.isActive() || CameraManager.INSTANCE.isPreviewMode()) return null;
-        return CameraManager.INSTANCE.getPath() != null ? CameraManager.INSTANCE.getPath().getPosition() : null;
+        return CameraManager.INSTANCE.getPath();
     }
 }
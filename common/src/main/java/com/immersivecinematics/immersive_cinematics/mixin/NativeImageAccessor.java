@@ -0,0 +1,17 @@
+package com.immersivecinematics.immersive_cinematics.mixin;
+
+import com.mojang.blaze3d.platform.NativeImage;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+/**
+ * NativeImage 像素内存地址访问接口（GIF 帧整块拷贝用，替代逐像素 setPixelRGBA）。
+ * 用法同 {@link MouseHandlerAccessor}：业务代码经 {@code (NativeImageAccessor) (Object) image} 调用。
+ */
+@Mixin(NativeImage.class)
+public interface NativeImageAccessor {
+
+    /** 像素数据的堆外地址（已 close 的图像为 0） */
+    @Accessor("pixels")
+    long getPixelsAddress();
+}
@@ -35,6 +35,12 @@ public class CinematicOverlay {
             return;
         }
 
+        // 开场资源等待中：全黑，不画任何层
+        if (cameraActive && CameraManager.INSTANCE.getScriptPlayer().isHoldingForAssets()) {
+            guiGraphics.fill(0, 0, screenWidth, screenHeight, 0xFF000000);
+            return;
+        }
+
         // 只负责渲染，动画驱动由 CameraManager.onRenderFrame() 负责
         OverlayManager.INSTANCE.render(guiGraphics, screenWidth, screenHeight);
     }
@@ -1,5 +1,6 @@
 package com.immersivecinematics.immersive_cinematics.overlay;
 
+import com.immersivecinematics.immersive_cinematics.Config;
 import com.immersivecinematics.immersive_cinematics.util.GifAnimation;
 import com.immersivecinematics.immersive_cinematics.util.TextureLoader;
 import com.mojang.blaze3d.systems.RenderSystem;
@@ -18,11 +19,17 @@ import org.slf4j.LoggerFactory;
  *   <li>opacity = 透明度（0~1）</li>
  * </ul>
  * 原图按像素分辨率载入，显示尺寸 = 原图宽高 × scale 乘数。
+ * <p>
+ * 纹理异步加载，层持有 {@link TextureLoader.Handle}（片段结束时 {@link #release}）：未就绪前不画，
+ * 或在 {@link Config#overlayImagePlaceholder} 开启时画半透明占位框。
  */
 public class ImageLayer implements OverlayLayer {
 
     private static final Logger LOGGER = LoggerFactory.getLogger("ImmersiveCinematics/Overlay");
     private static final int DEFAULT_Z_INDEX = 20;
+    /** 占位框：尺寸未知时的默认边长（像素）与颜色 */
+    private static final int PLACEHOLDER_SIZE = 64;
+    private static final int PLACEHOLDER_COLOR = 0x33FFFFFF;
 
     private float opacity = 0f;
     /** 屏幕百分比位置（0~1，元素中心） */
@@ -31,9 +38,7 @@ public class ImageLayer implements OverlayLayer {
     /** 相对原图尺寸的百分比乘数（1 = 原尺寸） */
     private float scaleX = 1f;
     private float scaleY = 1f;
-    private ResourceLocation texture = null;
-    private String fileName = null;
-    private GifAnimation gif = null;
+    private TextureLoader.Handle handle = null;
     private float time = 0f;
     private int zIndex = DEFAULT_Z_INDEX;
     /** 诊断：位置日志节流 */
@@ -41,11 +46,18 @@ public class ImageLayer implements OverlayLayer {
 
     @Override
     public void render(GuiGraphics guiGraphics, int screenWidth, int screenHeight) {
-        if (opacity <= 0.001f || texture == null) return;
+        if (opacity <= 0.001f || handle == null) return;
+
+        ResourceLocation texture = handle.getTexture();
+        if (texture == null) {
+            if (Config.overlayImagePlaceholder) renderPlaceholder(guiGraphics, screenWidth, screenHeight);
+            return;
+        }
 
+        GifAnimation gif = handle.getGif();
         if (gif != null) gif.update(time);
 
-        int[] texSize = TextureLoader.getTextureSize(fileName);
+        int[] texSize = handle.getSize();
         if (texSize == null) return;
         float dispW = texSize[0] * scaleX;
         float dispH = texSize[1] * scaleY;
@@ -82,6 +94,18 @@ public class ImageLayer implements OverlayLayer {
         RenderSystem.disableBlend();
     }
 
+    /** 纹理加载中：在图片将出现的位置画半透明框（尺寸按 64×64 × scale 估计） */
+    private void renderPlaceholder(GuiGraphics guiGraphics, int screenWidth, int screenHeight) {
+        float dispW = PLACEHOLDER_SIZE * scaleX;
+        float dispH = PLACEHOLDER_SIZE * scaleY;
+        if (dispW <= 0f || dispH <= 0f) return;
+        int left = Math.round(x * screenWidth - dispW / 2f);
+        int top = Math.round(y * screenHeight - dispH / 2f);
+        int alpha = Math.round(((PLACEHOLDER_COLOR >>> 24) & 0xFF) * opacity);
+        guiGraphics.fill(left, top, left + Math.round(dispW), top + Math.round(dispH),
+                (alpha << 24) | (PLACEHOLDER_COLOR & 0xFFFFFF));
+    }
+
     @Override
     public boolean isVisible() {
         return opacity > 0.001f;
@@ -95,14 +119,21 @@ public class ImageLayer implements OverlayLayer {
     @Override
     public void reset() {
         opacity = 0f;
-        texture = null;
-        gif = null;
+        release();
+    }
+
+    /** 设置图片文件：取得纹理句柄并发起异步加载（替换时归还旧句柄） */
+    public void setImage(String fileName) {
+        release();
+        this.handle = TextureLoader.acquire(fileName);
     }
 
-    public void setTexture(String fileName, ResourceLocation texture) {
-        this.fileName = fileName;
-        this.texture = texture;
-        this.gif = TextureLoader.getGif(fileName);
+    /** 归还纹理句柄（层移除时调用，可重复调用） */
+    public void release() {
+        if (handle != null) {
+            handle.release();
+            handle = null;
+        }
     }
 
     /** 设置当前全局时间（秒），GIF 层据此计算帧索引 */
@@ -1,12 +1,7 @@
 package com.immersivecinematics.immersive_cinematics.script;
 
-import com.immersivecinematics.immersive_cinematics.util.MathUtil;
 import net.minecraft.world.phys.Vec3;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
 /**
  * 贝塞尔弧长查找表 — 基于德卡斯特里奥自适应细分构建
  * <p>
@@ -21,6 +16,9 @@ import java.util.List;
  * </ol>
  * <p>
  * 查询方法：给定 s，二分查找对应的 t，线性插值精化。
+ * <p>
+ * 存储与构建全部基于原始类型：采样表为 float[]，细分递归直接传 double 分量，
+ * 构建期不产生装箱 Float/Double 与中间 Vec3；查询零分配。
  */
 public class ArcLengthLUT {
 
@@ -30,64 +28,87 @@ public class ArcLengthLUT {
     /** 最大递归深度（最多 2⁸ = 256 个采样点） */
     private static final int DEFAULT_MAX_DEPTH = 8;
 
-    /** 贝塞尔控制点 */
-    private final Vec3 p0, p1, p2, p3;
+    /** 贝塞尔控制点分量 */
+    private final double x0, y0, z0, x1, y1, z1, x2, y2, z2, x3, y3, z3;
 
-    /** 弧长参数 t 值列表（从小到大排序） */
-    private final List<Float> tValues = new ArrayList<>();
+    /** 弧长参数 t 值（从小到大排序） */
+    private final float[] tValues;
 
-    /** 归一化累积弧长列表（与 tValues 一一对应，范围 [0,1]） */
-    private final List<Float> arcLengths = new ArrayList<>();
+    /** 归一化累积弧长（与 tValues 一一对应，范围 [0,1]） */
+    private final float[] arcLengths;
 
     /**
      * 使用默认参数构建弧长 LUT
      */
     public ArcLengthLUT(Vec3 p0, Vec3 p1, Vec3 p2, Vec3 p3) {
-        this(p0, p1, p2, p3, DEFAULT_TOLERANCE, DEFAULT_MAX_DEPTH);
+        this(p0.x, p0.y, p0.z, p1.x, p1.y, p1.z, p2.x, p2.y, p2.z, p3.x, p3.y, p3.z,
+                DEFAULT_TOLERANCE, DEFAULT_MAX_DEPTH);
     }
 
     /**
      * 使用自定义参数构建弧长 LUT
      */
     public ArcLengthLUT(Vec3 p0, Vec3 p1, Vec3 p2, Vec3 p3, float tolerance, int maxDepth) {
-        this.p0 = p0;
-        this.p1 = p1;
-        this.p2 = p2;
-        this.p3 = p3;
-
-        // 第一步：自适应细分收集采样点
-        List<Float> rawT = new ArrayList<>();
-        rawT.add(0f);
-        subdivide(rawT, p0, p1, p2, p3, tolerance, maxDepth, 0f, 1f);
-        rawT.add(1f);
-        Collections.sort(rawT);
-
-        // 第二步：去重
-        List<Float> uniqueT = new ArrayList<>();
-        for (float t : rawT) {
-            if (uniqueT.isEmpty() || Math.abs(t - uniqueT.get(uniqueT.size() - 1)) > 1e-7f) {
-                uniqueT.add(t);
+        this(p0.x, p0.y, p0.z, p1.x, p1.y, p1.z, p2.x, p2.y, p2.z, p3.x, p3.y, p3.z,
+                tolerance, maxDepth);
+    }
+
+    /**
+     * 使用默认参数构建弧长 LUT（分量形式，供缓存按控制点数值构建）
+     */
+    public ArcLengthLUT(double x0, double y0, double z0, double x1, double y1, double z1,
+                        double x2, double y2, double z2, double x3, double y3, double z3) {
+        this(x0, y0, z0, x1, y1, z1, x2, y2, z2, x3, y3, z3, DEFAULT_TOLERANCE, DEFAULT_MAX_DEPTH);
+    }
+
+    private ArcLengthLUT(double x0, double y0, double z0, double x1, double y1, double z1,
+                         double x2, double y2, double z2, double x3, double y3, double z3,
+                         float tolerance, int maxDepth) {
+        this.x0 = x0; this.y0 = y0; this.z0 = z0;
+        this.x1 = x1; this.y1 = y1; this.z1 = z1;
+        this.x2 = x2; this.y2 = y2; this.z2 = z2;
+        this.x3 = x3; this.y3 = y3; this.z3 = z3;
+
+        // 第一步：自适应细分收集采样点（中序遍历，叶子 t 天然递增，无需排序）
+        int depth = Math.max(0, Math.min(maxDepth, 20));
+        float[] rawT = new float[(1 << depth) + 2];
+        int rawCount = 0;
+        rawT[rawCount++] = 0f;
+        rawCount = subdivide(rawT, rawCount, x0, y0, z0, x1, y1, z1, x2, y2, z2, x3, y3, z3,
+                tolerance, depth, 0f, 1f);
+        rawT[rawCount++] = 1f;
+
+        // 第二步：原地去重
+        int count = 0;
+        for (int i = 0; i < rawCount; i++) {
+            float t = rawT[i];
+            if (count == 0 || Math.abs(t - rawT[count - 1]) > 1e-7f) {
+                rawT[count++] = t;
             }
         }
 
-        // 第三步：计算累积弧长并归一化
+        // 第三步：计算累积弧长
+        double[] cumLengths = new double[count];
         double total = 0.0;
-        List<Double> cumLengths = new ArrayList<>();
-        cumLengths.add(0.0);
-
-        Vec3 prev = evaluate(uniqueT.get(0));
-        for (int i = 1; i < uniqueT.size(); i++) {
-            Vec3 curr = evaluate(uniqueT.get(i));
-            total += prev.distanceTo(curr);
-            cumLengths.add(total);
-            prev = curr;
+        double px = evalX(rawT[0]), py = evalY(rawT[0]), pz = evalZ(rawT[0]);
+        for (int i = 1; i < count; i++) {
+            float t = rawT[i];
+            double cx = evalX(t), cy = evalY(t), cz = evalZ(t);
+            double dx = cx - px, dy = cy - py, dz = cz - pz;
+            total += Math.sqrt(dx * dx + dy * dy + dz * dz);
+            cumLengths[i] = total;
+            px = cx;
+            py = cy;
+            pz = cz;
         }
 
-        // 第四步：填充查找表
-        for (int i = 0; i < uniqueT.size(); i++) {
-            tValues.add(uniqueT.get(i));
-            double normalized = (total > 0.0) ? cumLengths.get(i) / total : (double)i / (uniqueT.size() - 1);
-            arcLengths.add((float)normalized);
+        // 第四步：归一化填充查找表
+        this.tValues = new float[count];
+        this.arcLengths = new float[count];
+        for (int i = 0; i < count; i++) {
+            tValues[i] = rawT[i];
+            double normalized = (total > 0.0) ? cumLengths[i] / total : (double) i / (count - 1);
+            arcLengths[i] = (float) normalized;
         }
     }
 
@@ -95,15 +116,16 @@ public class ArcLengthLUT {
      * 给定归一化弧长 s ∈ [0,1]，查找对应的贝塞尔参数 t
      */
     public float lookupT(float s) {
-        if (tValues.isEmpty() || s <= 0f) return 0f;
-        if (s >= 1f) return tValues.get(tValues.size() - 1);
+        int n = tValues.length;
+        if (n == 0 || s <= 0f) return 0f;
+        if (s >= 1f) return tValues[n - 1];
 
         // 二分查找
         int lo = 0;
-        int hi = arcLengths.size() - 1;
+        int hi = n - 1;
         while (lo < hi - 1) {
-            int mid = (lo + hi) / 2;
-            if (arcLengths.get(mid) < s) {
+            int mid = (lo + hi) >>> 1;
+            if (arcLengths[mid] < s) {
                 lo = mid;
             } else {
                 hi = mid;
@@ -111,69 +133,95 @@ public class ArcLengthLUT {
         }
 
         // 线性插值精化
-        float sLo = arcLengths.get(lo);
-        float sHi = arcLengths.get(hi);
+        float sLo = arcLengths[lo];
+        float sHi = arcLengths[hi];
         float range = sHi - sLo;
-        if (range <= 0f) return tValues.get(hi);
+        if (range <= 0f) return tValues[hi];
 
         float frac = (s - sLo) / range;
-        float tLo = tValues.get(lo);
-        float tHi = tValues.get(hi);
+        float tLo = tValues[lo];
+        float tHi = tValues[hi];
         return tLo + (tHi - tLo) * frac;
     }
 
     /** 获取采样点数量 */
     public int size() {
-        return tValues.size();
+        return tValues.length;
+    }
+
+    /** 查找表占用的近似字节数（两张 float 表） */
+    public int byteSize() {
+        return tValues.length * Float.BYTES * 2;
     }
 
     /**
      * 自适应细分 — 收集需要采样的 t 值
      * <p>
      * 使用德卡斯特里奥算法的中间层点判断曲线平坦度。
+     *
+     * @return 写入后的 outT 有效长度
      */
-    private static void subdivide(List<Float> outT,
-                                  Vec3 cp0, Vec3 cp1, Vec3 cp2, Vec3 cp3,
-                                  float tolerance, int maxDepth,
-                                  float tStart, float tEnd) {
+    private static int subdivide(float[] outT, int count,
+                                 double ax, double ay, double az, double bx, double by, double bz,
+                                 double cx, double cy, double cz, double dx, double dy, double dz,
+                                 float tolerance, int maxDepth,
+                                 float tStart, float tEnd) {
         // 德卡斯特里奥算法在 t=0.5 处细分
-        Vec3 q0 = lerp(cp0, cp1, 0.5f);
-        Vec3 q1 = lerp(cp1, cp2, 0.5f);
-        Vec3 q2 = lerp(cp2, cp3, 0.5f);
-        Vec3 r0 = lerp(q0, q1, 0.5f);
-        Vec3 r1 = lerp(q1, q2, 0.5f);
-        Vec3 mid = lerp(r0, r1, 0.5f);
+        // 与原 Vec3 版 lerp(a, b, 0.5f) 同一表达式 a + (b - a) * t，保证细分点逐位一致
+        double q0x = half(ax, bx), q0y = half(ay, by), q0z = half(az, bz);
+        double q1x = half(bx, cx), q1y = half(by, cy), q1z = half(bz, cz);
+        double q2x = half(cx, dx), q2y = half(cy, dy), q2z = half(cz, dz);
+        double r0x = half(q0x, q1x), r0y = half(q0y, q1y), r0z = half(q0z, q1z);
+        double r1x = half(q1x, q2x), r1y = half(q1y, q2y), r1z = half(q1z, q2z);
+        double mx = half(r0x, r1x), my = half(r0y, r1y), mz = half(r0z, r1z);
 
         float tMid = (tStart + tEnd) / 2f;
 
         // 平坦度判断：中间层线段的最大距离
         double flatness = Math.max(
-                q0.distanceTo(q2),
-                r0.distanceTo(r1)
+                dist(q0x, q0y, q0z, q2x, q2y, q2z),
+                dist(r0x, r0y, r0z, r1x, r1y, r1z)
         );
 
         if (flatness < tolerance || maxDepth <= 0) {
-            outT.add(tMid);
-        } else {
-            // 左半段：cp0, q0, r0, mid
-            subdivide(outT, cp0, q0, r0, mid, tolerance, maxDepth - 1, tStart, tMid);
-            // 右半段：mid, r1, q2, cp3
-            subdivide(outT, mid, r1, q2, cp3, tolerance, maxDepth - 1, tMid, tEnd);
+            outT[count++] = tMid;
+            return count;
         }
+        // 左半段：a, q0, r0, mid
+        count = subdivide(outT, count, ax, ay, az, q0x, q0y, q0z, r0x, r0y, r0z, mx, my, mz,
+                tolerance, maxDepth - 1, tStart, tMid);
+        // 右半段：mid, r1, q2, d
+        return subdivide(outT, count, mx, my, mz, r1x, r1y, r1z, q2x, q2y, q2z, dx, dy, dz,
+                tolerance, maxDepth - 1, tMid, tEnd);
     }
 
-    /**
-     * 计算贝塞尔曲线上参数 t 对应的点
-     */
-    private Vec3 evaluate(float t) {
-        return MathUtil.cubicBezier(p0, p1, p2, p3, t);
+    private static double half(double a, double b) {
+        return a + (b - a) * 0.5f;
     }
 
-    private static Vec3 lerp(Vec3 a, Vec3 b, float t) {
-        return new Vec3(
-                a.x + (b.x - a.x) * t,
-                a.y + (b.y - a.y) * t,
-                a.z + (b.z - a.z) * t
-        );
+    private static double dist(double ax, double ay, double az, double bx, double by, double bz) {
+        double dx = ax - bx, dy = ay - by, dz = az - bz;
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    // ── 贝塞尔曲线上参数 t 对应的点（分量形式，与 MathUtil.cubicBezier 同公式） ──
+
+    private double evalX(float t) {
+        return bezier(x0, x1, x2, x3, t);
+    }
+
+    private double evalY(float t) {
+        return bezier(y0, y1, y2, y3, t);
+    }
+
+    private double evalZ(float t) {
+        return bezier(z0, z1, z2, z3, t);
+    }
+
+    private static double bezier(double p0, double p1, double p2, double p3, float t) {
+        float u = 1f - t;
+        float uu = u * u;
+        float tt = t * t;
+        return uu * u * p0 + 3 * uu * t * p1 + 3 * u * tt * p2 + tt * t * p3;
     }
 }
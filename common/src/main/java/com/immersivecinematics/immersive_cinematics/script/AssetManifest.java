@@ -0,0 +1,125 @@
+package com.immersivecinematics.immersive_cinematics.script;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 脚本资源清单 — 一个 {@link CinematicScript} 引用的全部外部资源
+ * <ul>
+ *   <li>音频：AUDIO 片段的 sound + source</li>
+ *   <li>图片：OVERLAY image 片段的 path（PNG/GIF）</li>
+ *   <li>基准：CAMERA 关键帧引用的结构 id / 方块 id（relative_origin、look_at_target_structure）</li>
+ * </ul>
+ * 同一资源只记一次，附带最早使用时间与最晚结束时间（秒），供播放开始时按时间顺序预取、判定开场关键资源、
+ * 跳过起播点之前已用完的资源。
+ * 清单只依赖脚本静态数据，由 {@link CinematicScript#getAssetManifest} 首次使用时生成。
+ */
+public final class AssetManifest {
+
+    /** 音频资源：文件（或 minecraft 资源 id）+ 来源类型；lastUse 为所在片段窗口末端（不含，无限片段为 Float.MAX_VALUE） */
+    public record Sound(String file, String source, float firstUse, float lastUse) {
+        Sound merge(Sound other) {
+            return new Sound(file, source, Math.min(firstUse, other.firstUse), Math.max(lastUse, other.lastUse));
+        }
+    }
+
+    /** 图片资源：resource/ 下的文件名 */
+    public record Image(String file, float firstUse, float lastUse) {
+        Image merge(Image other) {
+            return new Image(file, Math.min(firstUse, other.firstUse), Math.max(lastUse, other.lastUse));
+        }
+    }
+
+    private final List<Sound> sounds;
+    private final List<Image> images;
+    private final Set<String> structures;
+    private final Set<String> blocks;
+
+    private AssetManifest(List<Sound> sounds, List<Image> images, Set<String> structures, Set<String> blocks) {
+        this.sounds = sounds;
+        this.images = images;
+        this.structures = structures;
+        this.blocks = blocks;
+    }
+
+    /** 按最早使用时间排序 */
+    public List<Sound> getSounds() { return sounds; }
+
+    /** 按最早使用时间排序 */
+    public List<Image> getImages() { return images; }
+
+    public Set<String> getStructures() { return structures; }
+
+    public Set<String> getBlocks() { return blocks; }
+
+    public boolean isEmpty() {
+        return sounds.isEmpty() && images.isEmpty() && structures.isEmpty() && blocks.isEmpty();
+    }
+
+    // ===== 构建 =====
+
+    public static AssetManifest of(CinematicScript script) {
+        Map<String, Sound> sounds = new LinkedHashMap<>();
+        Map<String, Image> images = new LinkedHashMap<>();
+        Set<String> structures = new LinkedHashSet<>();
+        Set<String> blocks = new LinkedHashSet<>();
+
+        for (TimelineTrack track : script.getTimeline().getTracks()) {
+            for (Clip clip : track.getClips()) {
+                float start = clip.getStartTime();
+                float end = clip.getWindowEnd();
+                switch (track.getType()) {
+                    case AUDIO -> {
+                        String sound = clip.getSound();
+                        if (sound == null || sound.isEmpty()) break;
+                        String source = clip.getSource();
+                        sounds.merge(source + "|" + sound, new Sound(sound, source, start, end), Sound::merge);
+                    }
+                    case OVERLAY -> {
+                        if (!"image".equals(clip.getString("layer_type", "fade"))) break;
+                        String path = clip.getString("path", "");
+                        if (path.isEmpty()) break;
+                        images.merge(path, new Image(path, start, end), Image::merge);
+                    }
+                    case CAMERA -> collectAnchors(clip, structures, blocks);
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        List<Sound> soundList = new ArrayList<>(sounds.values());
+        soundList.sort((a, b) -> Float.compare(a.firstUse(), b.firstUse()));
+        List<Image> imageList = new ArrayList<>(images.values());
+        imageList.sort((a, b) -> Float.compare(a.firstUse(), b.firstUse()));
+        return new AssetManifest(Collections.unmodifiableList(soundList), Collections.unmodifiableList(imageList),
+                Collections.unmodifiableSet(structures), Collections.unmodifiableSet(blocks));
+    }
+
+    private static void collectAnchors(Clip clip, Set<String> structures, Set<String> blocks) {
+        CompiledKeyframes ck = clip.getCompiled();
+        // 编译期已判定无外部目标引用 → 无基准
+        if (!ck.hasExternalTargets()) return;
+        List<Keyframe> keyframes = clip.getKeyframes();
+        for (int i = 0; i < keyframes.size(); i++) {
+            String sid = keyframes.get(i).getString("look_at_target_structure", "");
+            if (!sid.isEmpty()) structures.add(sid);
+            PositionData pd = i < ck.positions.length ? ck.positions[i] : null;
+            if (pd == null || !pd.isRelative()) continue;
+            String originStructure = pd.getOriginStructure();
+            if (originStructure != null && !originStructure.isEmpty()) structures.add(originStructure);
+            if (pd.isOriginBlock() && pd.getOriginBlockId() != null) blocks.add(pd.getOriginBlockId());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AssetManifest{sounds=%d, images=%d, structures=%d, blocks=%d}",
+                sounds.size(), images.size(), structures.size(), blocks.size());
+    }
+}
@@ -0,0 +1,168 @@
+package com.immersivecinematics.immersive_cinematics.script;
+
+import com.immersivecinematics.immersive_cinematics.Config;
+import com.immersivecinematics.immersive_cinematics.util.ResourcePath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 已解码音频缓存 — 进程级，按 (来源, 文件, 修改时间) 共享 {@link AudioDecoder} 的结果
+ * <p>
+ * 多个片段复用同一段环境音、编辑器 replaceScript 重建、反复回放同一段、波形请求 —— 同一文件只解码一次。
+ * 文件被修改后修改时间变化 → 新 key，旧条目不再被命中，随 LRU 淘汰。
+ * <p>
+ * 引用计数：{@link #acquire} 每次 +1，持有方用完 {@link #release}（实例 cleanup / 丢弃解码中的 future）。
+ * 仍被引用的条目不淘汰；无引用的条目按最近使用顺序保留，总字节数超过
+ * {@link Config#audioCacheBudgetMb} 时从最久未用的开始淘汰。
+ * <p>
+ * 渲染线程 / 解码线程 / 编辑器后台线程都会访问，全部方法在类锁内执行。
+ */
+public final class AudioCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("ImmersiveCinematics/Audio");
+
+    /** key → 条目，访问顺序（最久未用在前） */
+    private static final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    /** 解码结果 → 条目（release 时反查） */
+    private static final Map<AudioDecoder.DecodedAudio, Entry> owners = new IdentityHashMap<>();
+    /** 已完成条目的字节数合计 */
+    private static long totalBytes = 0;
+
+    private AudioCache() {}
+
+    /**
+     * 取得解码结果（引用 +1）：命中则共享已有结果 / 进行中的解码，否则发起后台解码。
+     * future 以异常完成时不持有引用，无需 release。
+     */
+    public static synchronized CompletableFuture<AudioDecoder.DecodedAudio> acquire(String fileName, String sourceType) {
+        String key = keyFor(fileName, sourceType);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry(key, sourceType + "|" + fileName);
+            dropStale(entry.file);
+            entries.put(key, entry);
+            Entry created = entry;
+            created.future = AudioDecoder.decodeAsync(fileName, sourceType);
+            created.future.whenComplete((audio, error) -> onDecoded(created, audio, error));
+        }
+        entry.refs++;
+        return entry.future;
+    }
+
+    /**
+     * 同步取得（引用 +1，用完必须 {@link #release}）；解码失败即抛，此时不持有引用。
+     * 用于编辑器后台线程的波形解码。
+     */
+    public static AudioDecoder.DecodedAudio acquireNow(String fileName, String sourceType) {
+        try {
+            return acquire(fileName, sourceType).join();
+        } catch (java.util.concurrent.CompletionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : new RuntimeException(e.getCause());
+        }
+    }
+
+    /** 归还一次引用（对应一次成功的 acquire） */
+    public static synchronized void release(AudioDecoder.DecodedAudio audio) {
+        if (audio == null) return;
+        Entry entry = owners.get(audio);
+        if (entry == null || entry.refs <= 0) return;
+        entry.refs--;
+        if (entry.refs == 0) evict();
+    }
+
+    /** 丢弃尚未取用的 future：完成后归还其引用 */
+    public static void releaseWhenDone(CompletableFuture<AudioDecoder.DecodedAudio> future) {
+        if (future != null) {
+            future.thenAccept(AudioCache::release);
+        }
+    }
+
+    /** 调试读数：条目数 / 占用 / 上限 */
+    public static synchronized String debugSummary() {
+        return String.format("audio cache: %d entries, %.1f/%d MB", entries.size(),
+                totalBytes / (1024.0 * 1024.0), Config.audioCacheBudgetMb);
+    }
+
+    // ===== 内部 =====
+
+    private static synchronized void onDecoded(Entry entry, AudioDecoder.DecodedAudio audio, Throwable error) {
+        if (error != null) {
+            // 失败不缓存：下次 acquire 重新尝试（文件可能被修复）
+            if (entries.get(entry.key) == entry) entries.remove(entry.key);
+            return;
+        }
+        entry.audio = audio;
+        entry.bytes = audio.sizeBytes();
+        totalBytes += entry.bytes;
+        owners.put(audio, entry);
+        evict();
+    }
+
+    /** 超出预算时从最久未用的无引用条目开始淘汰 */
+    private static void evict() {
+        long budget = Math.max(0, Config.audioCacheBudgetMb) * 1024L * 1024L;
+        if (totalBytes <= budget) return;
+        Iterator<Entry> it = entries.values().iterator();
+        while (totalBytes > budget && it.hasNext()) {
+            Entry e = it.next();
+            if (e.refs == 0 && e.audio != null) {
+                remove(e);
+                it.remove();
+            }
+        }
+        if (totalBytes > budget && LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Audio cache over budget while in use: {}", debugSummary());
+        }
+    }
+
+    /** 同一文件的旧版本（修改时间不同）且无人引用 → 立即移除 */
+    private static void dropStale(String file) {
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry e = it.next();
+            if (e.file.equals(file) && e.refs == 0 && e.audio != null) {
+                remove(e);
+                it.remove();
+            }
+        }
+    }
+
+    private static void remove(Entry e) {
+        totalBytes -= e.bytes;
+        owners.remove(e.audio);
+    }
+
+    private static String keyFor(String fileName, String sourceType) {
+        long mtime = 0;
+        if (!"minecraft".equals(sourceType)) {
+            try {
+                mtime = Files.getLastModifiedTime(ResourcePath.resolve(fileName)).toMillis();
+            } catch (IOException | RuntimeException e) {
+                mtime = -1; // 不存在：交给解码器报错
+            }
+        }
+        return sourceType + "|" + fileName + "|" + mtime;
+    }
+
+    private static final class Entry {
+        final String key;
+        final String file;
+        CompletableFuture<AudioDecoder.DecodedAudio> future;
+        AudioDecoder.DecodedAudio audio;
+        long bytes;
+        int refs;
+
+        Entry(String key, String file) {
+            this.key = key;
+            this.file = file;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.immersivecinematics.immersive_cinematics.script;
+
+import com.immersivecinematics.immersive_cinematics.util.ResourcePath;
+import net.minecraft.client.Minecraft;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.Resource;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.stb.STBVorbis;
+import org.lwjgl.stb.STBVorbisInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 音频解码 — OGG（stb_vorbis，流式）/ WAV（javax.sound）→ 16 位交错 PCM
+ * <p>
+ * OGG 不再整段解码（几分钟的音乐 PCM 可达数十 MB）：这里只读取格式与长度，
+ * 播放时每个实例打开自己的 {@link OggVorbisStream} 按需解码。WAV 本身就是 PCM，仍整段读入。
+ * <p>
+ * 文件 IO 与 WAV 读取不能放在渲染线程：{@link #decodeAsync} 把解码交给后台线程，
+ * 同一文件同时只解码一次（lookahead 预解码与到点开播的请求共享同一个 future）。
+ * 渲染线程只在 future 完成后拿现成的 PCM 创建 {@link CinematicAudioInstance}。
+ * <p>
+ * 解码失败抛 RuntimeException（同步）/ 以异常完成 future（异步），由调用方记录。
+ * 播放 / 波形请走 {@link AudioCache}（同一文件只解码一次），这里只负责解码本身。
+ */
+public final class AudioDecoder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("ImmersiveCinematics/Audio");
+
+    private static final AtomicInteger THREAD_ID = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "ImmersiveCinematics-AudioDecode-" + THREAD_ID.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** 解码中的任务（source|fileName → future），完成即移除 */
+    private static final Map<String, CompletableFuture<DecodedAudio>> inFlight = new ConcurrentHashMap<>();
+
+    private AudioDecoder() {}
+
+    /**
+     * 后台解码；同一文件已在解码中则返回同一个 future。
+     */
+    public static CompletableFuture<DecodedAudio> decodeAsync(String fileName, String sourceType) {
+        String key = sourceType + "|" + fileName;
+        CompletableFuture<DecodedAudio> existing = inFlight.get(key);
+        if (existing != null) return existing;
+
+        CompletableFuture<DecodedAudio> future = new CompletableFuture<>();
+        existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) return existing;
+
+        EXECUTOR.execute(() -> {
+            try {
+                long start = System.nanoTime();
+                DecodedAudio audio = decode(fileName, sourceType);
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("audio decode: file={} streaming={} frames={} ch={} sr={} dur={} took={}ms",
+                            fileName, audio.isStreaming(), audio.frames, audio.channels, audio.sampleRate, audio.duration,
+                            (System.nanoTime() - start) / 1_000_000);
+                }
+                future.complete(audio);
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                inFlight.remove(key, future);
+            }
+        });
+        return future;
+    }
+
+    /** 同步解码（失败即抛） */
+    public static DecodedAudio decode(String fileName, String sourceType) {
+        if (!fileName.chars().allMatch(c -> c < 128)) {
+            LOGGER.warn("音频文件名包含非 ASCII 字符: {} — Windows 下可能无法解码，建议使用英文命名", fileName);
+        }
+        if ("minecraft".equals(sourceType)) {
+            return decodeOggFromMinecraft(fileName);
+        }
+        Path filePath = ResourcePath.resolve(fileName);
+        if (!Files.exists(filePath)) {
+            throw new RuntimeException("音频文件不存在: " + filePath);
+        }
+        String lower = fileName.toLowerCase();
+        if (lower.endsWith(".ogg")) {
+            return decodeOggFromFile(filePath);
+        }
+        if (lower.endsWith(".wav")) {
+            return decodeWav(filePath);
+        }
+        throw new RuntimeException("不支持的音频格式: " + fileName + "（支持 .ogg/.wav）");
+    }
+
+    /** OGG 不整段解码：只读头部 + 总长度，播放时由 {@link OggVorbisStream} 按需解码 */
+    private static DecodedAudio decodeOggFromFile(Path oggPath) {
+        IntBuffer error = BufferUtils.createIntBuffer(1);
+        long handle = STBVorbis.stb_vorbis_open_filename(oggPath.toString(), error, null);
+        if (handle == 0) {
+            throw new RuntimeException("OGG 解码失败 (stb_vorbis error " + error.get(0) + "): " + oggPath);
+        }
+        return probeOgg(handle, oggPath, null);
+    }
+
+    /** 原版资源：压缩数据留在内存（体积为 PCM 的 1/10 左右），同样按需解码 */
+    private static DecodedAudio decodeOggFromMinecraft(String fileName) {
+        ResourceLocation loc = new ResourceLocation(fileName);
+        Resource resource = Minecraft.getInstance().getResourceManager().getResource(loc).orElse(null);
+        if (resource == null) {
+            throw new RuntimeException("Minecraft 音频资源不存在: " + fileName);
+        }
+        try (InputStream is = resource.open()) {
+            byte[] bytes = readAllBytes(is);
+            ByteBuffer buf = BufferUtils.createByteBuffer(bytes.length);
+            buf.put(bytes).flip();
+
+            IntBuffer error = BufferUtils.createIntBuffer(1);
+            long handle = STBVorbis.stb_vorbis_open_memory(buf, error, null);
+            if (handle == 0) {
+                throw new RuntimeException("内存 OGG 解码失败 (stb_vorbis error " + error.get(0) + "): " + fileName);
+            }
+            return probeOgg(handle, null, buf);
+        } catch (IOException e) {
+            throw new RuntimeException("读取 Minecraft 音频资源失败: " + fileName, e);
+        }
+    }
+
+    private static DecodedAudio probeOgg(long handle, Path file, ByteBuffer memory) {
+        try (STBVorbisInfo info = STBVorbisInfo.malloc()) {
+            STBVorbis.stb_vorbis_get_info(handle, info);
+            int ch = info.channels();
+            int sr = info.sample_rate();
+            // stream_length_in_samples 返回每声道样本数（= 帧数）
+            int frames = STBVorbis.stb_vorbis_stream_length_in_samples(handle);
+            return new DecodedAudio(file, memory, frames, ch, sr);
+        } finally {
+            STBVorbis.stb_vorbis_close(handle);
+        }
+    }
+
+    private static DecodedAudio decodeWav(Path wavPath) {
+        try {
+            AudioInputStream ais = AudioSystem.getAudioInputStream(wavPath.toFile());
+            AudioFormat fmt = ais.getFormat();
+            int ch = fmt.getChannels();
+            int sr = (int) fmt.getSampleRate();
+            int bits = fmt.getSampleSizeInBits();
+
+            byte[] allBytes = readAllBytes(ais);
+            ais.close();
+
+            ByteBuffer buffer;
+            if (bits == 16) {
+                buffer = BufferUtils.createByteBuffer(allBytes.length);
+                buffer.put(allBytes);
+                buffer.flip();
+            } else if (bits == 8) {
+                buffer = BufferUtils.createByteBuffer(allBytes.length * 2);
+                ShortBuffer sb = buffer.asShortBuffer();
+                for (byte b : allBytes) {
+                    sb.put((short) ((b & 0xFF) - 128 << 8));
+                }
+            } else {
+                throw new RuntimeException("不支持的 WAV 位深: " + bits);
+            }
+            float dur = (float) buffer.limit() / 2f / (float) sr / (float) ch;
+            return new DecodedAudio(buffer, ch, sr, dur);
+        } catch (Exception e) {
+            throw new RuntimeException("WAV 解码失败: " + wavPath, e);
+        }
+    }
+
+    private static byte[] readAllBytes(InputStream is) throws IOException {
+        byte[] buf = new byte[8192];
+        int total = 0, n;
+        while ((n = is.read(buf, total, buf.length - total)) > 0) {
+            total += n;
+            if (total == buf.length) {
+                byte[] bigger = new byte[buf.length * 2];
+                System.arraycopy(buf, 0, bigger, 0, buf.length);
+                buf = bigger;
+            }
+        }
+        byte[] result = new byte[total];
+        System.arraycopy(buf, 0, result, 0, total);
+        return result;
+    }
+
+    /**
+     * 解码结果，两种形态：
+     * <ul>
+     *   <li>PCM（WAV）：16 位有符号小端交错 PCM，缓冲区只读共享，播放方用 {@link #view()} 取独立游标</li>
+     *   <li>流式（OGG）：只有格式与长度，播放方用 {@link #openStream} 打开独立的按需解码流</li>
+     * </ul>
+     */
+    public static final class DecodedAudio {
+        final ByteBuffer pcm;
+        final Path oggFile;
+        final ByteBuffer oggMemory;
+        final int frames;
+        final int channels;
+        final int sampleRate;
+        final float duration;
+
+        DecodedAudio(ByteBuffer pcm, int channels, int sampleRate, float duration) {
+            this.pcm = pcm;
+            this.oggFile = null;
+            this.oggMemory = null;
+            this.frames = pcm.limit() / 2 / channels;
+            this.channels = channels;
+            this.sampleRate = sampleRate;
+            this.duration = duration;
+        }
+
+        DecodedAudio(Path oggFile, ByteBuffer oggMemory, int frames, int channels, int sampleRate) {
+            this.pcm = null;
+            this.oggFile = oggFile;
+            this.oggMemory = oggMemory;
+            this.frames = frames;
+            this.channels = channels;
+            this.sampleRate = sampleRate;
+            this.duration = (float) frames / (float) sampleRate;
+        }
+
+        public boolean isStreaming() {
+            return pcm == null;
+        }
+
+        /**
+         * 打开流式解码（仅 {@link #isStreaming()}）；每次播放各自一个流，用完须 close。
+         *
+         * @param offsetSeconds 起始位置（秒）
+         */
+        public OggVorbisStream openStream(float offsetSeconds, boolean loop) {
+            int startFrame = Math.max(0, Math.min(frames, (int) (offsetSeconds * sampleRate)));
+            return new OggVorbisStream(oggFile, oggMemory, channels, sampleRate, startFrame, loop);
+        }
+
+        /** 共享数据、独立 position/limit 的视图（从头开始；仅 PCM 形态） */
+        public ByteBuffer view() {
+            // duplicate() 的字节序固定为 BIG_ENDIAN，需沿用原缓冲区（native）字节序
+            ByteBuffer v = pcm.duplicate().order(pcm.order());
+            v.rewind();
+            return v;
+        }
+
+        /** 占用的堆外内存（PCM / 内存中的 OGG 压缩数据），供 {@link AudioCache} 计入预算 */
+        public long sizeBytes() {
+            if (pcm != null) return pcm.capacity();
+            return oggMemory != null ? oggMemory.capacity() : 0;
+        }
+
+        public int getFrames() { return frames; }
+        public int getChannels() { return channels; }
+        public int getSampleRate() { return sampleRate; }
+        public float getDuration() { return duration; }
+    }
+}
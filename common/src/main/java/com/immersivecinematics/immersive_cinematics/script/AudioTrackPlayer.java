@@ -1,5 +1,6 @@
 package com.immersivecinematics.immersive_cinematics.script;
 
+import com.immersivecinematics.immersive_cinematics.Config;
 import net.minecraft.client.Minecraft;
 import net.minecraft.sounds.SoundSource;
 import net.minecraft.world.phys.Vec3;
@@ -7,12 +8,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * AUDIO 轨道播放器 — 回归原版 SoundEngine（0.3.5 第4轮）。
  * <p>
  * 不再直接操作 OpenAL：实例为 {@link CinematicAudioInstance}（AbstractTickableSoundInstance），
  * 由 SoundEngine 统一管理空间/衰减/分类音量/暂停。每个 Clip 对应一个实例，clip 激活时创建并 play。
+ * <p>
+ * 解码不在渲染线程：片段开始前 {@link Config#audioLookaheadSeconds} 秒起经 {@link AudioCache} 后台解码（已缓存则直接命中），
+ * 到点时 PCM 已就绪直接开播；若解码仍未完成则等就绪后按虚拟时钟 {@code syncToTime} 对齐到片段内当前位置。
  */
 public class AudioTrackPlayer implements TrackPlayer {
 
@@ -30,6 +36,14 @@ public class AudioTrackPlayer implements TrackPlayer {
 
     private final Set<Clip> previouslyActive = new HashSet<>();
 
+    /** 已发起后台解码、尚未创建实例的片段 */
+    private final Map<Clip, CompletableFuture<AudioDecoder.DecodedAudio>> decoding = new HashMap<>();
+    /** 无法播放的片段（无 sound / 淡入淡出超长 / 解码失败）：本次播放不再重试，避免每帧刷日志 */
+    private final Set<Clip> decodeFailed = new HashSet<>();
+
+    /** 晚于片段起点超过此值（秒）才需要 seek 对齐 */
+    private static final float SYNC_EPSILON = 0.05f;
+
     private List<Clip> clips() {
         return scriptPlayer.clipsForTrack(trackIndex);
     }
@@ -51,6 +65,9 @@ public class AudioTrackPlayer implements TrackPlayer {
         // 精准压制 vanilla 背景音乐（只停 MusicManager 曲目，不影响我们自己的 SoundEngine 实例）
         Minecraft.getInstance().getMusicManager().stopPlaying();
 
+        // 预解码即将开始的片段（暂停 / 编辑器拖动时照常进行，不发声）
+        prefetch(globalTime);
+
         // 组 1：暂停时不创建实例、不更新、不启动任何声音
         if (paused) return;
         Clip activeClip = findActiveClip(globalTime);
@@ -89,7 +106,7 @@ public class AudioTrackPlayer implements TrackPlayer {
         }
 
         if (!instances.containsKey(activeClip)) {
-            startClipInstance(activeClip);
+            startClipInstance(activeClip, globalTime);
         }
 
         int clipIdx = clips.indexOf(activeClip);
@@ -105,6 +122,8 @@ public class AudioTrackPlayer implements TrackPlayer {
         }
         instances.clear();
         previouslyActive.clear();
+        releaseDecoding();
+        decodeFailed.clear();
         lastClipIndex = -1;
     }
 
@@ -132,6 +151,8 @@ public class AudioTrackPlayer implements TrackPlayer {
         }
         instances.clear();
         instances.putAll(remapped);
+        releaseDecoding();
+        decodeFailed.clear();
         lastClipIndex = -1;
         previouslyActive.clear();
     }
@@ -152,10 +173,64 @@ public class AudioTrackPlayer implements TrackPlayer {
         paused = false;
     }
 
-    private void startClipInstance(Clip clip) {
+    /**
+     * lookahead：对 [globalTime, globalTime + lookahead] 内开始（或正在进行）的片段发起后台解码；
+     * 丢弃已离开窗口的片段的解码结果引用。
+     */
+    private void prefetch(float globalTime) {
+        float horizon = globalTime + Math.max(0f, Config.audioLookaheadSeconds);
+        for (Clip clip : clips()) {
+            if (isWanted(clip, globalTime, horizon) && !instances.containsKey(clip)) {
+                requestDecode(clip);
+            }
+        }
+        if (!decoding.isEmpty()) {
+            Iterator<Map.Entry<Clip, CompletableFuture<AudioDecoder.DecodedAudio>>> it = decoding.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Clip, CompletableFuture<AudioDecoder.DecodedAudio>> e = it.next();
+                if (!isWanted(e.getKey(), globalTime, horizon)) {
+                    AudioCache.releaseWhenDone(e.getValue());
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    /** 丢弃所有尚未创建实例的解码请求（归还缓存引用；结果仍留在缓存中供下次命中） */
+    private void releaseDecoding() {
+        for (CompletableFuture<AudioDecoder.DecodedAudio> future : decoding.values()) {
+            AudioCache.releaseWhenDone(future);
+        }
+        decoding.clear();
+    }
+
+    private static boolean isWanted(Clip clip, float globalTime, float horizon) {
+        boolean notEnded = clip.getDuration() < 0f || clip.getStartTime() + clip.getDuration() > globalTime;
+        return notEnded && clip.getStartTime() <= horizon;
+    }
+
+    /** 发起（或取回已发起的）后台解码；无 sound / 已失败 → null */
+    private CompletableFuture<AudioDecoder.DecodedAudio> requestDecode(Clip clip) {
+        if (decodeFailed.contains(clip)) return null;
+        CompletableFuture<AudioDecoder.DecodedAudio> future = decoding.get(clip);
+        if (future == null) {
+            String sound = clip.getSound();
+            if (sound == null || sound.isEmpty()) return null;
+            future = AudioCache.acquire(sound, clip.getSource());
+            decoding.put(clip, future);
+        }
+        return future;
+    }
+
+    /**
+     * 片段激活：PCM 就绪则创建实例并按虚拟时钟对齐开播；未就绪则本帧跳过（下一帧再试）。
+     */
+    private void startClipInstance(Clip clip, float globalTime) {
         String sound = clip.getSound();
         if (sound == null || sound.isEmpty()) {
-            LOGGER.warn("AUDIO clip at time {} has no sound field, skipping", clip.getStartTime());
+            if (decodeFailed.add(clip)) {
+                LOGGER.warn("AUDIO clip at time {} has no sound field, skipping", clip.getStartTime());
+            }
             return;
         }
 
@@ -163,17 +238,32 @@ public class AudioTrackPlayer implements TrackPlayer {
         float fadeIn = clip.getFadeIn();
         float fadeOut = clip.getFadeOut();
         if (dur > 0f && fadeIn + fadeOut > dur) {
-            LOGGER.warn("AUDIO clip '{}' fade_in+fade_out ({}+{}) exceeds duration ({}), skipping",
-                    sound, fadeIn, fadeOut, dur);
+            if (decodeFailed.add(clip)) {
+                LOGGER.warn("AUDIO clip '{}' fade_in+fade_out ({}+{}) exceeds duration ({}), skipping",
+                        sound, fadeIn, fadeOut, dur);
+            }
+            return;
+        }
+
+        CompletableFuture<AudioDecoder.DecodedAudio> future = requestDecode(clip);
+        if (future == null || !future.isDone()) return;
+        decoding.remove(clip);
+        AudioDecoder.DecodedAudio audio;
+        try {
+            audio = future.join();
+        } catch (CompletionException e) {
+            decodeFailed.add(clip);
+            LOGGER.error("Failed to decode audio: {}", sound, e.getCause());
             return;
         }
 
         SoundSource category = parseCategory(clip.getString("category", "music"));
         CinematicAudioInstance inst = new CinematicAudioInstance(
-                sound, clip.getSource(), clip.isLoop(), clip.getAudioPitch(), category);
+                sound, clip.getSource(), audio, clip.isLoop(), clip.getAudioPitch(), category);
 
         if (!inst.isValid()) {
             LOGGER.error("Failed to create audio instance for: {}", sound);
+            AudioCache.release(audio);
             return;
         }
 
@@ -196,7 +286,15 @@ public class AudioTrackPlayer implements TrackPlayer {
             inst.setPosition(resolveAudioPosition(clip, offset));
         }
 
-        inst.play();
+        float local = clipTime(clip, globalTime);
+        if (local > SYNC_EPSILON) {
+            // 解码晚于片段起点完成：从虚拟时钟对应位置开播，保持与画面同步
+            float vol = interpolateFloat(clip, local, "volume", clip.getVolume());
+            if (fadeIn > 0f && local < fadeIn) vol *= local / fadeIn;
+            inst.syncToTime(local, vol, fadeIn);
+        } else {
+            inst.play();
+        }
         instances.put(clip, inst);
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("audio start: sound={} category={} instances={} paused={}", sound, category, instances.size(), paused);
@@ -343,18 +441,15 @@ public class AudioTrackPlayer implements TrackPlayer {
             }
         }
         if (activeClip != null && !instances.containsKey(activeClip)) {
-            startClipInstance(activeClip);
+            // 未解码完成时不创建实例，就绪后由 onRenderFrame 按当时的虚拟时钟对齐开播
+            startClipInstance(activeClip, globalTime);
             CinematicAudioInstance inst = instances.get(activeClip);
-            if (inst != null) {
+            if (inst != null && paused) {
+                // startClipInstance 已按 globalTime 对齐开播；暂停中只保留定位
                 float local = clipTime(activeClip, globalTime);
-                float vol = interpolateFloat(activeClip, local, "volume", activeClip.getVolume());
-                if (paused) {
-                    inst.pause();
-                    inst.seekTo(local);
-                    inst.setVolume(vol);
-                } else {
-                    inst.syncToTime(local, vol, activeClip.getFadeIn());
-                }
+                inst.pause();
+                inst.seekTo(local);
+                inst.setVolume(interpolateFloat(activeClip, local, "volume", activeClip.getVolume()));
             }
         }
         previouslyActive.clear();
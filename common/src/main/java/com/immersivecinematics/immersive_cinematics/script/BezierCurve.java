@@ -1,5 +1,6 @@
 package com.immersivecinematics.immersive_cinematics.script;
 
+import com.immersivecinematics.immersive_cinematics.util.MathUtil.MutableVec3;
 import net.minecraft.world.phys.Vec3;
 
 import java.util.List;
@@ -66,6 +67,16 @@ public class BezierCurve {
         return controlPoints.get(1).resolve(segmentStart);
     }
 
+    /** {@link #resolveP1(Vec3)} 的零分配形式：结果写入 out */
+    public MutableVec3 resolveP1(MutableVec3 segmentStart, MutableVec3 out) {
+        return controlPoints.get(0).resolve(segmentStart, out);
+    }
+
+    /** {@link #resolveP2(Vec3)} 的零分配形式：结果写入 out */
+    public MutableVec3 resolveP2(MutableVec3 segmentStart, MutableVec3 out) {
+        return controlPoints.get(1).resolve(segmentStart, out);
+    }
+
     /** 获取所有控制点（不可变视图） */
     public List<ControlPoint> getControlPoints() {
         return controlPoints;
@@ -133,6 +144,13 @@ public class BezierCurve {
             return relative ? segmentStart.add(x, y, z) : new Vec3(x, y, z);
         }
 
+        /** 求值世界坐标写入 out（out 可与 segmentStart 为同一对象） */
+        public MutableVec3 resolve(MutableVec3 segmentStart, MutableVec3 out) {
+            return relative
+                    ? out.set(segmentStart.x + x, segmentStart.y + y, segmentStart.z + z)
+                    : out.set(x, y, z);
+        }
+
         @Override
         public String toString() {
             return String.format("ControlPoint{%s, %s, %s, %s}", relative ? "relative" : "absolute", x, y, z);
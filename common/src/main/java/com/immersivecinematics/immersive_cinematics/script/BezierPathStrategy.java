@@ -1,11 +1,11 @@
 package com.immersivecinematics.immersive_cinematics.script;
 
 import com.immersivecinematics.immersive_cinematics.util.MathUtil;
+import com.immersivecinematics.immersive_cinematics.util.MathUtil.MutableVec3;
 import net.minecraft.world.phys.Vec3;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Objects;
 
 /**
  * 贝塞尔路径策略 — 弧长参数化的三次贝塞尔曲线插值
@@ -13,11 +13,37 @@ import java.util.Objects;
  * 在速度驱动模型下，输入的 t 是弧长进度 s ∈ [0,1]。
  * 使用 ArcLengthLUT 将 s 映射为贝塞尔参数 t_bezier，确保匀速运动。
  * <p>
- * 缓存 ArcLengthLUT 避免每帧重建。
+ * LUT 缓存：
+ * <ul>
+ *   <li>进程内共享、容量有界的 LRU 缓存（{@link #MAX_CACHED_LUTS}），按控制点数值为键——
+ *       编辑器拖动控制点时中间位置的 LUT 会被逐出，不再随 TrackPlayer 生命周期无限累积</li>
+ *   <li>每个策略实例额外记住上一次命中的段（控制点数值逐项比较），
+ *       同一段连续帧直接复用，不构造查询键、不进 Map</li>
+ * </ul>
+ * <p>
+ * {@link MutableVec3} 重载的控制点求值写入实例内临时向量，渲染帧稳态零分配（实例不跨线程共享）。
  */
 public class BezierPathStrategy implements PathStrategy {
 
-    private final Map<LutKey, ArcLengthLUT> lutCache = new HashMap<>();
+    /** 共享 LUT 缓存容量（每条 LUT 约 2KB 以内） */
+    private static final int MAX_CACHED_LUTS = 256;
+
+    /** 共享 LRU 缓存（accessOrder=true：get 即刷新最近使用；渲染线程与编辑器预览共用，加锁访问） */
+    private static final Map<LutKey, ArcLengthLUT> SHARED_CACHE =
+            new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<LutKey, ArcLengthLUT> eldest) {
+                    return size() > MAX_CACHED_LUTS;
+                }
+            };
+
+    /** 上一次命中的段（控制点数值 + LUT） */
+    private final double[] lastPoints = new double[12];
+    private ArcLengthLUT lastLut;
+
+    /** 零分配重载的控制点临时向量 */
+    private final MutableVec3 scratchP1 = new MutableVec3();
+    private final MutableVec3 scratchP2 = new MutableVec3();
 
     @Override
     public Vec3 interpolate(Vec3 from, Vec3 to, float s, BezierCurve curve) {
@@ -26,10 +52,7 @@ public class BezierPathStrategy implements PathStrategy {
             Vec3 p1 = curve.resolveP1(from);
             Vec3 p2 = curve.resolveP2(from);
 
-            ArcLengthLUT lut = lutCache.computeIfAbsent(
-                    new LutKey(from, p1, p2, to),
-                    k -> new ArcLengthLUT(from, p1, p2, to)
-            );
+            ArcLengthLUT lut = lutFor(from, p1, p2, to);
 
             float tBezier = lut.lookupT(s);
             return MathUtil.cubicBezier(from, p1, p2, to, tBezier);
@@ -44,10 +67,7 @@ public class BezierPathStrategy implements PathStrategy {
             Vec3 p1 = curve.resolveP1(from);
             Vec3 p2 = curve.resolveP2(from);
 
-            ArcLengthLUT lut = lutCache.computeIfAbsent(
-                    new LutKey(from, p1, p2, to),
-                    k -> new ArcLengthLUT(from, p1, p2, to)
-            );
+            ArcLengthLUT lut = lutFor(from, p1, p2, to);
 
             // B'(u) = 3(1-u)^2(P1-P0) + 6(1-u)u(P2-P1) + 3u^2(P3-P2)
             float u = lut.lookupT(s);
@@ -61,12 +81,97 @@ public class BezierPathStrategy implements PathStrategy {
         return to.subtract(from);
     }
 
-    private record LutKey(Vec3 from, Vec3 p1, Vec3 p2, Vec3 to) {
-        private LutKey {
-            Objects.requireNonNull(from);
-            Objects.requireNonNull(p1);
-            Objects.requireNonNull(p2);
-            Objects.requireNonNull(to);
+    @Override
+    public MutableVec3 interpolate(MutableVec3 from, MutableVec3 to, float s, BezierCurve curve, MutableVec3 out) {
+        if (curve != null && curve.isValid()) {
+            MutableVec3 p1 = curve.resolveP1(from, scratchP1);
+            MutableVec3 p2 = curve.resolveP2(from, scratchP2);
+
+            ArcLengthLUT lut = lutFor(from.x, from.y, from.z, p1.x, p1.y, p1.z,
+                    p2.x, p2.y, p2.z, to.x, to.y, to.z);
+
+            return MathUtil.cubicBezier(from, p1, p2, to, lut.lookupT(s), out);
+        }
+        return out.lerp(from, to, s);
+    }
+
+    @Override
+    public MutableVec3 tangent(MutableVec3 from, MutableVec3 to, float s, BezierCurve curve, MutableVec3 out) {
+        if (curve != null && curve.isValid()) {
+            MutableVec3 p1 = curve.resolveP1(from, scratchP1);
+            MutableVec3 p2 = curve.resolveP2(from, scratchP2);
+
+            ArcLengthLUT lut = lutFor(from.x, from.y, from.z, p1.x, p1.y, p1.z,
+                    p2.x, p2.y, p2.z, to.x, to.y, to.z);
+
+            float u = lut.lookupT(s);
+            double a = 3.0 * (1.0 - u) * (1.0 - u);
+            double b = 6.0 * (1.0 - u) * u;
+            double c = 3.0 * u * u;
+            return out.set(
+                    (p1.x - from.x) * a + (p2.x - p1.x) * b + (to.x - p2.x) * c,
+                    (p1.y - from.y) * a + (p2.y - p1.y) * b + (to.y - p2.y) * c,
+                    (p1.z - from.z) * a + (p2.z - p1.z) * b + (to.z - p2.z) * c);
+        }
+        return out.sub(to, from);
+    }
+
+    /**
+     * 按控制点数值取 LUT：先比对本实例上一次命中的段，未命中再查共享 LRU 缓存，仍未命中则构建。
+     */
+    protected ArcLengthLUT lutFor(Vec3 p0, Vec3 p1, Vec3 p2, Vec3 p3) {
+        return lutFor(p0.x, p0.y, p0.z, p1.x, p1.y, p1.z, p2.x, p2.y, p2.z, p3.x, p3.y, p3.z);
+    }
+
+    /** {@link #lutFor(Vec3, Vec3, Vec3, Vec3)} 的分量形式 */
+    protected ArcLengthLUT lutFor(double x0, double y0, double z0, double x1, double y1, double z1,
+                                  double x2, double y2, double z2, double x3, double y3, double z3) {
+        double[] lp = lastPoints;
+        if (lastLut != null
+                && lp[0] == x0 && lp[1] == y0 && lp[2] == z0
+                && lp[3] == x1 && lp[4] == y1 && lp[5] == z1
+                && lp[6] == x2 && lp[7] == y2 && lp[8] == z2
+                && lp[9] == x3 && lp[10] == y3 && lp[11] == z3) {
+            return lastLut;
+        }
+
+        LutKey key = new LutKey(x0, y0, z0, x1, y1, z1, x2, y2, z2, x3, y3, z3);
+        ArcLengthLUT lut;
+        synchronized (SHARED_CACHE) {
+            lut = SHARED_CACHE.get(key);
+        }
+        if (lut == null) {
+            // 锁外构建（纯计算，并发重复构建只浪费一次计算，不影响正确性）
+            lut = new ArcLengthLUT(x0, y0, z0, x1, y1, z1, x2, y2, z2, x3, y3, z3);
+            synchronized (SHARED_CACHE) {
+                SHARED_CACHE.put(key, lut);
+            }
+        }
+
+        lp[0] = x0; lp[1] = y0; lp[2] = z0;
+        lp[3] = x1; lp[4] = y1; lp[5] = z1;
+        lp[6] = x2; lp[7] = y2; lp[8] = z2;
+        lp[9] = x3; lp[10] = y3; lp[11] = z3;
+        lastLut = lut;
+        return lut;
+    }
+
+    /** 清空共享 LUT 缓存（资源重载 / 调试用） */
+    public static void clearSharedCache() {
+        synchronized (SHARED_CACHE) {
+            SHARED_CACHE.clear();
         }
     }
+
+    /** 共享 LUT 缓存当前条目数（调试用） */
+    public static int sharedCacheSize() {
+        synchronized (SHARED_CACHE) {
+            return SHARED_CACHE.size();
+        }
+    }
+
+    /** 缓存键：四个控制点的数值分量（record 按分量值比较 equals/hashCode） */
+    private record LutKey(double x0, double y0, double z0, double x1, double y1, double z1,
+                          double x2, double y2, double z2, double x3, double y3, double z3) {
+    }
 }
@@ -39,6 +39,10 @@ public final class BreathDisturbance {
     public float trauma = 1.0f;
     public float decay = 0.5f;
 
+    /** 已解析的噪声实例（seed 在 fromClip 后不再变化；直接改 seed 字段的调用方需新建实例） */
+    private PerlinNoise smoothNoise;
+    private PerlinNoise[] axisNoise;
+
     public BreathDisturbance() {}
 
     /** 从 clip 的 cam_breath_* 字段构造（缺省字段 → 设计默认值，旧脚本按 perlin 处理） */
@@ -59,69 +63,84 @@ public final class BreathDisturbance {
      * @param globalTime 脚本全局时间（秒）
      */
     public float[] compute(float globalTime) {
-        return switch (type) {
-            case TYPE_PERLIN -> perlin(globalTime);
-            case TYPE_PERLIN_AXIS -> perlinAxis(globalTime);
-            case TYPE_SINE -> sine(globalTime);
-            case TYPE_TRAUMA -> trauma(globalTime);
+        float[] out = new float[3];
+        compute(globalTime, out);
+        return out;
+    }
+
+    /**
+     * 计算 [yaw, pitch, roll] 抖动（度）写入 out（渲染帧热路径：零分配）。
+     *
+     * @param globalTime 脚本全局时间（秒）
+     * @param out        输出（长度 ≥ 3）
+     */
+    public void compute(float globalTime, float[] out) {
+        switch (type) {
+            case TYPE_PERLIN_AXIS -> perlinAxis(globalTime, out);
+            case TYPE_SINE -> sine(globalTime, out);
+            case TYPE_TRAUMA -> trauma(globalTime, out);
             // 未知类型回落到平滑 Perlin（不抛错，作者脚本容错）
-            default -> perlin(globalTime);
-        };
+            default -> perlin(globalTime, out);
+        }
     }
 
     /**
      * 类型 1：perlin（推荐/默认）— 单 Perlin 实例三通道不同 x 偏移，平滑手持感。
      */
-    private float[] perlin(double globalTime) {
+    private void perlin(double globalTime, float[] out) {
         double t = globalTime * speed;
-        PerlinNoise noise = cached(-2, seed, 1.0, 0.5);
-        return new float[]{
-                (float) (intensity * noise.getValue(1.0, t, 0.0)),
-                (float) (intensity * noise.getValue(73.0, t, 0.0)),
-                (float) (intensity * noise.getValue(146.0, t, 0.0))
-        };
+        PerlinNoise noise = smoothNoise();
+        out[0] = (float) (intensity * noise.getValue(1.0, t, 0.0));
+        out[1] = (float) (intensity * noise.getValue(73.0, t, 0.0));
+        out[2] = (float) (intensity * noise.getValue(146.0, t, 0.0));
     }
 
     /**
      * 类型 2：perlin_axis — 每轴独立 Perlin 实例，轴间更独立、更“随机”。
      */
-    private float[] perlinAxis(double globalTime) {
+    private void perlinAxis(double globalTime, float[] out) {
         double t = globalTime * speed;
-        PerlinNoise yawNoise = cached(-7, seed, 1.0, 1.0, 1.0);
-        PerlinNoise pitchNoise = cached(-7, seed + 1, 1.0, 1.0, 1.0);
-        PerlinNoise rollNoise = cached(-7, seed + 2, 1.0, 1.0, 1.0);
-        return new float[]{
-                (float) (intensity * yawNoise.getValue(t, 0, 0)),
-                (float) (intensity * pitchNoise.getValue(t, 0, 0)),
-                (float) (intensity * rollNoise.getValue(t, 0, 0))
-        };
+        if (axisNoise == null) {
+            axisNoise = new PerlinNoise[]{
+                    cached(-7, seed, 1.0, 1.0, 1.0),
+                    cached(-7, seed + 1, 1.0, 1.0, 1.0),
+                    cached(-7, seed + 2, 1.0, 1.0, 1.0)
+            };
+        }
+        out[0] = (float) (intensity * axisNoise[0].getValue(t, 0, 0));
+        out[1] = (float) (intensity * axisNoise[1].getValue(t, 0, 0));
+        out[2] = (float) (intensity * axisNoise[2].getValue(t, 0, 0));
     }
 
     /**
      * 类型 3：sine — 确定性低频正弦组合，规律“呼吸感”。
      */
-    private float[] sine(double globalTime) {
+    private void sine(double globalTime, float[] out) {
         double t = globalTime * speed;
-        return new float[]{
-                (float) (intensity * Math.sin(t * 1.0 + seed * 0.1)),
-                (float) (intensity * Math.sin(t * 0.8 + seed * 0.2 + 1.7)),
-                (float) (intensity * Math.sin(t * 0.6 + seed * 0.3 + 4.2))
-        };
+        out[0] = (float) (intensity * Math.sin(t * 1.0 + seed * 0.1));
+        out[1] = (float) (intensity * Math.sin(t * 0.8 + seed * 0.2 + 1.7));
+        out[2] = (float) (intensity * Math.sin(t * 0.6 + seed * 0.3 + 4.2));
     }
 
     /**
      * 类型 4：trauma（冲击衰减）— 强度随时间衰减（trauma² 模型），适合受伤/爆炸/受击。
      */
-    private float[] trauma(double globalTime) {
+    private void trauma(double globalTime, float[] out) {
         double traumaVal = trauma * Math.exp(-decay * globalTime);
         double t = globalTime * speed;
-        PerlinNoise noise = cached(-2, seed, 1.0, 0.5);
+        PerlinNoise noise = smoothNoise();
         float scale = (float) (intensity * traumaVal * traumaVal);
-        return new float[]{
-                scale * (float) noise.getValue(1.0, t, 0.0),
-                scale * (float) noise.getValue(73.0, t, 0.0),
-                scale * (float) noise.getValue(146.0, t, 0.0)
-        };
+        out[0] = scale * (float) noise.getValue(1.0, t, 0.0);
+        out[1] = scale * (float) noise.getValue(73.0, t, 0.0);
+        out[2] = scale * (float) noise.getValue(146.0, t, 0.0);
+    }
+
+    /** perlin / trauma 共用的平滑噪声实例（首次使用时从全局缓存取出并记在实例上，之后不再拼缓存键） */
+    private PerlinNoise smoothNoise() {
+        if (smoothNoise == null) {
+            smoothNoise = cached(-2, seed, 1.0, 0.5);
+        }
+        return smoothNoise;
     }
 
     /**
@@ -1,6 +1,8 @@
 package com.immersivecinematics.immersive_cinematics.script;
 
 import com.immersivecinematics.immersive_cinematics.camera.CameraManager;
+import com.immersivecinematics.immersive_cinematics.util.MathUtil;
+import com.immersivecinematics.immersive_cinematics.util.MathUtil.MutableVec3;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.phys.Vec3;
 
@@ -17,11 +19,20 @@ public class CameraTrackPlayer implements TrackPlayer {
     private final Vec3 originPos;
     private final CameraManager cameraManager;
 
-    /** 独立 Bezier 路径策略实例，脚本结束时随 TrackPlayer 一起 GC，LUT 缓存自动释放 */
+    /** 独立 Bezier 路径策略实例（持有上一段 LUT 快速命中；LUT 本体在共享有界 LRU 缓存中） */
     private final PathStrategy bezierStrategy = new BezierPathStrategy();
+    /** follow 段强制线性（无状态单例） */
+    private final PathStrategy linearStrategy = PathStrategies.get("linear");
 
     private int lastClipIndex = 0;
 
+    /** 关键帧段游标：当前片段 / morph 转场中的进入片段（单调播放 O(1) 命中，跳转回落二分查找） */
+    private final KeyframeInterpolator.SegmentCursor segmentCursor = new KeyframeInterpolator.SegmentCursor();
+    private final KeyframeInterpolator.SegmentCursor morphNextCursor = new KeyframeInterpolator.SegmentCursor();
+    /** 插值结果容器（与游标一一对应，逐帧复用） */
+    private final KeyframeInterpolator.InterpolationResult segmentResult = new KeyframeInterpolator.InterpolationResult();
+    private final KeyframeInterpolator.InterpolationResult morphNextResult = new KeyframeInterpolator.InterpolationResult();
+
     /** 诊断：look_at 目标位置一次性日志（播放期间只打印 1 次） */
     private boolean lookAtLoggedOnce;
     /** 结构定位失败提示只打一次 */
@@ -30,7 +41,22 @@ public class CameraTrackPlayer implements TrackPlayer {
     private boolean clipUnusableWarnOnce;
 
     /** 上一帧最终世界坐标（实体目标消失时停在原地、以及作为 @e 就近基准） */
-    private Vec3 lastWorldPos;
+    private final MutableVec3 lastWorldPos = new MutableVec3();
+
+    // ====== 渲染帧临时缓冲（求值管线不再每帧新建 Vec3 / float[]，稳态零分配） ======
+    /** 临时向量池：onRenderFrame 入口整体归还，各求值函数内按 mark/release 借还 */
+    private final MathUtil.Scratch scratch = new MathUtil.Scratch(16);
+    /** segmentYawPitch 输出 [yaw, pitch]（morph 时为出场片段） */
+    private final float[] yawPitch = new float[2];
+    /** morph 进入片段的 segmentYawPitch 输出 */
+    private final float[] morphYawPitch = new float[2];
+    /** lineDir 输出 [yaw, pitch] */
+    private final float[] lineDirOut = new float[2];
+    /** 呼吸扰动输出 [yaw, pitch, roll] */
+    private final float[] jitter = new float[3];
+    /** 呼吸扰动参数按片段复用 */
+    private Clip breathClip;
+    private BreathDisturbance breath;
 
     /** 非玩家目标解析缓存（selector → 实体+时间；1 秒有效，避免每帧全量遍历实体列表） */
     private static class CachedTarget {
@@ -45,7 +71,7 @@ public class CameraTrackPlayer implements TrackPlayer {
         this.trackIndex = trackIndex;
         this.originPos = originPos;
         this.cameraManager = cameraManager;
-        this.lastWorldPos = originPos;
+        this.lastWorldPos.set(originPos);
     }
 
     /** 组 A：动态数据源（replaceScript 后自动用新数据，零重建） */
@@ -79,6 +105,9 @@ public class CameraTrackPlayer implements TrackPlayer {
         // 组 7：编辑器拖拽直控期间，相机由编辑器直驱（previewSetCamera），跳过轨道写入
         if (cameraManager.isPreviewDirectControl()) return;
 
+        // 上一帧借出的临时向量全部归还（异常中断的帧也不会让池泄漏增长）
+        scratch.reset();
+
         // B 模型 morph：转场区 [A_end−t/2, A_end+t/2) 内双轨各自插值交叉（A 尾部真实走完、B 头部真实进入）
         for (int i = 0; i < clips.size() - 1; i++) {
             Clip prev = clips.get(i);
@@ -127,7 +156,12 @@ public class CameraTrackPlayer implements TrackPlayer {
      * 找不到就找不到——不引入任何替代值/回退逻辑。
      */
     private boolean isClipUsable(Clip clip) {
-        for (Keyframe kf : clip.getKeyframes()) {
+        CompiledKeyframes ck = clip.getCompiled();
+        // 编译期已判定无任何外部目标引用 → 恒可用，跳过逐关键帧 data map 检查
+        if (!ck.hasExternalTargets()) return true;
+        List<Keyframe> keyframes = clip.getKeyframes();
+        for (int i = 0; i < keyframes.size(); i++) {
+            Keyframe kf = keyframes.get(i);
             String lookAt = kf.getString("look_at", "none");
             if ("entity".equals(lookAt)) {
                 if (resolveEntity(kf.getString("look_at_selector", "@p"), lastWorldPos) == null) return false;
@@ -156,7 +190,7 @@ public class CameraTrackPlayer implements TrackPlayer {
                 if (resolveEntity(kf.getString("yaw_base_from", ""), lastWorldPos) == null
                         || resolveEntity(kf.getString("yaw_base_to", ""), lastWorldPos) == null) return false;
             }
-            PositionData pd = kf.getPosition();
+            PositionData pd = ck.positions[i];
             if (pd != null && pd.isRelative()) {
                 String sid = pd.getOriginStructure();
                 if (sid != null && !sid.isEmpty() && resolveStructurePos(sid) == null) return false;
@@ -170,11 +204,10 @@ public class CameraTrackPlayer implements TrackPlayer {
 
     private void renderSingle(float globalTime, Clip clip, float clipLocalTime) {
         KeyframeInterpolator.InterpolationResult result =
-                KeyframeInterpolator.computeInterpolation(clipLocalTime, clip);
+                KeyframeInterpolator.computeInterpolation(clipLocalTime, clip, segmentCursor, segmentResult);
         if (result == null) return;
 
-        float s = result.adjustedT;
-        writeAttributes(result.from, result.to, s, clip, globalTime);
+        writeAttributes(result, clip, globalTime);
     }
 
     private void renderMorph(Clip prevClip, Clip nextClip, float weight, float globalTime) {
@@ -182,96 +215,92 @@ public class CameraTrackPlayer implements TrackPlayer {
         float prevLocal = globalTime - prevClip.getStartTime();
         float nextLocal = globalTime - nextClip.getStartTime();
         KeyframeInterpolator.InterpolationResult prevResult =
-                KeyframeInterpolator.computeInterpolation(prevLocal, prevClip);
+                KeyframeInterpolator.computeInterpolation(prevLocal, prevClip, segmentCursor, segmentResult);
         KeyframeInterpolator.InterpolationResult nextResult =
-                KeyframeInterpolator.computeInterpolation(nextLocal, nextClip);
+                KeyframeInterpolator.computeInterpolation(nextLocal, nextClip, morphNextCursor, morphNextResult);
 
         if (prevResult == null && nextResult == null) return;
 
         float prevS = prevResult != null ? prevResult.adjustedT : 0f;
         float nextS = nextResult != null ? nextResult.adjustedT : 0f;
 
-        Keyframe prevFrom = prevResult != null ? prevResult.from : null;
-        Keyframe prevTo = prevResult != null ? prevResult.to : null;
-        Keyframe nextFrom = nextResult != null ? nextResult.from : null;
-        Keyframe nextTo = nextResult != null ? nextResult.to : null;
-
-        float invWeight = 1f - weight;
-
-        Vec3 prevPos = prevFrom != null
-                ? interpolateWorldPosition(prevFrom, prevTo, prevS, prevClip)
-                : lastWorldPos;
-
-        Vec3 nextPos = nextFrom != null
-                ? interpolateWorldPosition(nextFrom, nextTo, nextS, nextClip)
-                : lastWorldPos;
-
-        Vec3 pos = new Vec3(
-                prevPos.x * invWeight + nextPos.x * weight,
-                prevPos.y * invWeight + nextPos.y * weight,
-                prevPos.z * invWeight + nextPos.z * weight
-        );
-
-        float prevYawBase = prevFrom != null ? KeyframeInterpolator.interpolateYaw(prevFrom, prevTo, prevS) : 0f;
-        float prevPitchBase = prevFrom != null ? KeyframeInterpolator.interpolatePitch(prevFrom, prevTo, prevS) : 0f;
-        float nextYawBase = nextFrom != null ? KeyframeInterpolator.interpolateYaw(nextFrom, nextTo, nextS) : 0f;
-        float nextPitchBase = nextFrom != null ? KeyframeInterpolator.interpolatePitch(nextFrom, nextTo, nextS) : 0f;
-        float[] prevYp = segmentYawPitch(prevFrom, prevTo, prevS, prevClip, prevPos, prevYawBase, prevPitchBase);
-        float[] nextYp = segmentYawPitch(nextFrom, nextTo, nextS, nextClip, nextPos, nextYawBase, nextPitchBase);
-        float yaw = blendAngle(prevYp[0], nextYp[0], weight);
-        float pitch = blendFloat(prevYp[1], nextYp[1], weight);
+        CompiledKeyframes prevCk = prevClip.getCompiled();
+        CompiledKeyframes nextCk = nextClip.getCompiled();
+        int prevA = prevResult != null ? prevResult.fromIndex : -1;
+        int prevB = prevResult != null ? prevResult.toIndex : -1;
+        int nextA = nextResult != null ? nextResult.fromIndex : -1;
+        int nextB = nextResult != null ? nextResult.toIndex : -1;
+
+        MutableVec3 prevPos = prevResult != null
+                ? interpolateWorldPosition(prevA, prevB, prevS, prevClip, scratch.vec())
+                : scratch.vec().set(lastWorldPos);
+
+        MutableVec3 nextPos = nextResult != null
+                ? interpolateWorldPosition(nextA, nextB, nextS, nextClip, scratch.vec())
+                : scratch.vec().set(lastWorldPos);
+
+        MutableVec3 pos = blendVec3(prevPos, nextPos, weight, scratch.vec());
+
+        float prevYawBase = prevResult != null ? KeyframeInterpolator.interpolateYaw(prevCk, prevA, prevB, prevS) : 0f;
+        float prevPitchBase = prevResult != null ? KeyframeInterpolator.interpolatePitch(prevCk, prevA, prevB, prevS) : 0f;
+        float nextYawBase = nextResult != null ? KeyframeInterpolator.interpolateYaw(nextCk, nextA, nextB, nextS) : 0f;
+        float nextPitchBase = nextResult != null ? KeyframeInterpolator.interpolatePitch(nextCk, nextA, nextB, nextS) : 0f;
+        segmentYawPitch(prevResult, prevClip, prevPos, prevYawBase, prevPitchBase, yawPitch);
+        segmentYawPitch(nextResult, nextClip, nextPos, nextYawBase, nextPitchBase, morphYawPitch);
+        float yaw = blendAngle(yawPitch[0], morphYawPitch[0], weight);
+        float pitch = blendFloat(yawPitch[1], morphYawPitch[1], weight);
         float roll = blendAngle(
-                prevFrom != null ? KeyframeInterpolator.interpolateRoll(prevFrom, prevTo, prevS) : 0f,
-                nextFrom != null ? KeyframeInterpolator.interpolateRoll(nextFrom, nextTo, nextS) : 0f,
+                prevResult != null ? KeyframeInterpolator.interpolateRoll(prevCk, prevA, prevB, prevS) : 0f,
+                nextResult != null ? KeyframeInterpolator.interpolateRoll(nextCk, nextA, nextB, nextS) : 0f,
                 weight);
         float fov = blendFloat(
-                prevFrom != null ? KeyframeInterpolator.interpolateFov(prevFrom, prevTo, prevS) : 70f,
-                nextFrom != null ? KeyframeInterpolator.interpolateFov(nextFrom, nextTo, nextS) : 70f,
+                prevResult != null ? KeyframeInterpolator.interpolateFov(prevCk, prevA, prevB, prevS) : 70f,
+                nextResult != null ? KeyframeInterpolator.interpolateFov(nextCk, nextA, nextB, nextS) : 70f,
                 weight);
         float zoom = blendZoom(
-                prevFrom != null ? KeyframeInterpolator.interpolateZoom(prevFrom, prevTo, prevS) : 1f,
-                nextFrom != null ? KeyframeInterpolator.interpolateZoom(nextFrom, nextTo, nextS) : 1f,
+                prevResult != null ? KeyframeInterpolator.interpolateZoom(prevCk, prevA, prevB, prevS) : 1f,
+                nextResult != null ? KeyframeInterpolator.interpolateZoom(nextCk, nextA, nextB, nextS) : 1f,
                 weight);
 
         // ====== Breath disturbance (v2: 按 cam_breath_type 分派, 确定性) ======
         if (prevClip.getBool("cam_breath_enabled", false)) {
-            float[] jitter = BreathDisturbance.fromClip(prevClip).compute(globalTime);
+            breathOf(prevClip).compute(globalTime, jitter);
             yaw += jitter[0];
             pitch += jitter[1];
             roll += jitter[2];
         }
         // ====== End breath ======
 
-        cameraManager.getPath().setPositionDirect(pos);
+        cameraManager.getPath().setPositionDirect(pos.x, pos.y, pos.z);
         cameraManager.getProperties().setAllDirect(yaw, pitch, roll, fov, zoom);
-        lastWorldPos = pos;
+        lastWorldPos.set(pos);
     }
 
     /**
-     * 关键帧世界坐标求值：
+     * 关键帧世界坐标求值（写入 out 并返回 out）：
      * follow=entity → 实体渲染帧插值位置 + position 偏移（动态，每帧重算）
      * 普通关键帧    → position 对象自描述：absolute = 世界坐标；relative = 相对基准 + 偏移
      *                （基准默认玩家激活位置 originPos，可用 relative_origin 指定坐标/结构中心）
      * 注意：实体/结构目标不可用已在 isClipUsable 前置拦截（该片段按空处理），此处分支为防御。
      */
-    private Vec3 evalKeyframeWorldPos(Keyframe kf, Clip clip) {
-        PositionData pd = kf.getPosition();
+    private MutableVec3 evalKeyframeWorldPos(Clip clip, int index, MutableVec3 out) {
+        CompiledKeyframes ck = clip.getCompiled();
+        Keyframe kf = clip.getKeyframes().get(index);
+        PositionData pd = ck.positions[index];
         // 基准空间坐标系偏移（fwd/up/right）：基准 = follow 的实体 或 玩家（实时朝向，三维旋转）
         if (pd != null && pd.isFacingRelative()) {
-            return evalFacingOffset(kf, pd);
+            return evalFacingOffset(kf, pd, out);
         }
         if ("entity".equals(kf.getString("follow", "none"))) {
             Entity target = resolveEntity(kf.getString("follow_selector", "@p"), lastWorldPos);
             if (target != null) {
-                Vec3 off = pd != null ? pd.toVec3() : Vec3.ZERO;
-                return entityPosInterp(target).add(off);
+                return entityPosInterp(target, out).add(ck.posX[index], ck.posY[index], ck.posZ[index]);
             }
-            return lastWorldPos;
+            return out.set(lastWorldPos);
         }
-        Vec3 p = pd != null ? pd.toVec3() : Vec3.ZERO;
-        if (pd == null || !pd.isRelative()) return p;
+        if (pd == null || !pd.isRelative()) return out.set(ck.posX[index], ck.posY[index], ck.posZ[index]);
         // 相对基准：relative_origin = "coordinate"（固定坐标）/ 结构 id（结构中心）/ 默认玩家激活位置
-        return resolveRelativeBase(pd).add(p);
+        return resolveRelativeBase(pd, out).add(ck.posX[index], ck.posY[index], ck.posZ[index]);
     }
 
     /**
@@ -280,7 +309,7 @@ public class CameraTrackPlayer implements TrackPlayer {
      * - up 轴由 up_axis 控制："view"=随俯仰全三维（默认）；"world"=保持世界竖直
      * 基准 = follow 实体（其实时视线）或 玩家（实时视线；鼠标未锁则能转着跟，被锁则静止）。
      */
-    private Vec3 evalFacingOffset(Keyframe kf, PositionData pd) {
+    private MutableVec3 evalFacingOffset(Keyframe kf, PositionData pd, MutableVec3 out) {
         net.minecraft.client.Minecraft mc = net.minecraft.client.Minecraft.getInstance();
         Entity base = null;
         if ("entity".equals(kf.getString("follow", "none"))) {
@@ -290,13 +319,12 @@ public class CameraTrackPlayer implements TrackPlayer {
         }
         if (base == null) {
             LOGGER.warn("基准空间偏移：基准实体/玩家不可用（防御路径，按当前视点处理）");
-            return lastWorldPos;
+            return out.set(lastWorldPos);
         }
-        Vec3 basePos = entityPosInterp(base);
-        double eyeY = base instanceof net.minecraft.world.entity.LivingEntity le
-                ? basePos.y + le.getEyeHeight()
-                : basePos.y + 2.0;
-        Vec3 origin = new Vec3(basePos.x, eyeY, basePos.z);
+        MutableVec3 origin = entityPosInterp(base, out);
+        origin.y = base instanceof net.minecraft.world.entity.LivingEntity le
+                ? origin.y + le.getEyeHeight()
+                : origin.y + 2.0;
 
         float yawRad = (float) Math.toRadians(base.getYRot());
         float pitchRad = (float) Math.toRadians(base.getXRot());
@@ -305,47 +333,49 @@ public class CameraTrackPlayer implements TrackPlayer {
         //   look  = ( -sinY·cosP, -sinP, cosY·cosP )   ← pitch 的 Y 分量带负号（俯视时 look 向下）
         //   right = ( -cosY, 0, -sinY )                 ← 与 look 恒正交
         //   up    = right × look（view 模式；pitch=0 时恒 (0,1,0)，稳定不翻转）
-        Vec3 fwdVec;
-        Vec3 upVec;
-        Vec3 rightVec = new Vec3(-Math.cos(yawRad), 0, -Math.sin(yawRad));
+        int mark = scratch.mark();
+        MutableVec3 fwdVec = scratch.vec();
+        MutableVec3 upVec = scratch.vec();
+        MutableVec3 rightVec = scratch.vec().set(-Math.cos(yawRad), 0, -Math.sin(yawRad));
         if (viewUp) {
-            fwdVec = new Vec3(
+            fwdVec.set(
                     -Math.sin(yawRad) * Math.cos(pitchRad),
                     -Math.sin(pitchRad),
                     Math.cos(yawRad) * Math.cos(pitchRad));
-            upVec = rightVec.cross(fwdVec).normalize();
+            upVec.cross(rightVec, fwdVec).normalize();
         } else {
             // up 保持世界竖直：只水平转（fwd 不带俯仰）
-            fwdVec = new Vec3(-Math.sin(yawRad), 0, Math.cos(yawRad));
-            upVec = new Vec3(0, 1, 0);
+            fwdVec.set(-Math.sin(yawRad), 0, Math.cos(yawRad));
+            upVec.set(0, 1, 0);
         }
-        return origin
-                .add(fwdVec.scale(pd.getFwd()))
-                .add(rightVec.scale(pd.getRight()))
-                .add(upVec.scale(pd.getUp()));
+        origin.addScaled(fwdVec, pd.getFwd())
+                .addScaled(rightVec, pd.getRight())
+                .addScaled(upVec, pd.getUp());
+        scratch.release(mark);
+        return origin;
     }
 
     /**
-     * 相对基准求值：coordinate → 固定坐标；结构 id → 结构中心；默认玩家激活位置。
+     * 相对基准求值（写入 out 并返回 out）：coordinate → 固定坐标；结构 id → 结构中心；默认玩家激活位置。
      * 结构基准不可用已在 isClipUsable 前置拦截（该片段按空处理），此处为防御。
      */
-    private Vec3 resolveRelativeBase(PositionData pd) {
+    private MutableVec3 resolveRelativeBase(PositionData pd, MutableVec3 out) {
         if (pd.isOriginCoordinate()) {
-            return new Vec3(pd.getOriginX(), pd.getOriginY(), pd.getOriginZ());
+            return out.set(pd.getOriginX(), pd.getOriginY(), pd.getOriginZ());
         }
         String structureId = pd.getOriginStructure();
         if (structureId != null && !structureId.isEmpty()) {
             Vec3 structurePos = resolveStructurePos(structureId);
-            if (structurePos != null) return structurePos;
+            if (structurePos != null) return out.set(structurePos);
             LOGGER.debug("相对基准结构 '{}' 未找到（防御路径）", structureId);
         }
         if (pd.isOriginBlock()) {
             Vec3 blockPos = resolveBlockPos(pd.getOriginBlockId(), pd.getOriginBlockRadius());
-            if (blockPos != null) return blockPos;
+            if (blockPos != null) return out.set(blockPos);
             LOGGER.warn("相对基准方块 '{}' 未找到（半径 {}，防御路径，片段按空处理）",
                     pd.getOriginBlockId(), pd.getOriginBlockRadius());
         }
-        return originPos;
+        return out.set(originPos);
     }
 
     /** 结构坐标缓存条目 */
@@ -452,72 +482,75 @@ public class CameraTrackPlayer implements TrackPlayer {
     }
 
     /**
-     * 关键帧 look_at 目标点求值：
+     * 关键帧 look_at 目标点求值（写入 out）：
      * entity     → 实体正中心（渲染帧插值位置 + 半高，动态）
      * coordinate → 固定坐标点（与结构互斥：指定结构后只解析结构）
      * none       → 由该关键帧 yaw/pitch 决定的 100 格方向远点（看向它 = 保持该朝向）
-     * 返回 null 表示该端无注视目标（实体消失 / 结构定位失败），该段按 look_at=none 处理（关键帧角度）。
+     * 返回 false 表示该端无注视目标（实体消失 / 结构定位失败），该段按 look_at=none 处理（关键帧角度）。
      */
-    private Vec3 evalLookTarget(Keyframe kf, Clip clip, Vec3 pos) {
+    private boolean evalLookTarget(Clip clip, int index, MutableVec3 pos, MutableVec3 out) {
+        Keyframe kf = clip.getKeyframes().get(index);
         String lookAt = kf.getString("look_at", "none");
         if ("entity".equals(lookAt)) {
             Entity target = resolveEntity(kf.getString("look_at_selector", "@p"), pos);
-            return target != null
-                    ? entityPosInterp(target).add(0, target.getBbHeight() / 2.0, 0)
-                    : null;
+            if (target == null) return false;
+            entityPosInterp(target, out).add(0, target.getBbHeight() / 2.0, 0);
+            return true;
         }
         if ("coordinate".equals(lookAt)) {
             String structureId = kf.getString("look_at_target_structure", "");
             if (!structureId.isEmpty()) {
-                // 结构目标与坐标互斥：指定了结构就只用结构。定位失败返回 null（该端无注视目标），
+                // 结构目标与坐标互斥：指定了结构就只用结构。定位失败返回 false（该端无注视目标），
                 // 整个片段已被 isClipUsable 拦截按空处理，此处为防御。
                 Vec3 structurePos = resolveStructurePos(structureId);
-                if (structurePos != null) return structurePos;
+                if (structurePos != null) {
+                    out.set(structurePos);
+                    return true;
+                }
                 // 定位失败只提示一次（debug 级：作者排查可见，不打扰玩家）
                 if (!lookAtWarnOnce) {
                     lookAtWarnOnce = true;
                     LOGGER.debug("结构 '{}' 未找到（该端无注视目标）", structureId);
                 }
-                return null;
+                return false;
             }
             // 相对目标对象（优先级高于散字段绝对坐标）：绝对点 / 触发点偏移 / 相对实体偏移 / 相对坐标点+偏移
             Object targetObj = kf.getObject("look_at_target");
             if (targetObj instanceof Map<?, ?> m) {
-                Vec3 target = evalLookTargetObject(m, pos);
-                if (target != null) return target;
                 // 对象解析失败（相对实体找不到/基准缺失）→ 该端无注视目标（isClipUsable 已前置拦截，此处防御）
-                return null;
+                return evalLookTargetObject(m, pos, out);
             }
-            return new Vec3(
+            out.set(
                     kf.getFloat("look_at_target_x", 0),
                     kf.getFloat("look_at_target_y", 64),
                     kf.getFloat("look_at_target_z", 0));
+            return true;
         }
         // none：关键帧朝向的 100 格远点（MC 视线方向 forwards = (-sin yaw·cos pitch, -sin pitch, cos yaw·cos pitch)）
-        double yawRad = Math.toRadians(kf.getYaw());
-        double pitchRad = Math.toRadians(kf.getPitch());
+        CompiledKeyframes ck = clip.getCompiled();
+        double yawRad = Math.toRadians(ck.yaw[index]);
+        double pitchRad = Math.toRadians(ck.pitch[index]);
         double fx = -Math.sin(yawRad) * Math.cos(pitchRad);
         double fy = -Math.sin(pitchRad);
         double fz = Math.cos(yawRad) * Math.cos(pitchRad);
-        return pos.add(fx * 100, fy * 100, fz * 100);
+        out.set(pos).add(fx * 100, fy * 100, fz * 100);
+        return true;
     }
 
     /**
-     * look_at_target 对象目标点求值（四种模式）：
+     * look_at_target 对象目标点求值（四种模式，写入 out）：
      * <ul>
      *   <li>{x,y,z}                                → 世界绝对坐标点</li>
      *   <li>{dx,dy,dz}                             → 相对触发点（脚本激活时玩家位置）偏移</li>
      *   <li>{relative_to:&lt;selector&gt;, dx..}    → 相对实体位置偏移（每帧求值，动态）</li>
      *   <li>{relative_to:"coordinate", relative_x/y/z, dx..} → 相对固定坐标点 + 偏移</li>
      * </ul>
-     * 返回 null = 该端无注视目标（相对实体找不到等；isClipUsable 已前置拦截，此处防御）。
+     * 返回 false = 该端无注视目标（相对实体找不到等；isClipUsable 已前置拦截，此处防御）。
      */
-    private Vec3 evalLookTargetObject(Map<?, ?> m, Vec3 pos) {
-        Float x = numOrNull(m.get("x"));
-        Float y = numOrNull(m.get("y"));
-        Float z = numOrNull(m.get("z"));
-        if (x != null && y != null && z != null) {
-            return new Vec3(x, y, z);
+    private boolean evalLookTargetObject(Map<?, ?> m, MutableVec3 pos, MutableVec3 out) {
+        if (m.get("x") instanceof Number x && m.get("y") instanceof Number y && m.get("z") instanceof Number z) {
+            out.set(x.floatValue(), y.floatValue(), z.floatValue());
+            return true;
         }
         float dx = numOrDefault(m.get("dx"));
         float dy = numOrDefault(m.get("dy"));
@@ -525,21 +558,21 @@ public class CameraTrackPlayer implements TrackPlayer {
         Object relTo = m.get("relative_to");
         if (relTo == null) {
             // 相对触发点偏移
-            return originPos.add(dx, dy, dz);
+            out.set(originPos).add(dx, dy, dz);
+            return true;
         }
         if ("coordinate".equals(relTo)) {
             double rx = numOrDefault(m.get("relative_x"));
             double ry = numOrDefault(m.get("relative_y"));
             double rz = numOrDefault(m.get("relative_z"));
-            return new Vec3(rx + dx, ry + dy, rz + dz);
+            out.set(rx + dx, ry + dy, rz + dz);
+            return true;
         }
         // 相对实体 selector（每帧求实体位置 + 偏移）
         Entity target = resolveEntity(String.valueOf(relTo), pos);
-        return target != null ? entityPosInterp(target).add(dx, dy, dz) : null;
-    }
-
-    private static Float numOrNull(Object o) {
-        return o instanceof Number n ? n.floatValue() : null;
+        if (target == null) return false;
+        entityPosInterp(target, out).add(dx, dy, dz);
+        return true;
     }
 
     private static float numOrDefault(Object o) {
@@ -547,36 +580,51 @@ public class CameraTrackPlayer implements TrackPlayer {
     }
 
     /**
-     * 世界坐标空间插值：两端关键帧各自求值成世界坐标后按路径策略插值。
+     * 世界坐标空间插值（写入 out 并返回 out）：两端关键帧各自求值成世界坐标后按路径策略插值。
      * 任一端为 follow（动态目标）时强制 linear（曲线控制点对动态实体无意义）。
      * 由此 follow↔普通、换实体、换偏移的过渡天然平滑（两端都是世界坐标）。
      */
-    private Vec3 interpolateWorldPosition(Keyframe from, Keyframe to, float s, Clip clip) {
-        Vec3 p0 = evalKeyframeWorldPos(from, clip);
-        Vec3 p3 = evalKeyframeWorldPos(to, clip);
-        boolean anyFollow = "entity".equals(from.getString("follow", "none"))
-                || "entity".equals(to.getString("follow", "none"));
-        PathStrategy strategy = anyFollow ? PathStrategies.get("linear") : bezierStrategy;
-        return strategy.interpolate(p0, p3, s, anyFollow ? null : clip.getCurve());
+    private MutableVec3 interpolateWorldPosition(int fromIndex, int toIndex, float s, Clip clip, MutableVec3 out) {
+        int mark = scratch.mark();
+        MutableVec3 p0 = evalKeyframeWorldPos(clip, fromIndex, scratch.vec());
+        MutableVec3 p3 = evalKeyframeWorldPos(clip, toIndex, scratch.vec());
+        boolean anyFollow = isFollowSegment(clip, fromIndex, toIndex);
+        PathStrategy strategy = anyFollow ? linearStrategy : bezierStrategy;
+        strategy.interpolate(p0, p3, s, anyFollow ? null : clip.getCurve(), out);
+        scratch.release(mark);
+        return out;
+    }
+
+    /** 段内任一端为 follow=entity（动态目标） */
+    private static boolean isFollowSegment(Clip clip, int fromIndex, int toIndex) {
+        List<Keyframe> keyframes = clip.getKeyframes();
+        return "entity".equals(keyframes.get(fromIndex).getString("follow", "none"))
+                || "entity".equals(keyframes.get(toIndex).getString("follow", "none"));
     }
 
     /**
      * 单段朝向求值：任一端 look_at != none 时用目标点插值模型（看向插值目标点）。
-     * 两端目标齐全才用目标点；目标缺失（evalLookTarget 返回 null）时该段按 look_at=none 处理
+     * 两端目标齐全才用目标点；目标缺失（evalLookTarget 返回 false）时该段按 look_at=none 处理
      * ——用两端关键帧自身的 yaw/pitch 角度插值（yawBase/pitchBase）。目标不可用已由
-     * isClipUsable 前置拦截（片段按空处理），此处为防御。返回 [yaw, pitch]。
+     * isClipUsable 前置拦截（片段按空处理），此处为防御。结果 [yaw, pitch] 写入 out。
      */
-    private float[] segmentYawPitch(Keyframe from, Keyframe to, float s, Clip clip, Vec3 segPos,
-                                    float yawBase, float pitchBase) {
+    private void segmentYawPitch(KeyframeInterpolator.InterpolationResult seg, Clip clip, MutableVec3 segPos,
+                                 float yawBase, float pitchBase, float[] out) {
+        Keyframe from = seg != null ? seg.from : null;
+        Keyframe to = seg != null ? seg.to : null;
+        float s = seg != null ? seg.adjustedT : 0f;
         // 1) look_at 优先（关键帧级）：段内任一端有 look_at 就用目标点插值
         if (from != null && to != null) {
             boolean anyLook = !"none".equals(from.getString("look_at", "none"))
                     || !"none".equals(to.getString("look_at", "none"));
             if (anyLook) {
-                Vec3 t0 = evalLookTarget(from, clip, segPos);
-                Vec3 t1 = evalLookTarget(to, clip, segPos);
-                if (t0 != null && t1 != null) {
-                    Vec3 target = new Vec3(t0.x + (t1.x - t0.x) * s, t0.y + (t1.y - t0.y) * s, t0.z + (t1.z - t0.z) * s);
+                int mark = scratch.mark();
+                MutableVec3 t0 = scratch.vec();
+                MutableVec3 t1 = scratch.vec();
+                boolean resolved = evalLookTarget(clip, seg.fromIndex, segPos, t0)
+                        && evalLookTarget(clip, seg.toIndex, segPos, t1);
+                if (resolved) {
+                    MutableVec3 target = t0.lerp(t0, t1, s);
                     double dx = target.x - segPos.x;
                     double dy = target.y - segPos.y;
                     double dz = target.z - segPos.z;
@@ -590,34 +638,42 @@ public class CameraTrackPlayer implements TrackPlayer {
                                 String.format("%.2f", target.x), String.format("%.2f", target.y), String.format("%.2f", target.z),
                                 String.format("%.2f", yaw), String.format("%.2f", pitch));
                     }
-                    return new float[]{yaw, pitch};
+                    scratch.release(mark);
+                    out[0] = yaw;
+                    out[1] = pitch;
+                    return;
                 }
+                scratch.release(mark);
             }
         }
         // 2) 片段级 tangent：仅在无 look_at 的段生效
         if (from != null && to != null && isTangentOrientation(clip)) {
-            Vec3 p0 = evalKeyframeWorldPos(from, clip);
-            Vec3 p3 = evalKeyframeWorldPos(to, clip);
-            boolean anyFollow = "entity".equals(from.getString("follow", "none"))
-                    || "entity".equals(to.getString("follow", "none"));
-            PathStrategy strategy = anyFollow ? PathStrategies.get("linear") : bezierStrategy;
-            return TangentOrientation.compute(p0, p3, s,
+            int mark = scratch.mark();
+            MutableVec3 p0 = evalKeyframeWorldPos(clip, seg.fromIndex, scratch.vec());
+            MutableVec3 p3 = evalKeyframeWorldPos(clip, seg.toIndex, scratch.vec());
+            boolean anyFollow = isFollowSegment(clip, seg.fromIndex, seg.toIndex);
+            PathStrategy strategy = anyFollow ? linearStrategy : bezierStrategy;
+            TangentOrientation.compute(p0, p3, s,
                     anyFollow ? null : clip.getCurve(), strategy,
-                    clip.getFloat("yaw_offset", 0f), clip.getFloat("pitch_offset", 0f));
+                    clip.getFloat("yaw_offset", 0f), clip.getFloat("pitch_offset", 0f),
+                    scratch.vec(), out);
+            scratch.release(mark);
+            return;
         }
         // 3) 手写角度：两端关键帧各自算"最终世界角度 = 基准 + 偏移"，再做角度插值
         if (from != null && to != null) {
-            float yawA = finalYaw(from);
-            float pitchA = finalPitch(from);
-            float yawB = finalYaw(to);
-            float pitchB = finalPitch(to);
-            return new float[]{
-                    blendAngle(yawA, yawB, s),
-                    blendFloat(pitchA, pitchB, s)
-            };
+            CompiledKeyframes ck = clip.getCompiled();
+            float yawA = yawBaseOf(from) + ck.yaw[seg.fromIndex];
+            float pitchA = pitchBaseOf(from) + ck.pitch[seg.fromIndex];
+            float yawB = yawBaseOf(to) + ck.yaw[seg.toIndex];
+            float pitchB = pitchBaseOf(to) + ck.pitch[seg.toIndex];
+            out[0] = blendAngle(yawA, yawB, s);
+            out[1] = blendFloat(pitchA, pitchB, s);
+            return;
         }
         // 单端防御：退回调用方传入的插值角
-        return new float[]{yawBase, pitchBase};
+        out[0] = yawBase;
+        out[1] = pitchBase;
     }
 
     // ===== 切线朝向辅助 =====
@@ -626,16 +682,6 @@ public class CameraTrackPlayer implements TrackPlayer {
         return "tangent".equals(clip.getString("orient", "manual"));
     }
 
-    /** 单关键帧最终世界 yaw = 基准方向 + 偏移（look_at=none 语义） */
-    private float finalYaw(Keyframe kf) {
-        return yawBaseOf(kf) + kf.getYaw();
-    }
-
-    /** 单关键帧最终世界 pitch = 基准俯仰 + 偏移 */
-    private float finalPitch(Keyframe kf) {
-        return pitchBaseOf(kf) + kf.getPitch();
-    }
-
     /**
      * 关键帧 yaw 基准方向：yaw_base = world（0，现状）| entity（实体视线水平角 getYRot）| line（from→to 连线水平角）。
      * 实体缺失/line 端点缺失时 isClipUsable 已前置拦截为空片段；此处防御回退 0（=world）。
@@ -647,8 +693,7 @@ public class CameraTrackPlayer implements TrackPlayer {
             return e != null ? e.getYRot() : 0f;
         }
         if ("line".equals(base)) {
-            float[] dir = lineDir(kf);
-            if (dir != null) return dir[0];
+            if (lineDir(kf, lineDirOut)) return lineDirOut[0];
         }
         return 0f;
     }
@@ -661,72 +706,92 @@ public class CameraTrackPlayer implements TrackPlayer {
             return e != null ? e.getXRot() : 0f;
         }
         if ("line".equals(base)) {
-            float[] dir = lineDir(kf);
-            if (dir != null) return dir[1];
+            if (lineDir(kf, lineDirOut)) return lineDirOut[1];
         }
         return 0f;
     }
 
     /**
-     * line 基准方向：yaw_base_from → yaw_base_to 两点连线方向（水平 yaw + 垂直 pitch）。
-     * 两端点至少一个缺失（实体找不到）返回 null。
+     * line 基准方向：yaw_base_from → yaw_base_to 两点连线方向（水平 yaw + 垂直 pitch），写入 out。
+     * 两端点至少一个缺失（实体找不到）或重合时返回 false。
      */
-    private float[] lineDir(Keyframe kf) {
+    private boolean lineDir(Keyframe kf, float[] out) {
         Entity a = resolveEntity(kf.getString("yaw_base_from", ""), lastWorldPos);
         Entity b = resolveEntity(kf.getString("yaw_base_to", ""), lastWorldPos);
-        if (a == null || b == null) return null;
-        Vec3 from = entityPosInterp(a);
-        Vec3 to = entityPosInterp(b);
+        if (a == null || b == null) return false;
+        int mark = scratch.mark();
+        MutableVec3 from = entityPosInterp(a, scratch.vec());
+        MutableVec3 to = entityPosInterp(b, scratch.vec());
         double dx = to.x - from.x;
         double dy = to.y - from.y;
         double dz = to.z - from.z;
+        scratch.release(mark);
         double horizontal = Math.sqrt(dx * dx + dz * dz);
-        if (horizontal < 1.0E-4 && Math.abs(dy) < 1.0E-4) return null;
-        float yaw = (float) Math.toDegrees(Math.atan2(dz, dx)) - 90f;
-        float pitch = (float) -Math.toDegrees(Math.atan2(dy, horizontal));
-        return new float[]{yaw, pitch};
+        if (horizontal < 1.0E-4 && Math.abs(dy) < 1.0E-4) return false;
+        out[0] = (float) Math.toDegrees(Math.atan2(dz, dx)) - 90f;
+        out[1] = (float) -Math.toDegrees(Math.atan2(dy, horizontal));
+        return true;
     }
 
-    private void writeAttributes(Keyframe from, Keyframe to, float s, Clip clip, float globalTime) {
-        Vec3 pos = interpolateWorldPosition(from, to, s, clip);
-        float yawBase = KeyframeInterpolator.interpolateYaw(from, to, s);
-        float pitchBase = KeyframeInterpolator.interpolatePitch(from, to, s);
-        float roll = KeyframeInterpolator.interpolateRoll(from, to, s);
-        float fov = KeyframeInterpolator.interpolateFov(from, to, s);
-        float zoom = KeyframeInterpolator.interpolateZoom(from, to, s);
+    private void writeAttributes(KeyframeInterpolator.InterpolationResult seg, Clip clip, float globalTime) {
+        CompiledKeyframes ck = clip.getCompiled();
+        int a = seg.fromIndex;
+        int b = seg.toIndex;
+        float s = seg.adjustedT;
+        MutableVec3 pos = interpolateWorldPosition(a, b, s, clip, scratch.vec());
+        float yawBase = KeyframeInterpolator.interpolateYaw(ck, a, b, s);
+        float pitchBase = KeyframeInterpolator.interpolatePitch(ck, a, b, s);
+        float roll = KeyframeInterpolator.interpolateRoll(ck, a, b, s);
+        float fov = KeyframeInterpolator.interpolateFov(ck, a, b, s);
+        float zoom = KeyframeInterpolator.interpolateZoom(ck, a, b, s);
 
         // ====== look_at 目标点插值模型 ======
         // 关键帧 look_at 定义"目标点"（entity=实体正中心、coordinate=固定点、none=由该关键帧 yaw/pitch 决定的方向远点）。
         // 目标点在关键帧间插值后相机看向插值点——look_at 切换/开关天然平滑；两端都 none 时保持角度插值（零回归）。
-        float[] yp = segmentYawPitch(from, to, s, clip, pos, yawBase, pitchBase);
-        float yaw = yp[0];
-        float pitch = yp[1];
+        segmentYawPitch(seg, clip, pos, yawBase, pitchBase, yawPitch);
+        float yaw = yawPitch[0];
+        float pitch = yawPitch[1];
         // ====== End look_at ======
         // ====== Breath disturbance (v2: 按 cam_breath_type 分派, 确定性) ======
         if (clip.getBool("cam_breath_enabled", false)) {
-            float[] jitter = BreathDisturbance.fromClip(clip).compute(globalTime);
+            breathOf(clip).compute(globalTime, jitter);
             yaw += jitter[0];
             pitch += jitter[1];
             roll += jitter[2];
         }
         // ====== End breath ======
 
-        cameraManager.getPath().setPositionDirect(pos);
+        cameraManager.getPath().setPositionDirect(pos.x, pos.y, pos.z);
         cameraManager.getProperties().setAllDirect(yaw, pitch, roll, fov, zoom);
-        lastWorldPos = pos;
+        lastWorldPos.set(pos);
+    }
+
+    /** 片段的呼吸扰动参数（片段解析后不可变：按片段对象复用，不每帧重建） */
+    private BreathDisturbance breathOf(Clip clip) {
+        if (clip != breathClip) {
+            breathClip = clip;
+            breath = BreathDisturbance.fromClip(clip);
+        }
+        return breath;
     }
 
     @Override
     public void onStop() {
         lastClipIndex = 0;
-        // bezierStrategy 随 TrackPlayer 实例一起被 GC，其 LUT 缓存自动释放
+        segmentCursor.reset();
+        morphNextCursor.reset();
+        // bezierStrategy 的 LUT 位于共享有界 LRU 缓存，无需在此释放
     }
 
     /** 组 A：数据替换后复位 clip 索引状态 */
     @Override
     public void onScriptReplaced() {
         lastClipIndex = 0;
+        segmentCursor.reset();
+        morphNextCursor.reset();
         targetCache.clear();
+        breathClip = null;
+        breath = null;
     }
 
     private Clip findActiveClip(float globalTime) {
@@ -794,9 +859,10 @@ public class CameraTrackPlayer implements TrackPlayer {
         return a + diff * weight;
     }
 
-    private static Vec3 blendVec3(Vec3 a, Vec3 b, float weight) {
+    /** out = a·(1−weight) + b·weight（out 可与 a/b 为同一对象） */
+    private static MutableVec3 blendVec3(MutableVec3 a, MutableVec3 b, float weight, MutableVec3 out) {
         float inv = 1f - weight;
-        return new Vec3(
+        return out.set(
                 a.x * inv + b.x * weight,
                 a.y * inv + b.y * weight,
                 a.z * inv + b.z * weight
@@ -816,7 +882,7 @@ public class CameraTrackPlayer implements TrackPlayer {
      * uuid:xxxxxxxx  = UUID 直绑（唯一确定，不排序）
      * 解析失败或无匹配返回 null：follow 停在上一帧位置、look_at 不生效
      */
-    private net.minecraft.world.entity.Entity resolveEntity(String selector, Vec3 origin) {
+    private net.minecraft.world.entity.Entity resolveEntity(String selector, MutableVec3 origin) {
         net.minecraft.client.Minecraft mc = net.minecraft.client.Minecraft.getInstance();
         if ("@p".equals(selector) || "@s".equals(selector)) {
             return mc.player;
@@ -864,7 +930,7 @@ public class CameraTrackPlayer implements TrackPlayer {
                 if (!e.isAlive()) continue;
                 if (fType != null && !fType.equals(net.minecraft.world.entity.EntityType.getKey(e.getType()).toString())) continue;
                 if (fName != null && (e.getCustomName() == null || !fName.equals(e.getCustomName().getString()))) continue;
-                double dist = e.distanceToSqr(origin);
+                double dist = e.distanceToSqr(origin.x, origin.y, origin.z);
                 if (dist < bestDist) {
                     bestDist = dist;
                     found = e;
@@ -874,17 +940,18 @@ public class CameraTrackPlayer implements TrackPlayer {
             LOGGER.warn("不支持的实体 selector: {}（支持 @p/@s/@e/@e[type=…,name=…]/uuid:xxx）", selector);
         }
 
-        CachedTarget entry = new CachedTarget();
+        // 复用已有缓存条目（每秒刷新一次，不重复分配）
+        CachedTarget entry = cached != null ? cached : new CachedTarget();
         entry.entity = found;
         entry.resolvedAt = now;
-        targetCache.put(selector, entry);
+        if (cached == null) targetCache.put(selector, entry);
         return found;
     }
 
-    /** 实体渲染帧插值位置（上一 tick → 当前 tick 按渲染 partialTick 插值，消除 20Hz 步进卡顿） */
-    private static Vec3 entityPosInterp(net.minecraft.world.entity.Entity e) {
+    /** 实体渲染帧插值位置（上一 tick → 当前 tick 按渲染 partialTick 插值，消除 20Hz 步进卡顿），写入 out */
+    private static MutableVec3 entityPosInterp(net.minecraft.world.entity.Entity e, MutableVec3 out) {
         float pt = net.minecraft.client.Minecraft.getInstance().getFrameTime();
-        return new Vec3(
+        return out.set(
                 net.minecraft.util.Mth.lerp(pt, e.xo, e.getX()),
                 net.minecraft.util.Mth.lerp(pt, e.yo, e.getY()),
                 net.minecraft.util.Mth.lerp(pt, e.zo, e.getZ())
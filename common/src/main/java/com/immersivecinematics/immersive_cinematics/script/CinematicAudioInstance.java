@@ -1,6 +1,5 @@
 package com.immersivecinematics.immersive_cinematics.script;
 
-import com.immersivecinematics.immersive_cinematics.util.ResourcePath;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.resources.sounds.AbstractTickableSoundInstance;
 import net.minecraft.client.resources.sounds.Sound;
@@ -10,28 +9,17 @@ import net.minecraft.client.sounds.SoundBufferLibrary;
 import net.minecraft.client.sounds.SoundManager;
 import net.minecraft.client.sounds.WeighedSoundEvents;
 import net.minecraft.resources.ResourceLocation;
-import net.minecraft.server.packs.resources.Resource;
 import net.minecraft.sounds.SoundEvent;
 import net.minecraft.sounds.SoundSource;
 import net.minecraft.util.RandomSource;
 import net.minecraft.util.valueproviders.ConstantFloat;
 import net.minecraft.world.phys.Vec3;
 import org.lwjgl.BufferUtils;
-import org.lwjgl.stb.STBVorbis;
-import org.lwjgl.stb.STBVorbisInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.sound.sampled.AudioFormat;
-import javax.sound.sampled.AudioInputStream;
-import javax.sound.sampled.AudioSystem;
-import java.io.IOException;
-import java.io.InputStream;
 import java.nio.ByteBuffer;
-import java.nio.IntBuffer;
-import java.nio.ShortBuffer;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 
@@ -40,6 +28,8 @@ import java.util.concurrent.CompletableFuture;
  * <p>
  * 继承 {@link AbstractTickableSoundInstance}，由原版 SoundEngine 统一管理空间/衰减/分类音量/暂停。
  * 自定义流通过 {@link CustomStreamProvider} + {@code SoundEngineMixin} 提供给原版，不依赖 Forge 补丁。
+ * <p>
+ * OGG 走 {@link OggVorbisStream} 流式解码，每次 play 从 seekOffset 处重新打开；WAV 仍是内存 PCM。
  */
 public class CinematicAudioInstance extends AbstractTickableSoundInstance implements CustomStreamProvider {
 
@@ -52,14 +42,21 @@ public class CinematicAudioInstance extends AbstractTickableSoundInstance implem
     private boolean playing = false;
     private float duration = 0f;
     private float currentVolume = 1.0f;
-    /** 编辑器 seek 目标偏移（秒），play() 时把 PCM 游标移到此处 */
+    /** 编辑器 seek 目标偏移（秒），play() 时把 PCM 游标 / 流起点移到此处 */
     private float seekOffset = 0f;
 
+    private final AudioDecoder.DecodedAudio audio;
+    /** PCM 形态（WAV）的独立游标；流式（OGG）为 null，每次播放打开新的 {@link OggVorbisStream} */
     private ByteBuffer pcmData;
     private int channels;
     private int sampleRate;
 
-    public CinematicAudioInstance(String fileName, String sourceType, boolean loop, float pitch, SoundSource category) {
+    /**
+     * @param audio 解码结果（{@link AudioCache}，通常在后台线程完成）；实例接管一次缓存引用，
+     *              {@link #cleanup()} 时归还。PCM 形态时实例持有独立游标
+     */
+    public CinematicAudioInstance(String fileName, String sourceType, AudioDecoder.DecodedAudio audio,
+                                  boolean loop, float pitch, SoundSource category) {
         super(SoundEvent.createVariableRangeEvent(new ResourceLocation(
                         "immersive_cinematics", "audio_" + Integer.toHexString(Objects.hash(fileName, sourceType)))),
                 category, SoundInstance.createUnseededRandom());
@@ -68,19 +65,12 @@ public class CinematicAudioInstance extends AbstractTickableSoundInstance implem
         this.pitch = pitch;
         this.id = "audio_" + Integer.toHexString(Objects.hash(fileName, sourceType));
 
-        if (!fileName.chars().allMatch(c -> c < 128)) {
-            LOGGER.warn("音频文件名包含非 ASCII 字符: {} — Windows 下可能无法解码，建议使用英文命名", fileName);
-        }
-
-        DecodeResult result = decode(fileName, sourceType);
-        this.pcmData = result.rawAudio;
-        this.channels = result.channels;
-        this.sampleRate = result.sampleRate;
-        this.duration = result.duration;
+        this.audio = audio;
+        this.pcmData = audio.isStreaming() ? null : audio.view();
+        this.channels = audio.getChannels();
+        this.sampleRate = audio.getSampleRate();
+        this.duration = audio.getDuration();
         this.valid = true;
-
-        LOGGER.debug("audio decode: file={} bytes={} ch={} sr={} dur={}",
-                fileName, pcmData.remaining(), channels, sampleRate, duration);
     }
 
     // ===== 原版 SoundEngine 集成 =====
@@ -107,7 +97,19 @@ public class CinematicAudioInstance extends AbstractTickableSoundInstance implem
 
     @Override
     public CompletableFuture<AudioStream> getStream(SoundBufferLibrary soundBuffers, Sound sound, boolean looping) {
-        return CompletableFuture.completedFuture(new CinematicAudioStream(pcmData, channels, sampleRate, loop));
+        if (pcmData != null) {
+            return CompletableFuture.completedFuture(new CinematicAudioStream(pcmData, channels, sampleRate, loop));
+        }
+        // 打开 + seek 可能需要读文件，与原版流式音效一样放到后台线程
+        float offset = seekOffset;
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return audio.openStream(offset, loop);
+            } catch (RuntimeException e) {
+                com.immersivecinematics.immersive_cinematics.util.ErrorLog.log("Audio", "打开音频流失败: " + id, e);
+                throw e;
+            }
+        }, net.minecraft.Util.backgroundExecutor());
     }
 
     @Override
@@ -164,7 +166,7 @@ public class CinematicAudioInstance extends AbstractTickableSoundInstance implem
         this.relative = rel;
     }
 
-    /** 编辑器 seek：把 PCM 游标移到目标秒；若正在播放则先停止（由 syncToTime 负责按需重启） */
+    /** 编辑器 seek：记录目标秒（下次 play 从此处开始）；若正在播放则先停止（由 syncToTime 负责按需重启） */
     public void seekTo(float seconds) {
         if (!valid) return;
         seekOffset = Math.max(0f, Math.min(seconds, duration));
@@ -201,6 +203,10 @@ public class CinematicAudioInstance extends AbstractTickableSoundInstance implem
         if (valid && playing) {
             Minecraft.getInstance().getSoundManager().stop(this);
         }
+        if (valid) {
+            // 已打开的流各自持有数据引用，归还缓存引用不影响正在收尾的声音
+            AudioCache.release(audio);
+        }
         playing = false;
         valid = false;
         stop();
@@ -226,141 +232,11 @@ public class CinematicAudioInstance extends AbstractTickableSoundInstance implem
 
     public boolean isValid() { return valid; }
 
-    // ===== 解码（失败即抛 RuntimeException，可见） =====
-
-    private static DecodeResult decode(String fileName, String sourceType) {
-        if ("minecraft".equals(sourceType)) {
-            return decodeOggFromMinecraft(fileName);
-        }
-        Path filePath = ResourcePath.resolve(fileName);
-        if (!Files.exists(filePath)) {
-            throw new RuntimeException("音频文件不存在: " + filePath);
-        }
-        String lower = fileName.toLowerCase();
-        if (lower.endsWith(".ogg")) {
-            return decodeOggFromFile(filePath);
-        }
-        if (lower.endsWith(".wav")) {
-            return decodeWav(filePath);
-        }
-        throw new RuntimeException("不支持的音频格式: " + fileName + "（支持 .ogg/.wav）");
-    }
-
-    private static DecodeResult decodeOggFromFile(Path oggPath) {
-        IntBuffer chBuf = BufferUtils.createIntBuffer(1);
-        IntBuffer srBuf = BufferUtils.createIntBuffer(1);
-        ShortBuffer decoded = STBVorbis.stb_vorbis_decode_filename(oggPath.toString(), chBuf, srBuf);
-        if (decoded == null) {
-            throw new RuntimeException("OGG 解码失败: " + oggPath);
-        }
-        int ch = chBuf.get(0);
-        int sr = srBuf.get(0);
-        int totalBytes = decoded.remaining() * 2;
-        float dur = (float) decoded.remaining() / (float) sr / (float) ch;
-        ByteBuffer raw = BufferUtils.createByteBuffer(totalBytes);
-        raw.asShortBuffer().put(decoded);
-        return new DecodeResult(raw, ch, sr, dur);
-    }
-
-    private static DecodeResult decodeOggFromMinecraft(String fileName) {
-        ResourceLocation loc = new ResourceLocation(fileName);
-        Resource resource = Minecraft.getInstance().getResourceManager().getResource(loc).orElse(null);
-        if (resource == null) {
-            throw new RuntimeException("Minecraft 音频资源不存在: " + fileName);
-        }
-        try (InputStream is = resource.open()) {
-            byte[] bytes = readAllBytes(is);
-            ByteBuffer buf = BufferUtils.createByteBuffer(bytes.length);
-            buf.put(bytes).flip();
-
-            IntBuffer error = BufferUtils.createIntBuffer(1);
-            long handle = STBVorbis.stb_vorbis_open_memory(buf, error, null);
-            if (handle == 0) {
-                throw new RuntimeException("内存 OGG 解码失败: " + fileName);
-            }
-            STBVorbisInfo info = STBVorbisInfo.malloc();
-            STBVorbis.stb_vorbis_get_info(handle, info);
-            int ch = info.channels();
-            int sr = info.sample_rate();
-            int totalSamples = STBVorbis.stb_vorbis_stream_length_in_samples(handle);
-            float dur = (float) totalSamples / (float) sr / (float) ch;
-
-            ByteBuffer raw = BufferUtils.createByteBuffer(totalSamples * ch * 2);
-            ShortBuffer rawShort = raw.asShortBuffer();
-            STBVorbis.stb_vorbis_get_samples_short_interleaved(handle, ch, rawShort);
-
-            info.free();
-            STBVorbis.stb_vorbis_close(handle);
-            return new DecodeResult(raw, ch, sr, dur);
-        } catch (IOException e) {
-            throw new RuntimeException("读取 Minecraft 音频资源失败: " + fileName, e);
-        }
-    }
-
-    private static DecodeResult decodeWav(Path wavPath) {
-        try {
-            AudioInputStream ais = AudioSystem.getAudioInputStream(wavPath.toFile());
-            AudioFormat fmt = ais.getFormat();
-            int ch = fmt.getChannels();
-            int sr = (int) fmt.getSampleRate();
-            int bits = fmt.getSampleSizeInBits();
-
-            byte[] allBytes = readAllBytes(ais);
-            ais.close();
-
-            ByteBuffer buffer;
-            if (bits == 16) {
-                buffer = BufferUtils.createByteBuffer(allBytes.length);
-                buffer.put(allBytes);
-                buffer.flip();
-            } else if (bits == 8) {
-                buffer = BufferUtils.createByteBuffer(allBytes.length * 2);
-                ShortBuffer sb = buffer.asShortBuffer();
-                for (byte b : allBytes) {
-                    sb.put((short) ((b & 0xFF) - 128 << 8));
-                }
-            } else {
-                throw new RuntimeException("不支持的 WAV 位深: " + bits);
-            }
-            float dur = (float) buffer.limit() / 2f / (float) sr / (float) ch;
-            return new DecodeResult(buffer, ch, sr, dur);
-        } catch (Exception e) {
-            throw new RuntimeException("WAV 解码失败: " + wavPath, e);
-        }
-    }
-
-    /** 编辑器波形峰值解码（失败即抛） */
-    public static float[] decodePeaks(String fileName, String sourceType, int buckets) {
-        DecodeResult r = decode(fileName, sourceType);
-        r.rawAudio.rewind();
-        int n = r.rawAudio.remaining() / 2;
-        short[] samples = new short[n];
-        for (int i = 0; i < n; i++) samples[i] = r.rawAudio.getShort();
-        float[] peaks = new float[Math.max(1, buckets)];
-        int per = Math.max(1, n / peaks.length);
-        for (int b = 0; b < peaks.length; b++) {
-            float max = 0;
-            int from = b * per, to = Math.min(n, from + per);
-            for (int i = from; i < to; i++) max = Math.max(max, Math.abs(samples[i]) / 32768f);
-            peaks[b] = max;
-        }
-        return peaks;
-    }
-
-    private static byte[] readAllBytes(InputStream is) throws IOException {
-        byte[] buf = new byte[8192];
-        int total = 0, n;
-        while ((n = is.read(buf, total, buf.length - total)) > 0) {
-            total += n;
-            if (total == buf.length) {
-                byte[] bigger = new byte[buf.length * 2];
-                System.arraycopy(buf, 0, bigger, 0, buf.length);
-                buf = bigger;
-            }
-        }
-        byte[] result = new byte[total];
-        System.arraycopy(buf, 0, result, 0, total);
-        return result;
+    /** 从头顺序读取全部样本的非循环流（波形生成用），用完须 close */
+    static AudioStream openReader(AudioDecoder.DecodedAudio audio) {
+        return audio.isStreaming()
+                ? audio.openStream(0f, false)
+                : new CinematicAudioStream(audio.view(), audio.getChannels(), audio.getSampleRate(), false);
     }
 
     // ===== PCM 流（喂给原版 SoundEngine） =====
@@ -403,18 +279,4 @@ public class CinematicAudioInstance extends AbstractTickableSoundInstance implem
             // PCM 数据由实例持有
         }
     }
-
-    private static final class DecodeResult {
-        final ByteBuffer rawAudio;
-        final int channels;
-        final int sampleRate;
-        final float duration;
-
-        DecodeResult(ByteBuffer rawAudio, int channels, int sampleRate, float duration) {
-            this.rawAudio = rawAudio;
-            this.channels = channels;
-            this.sampleRate = sampleRate;
-            this.duration = duration;
-        }
-    }
 }
@@ -27,6 +27,12 @@ public class CinematicScript {
     /** 原始 JSON（用于服务端→客户端网络同步，非解析时为空） */
     private String rawJson;
 
+    /** rawJson 的内容指纹（首次使用时计算，rawJson 变化时作废） */
+    private String fingerprint;
+
+    /** 资源清单（首次使用时生成；脚本数据不可变，无需作废） */
+    private AssetManifest assetManifest;
+
     public CinematicScript(ScriptMeta meta, Timeline timeline) {
         this.meta = meta;
         this.timeline = timeline;
@@ -37,7 +43,30 @@ public class CinematicScript {
     public Timeline getTimeline() { return timeline; }
 
     public String getRawJson() { return rawJson; }
-    public void setRawJson(String rawJson) { this.rawJson = rawJson; }
+    public void setRawJson(String rawJson) {
+        this.rawJson = rawJson;
+        this.fingerprint = null;
+    }
+
+    /**
+     * 原始 JSON 的内容指纹（{@link com.immersivecinematics.immersive_cinematics.trigger.network.ScriptFingerprint}），
+     * 客户端按此键缓存解析结果；无 rawJson 时为 null。
+     */
+    public String getFingerprint() {
+        if (fingerprint == null && rawJson != null) {
+            fingerprint = com.immersivecinematics.immersive_cinematics.trigger.network.ScriptFingerprint.of(
+                    rawJson.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        }
+        return fingerprint;
+    }
+
+    /** 脚本引用的音频 / 图片 / 基准清单（{@link AssetManifest}） */
+    public AssetManifest getAssetManifest() {
+        if (assetManifest == null) {
+            assetManifest = AssetManifest.of(this);
+        }
+        return assetManifest;
+    }
 
     /** 便捷方法：获取脚本ID */
     public String getId() { return meta.getId(); }
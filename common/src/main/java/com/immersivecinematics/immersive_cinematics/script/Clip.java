@@ -19,6 +19,9 @@ public class Clip {
     private final Map<String, Object> data;
     private final List<Keyframe> keyframes;
 
+    /** 编译后的关键帧列（CAMERA/LETTERBOX/OVERLAY；其他轨道为 {@link CompiledKeyframes#EMPTY}） */
+    private final CompiledKeyframes compiled;
+
     public Clip(float startTime, float duration, TrackType trackType,
                 Map<String, Object> data, List<Keyframe> keyframes) {
         this.startTime = startTime;
@@ -26,6 +29,14 @@ public class Clip {
         this.trackType = trackType;
         this.data = data != null ? data : Collections.emptyMap();
         this.keyframes = keyframes != null ? keyframes : Collections.emptyList();
+        this.compiled = hasInterpolatedKeyframes(trackType)
+                ? CompiledKeyframes.compile(this.keyframes)
+                : CompiledKeyframes.EMPTY;
+    }
+
+    /** 逐帧插值关键帧的轨道类型（解析后编译为 SoA 列，渲染热路径不再查 data map） */
+    private static boolean hasInterpolatedKeyframes(TrackType type) {
+        return type == TrackType.CAMERA || type == TrackType.LETTERBOX || type == TrackType.OVERLAY;
     }
 
     // ── 通用字段 ──
@@ -35,6 +46,7 @@ public class Clip {
     public TrackType getTrackType() { return trackType; }
     public Map<String, Object> getData() { return data; }
     public List<Keyframe> getKeyframes() { return keyframes; }
+    public CompiledKeyframes getCompiled() { return compiled; }
 
     /** 是否为无限时长片段（负数即视为无限时长） */
     public boolean isInfinite() { return duration < 0f; }
@@ -0,0 +1,157 @@
+package com.immersivecinematics.immersive_cinematics.script;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 编译后的关键帧 — 把 {@link Keyframe#getData()} 展平为结构体数组（SoA）的 float[] 列
+ * <p>
+ * 解析完成后由 {@link Clip} 构造时为 CAMERA/LETTERBOX/OVERLAY 片段一次性生成（片段与关键帧解析后不可变，
+ * 编辑器修改走重新解析 + replaceScript，因此无需失效）。渲染帧热路径（TrackPlayer.onRenderFrame）
+ * 按关键帧下标直接读列，不再每帧走 {@code Map<String,Object>} 查找 + 拆箱。
+ * <p>
+ * 列布局：
+ * <ul>
+ *   <li>{@link #times} — 关键帧时间（单调递增，解析期已校验）</li>
+ *   <li>CAMERA：{@link #posX}/{@link #posY}/{@link #posZ}（position 原始分量）、{@link #positions}、
+ *       {@link #yaw}/{@link #pitch}/{@link #roll}/{@link #fov}/{@link #zoom}（缺省值已填入）</li>
+ *   <li>LETTERBOX：{@link #aspectRatio}</li>
+ *   <li>其余数值字段（OVERLAY 的 opacity/x/y/scale_x 等）：{@link #column(String)}，缺失项为 NaN，
+ *       读取时用 {@link #valueOr(float[], int, float)} 回落调用方默认值</li>
+ * </ul>
+ */
+public final class CompiledKeyframes {
+
+    /** 无关键帧的共享空实例 */
+    public static final CompiledKeyframes EMPTY = new CompiledKeyframes(Collections.emptyList());
+
+    public final float[] times;
+
+    // ── CAMERA ──
+    public final float[] posX;
+    public final float[] posY;
+    public final float[] posZ;
+    public final PositionData[] positions;
+    public final float[] yaw;
+    public final float[] pitch;
+    public final float[] roll;
+    public final float[] fov;
+    public final float[] zoom;
+
+    // ── LETTERBOX ──
+    public final float[] aspectRatio;
+
+    /** 通用数值列（字段名 → 每帧值，缺失 = NaN） */
+    private final Map<String, float[]> columns;
+
+    /**
+     * 是否有关键帧引用运行时才能解析的外部目标（实体 / 结构 / 方块 / line 基准）。
+     * false 时 CameraTrackPlayer 可跳过逐关键帧的可用性检查。
+     */
+    private final boolean externalTargets;
+
+    private CompiledKeyframes(List<Keyframe> keyframes) {
+        int n = keyframes.size();
+        times = new float[n];
+        posX = new float[n];
+        posY = new float[n];
+        posZ = new float[n];
+        positions = new PositionData[n];
+        yaw = new float[n];
+        pitch = new float[n];
+        roll = new float[n];
+        fov = new float[n];
+        zoom = new float[n];
+        aspectRatio = new float[n];
+        Map<String, float[]> cols = new HashMap<>();
+        boolean external = false;
+
+        for (int i = 0; i < n; i++) {
+            Keyframe kf = keyframes.get(i);
+            times[i] = kf.getTime();
+            PositionData pd = kf.getPosition();
+            positions[i] = pd;
+            if (pd != null) {
+                posX[i] = pd.getX();
+                posY[i] = pd.getY();
+                posZ[i] = pd.getZ();
+            }
+            yaw[i] = kf.getYaw();
+            pitch[i] = kf.getPitch();
+            roll[i] = kf.getRoll();
+            fov[i] = kf.getFov();
+            zoom[i] = kf.getZoom();
+            aspectRatio[i] = kf.getAspectRatio();
+
+            for (Map.Entry<String, Object> e : kf.getData().entrySet()) {
+                if (!(e.getValue() instanceof Number num)) continue;
+                float[] col = cols.computeIfAbsent(e.getKey(), k -> newNaNColumn(n));
+                col[i] = num.floatValue();
+            }
+            external |= hasExternalTarget(kf, pd);
+        }
+        this.columns = cols;
+        this.externalTargets = external;
+    }
+
+    /** 编译关键帧列表（空列表返回共享 {@link #EMPTY}） */
+    public static CompiledKeyframes compile(List<Keyframe> keyframes) {
+        if (keyframes == null || keyframes.isEmpty()) return EMPTY;
+        return new CompiledKeyframes(keyframes);
+    }
+
+    /** 关键帧数量 */
+    public int size() {
+        return times.length;
+    }
+
+    /**
+     * 通用数值列
+     *
+     * @param key 关键帧字段名
+     * @return 每帧值（缺失项为 NaN）；没有任何关键帧含该数值字段时返回 null
+     */
+    public float[] column(String key) {
+        return columns.get(key);
+    }
+
+    /** 读取通用列第 i 项：列不存在或该帧缺失（NaN）时返回 defaultValue */
+    public static float valueOr(float[] col, int i, float defaultValue) {
+        if (col == null) return defaultValue;
+        float v = col[i];
+        return Float.isNaN(v) ? defaultValue : v;
+    }
+
+    /** 是否有关键帧引用运行时才能解析的外部目标（实体 / 结构 / 方块 / line 基准） */
+    public boolean hasExternalTargets() {
+        return externalTargets;
+    }
+
+    private static float[] newNaNColumn(int n) {
+        float[] col = new float[n];
+        java.util.Arrays.fill(col, Float.NaN);
+        return col;
+    }
+
+    /** 与 CameraTrackPlayer.isClipUsable 的检查项一一对应 */
+    private static boolean hasExternalTarget(Keyframe kf, PositionData pd) {
+        String lookAt = kf.getString("look_at", "none");
+        if ("entity".equals(lookAt)) return true;
+        if ("coordinate".equals(lookAt)
+                && (!kf.getString("look_at_target_structure", "").isEmpty() || kf.getObject("look_at_target") instanceof Map<?, ?>)) {
+            return true;
+        }
+        if ("entity".equals(kf.getString("follow", "none"))) return true;
+        String yawBase = kf.getString("yaw_base", "world");
+        String pitchBase = kf.getString("pitch_base", "world");
+        if (!"world".equals(yawBase) || !"world".equals(pitchBase)) return true;
+        if (pd != null && pd.isRelative()) {
+            String sid = pd.getOriginStructure();
+            if (sid != null && !sid.isEmpty()) return true;
+            if (pd.isOriginBlock()) return true;
+        }
+        return false;
+    }
+}
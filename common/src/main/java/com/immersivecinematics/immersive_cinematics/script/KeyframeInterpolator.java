@@ -12,6 +12,7 @@ import java.util.List;
  * 贝塞尔路径通过 ArcLengthLUT 确保路径上的匀速运动。
  * <p>
  * 此类为无状态工具类，所有方法都是静态的，不持有任何运行时状态。
+ * 段查找的"上一段"游标由调用方（TrackPlayer）持有，见 {@link SegmentCursor}。
  */
 public final class KeyframeInterpolator {
 
@@ -38,8 +39,28 @@ public final class KeyframeInterpolator {
      *         如果时间在关键帧范围外，返回 null
      */
     public static InterpolationResult computeInterpolation(float clipTime, Clip clip) {
+        return computeInterpolation(clipTime, clip, null, new InterpolationResult());
+    }
+
+    /**
+     * 计算关键帧插值结果（带段游标，写入调用方持有的结果对象）
+     * <p>
+     * 段查找先试游标记住的上一段及其后继段（单调播放 O(1) 摊还），
+     * 未命中（拖动/跳转/换片段）回落到时间列上的二分查找 O(log n)。
+     * 结果写入 out 并返回 out（渲染热路径每帧复用同一实例，不分配）。
+     *
+     * @param clipTime 片段内时间（秒）
+     * @param clip     所属片段
+     * @param cursor   段游标（可为 null = 每次二分查找）
+     * @param out      结果容器（由 TrackPlayer 持有）
+     * @return out；时间在关键帧范围外时返回 null（out 内容不变）
+     */
+    public static InterpolationResult computeInterpolation(float clipTime, Clip clip, SegmentCursor cursor,
+                                                           InterpolationResult out) {
         List<Keyframe> keyframes = clip.getKeyframes();
         if (keyframes == null || keyframes.isEmpty()) return null;
+        float[] times = clip.getCompiled().times;
+        int last = keyframes.size() - 1;
 
         float effectiveTime = clipTime;
 
@@ -50,12 +71,10 @@ public final class KeyframeInterpolator {
                 if (clip.getLoopCount() > 0) {
                     float maxLoopTime = animPeriod * clip.getLoopCount();
                     if (effectiveTime >= maxLoopTime) {
-                        Keyframe last = keyframes.get(keyframes.size() - 1);
-                        Keyframe secondLast = keyframes.get(keyframes.size() - 2);
-                        return new InterpolationResult(secondLast, last, 1.0f);
+                        return out.set(keyframes, last - 1, last, 1.0f);
                     }
                 }
-                float offset = keyframes.get(0).getTime();
+                float offset = times[0];
                 if ("pingpong".equals(clip.getLoopMode())) {
                     // 往复折返：以 2×周期为模，超周期部分镜像（监控来回摇，端点速度反向、位置连续）
                     float t = (effectiveTime - offset) % (2f * animPeriod);
@@ -68,31 +87,19 @@ public final class KeyframeInterpolator {
         }
 
         // 找到当前所处的两个关键帧
-        Keyframe from = null;
-        Keyframe to = null;
-        int fromIndex = -1;
-
-        for (int i = 0; i < keyframes.size() - 1; i++) {
-            if (effectiveTime >= keyframes.get(i).getTime() && effectiveTime <= keyframes.get(i + 1).getTime()) {
-                from = keyframes.get(i);
-                to = keyframes.get(i + 1);
-                fromIndex = i;
-                break;
-            }
-        }
+        int fromIndex = cursor != null ? cursor.find(times, effectiveTime) : findSegment(times, effectiveTime);
 
-        if (from == null || to == null) {
-            if (effectiveTime <= keyframes.get(0).getTime()) {
-                return new InterpolationResult(keyframes.get(0), keyframes.get(0), 0f);
+        if (fromIndex < 0) {
+            if (effectiveTime <= times[0]) {
+                return out.set(keyframes, 0, 0, 0f);
             } else {
-                Keyframe last = keyframes.get(keyframes.size() - 1);
-                return new InterpolationResult(last, last, 1f);
+                return out.set(keyframes, last, last, 1f);
             }
         }
 
         // 计算段内线性进度 t
-        float fromTime = from.getTime();
-        float toTime = to.getTime();
+        float fromTime = times[fromIndex];
+        float toTime = times[fromIndex + 1];
         float t;
         if (toTime == fromTime) {
             t = 1f;
@@ -103,7 +110,31 @@ public final class KeyframeInterpolator {
 
         float s = t;
 
-        return new InterpolationResult(from, to, s);
+        return out.set(keyframes, fromIndex, fromIndex + 1, s);
+    }
+
+    /**
+     * 二分查找关键帧段：返回满足 {@code times[i] <= t <= times[i+1]} 的最小 i。
+     * t 在关键帧范围外（或关键帧不足 2 个）返回 -1。
+     *
+     * @param times 关键帧时间列（严格单调递增，解析期已校验）
+     * @param t     片段内时间
+     */
+    public static int findSegment(float[] times, float t) {
+        int n = times.length;
+        if (n < 2 || !(t >= times[0]) || t > times[n - 1]) return -1;
+        // 下界：首个 times[j] >= t 的 j（j ∈ [1, n-1]），段 = j-1；t == times[0] 时落在段 0
+        int lo = 1;
+        int hi = n - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (times[mid] < t) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo - 1;
     }
 
     // ========== 位置插值 ==========
@@ -179,8 +210,10 @@ public final class KeyframeInterpolator {
     }
 
     public static float interpolateZoom(Keyframe from, Keyframe to, float s) {
-        float a = from.getZoom();
-        float b = to.getZoom();
+        return zoomLerp(from.getZoom(), to.getZoom(), s);
+    }
+
+    private static float zoomLerp(float a, float b, float s) {
         float result;
         if (a > 0f && b > 0f) {
             // 对数插值：倍率变化在视觉上均匀（1→100 的中点 = 10，而不是 50.5）
@@ -191,24 +224,98 @@ public final class KeyframeInterpolator {
         return MathUtil.sanitizeFloat(result, a);
     }
 
+    // ========== 编译列插值（渲染热路径：按关键帧下标读 SoA 列，不查 data map） ==========
+
+    /** 偏航角环绕插值（{@link CompiledKeyframes} 列版本） */
+    public static float interpolateYaw(CompiledKeyframes c, int from, int to, float s) {
+        float result = MathUtil.lerpAngle(c.yaw[from], c.yaw[to], s);
+        return MathUtil.sanitizeFloat(result, c.yaw[from]);
+    }
+
+    /** 俯仰角线性插值（{@link CompiledKeyframes} 列版本） */
+    public static float interpolatePitch(CompiledKeyframes c, int from, int to, float s) {
+        float result = MathUtil.lerp(c.pitch[from], c.pitch[to], s);
+        return MathUtil.sanitizeFloat(result, c.pitch[from]);
+    }
+
+    /** 滚转角环绕插值（{@link CompiledKeyframes} 列版本） */
+    public static float interpolateRoll(CompiledKeyframes c, int from, int to, float s) {
+        float result = MathUtil.lerpAngle(c.roll[from], c.roll[to], s);
+        return MathUtil.sanitizeFloat(result, c.roll[from]);
+    }
+
+    public static float interpolateFov(CompiledKeyframes c, int from, int to, float s) {
+        float result = MathUtil.lerp(c.fov[from], c.fov[to], s);
+        return MathUtil.sanitizeFloat(result, c.fov[from]);
+    }
+
+    public static float interpolateZoom(CompiledKeyframes c, int from, int to, float s) {
+        return zoomLerp(c.zoom[from], c.zoom[to], s);
+    }
+
+
+    // ========== 段游标 ==========
+
+    /**
+     * 关键帧段游标 — 记住上一帧命中的段下标（由 TrackPlayer 按片段槽位持有）
+     * <p>
+     * 单调播放时绝大多数帧命中同一段或紧邻的下一段，直接 O(1) 返回；
+     * 拖动播放头 / 跳转 / 切换片段等不连续访问回落到 {@link #findSegment} 二分查找。
+     * 游标只是查找提示，不影响结果：未命中时结果与二分查找完全一致。
+     */
+    public static final class SegmentCursor {
+        private int last = 0;
+
+        /** 同 {@link #findSegment}，优先命中上一段 / 下一段 */
+        public int find(float[] times, float t) {
+            int n = times.length;
+            int i = last;
+            if (i >= 0 && i < n - 1 && t >= times[i] && t <= times[i + 1]
+                    && (i == 0 || t > times[i])) {
+                return i;
+            }
+            int next = i + 1;
+            if (next >= 0 && next < n - 1 && t > times[next] && t <= times[next + 1]) {
+                last = next;
+                return next;
+            }
+            int found = findSegment(times, t);
+            if (found >= 0) last = found;
+            return found;
+        }
+
+        /** 复位（片段数据替换 / 停止时） */
+        public void reset() {
+            last = 0;
+        }
+    }
 
     // ========== 结果容器 ==========
 
     /**
      * 插值计算结果 — 包含 from/to 关键帧和弧长进度 s
+     * <p>
+     * 可变容器：由调用方（TrackPlayer）持有并逐帧复用，内容在下一次 computeInterpolation 时被覆盖。
      */
     public static class InterpolationResult {
         /** 起始关键帧 */
-        public final Keyframe from;
+        public Keyframe from;
         /** 目标关键帧 */
-        public final Keyframe to;
+        public Keyframe to;
+        /** 起始关键帧下标（{@link CompiledKeyframes} 列索引） */
+        public int fromIndex;
+        /** 目标关键帧下标（{@link CompiledKeyframes} 列索引） */
+        public int toIndex;
         /** 弧长进度 s [0, 1]（匀速模型下 s = t） */
-        public final float adjustedT;
+        public float adjustedT;
 
-        public InterpolationResult(Keyframe from, Keyframe to, float adjustedT) {
-            this.from = from;
-            this.to = to;
-            this.adjustedT = adjustedT;
+        private InterpolationResult set(List<Keyframe> keyframes, int fromIndex, int toIndex, float s) {
+            this.from = keyframes.get(fromIndex);
+            this.to = keyframes.get(toIndex);
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+            this.adjustedT = s;
+            return this;
         }
     }
 }
@@ -3,7 +3,6 @@ package com.immersivecinematics.immersive_cinematics.script;
 import com.immersivecinematics.immersive_cinematics.overlay.OverlayManager;
 import com.immersivecinematics.immersive_cinematics.overlay.LetterboxLayer;
 import com.immersivecinematics.immersive_cinematics.script.Clip;
-import com.immersivecinematics.immersive_cinematics.script.Keyframe;
 
 import java.util.List;
 
@@ -14,6 +13,8 @@ public class LetterboxTrackPlayer implements TrackPlayer {
     private final int trackIndex;
     private final OverlayManager overlayManager;
     private int lastClipIdx = -1;
+    /** 关键帧段游标（单调播放 O(1) 命中，跳转回落二分查找） */
+    private final KeyframeInterpolator.SegmentCursor segmentCursor = new KeyframeInterpolator.SegmentCursor();
 
     public LetterboxTrackPlayer(ScriptPlayer scriptPlayer, TrackType type, OverlayManager overlayManager, int trackIndex) {
         this.scriptPlayer = scriptPlayer;
@@ -46,31 +47,28 @@ public class LetterboxTrackPlayer implements TrackPlayer {
 
         int clipIdx = clips.indexOf(activeClip);
         float localTime = clipTime(activeClip, globalTime);
-        List<Keyframe> kfs = activeClip.getKeyframes();
+        CompiledKeyframes ck = activeClip.getCompiled();
+        int n = ck.size();
 
-        if (kfs == null || kfs.isEmpty()) {
+        if (n == 0) {
             lastClipIdx = clipIdx;
             return;
         }
 
         float ratio;
-        if (kfs.size() < 2) {
-            ratio = kfs.get(0).getAspectRatio();
+        if (n < 2) {
+            ratio = ck.aspectRatio[0];
         } else {
-            Keyframe from = kfs.get(0), to = kfs.get(kfs.size() - 1);
-            for (int i = 0; i < kfs.size() - 1; i++) {
-                if (localTime >= kfs.get(i).getTime() && localTime <= kfs.get(i + 1).getTime()) {
-                    from = kfs.get(i);
-                    to = kfs.get(i + 1);
-                    break;
-                }
-            }
-            float t = (to.getTime() - from.getTime() > 0.001f)
-                    ? (localTime - from.getTime()) / (to.getTime() - from.getTime()) : 0f;
+            float[] times = ck.times;
+            int seg = segmentCursor.find(times, localTime);
+            int from = seg >= 0 ? seg : 0;
+            int to = seg >= 0 ? seg + 1 : n - 1;
+            float t = (times[to] - times[from] > 0.001f)
+                    ? (localTime - times[from]) / (times[to] - times[from]) : 0f;
             t = Math.max(0f, Math.min(1f, t));
             // E3：smoothstep（3t²-2t³）缓入缓出，letterbox 出入场变平滑
             t = t * t * (3f - 2f * t);
-            ratio = from.getAspectRatio() + (to.getAspectRatio() - from.getAspectRatio()) * t;
+            ratio = ck.aspectRatio[from] + (ck.aspectRatio[to] - ck.aspectRatio[from]) * t;
         }
 
         if (clipIdx != lastClipIdx || Math.abs(letterbox.getAspectRatio() - ratio) > 0.001f) {
@@ -88,6 +86,7 @@ public class LetterboxTrackPlayer implements TrackPlayer {
     @Override
     public void onScriptReplaced() {
         lastClipIdx = -1;
+        segmentCursor.reset();
     }
 
     private float clipTime(Clip clip, float globalTime) {
@@ -0,0 +1,99 @@
+package com.immersivecinematics.immersive_cinematics.script;
+
+import net.minecraft.client.sounds.AudioStream;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.stb.STBVorbis;
+
+import javax.sound.sampled.AudioFormat;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.nio.file.Path;
+
+/**
+ * OGG 流式解码 — stb_vorbis 拉取式 API，按 SoundEngine 的读取请求逐块解码
+ * <p>
+ * 不再整段解码成 PCM：内存只有 stb_vorbis 解码状态 + 一块复用的输出缓冲（随请求大小增长，一般 64 KB 级）。
+ * 起始位置在打开时 {@code stb_vorbis_seek} 定位（编辑器 seek / 中途开播 / 重启都只需重新打开）；
+ * 循环播放到结尾时 {@code stb_vorbis_seek_start} 回到开头继续。
+ * <p>
+ * 由原版声音流线程读取；打开在后台线程（见 {@link CinematicAudioInstance#getStream}），之后只有一个线程访问。
+ */
+public final class OggVorbisStream implements AudioStream {
+
+    private final AudioFormat format;
+    private final int channels;
+    private final boolean loop;
+    /** 内存 OGG（原版资源）：解码期间必须保持引用 */
+    @SuppressWarnings("unused")
+    private final ByteBuffer memory;
+
+    private long handle;
+    private ByteBuffer out;
+    private ShortBuffer outShorts;
+
+    /**
+     * @param file       磁盘文件（与 memory 二选一）
+     * @param memory     内存中的 OGG 数据（direct buffer）
+     * @param startFrame 起始采样帧（每声道样本序号）
+     */
+    OggVorbisStream(Path file, ByteBuffer memory, int channels, int sampleRate, int startFrame, boolean loop) {
+        this.channels = channels;
+        this.loop = loop;
+        this.memory = memory;
+        this.format = new AudioFormat(sampleRate, 16, channels, true, false);
+
+        IntBuffer error = BufferUtils.createIntBuffer(1);
+        this.handle = memory != null
+                ? STBVorbis.stb_vorbis_open_memory(memory, error, null)
+                : STBVorbis.stb_vorbis_open_filename(file.toString(), error, null);
+        if (handle == 0) {
+            throw new RuntimeException("OGG 打开失败 (stb_vorbis error " + error.get(0) + "): "
+                    + (file != null ? file : "<memory>"));
+        }
+        if (startFrame > 0 && !STBVorbis.stb_vorbis_seek(handle, startFrame)) {
+            close();
+            throw new RuntimeException("OGG 定位失败: frame " + startFrame);
+        }
+    }
+
+    @Override
+    public AudioFormat getFormat() {
+        return format;
+    }
+
+    @Override
+    public ByteBuffer read(int size) {
+        int frames = Math.max(1, size / (2 * channels));
+        int shorts = frames * channels;
+        if (out == null || out.capacity() < shorts * 2) {
+            out = BufferUtils.createByteBuffer(shorts * 2);
+            outShorts = out.asShortBuffer();
+        }
+        int filled = 0;
+        boolean rewound = false;
+        while (handle != 0 && filled < shorts) {
+            outShorts.limit(shorts).position(filled);
+            int n = STBVorbis.stb_vorbis_get_samples_short_interleaved(handle, channels, outShorts);
+            if (n > 0) {
+                filled += n * channels;
+                rewound = false;
+                continue;
+            }
+            // 到达结尾：循环则回到开头（刚回到开头仍读不到数据 = 空文件，停止）
+            if (!loop || rewound || !STBVorbis.stb_vorbis_seek_start(handle)) break;
+            rewound = true;
+        }
+        out.clear();
+        out.limit(filled * 2);
+        return out;
+    }
+
+    @Override
+    public void close() {
+        if (handle != 0) {
+            STBVorbis.stb_vorbis_close(handle);
+            handle = 0;
+        }
+    }
+}
@@ -1,7 +1,8 @@
 package com.immersivecinematics.immersive_cinematics.script;
 
+import com.immersivecinematics.immersive_cinematics.Config;
 import com.immersivecinematics.immersive_cinematics.overlay.*;
-import net.minecraft.resources.ResourceLocation;
+import com.immersivecinematics.immersive_cinematics.util.TextureLoader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,6 +18,8 @@ import java.util.List;
  *   <li>Clip 持续时通过关键帧插值驱动 layer 属性</li>
  *   <li>onStop 时清理所有层</li>
  * </ol>
+ * 图片纹理异步加载：即将开始（{@link Config#overlayPrefetchSeconds} 内）的 image 片段提前发起加载，
+ * 到点时通常已就绪。
  */
 public class OverlayTrackPlayer implements TrackPlayer {
 
@@ -28,6 +31,8 @@ public class OverlayTrackPlayer implements TrackPlayer {
     private final OverlayManager overlayManager;
     private OverlayLayer currentLayer = null;
     private Clip activeClip = null;
+    /** 关键帧段游标（每帧查一次段，所有属性共用；单调播放 O(1) 命中，跳转回落二分查找） */
+    private final KeyframeInterpolator.SegmentCursor segmentCursor = new KeyframeInterpolator.SegmentCursor();
 
     public OverlayTrackPlayer(ScriptPlayer scriptPlayer, TrackType type, OverlayManager overlayManager, int trackIndex) {
         this.scriptPlayer = scriptPlayer;
@@ -48,6 +53,7 @@ public class OverlayTrackPlayer implements TrackPlayer {
 
     @Override
     public void onRenderFrame(float globalTime) {
+        prefetchImages(globalTime);
         Clip clip = findActiveClip(globalTime);
 
         // Transition: clip changed or no longer active
@@ -77,13 +83,14 @@ public class OverlayTrackPlayer implements TrackPlayer {
 
         // Interpolate keyframe values
         float localTime = clipTime(clip, globalTime);
-        List<Keyframe> kfs = clip.getKeyframes();
+        CompiledKeyframes kfs = clip.getCompiled();
+        int seg = segmentCursor.find(kfs.times, localTime);
 
         // 透明度完全由关键帧 opacity 控制（fade_in/fade_out 由关键帧表达，代码层不叠加）
-        float opacity = interpolateFloat(kfs, localTime, "opacity", 0f,
+        float opacity = interpolateFloat(kfs, seg, localTime, "opacity", 0f,
                 "smooth".equals(clip.getString("interpolation", "linear")));
 
-        updateLayer(clip, opacity, kfs, localTime);
+        updateLayer(clip, opacity, kfs, seg, localTime);
         if (currentLayer instanceof ImageLayer) {
             ((ImageLayer) currentLayer).setTime(globalTime);
         }
@@ -98,6 +105,7 @@ public class OverlayTrackPlayer implements TrackPlayer {
     @Override
     public void onScriptReplaced() {
         cleanupCurrentLayer();
+        segmentCursor.reset();
     }
 
     // ========== Layer management ==========
@@ -105,6 +113,8 @@ public class OverlayTrackPlayer implements TrackPlayer {
     private void cleanupCurrentLayer() {
         if (currentLayer != null) {
             overlayManager.removeLayer(currentLayer);
+            // 片段结束：归还纹理引用，无人引用后可被缓存淘汰
+            if (currentLayer instanceof ImageLayer il) il.release();
             currentLayer = null;
         }
         activeClip = null;
@@ -126,13 +136,8 @@ public class OverlayTrackPlayer implements TrackPlayer {
                 ImageLayer il = new ImageLayer();
                 String path = clip.getString("path", "");
                 if (!path.isEmpty()) {
-                    ResourceLocation tex = com.immersivecinematics.immersive_cinematics.util.TextureLoader.loadTexture(path);
-                    if (tex != null) {
-                        il.setTexture(path, tex);
-                    } else {
-                        // debug 级：资源缺失不影响脚本播放，作者排查时开调试日志可见
-                        LOGGER.debug("Image not found in resource/: {}", path);
-                    }
+                    // 纹理异步加载；资源缺失由 TextureLoader 记 debug 日志，不影响脚本播放
+                    il.setImage(path);
                 }
                 il.setZIndex(zIndex);
                 layer = il;
@@ -176,7 +181,7 @@ public class OverlayTrackPlayer implements TrackPlayer {
         }
     }
 
-    private void updateLayer(Clip clip, float opacity, List<Keyframe> kfs, float localTime) {
+    private void updateLayer(Clip clip, float opacity, CompiledKeyframes kfs, int seg, float localTime) {
         boolean smooth = "smooth".equals(clip.getString("interpolation", "linear"));
         if (currentLayer instanceof FadeLayer fl) {
             fl.setOpacity(opacity);
@@ -184,38 +189,38 @@ public class OverlayTrackPlayer implements TrackPlayer {
             il.setOpacity(opacity);
             // 屏幕百分比位置 + 原图百分比乘数（scale_x/scale_y，默认 1 = 原尺寸）
             il.setPosition(
-                    interpolateFloat(kfs, localTime, "x", 0f, smooth),
-                    interpolateFloat(kfs, localTime, "y", 0f, smooth)
+                    interpolateFloat(kfs, seg, localTime, "x", 0f, smooth),
+                    interpolateFloat(kfs, seg, localTime, "y", 0f, smooth)
             );
             il.setScale(
-                    interpolateFloat(kfs, localTime, "scale_x", 1f, smooth),
-                    interpolateFloat(kfs, localTime, "scale_y", 1f, smooth)
+                    interpolateFloat(kfs, seg, localTime, "scale_x", 1f, smooth),
+                    interpolateFloat(kfs, seg, localTime, "scale_y", 1f, smooth)
             );
         } else if (currentLayer instanceof SubtitleLayer sl) {
             sl.setOpacity(opacity);
             sl.setPosition(
-                    interpolateFloat(kfs, localTime, "x", 0f, smooth),
-                    interpolateFloat(kfs, localTime, "y", 0f, smooth)
+                    interpolateFloat(kfs, seg, localTime, "x", 0f, smooth),
+                    interpolateFloat(kfs, seg, localTime, "y", 0f, smooth)
             );
             // 两级缩放：font_scale（原版 title 同款矩阵缩放）+ scale_x/y（图片同款百分比缩放）
-            sl.setFontScale(interpolateFloat(kfs, localTime, "font_scale", 1f, smooth));
+            sl.setFontScale(interpolateFloat(kfs, seg, localTime, "font_scale", 1f, smooth));
             sl.setScale(
-                    interpolateFloat(kfs, localTime, "scale_x", 1f, smooth),
-                    interpolateFloat(kfs, localTime, "scale_y", 1f, smooth)
+                    interpolateFloat(kfs, seg, localTime, "scale_x", 1f, smooth),
+                    interpolateFloat(kfs, seg, localTime, "scale_y", 1f, smooth)
             );
         } else if (currentLayer instanceof PipLayer pl) {
             pl.setOpacity(opacity);
             pl.setPosition(
-                    interpolateFloat(kfs, localTime, "x", 0f, smooth),
-                    interpolateFloat(kfs, localTime, "y", 0f, smooth)
+                    interpolateFloat(kfs, seg, localTime, "x", 0f, smooth),
+                    interpolateFloat(kfs, seg, localTime, "y", 0f, smooth)
             );
             pl.setSize(
-                    interpolateFloat(kfs, localTime, "width", 0f, smooth),
-                    interpolateFloat(kfs, localTime, "height", 0f, smooth)
+                    interpolateFloat(kfs, seg, localTime, "width", 0f, smooth),
+                    interpolateFloat(kfs, seg, localTime, "height", 0f, smooth)
             );
             pl.setAnchor(
-                    interpolateFloat(kfs, localTime, "anchor_x", 0.5f, smooth),
-                    interpolateFloat(kfs, localTime, "anchor_y", 0.5f, smooth)
+                    interpolateFloat(kfs, seg, localTime, "anchor_x", 0.5f, smooth),
+                    interpolateFloat(kfs, seg, localTime, "anchor_y", 0.5f, smooth)
             );
         }
     }
@@ -225,55 +230,48 @@ public class OverlayTrackPlayer implements TrackPlayer {
     /**
      * 关键帧插值（线性或 smooth 样条）。
      * smooth（clip.interpolation="smooth"）：Catmull-Rom 样条，轨迹平滑穿过关键帧，消除折线拐弯。
+     * 读取 {@link CompiledKeyframes} 列（每属性每帧一次列查找，不再逐关键帧查 data map + 拆箱）。
+     *
+     * @param segIdx 本帧所在关键帧段（{@link KeyframeInterpolator.SegmentCursor#find}，范围外 = -1）
      */
-    private float interpolateFloat(List<Keyframe> kfs, float localTime, String key, float defaultValue, boolean smooth) {
-        if (kfs == null || kfs.isEmpty()) return defaultValue;
-        if (kfs.size() < 2) return kfs.get(0).getFloat(key, defaultValue);
-
-        Keyframe from = kfs.get(0);
-        Keyframe to = kfs.get(kfs.size() - 1);
-        int segIdx = 0;
-        boolean found = false;
-
-        for (int i = 0; i < kfs.size() - 1; i++) {
-            if (localTime >= kfs.get(i).getTime() && localTime <= kfs.get(i + 1).getTime()) {
-                from = kfs.get(i);
-                to = kfs.get(i + 1);
-                segIdx = i;
-                found = true;
-                break;
-            }
-        }
-
-        if (!found) {
+    private float interpolateFloat(CompiledKeyframes kfs, int segIdx, float localTime, String key, float defaultValue, boolean smooth) {
+        int n = kfs.size();
+        if (n == 0) return defaultValue;
+        float[] col = kfs.column(key);
+        if (n < 2) return CompiledKeyframes.valueOr(col, 0, defaultValue);
+
+        float[] times = kfs.times;
+        if (segIdx < 0) {
             // 范围外：返回边界关键帧的值（不进入样条——否则 Catmull-Rom 在 t=1 会算出 p2 的值而非末帧）
-            return localTime < kfs.get(0).getTime()
-                    ? kfs.get(0).getFloat(key, defaultValue)
-                    : kfs.get(kfs.size() - 1).getFloat(key, defaultValue);
+            return localTime < times[0]
+                    ? CompiledKeyframes.valueOr(col, 0, defaultValue)
+                    : CompiledKeyframes.valueOr(col, n - 1, defaultValue);
         }
 
-        float t = (to.getTime() - from.getTime() > 0.001f)
-                ? (localTime - from.getTime()) / (to.getTime() - from.getTime()) : 0f;
+        float fromTime = times[segIdx];
+        float toTime = times[segIdx + 1];
+        float t = (toTime - fromTime > 0.001f)
+                ? (localTime - fromTime) / (toTime - fromTime) : 0f;
         t = Math.max(0f, Math.min(1f, t));
 
-        float vFrom = from.getFloat(key, defaultValue);
-        float vTo = to.getFloat(key, defaultValue);
+        float vFrom = CompiledKeyframes.valueOr(col, segIdx, defaultValue);
+        float vTo = CompiledKeyframes.valueOr(col, segIdx + 1, defaultValue);
 
-        if (smooth && kfs.size() >= 3) {
+        if (smooth && n >= 3) {
             // Centripetal Catmull-Rom（Barry-Goldman 金字塔，参数 = 时间间距平方根）：
             // 非均匀关键帧下速度更均匀、过冲更小；统一时间参数保证 x/y 轨迹同步
-            Keyframe p0 = segIdx > 0 ? kfs.get(segIdx - 1) : kfs.get(0);
-            Keyframe p1 = kfs.get(segIdx);
-            Keyframe p2 = kfs.get(segIdx + 1);
-            Keyframe p3 = (segIdx + 2 < kfs.size()) ? kfs.get(segIdx + 2) : kfs.get(kfs.size() - 1);
-            float v0 = p0.getFloat(key, defaultValue);
-            float v1 = p1.getFloat(key, defaultValue);
-            float v2 = p2.getFloat(key, defaultValue);
-            float v3 = p3.getFloat(key, defaultValue);
+            int i0 = segIdx > 0 ? segIdx - 1 : 0;
+            int i1 = segIdx;
+            int i2 = segIdx + 1;
+            int i3 = (segIdx + 2 < n) ? segIdx + 2 : n - 1;
+            float v0 = CompiledKeyframes.valueOr(col, i0, defaultValue);
+            float v1 = vFrom;
+            float v2 = vTo;
+            float v3 = CompiledKeyframes.valueOr(col, i3, defaultValue);
             float tt0 = 0f;
-            float tt1 = (float) Math.sqrt(Math.max(0f, p1.getTime() - p0.getTime()));
-            float tt2 = tt1 + (float) Math.sqrt(Math.max(0f, p2.getTime() - p1.getTime()));
-            float tt3 = tt2 + (float) Math.sqrt(Math.max(0f, p3.getTime() - p2.getTime()));
+            float tt1 = (float) Math.sqrt(Math.max(0f, times[i1] - times[i0]));
+            float tt2 = tt1 + (float) Math.sqrt(Math.max(0f, times[i2] - times[i1]));
+            float tt3 = tt2 + (float) Math.sqrt(Math.max(0f, times[i3] - times[i2]));
             float u = tt1 + t * (tt2 - tt1);
             float a1 = bgLerp(v0, v1, tt0, tt1, u);
             float a2 = bgLerp(v1, v2, tt1, tt2, u);
@@ -294,6 +292,18 @@ public class OverlayTrackPlayer implements TrackPlayer {
 
     // ========== Helpers ==========
 
+    /** 对 (globalTime, globalTime + overlayPrefetchSeconds] 内开始的 image 片段发起纹理加载（已加载/加载中为空操作） */
+    private void prefetchImages(float globalTime) {
+        float horizon = globalTime + Math.max(0f, Config.overlayPrefetchSeconds);
+        if (horizon <= globalTime) return;
+        for (Clip clip : clips()) {
+            float start = clip.getStartTime();
+            if (start <= globalTime || start > horizon) continue;
+            if (!"image".equals(clip.getString("layer_type", "fade"))) continue;
+            TextureLoader.request(clip.getString("path", ""));
+        }
+    }
+
     private float clipTime(Clip clip, float globalTime) {
         return Math.max(0f, Math.min(clip.getDuration(), globalTime - clip.getStartTime()));
     }
@@ -1,5 +1,7 @@
 package com.immersivecinematics.immersive_cinematics.script;
 
+import com.immersivecinematics.immersive_cinematics.util.MathUtil.MutableVec3;
+import net.minecraft.world.phys.Vec3;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,9 +35,27 @@ public final class PathStrategies {
     /** 默认策略：线性插值 */
     public static final String DEFAULT_TYPE = "linear";
 
+    /** 线性插值（无状态单例；零分配重载直接原地 lerp） */
+    private static final PathStrategy LINEAR = new PathStrategy() {
+        @Override
+        public Vec3 interpolate(Vec3 from, Vec3 to, float t, BezierCurve curve) {
+            return from.lerp(to, t);
+        }
+
+        @Override
+        public MutableVec3 interpolate(MutableVec3 from, MutableVec3 to, float t, BezierCurve curve, MutableVec3 out) {
+            return out.lerp(from, to, t);
+        }
+
+        @Override
+        public MutableVec3 tangent(MutableVec3 from, MutableVec3 to, float t, BezierCurve curve, MutableVec3 out) {
+            return out.sub(to, from);
+        }
+    };
+
     static {
         // 注册默认策略（linear 无状态，可复用同一实例）
-        register("linear", () -> (from, to, t, curve) -> from.lerp(to, t));
+        register("linear", () -> LINEAR);
     }
 
     private PathStrategies() {}  // 工具类，禁止实例化
@@ -1,5 +1,6 @@
 package com.immersivecinematics.immersive_cinematics.script;
 
+import com.immersivecinematics.immersive_cinematics.util.MathUtil.MutableVec3;
 import net.minecraft.world.phys.Vec3;
 
 /**
@@ -15,6 +16,9 @@ import net.minecraft.world.phys.Vec3;
  * </ul>
  * <p>
  * 注册方式：在 {@link PathStrategies} 注册表中按 curve.type 名称注册。
+ * <p>
+ * 渲染帧热路径调用写入 {@link MutableVec3} 的重载；默认实现委托给 Vec3 版本（会分配），
+ * 内置策略覆写为零分配实现。
  */
 @FunctionalInterface
 public interface PathStrategy {
@@ -44,4 +48,26 @@ public interface PathStrategy {
     default Vec3 tangent(Vec3 from, Vec3 to, float t, BezierCurve curve) {
         return to.subtract(from);
     }
+
+    /**
+     * {@link #interpolate(Vec3, Vec3, float, BezierCurve)} 的零分配形式：结果写入 out。
+     * <p>
+     * out 不得与 from/to 为同一对象。
+     *
+     * @return out
+     */
+    default MutableVec3 interpolate(MutableVec3 from, MutableVec3 to, float t, BezierCurve curve, MutableVec3 out) {
+        return out.set(interpolate(from.toVec3(), to.toVec3(), t, curve));
+    }
+
+    /**
+     * {@link #tangent(Vec3, Vec3, float, BezierCurve)} 的零分配形式：结果写入 out。
+     * <p>
+     * out 不得与 from/to 为同一对象。
+     *
+     * @return out
+     */
+    default MutableVec3 tangent(MutableVec3 from, MutableVec3 to, float t, BezierCurve curve, MutableVec3 out) {
+        return out.set(tangent(from.toVec3(), to.toVec3(), t, curve));
+    }
 }
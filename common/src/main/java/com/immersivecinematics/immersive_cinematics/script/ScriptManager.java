@@ -2,10 +2,12 @@ package com.immersivecinematics.immersive_cinematics.script;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import com.immersivecinematics.immersive_cinematics.trigger.server.CompiledCondition;
 import com.immersivecinematics.immersive_cinematics.trigger.server.TriggerEngine;
 import com.immersivecinematics.immersive_cinematics.trigger.server.TriggerRegistration;
 import com.immersivecinematics.immersive_cinematics.trigger.server.TriggerRegistry;
 import com.immersivecinematics.immersive_cinematics.trigger.server.TriggerType;
+import com.immersivecinematics.immersive_cinematics.trigger.network.ScriptFingerprint;
 import com.immersivecinematics.immersive_cinematics.trigger.server.action.StartPlaybackAction;
 import com.immersivecinematics.immersive_cinematics.trigger.server.evaluator.Evaluators;
 import com.mojang.logging.LogUtils;
@@ -13,16 +15,33 @@ import net.minecraft.server.MinecraftServer;
 import org.slf4j.Logger;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+/**
+ * 服务端脚本管理 — 从游戏根目录加载全部脚本并注册触发器
+ * <p>
+ * 加载：读文件 + 解析在 ForkJoin 池上并行，结果按文件路径顺序合并：多个文件声明同一 id 时路径排序靠后的生效，
+ * 与平台的目录遍历顺序无关；热重载的换入 / 接替走同一规则（{@link #resolveById}）。
+ * 重载：内容指纹（{@link ScriptFingerprint}）未变的文件直接复用上次解析结果，
+ * 触发器只为新增 / 变更 / 删除的脚本重新注册，其余脚本的触发器与玩家状态不受影响。
+ * 热重载（{@link ScriptWatcher}）走同一套按文件换入的逻辑（{@link #applyFileChanges}）。
+ */
 public class ScriptManager {
 
     private static final Logger LOGGER = LogUtils.getLogger();
@@ -34,56 +53,122 @@ public class ScriptManager {
     /** 脚本递归加载的最大深度（子文件夹组织，防异常目录结构） */
     public static final int MAX_SCRIPT_DEPTH = 5;
 
+    /** 解析并行度上限（文件 IO + JSON 解析，线程再多收益不大） */
+    private static final int MAX_PARSE_THREADS = 4;
+
     private final Map<String, CinematicScript> scripts = new LinkedHashMap<>();
+    /** 文件 → 上次解析结果（增量重载按内容指纹复用）；按路径排序，同 id 接替顺序与加载一致 */
+    private final TreeMap<Path, CinematicScript> scriptsByFile = new TreeMap<>();
     private boolean loaded = false;
 
     private ScriptManager() {}
 
     public void loadAll(MinecraftServer server) {
         scripts.clear();
+        scriptsByFile.clear();
         // 服务端统一从游戏根目录加载脚本（不依赖世界存档；播放时通过 S2C 包下发完整 JSON 给客户端）
-        Path scriptDir = server.getServerDirectory().toPath().toAbsolutePath().resolve(GLOBAL_SCRIPT_DIR);
-        loadFromDir(scriptDir, true);
+        Path scriptDir = getScriptDir(server);
+        loadFromDir(scriptDir, true, Map.of());
         loaded = true;
         LOGGER.info("Loaded {} scripts from {}", scripts.size(), scriptDir);
     }
 
-    private void loadFromDir(Path dir, boolean overwrite) {
+    /** 全局脚本目录（绝对路径） */
+    public static Path getScriptDir(MinecraftServer server) {
+        return server.getServerDirectory().toPath().toAbsolutePath().resolve(GLOBAL_SCRIPT_DIR);
+    }
+
+    /** 单个文件的加载结果（解析线程产出，合并在调用线程按文件顺序进行）；script 与 error 均为 null = 文件已删除 */
+    record FileResult(Path file, CinematicScript script, boolean reused, Exception error) {}
+
+    /**
+     * @param previous 上次加载的 文件 → 脚本；内容指纹相同则复用，不再解析
+     * @return 本次复用的脚本数
+     */
+    private int loadFromDir(Path dir, boolean overwrite, Map<Path, CinematicScript> previous) {
         if (!Files.isDirectory(dir)) {
             try {
                 Files.createDirectories(dir);
             } catch (IOException e) {
                 com.immersivecinematics.immersive_cinematics.util.ErrorLog.log("ScriptLoad", "Failed to create scripts directory: " + dir, e);
             }
-            return;
+            return 0;
         }
 
         // 递归加载：支持子文件夹组织（深度 ≤ MAX_SCRIPT_DEPTH），只加载常规 .json 文件
         List<Path> jsonFiles;
         try (Stream<Path> stream = Files.walk(dir, MAX_SCRIPT_DEPTH)) {
             jsonFiles = stream.filter(p -> Files.isRegularFile(p) && p.toString().endsWith(".json"))
+                              .sorted()
                               .collect(Collectors.toList());
         } catch (IOException e) {
             com.immersivecinematics.immersive_cinematics.util.ErrorLog.log("ScriptLoad", "Failed to list scripts directory: " + dir, e);
-            return;
+            return 0;
         }
 
-        for (Path file : jsonFiles) {
-            try {
-                String content = Files.readString(file);
-                CinematicScript script = ScriptParser.parse(content);
-                script.setRawJson(content);
-                String id = script.getId();
-                if (scripts.containsKey(id) && !overwrite) {
-                    continue;
-                }
-                scripts.put(id, script);
-                LOGGER.info("Loaded script: {} (id={}) from {}", script.getName(), id, toForwardRel(dir, file));
-            } catch (Exception e) {
+        List<FileResult> results = parseAll(jsonFiles, previous);
+
+        // 合并按 jsonFiles 顺序（路径排序；并行流 toList 保持该顺序），同 id 的覆盖结果与串行加载一致
+        int reused = 0;
+        for (FileResult r : results) {
+            if (r.error() != null) {
                 // 脚本解析失败：写错误日志文件（作者排查），不影响其他脚本加载
                 com.immersivecinematics.immersive_cinematics.util.ErrorLog.log("ScriptLoad",
-                        "Failed to load script from " + toForwardRel(dir, file) + ": " + e.getMessage(), e);
+                        "Failed to load script from " + toForwardRel(dir, r.file()) + ": " + r.error().getMessage(), r.error());
+                continue;
             }
+            CinematicScript script = r.script();
+            String id = script.getId();
+            if (scripts.containsKey(id) && !overwrite) {
+                continue;
+            }
+            scripts.put(id, script);
+            scriptsByFile.put(r.file(), script);
+            if (r.reused()) {
+                reused++;
+            } else {
+                LOGGER.info("Loaded script: {} (id={}) from {}", script.getName(), id, toForwardRel(dir, r.file()));
+            }
+        }
+        return reused;
+    }
+
+    /** 并行读取 + 解析；指纹未变的文件复用 previous 中的脚本对象 */
+    private static List<FileResult> parseAll(List<Path> files, Map<Path, CinematicScript> previous) {
+        if (files.size() <= 1) {
+            return files.stream().map(f -> parseFile(f, previous)).collect(Collectors.toList());
+        }
+        int threads = Math.max(1, Math.min(MAX_PARSE_THREADS, Runtime.getRuntime().availableProcessors() - 1));
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return pool.submit(() -> files.parallelStream()
+                    .map(f -> parseFile(f, previous))
+                    .collect(Collectors.toList())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Script loading interrupted", e);
+        } catch (ExecutionException e) {
+            // parseFile 自身不抛异常，走到这里只可能是池内部错误
+            throw new RuntimeException("Script loading failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    static FileResult parseFile(Path file, Map<Path, CinematicScript> previous) {
+        try {
+            String content = Files.readString(file);
+            CinematicScript old = previous.get(file);
+            if (old != null && ScriptFingerprint.of(content.getBytes(StandardCharsets.UTF_8)).equals(old.getFingerprint())) {
+                return new FileResult(file, old, true, null);
+            }
+            CinematicScript script = ScriptParser.parse(content);
+            script.setRawJson(content);
+            // 指纹在解析线程算好，后续网络同步 / 重载比较不再占用主线程
+            script.getFingerprint();
+            return new FileResult(file, script, false, null);
+        } catch (Exception e) {
+            return new FileResult(file, null, false, e);
         }
     }
 
@@ -91,62 +176,185 @@ public class ScriptManager {
         TriggerEngine.INSTANCE.clear();
         List<TriggerRegistration> registrations = new ArrayList<>();
         for (CinematicScript script : scripts.values()) {
-            ScriptMeta meta = script.getMeta();
-            for (TriggerDefinition td : meta.getTriggers()) {
-                TriggerType triggerType = TriggerRegistry.get(td.getType());
-                if (triggerType == null) {
+            buildRegistrations(script, registrations);
+        }
+        TriggerEngine.INSTANCE.registerAll(registrations);
+        LOGGER.info("Registered {} trigger registrations", registrations.size());
+    }
+
+    /** 把一个脚本的全部触发器编译为注册项追加到 out（无效触发器记错误日志后跳过） */
+    private void buildRegistrations(CinematicScript script, List<TriggerRegistration> out) {
+        ScriptMeta meta = script.getMeta();
+        for (TriggerDefinition td : meta.getTriggers()) {
+            TriggerType<?> triggerType = TriggerRegistry.get(td.getType());
+            if (triggerType == null) {
+                com.immersivecinematics.immersive_cinematics.util.ErrorLog.log("ScriptLoad",
+                        "Unknown trigger type '" + td.getType() + "' in script '" + meta.getId() + "'");
+                continue;
+            }
+            JsonObject conditions = new JsonObject();
+            for (Map.Entry<String, Object> entry : td.getConditions().entrySet()) {
+                convertToJson(conditions, entry.getKey(), entry.getValue());
+            }
+            int delayMs = (int)(td.getDelay() * 1000);
+            JsonObject exitConditions = td.isOnEnter() && td.getExitBuffer() > 0f
+                    ? Evaluators.expandConditions(conditions, td.getExitBuffer())
+                    : null;
+            // 条件注册时编译一次（AABB / 平方半径 / id 匹配器），求值期不再查询 JSON
+            CompiledCondition<?> condition;
+            CompiledCondition<?> exitCondition;
+            try {
+                condition = triggerType.compile(conditions);
+                exitCondition = exitConditions != null ? triggerType.compile(exitConditions) : null;
+            } catch (RuntimeException e) {
+                com.immersivecinematics.immersive_cinematics.util.ErrorLog.log("ScriptLoad",
+                        "Invalid conditions for trigger '" + td.getType() + "' in script '" + meta.getId()
+                                + "': " + e.getMessage(), e);
+                continue;
+            }
+            // 前置依赖引用校验：指向不存在脚本 → 该触发器永不触发；自引用 → 永不解锁
+            for (String req : td.getRequires()) {
+                if (!scripts.containsKey(req)) {
                     com.immersivecinematics.immersive_cinematics.util.ErrorLog.log("ScriptLoad",
-                            "Unknown trigger type '" + td.getType() + "' in script '" + meta.getId() + "'");
-                    continue;
-                }
-                JsonObject conditions = new JsonObject();
-                for (Map.Entry<String, Object> entry : td.getConditions().entrySet()) {
-                    convertToJson(conditions, entry.getKey(), entry.getValue());
-                }
-                int delayMs = (int)(td.getDelay() * 1000);
-                JsonObject exitConditions = td.isOnEnter() && td.getExitBuffer() > 0f
-                        ? Evaluators.expandConditions(conditions, td.getExitBuffer())
-                        : null;
-                // 前置依赖引用校验：指向不存在脚本 → 该触发器永不触发；自引用 → 永不解锁
-                for (String req : td.getRequires()) {
-                    if (!scripts.containsKey(req)) {
-                        com.immersivecinematics.immersive_cinematics.util.ErrorLog.log("ScriptLoad",
-                                "脚本 '" + meta.getId() + "' 的触发器 '" + td.getType() + "' requires 指向不存在的脚本 '"
-                                        + req + "'（该触发器将永不触发）");
-                    } else if (req.equals(meta.getId())) {
-                        com.immersivecinematics.immersive_cinematics.util.ErrorLog.log("ScriptLoad",
-                                "脚本 '" + meta.getId() + "' 的触发器 requires 自引用自身（可能永不解锁）");
-                    }
+                            "脚本 '" + meta.getId() + "' 的触发器 '" + td.getType() + "' requires 指向不存在的脚本 '"
+                                    + req + "'（该触发器将永不触发）");
+                } else if (req.equals(meta.getId())) {
+                    com.immersivecinematics.immersive_cinematics.util.ErrorLog.log("ScriptLoad",
+                            "脚本 '" + meta.getId() + "' 的触发器 requires 自引用自身（可能永不解锁）");
                 }
-                registrations.add(new TriggerRegistration(
-                        meta.getId(), td.getType() + "_" + meta.getId(),
-                        triggerType, conditions,
-                        List.of(new StartPlaybackAction(meta.getId())),
-                        td.isRepeatable(),
-                        delayMs,
-                        td.isOnEnter(),
-                        td.getExitBuffer(),
-                        exitConditions,
-                        td.getRequires()
-                ));
             }
+            out.add(new TriggerRegistration(
+                    meta.getId(), td.getType() + "_" + meta.getId(),
+                    triggerType, condition,
+                    List.of(new StartPlaybackAction(meta.getId())),
+                    td.isRepeatable(),
+                    delayMs,
+                    td.isOnEnter(),
+                    td.getExitBuffer(),
+                    exitCondition,
+                    td.getRequires()
+            ));
         }
-        TriggerEngine.INSTANCE.registerAll(registrations);
-        LOGGER.info("Registered {} trigger registrations", registrations.size());
     }
 
+    /**
+     * 增量重载：重新扫描目录，内容未变的脚本复用已解析对象；
+     * 触发器只为新增 / 变更 / 删除的脚本替换（{@link TriggerEngine#replaceScripts}），其余保持不动。
+     */
     public void reload(MinecraftServer server) {
-        TriggerEngine.INSTANCE.clear();
-        loadAll(server);
-        // 重新注册全部触发器（registerAllTriggers 内部会重建索引）——
-        // 之前只调 rebuildIndex 而 allRegistrations 已被 clear 清空，导致 reload 后触发器全部失效
-        registerAllTriggers();
+        if (!loaded) {
+            loadAll(server);
+            registerAllTriggers();
+            return;
+        }
+        Map<String, CinematicScript> before = new LinkedHashMap<>(scripts);
+        Map<Path, CinematicScript> previous = new HashMap<>(scriptsByFile);
+        scripts.clear();
+        scriptsByFile.clear();
+        Path scriptDir = getScriptDir(server);
+        int reused = loadFromDir(scriptDir, true, previous);
+
+        // 变更集合：id 新增 / 删除 / 对应脚本对象不同（重新解析过）
+        Set<String> changed = new HashSet<>();
+        for (Map.Entry<String, CinematicScript> e : before.entrySet()) {
+            if (scripts.get(e.getKey()) != e.getValue()) changed.add(e.getKey());
+        }
+        for (String id : scripts.keySet()) {
+            if (!before.containsKey(id)) changed.add(id);
+        }
+
+        List<TriggerRegistration> registrations = new ArrayList<>();
+        for (String id : changed) {
+            CinematicScript script = scripts.get(id);
+            if (script != null) buildRegistrations(script, registrations);
+        }
+        if (!changed.isEmpty()) {
+            TriggerEngine.INSTANCE.replaceScripts(changed, registrations);
+        }
+        LOGGER.info("Reloaded {} scripts from {} ({} unchanged, {} changed/removed, {} trigger registrations replaced)",
+                scripts.size(), scriptDir, reused, changed.size(), registrations.size());
+    }
+
+    /**
+     * 按文件换入解析结果（热重载，服务端主线程）：同一批变化一次性生效。
+     * <ul>
+     *   <li>文件删除 → 移除其脚本；若另有文件声明同一 id，由该文件接替</li>
+     *   <li>解析失败 → 保留旧版本（作者可能正写到一半），记错误日志</li>
+     *   <li>内容指纹未变 → 忽略（仅保存 / touch）</li>
+     * </ul>
+     * 先更新 文件 → 脚本 表，再对涉及的 id 按 {@link #resolveById} 重新选出生效版本，
+     * 结果与对同一目录状态做一次完整 reload 相同。触发器只为生效版本变化的 id 替换。
+     */
+    public void applyFileChanges(Path dir, List<FileResult> results) {
+        Set<String> touched = new LinkedHashSet<>();
+        for (FileResult r : results) {
+            Path file = r.file();
+            CinematicScript old = scriptsByFile.get(file);
+            if (r.error() != null) {
+                com.immersivecinematics.immersive_cinematics.util.ErrorLog.log("ScriptLoad",
+                        "Failed to hot-reload script from " + toForwardRel(dir, file) + " (keeping previous version): "
+                                + r.error().getMessage(), r.error());
+                continue;
+            }
+            CinematicScript script = r.script();
+            if (script == null) {
+                if (old == null) continue;
+                scriptsByFile.remove(file);
+                touched.add(old.getId());
+                LOGGER.info("Script removed: {} (id={}) from {}", old.getName(), old.getId(), toForwardRel(dir, file));
+                continue;
+            }
+            if (old != null && script.getFingerprint().equals(old.getFingerprint())) continue;
+            scriptsByFile.put(file, script);
+            if (old != null) touched.add(old.getId());
+            touched.add(script.getId());
+            LOGGER.info("Hot-reloaded script: {} (id={}) from {}", script.getName(), script.getId(), toForwardRel(dir, file));
+        }
+        Set<String> changed = new LinkedHashSet<>();
+        for (String id : touched) {
+            CinematicScript winner = resolveById(id);
+            if (scripts.get(id) == winner) continue;
+            if (winner == null) {
+                scripts.remove(id);
+            } else {
+                scripts.put(id, winner);
+            }
+            changed.add(id);
+        }
+        if (changed.isEmpty()) return;
+
+        List<TriggerRegistration> registrations = new ArrayList<>();
+        for (String id : changed) {
+            CinematicScript script = scripts.get(id);
+            if (script != null) buildRegistrations(script, registrations);
+        }
+        TriggerEngine.INSTANCE.replaceScripts(changed, registrations);
+    }
+
+    /** 声明该 id 的文件中路径排序最靠后者的脚本（与 loadFromDir 的覆盖顺序一致）；无 → null */
+    private CinematicScript resolveById(String id) {
+        CinematicScript winner = null;
+        for (CinematicScript script : scriptsByFile.values()) {
+            if (script.getId().equals(id)) winner = script;
+        }
+        return winner;
     }
 
     public CinematicScript getScript(String id) {
         return scripts.get(id);
     }
 
+    /**
+     * 按内容指纹查找脚本（客户端缓存未命中回拉用；频率低，线性扫描即可）。
+     * reload 后旧指纹找不到 → null。
+     */
+    public CinematicScript getScriptByFingerprint(String fingerprint) {
+        for (CinematicScript script : scripts.values()) {
+            if (fingerprint.equals(script.getFingerprint())) return script;
+        }
+        return null;
+    }
+
     public Collection<CinematicScript> getAllScripts() {
         return scripts.values();
     }
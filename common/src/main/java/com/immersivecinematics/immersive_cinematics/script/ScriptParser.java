@@ -4,12 +4,16 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.immersivecinematics.immersive_cinematics.script.schema.FieldDef;
 import com.immersivecinematics.immersive_cinematics.util.ErrorLog;
 import net.minecraft.world.phys.Vec3;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -19,8 +23,12 @@ import java.util.Map;
 /**
  * 脚本解析器 — 将 JSON 字符串解析为 CinematicScript POJO
  * <p>
- * 使用 Gson 的 JsonElement 树 API 手动解析，而非反射绑定。
+ * 使用 Gson 手动解析，而非反射绑定。
  * 通过 {@link SchemaLoader} 驱动字段解析，不再为每种轨道类型编写独立解析方法。
+ * <p>
+ * 两条路径：{@link #parse} 先用 {@link JsonReader} 单遍流式读取、直接构建模型（录制的长镜头脚本
+ * 关键帧成千上万，不再先建整棵 JsonElement 树）；流式路径遇到任何非常规输入都放弃，
+ * 交给 JsonElement 树解析 {@link #parseTree} 重新解析并报错——报错文本与字段路径只由树解析产生。
  */
 public class ScriptParser {
 
@@ -52,6 +60,25 @@ public class ScriptParser {
     // ========== 入口方法 ==========
 
     public static CinematicScript parse(String json) throws ScriptParseException {
+        Streamed streamed;
+        try {
+            streamed = stream(json);
+        } catch (Exception e) {
+            // 语法错误 / 字段非法 / 少见写法：树解析给出与以往一致的结果或异常
+            LOGGER.debug("Streaming parse fell back to tree parser: {}", e.toString());
+            return parseTree(json);
+        }
+        // 与树解析同序：meta（含其校验与警告）→ 时间轴警告 → 轨道校验
+        ScriptMeta meta = parseMeta(streamed.root());
+        for (String warning : streamed.warnings()) {
+            ErrorLog.log("Parse", warning);
+        }
+        validateTracks(streamed.timeline().getTracks(), "timeline");
+        return new CinematicScript(meta, streamed.timeline());
+    }
+
+    /** JsonElement 树解析：流式路径的回落，也是其行为基准 */
+    public static CinematicScript parseTree(String json) throws ScriptParseException {
         JsonElement root;
         try {
             root = JsonParser.parseString(json);
@@ -327,11 +354,7 @@ public class ScriptParser {
             case "bool" -> value.getAsBoolean();
             case "position" -> {
                 if (!value.isJsonObject()) throw new ScriptParseException(p + "." + fieldName, "position 需要 JSON 对象");
-                // 从 clip 级无法直接获取 position_mode，按实际 JSON 推断：
-                // 有 dx（世界轴相对）或有 fwd/up/right（基准空间相对）= 相对；有 x/y/z = 绝对
-                JsonObject posObj = value.getAsJsonObject();
-                boolean relative = posObj.has("dx") || posObj.has("fwd") || posObj.has("up") || posObj.has("right");
-                yield parsePositionData(posObj, p + "." + fieldName, relative);
+                yield parsePosition(value.getAsJsonObject(), p + "." + fieldName);
             }
             case "bezier_curve" -> parseBezierCurve(value.getAsJsonObject(), p + "." + fieldName);
             case "map" -> {
@@ -374,6 +397,13 @@ public class ScriptParser {
 
     // ========== PositionData 解析 ==========
 
+    private static PositionData parsePosition(JsonObject posObj, String p) throws ScriptParseException {
+        // 从 clip 级无法直接获取 position_mode，按实际 JSON 推断：
+        // 有 dx（世界轴相对）或有 fwd/up/right（基准空间相对）= 相对；有 x/y/z = 绝对
+        boolean relative = posObj.has("dx") || posObj.has("fwd") || posObj.has("up") || posObj.has("right");
+        return parsePositionData(posObj, p, relative);
+    }
+
     private static PositionData parsePositionData(JsonObject obj, String p, boolean positionModeRelative) throws ScriptParseException {
         if (positionModeRelative) {
             // 基准空间坐标系偏移（fwd/up/right 相对基准朝向，仅实体/玩家基准）
@@ -497,6 +527,306 @@ public class ScriptParser {
         return result;
     }
 
+    // ========== 流式解析（JsonReader 单遍）==========
+    //
+    // 只负责"正常脚本"的快路径：标量字段直接从 token 读出，关键帧逐个构建，不保留 JSON 树；
+    // position / curve 这类小对象仍读成子树交给上面的解析方法（其中的推断规则只维护一份）。
+    // 任何与树解析可能不一致的情况（缺字段、类型不符、校验失败、clips 先于 type 等）一律抛出，
+    // 由 parse 回落到 parseTree。因此这里的异常不外露，字段路径只需可读，不必精确。
+    // 取值规则逐项对齐 JsonPrimitive：getAsFloat = Float.parseFloat(原文)，data map 数字 = Double，未知字段数字 = Float。
+
+    /** 流式路径放弃的信号（不含信息，报错由树解析给出） */
+    private static final class StreamFallback extends RuntimeException {
+        private static final StreamFallback INSTANCE = new StreamFallback();
+
+        private StreamFallback() {
+            super("stream fallback", null, false, false);
+        }
+    }
+
+    /** 流式解析结果：meta 子树（交给 parseMeta）、时间轴、延后输出的解析警告 */
+    private record Streamed(JsonObject root, Timeline timeline, List<String> warnings) {}
+
+    private static Streamed stream(String json) throws IOException, ScriptParseException {
+        // 与 JsonParser.parseString 相同的宽松模式
+        JsonReader in = new JsonReader(new StringReader(json));
+        in.setLenient(true);
+        JsonObject root = new JsonObject();
+        Timeline timeline = null;
+        // 警告在 parse 确认走流式结果后才输出，回落时不会重复记录
+        List<String> warnings = new ArrayList<>();
+
+        expect(in, JsonToken.BEGIN_OBJECT);
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                // meta 体量小且校验逻辑多，读成子树复用 parseMeta（重复键与 Gson 一样后者覆盖）
+                case "meta" -> root.add("meta", JsonParser.parseReader(in));
+                case "timeline" -> {
+                    if (timeline != null) throw StreamFallback.INSTANCE;
+                    timeline = streamTimeline(in, warnings);
+                }
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        if (timeline == null || in.peek() != JsonToken.END_DOCUMENT) throw StreamFallback.INSTANCE;
+        return new Streamed(root, timeline, warnings);
+    }
+
+    private static Timeline streamTimeline(JsonReader in, List<String> warnings) throws IOException, ScriptParseException {
+        expect(in, JsonToken.BEGIN_OBJECT);
+        in.beginObject();
+        Float totalDuration = null;
+        List<TimelineTrack> tracks = null;
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "total_duration" -> totalDuration = readFloat(in);
+                case "tracks" -> {
+                    if (tracks != null) throw StreamFallback.INSTANCE;
+                    tracks = new ArrayList<>();
+                    expect(in, JsonToken.BEGIN_ARRAY);
+                    in.beginArray();
+                    for (int i = 0; in.hasNext(); i++) {
+                        tracks.add(streamTrack(in, "timeline.tracks[" + i + "]", warnings));
+                    }
+                    in.endArray();
+                }
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        if (totalDuration == null || totalDuration == 0f || tracks == null) throw StreamFallback.INSTANCE;
+        return new Timeline(totalDuration, tracks);
+    }
+
+    private static TimelineTrack streamTrack(JsonReader in, String p, List<String> warnings) throws IOException, ScriptParseException {
+        expect(in, JsonToken.BEGIN_OBJECT);
+        in.beginObject();
+        TrackType type = null;
+        List<Clip> clips = null;
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "type" -> {
+                    // clips 已按先前的类型解析过 → 交给树解析
+                    if (clips != null) throw StreamFallback.INSTANCE;
+                    type = TrackType.valueOf(readString(in).toUpperCase());
+                }
+                case "clips" -> {
+                    // 单遍读取要求 type 在 clips 之前（编辑器导出与示例脚本皆如此）
+                    if (type == null || clips != null) throw StreamFallback.INSTANCE;
+                    clips = new ArrayList<>();
+                    expect(in, JsonToken.BEGIN_ARRAY);
+                    in.beginArray();
+                    for (int i = 0; in.hasNext(); i++) {
+                        clips.add(streamClip(in, p + ".clips[" + i + "]", type, warnings));
+                    }
+                    in.endArray();
+                }
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        if (type == null || clips == null) throw StreamFallback.INSTANCE;
+        return new TimelineTrack(type, clips);
+    }
+
+    private static Clip streamClip(JsonReader in, String p, TrackType type, List<String> warnings) throws IOException, ScriptParseException {
+        Map<String, FieldDef> fields = SchemaLoader.getClipFields(type);
+        Map<String, FieldDef> kfFields = SchemaLoader.getKeyframeFields(type);
+        List<String> kfRequired = requiredFields(kfFields);
+
+        expect(in, JsonToken.BEGIN_OBJECT);
+        in.beginObject();
+        Float startTime = null;
+        Float duration = null;
+        Map<String, Object> data = new HashMap<>();
+        List<Keyframe> keyframes = new ArrayList<>();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            switch (name) {
+                case "start_time" -> startTime = readFloat(in);
+                case "duration" -> duration = readFloat(in);
+                case "keyframes" -> {
+                    keyframes = new ArrayList<>();
+                    expect(in, JsonToken.BEGIN_ARRAY);
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        keyframes.add(streamKeyframe(in, p + ".keyframes", type, kfFields, kfRequired));
+                    }
+                    in.endArray();
+                }
+                default -> putField(data, name, readField(in, fields.get(name), p, name));
+            }
+        }
+        in.endObject();
+
+        // 以下校验与 parseClip 一一对应；不通过即回落，由树解析报错
+        if (startTime == null || duration == null) throw StreamFallback.INSTANCE;
+        for (String key : requiredFields(fields)) {
+            if (!data.containsKey(key)) throw StreamFallback.INSTANCE;
+        }
+        if (type == TrackType.CAMERA && keyframes.isEmpty()) throw StreamFallback.INSTANCE;
+        if (duration == 0f) throw StreamFallback.INSTANCE;
+        Object loopCount = data.get("loop_count");
+        if (loopCount instanceof Number && ((Number) loopCount).intValue() == 0) {
+            warnings.add(p + ".loop_count 不允许为 0（-1=无限循环，正整数=循环次数），已按 1 处理");
+            data.put("loop_count", 1);
+        }
+        if (data.containsKey("curve")
+                && (!(data.get("curve") instanceof BezierCurve curve) || !curve.isValid())) throw StreamFallback.INSTANCE;
+        for (int i = 1; i < keyframes.size(); i++) {
+            if (keyframes.get(i).getTime() <= keyframes.get(i - 1).getTime()) throw StreamFallback.INSTANCE;
+        }
+        return new Clip(startTime, duration, type, data, keyframes);
+    }
+
+    private static Keyframe streamKeyframe(JsonReader in, String p, TrackType type,
+                                           Map<String, FieldDef> fields, List<String> required) throws IOException, ScriptParseException {
+        expect(in, JsonToken.BEGIN_OBJECT);
+        in.beginObject();
+        Float time = null;
+        Map<String, Object> data = new HashMap<>();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if ("time".equals(name)) {
+                time = readFloat(in);
+            } else {
+                putField(data, name, readField(in, fields.get(name), p, name));
+            }
+        }
+        in.endObject();
+        if (time == null || time < 0) throw StreamFallback.INSTANCE;
+        for (String key : required) {
+            if (!data.containsKey(key)) throw StreamFallback.INSTANCE;
+        }
+        return new Keyframe(time, type, data);
+    }
+
+    /** 重复键与 Gson 树一致：后者覆盖，后者解析为空则该字段不存在 */
+    private static void putField(Map<String, Object> data, String name, Object value) {
+        if (value != null) {
+            data.put(name, value);
+        } else {
+            data.remove(name);
+        }
+    }
+
+    private static List<String> requiredFields(Map<String, FieldDef> fields) {
+        List<String> required = new ArrayList<>(2);
+        for (Map.Entry<String, FieldDef> e : fields.entrySet()) {
+            if (e.getValue().required()) required.add(e.getKey());
+        }
+        return required;
+    }
+
+    /** parseFieldBySchema 的流式版本 */
+    private static Object readField(JsonReader in, FieldDef def, String p, String fieldName) throws IOException, ScriptParseException {
+        if (def == null) {
+            // 不在 schema 中的字段：同 parseUnknownObject，数字为 Float
+            return readLoose(in, false);
+        }
+        JsonToken token = in.peek();
+        return switch (def.type()) {
+            case "float", "int" -> {
+                if (token == JsonToken.NUMBER) yield Float.parseFloat(in.nextString());
+                if (token != JsonToken.STRING && token != JsonToken.BOOLEAN) throw StreamFallback.INSTANCE;
+                in.skipValue();
+                yield null;
+            }
+            case "string", "enum" -> readString(in);
+            case "bool" -> readBool(in);
+            case "position" -> {
+                if (token != JsonToken.BEGIN_OBJECT) throw StreamFallback.INSTANCE;
+                yield parsePosition(JsonParser.parseReader(in).getAsJsonObject(), p + "." + fieldName);
+            }
+            case "bezier_curve" -> {
+                if (token != JsonToken.BEGIN_OBJECT) throw StreamFallback.INSTANCE;
+                yield parseBezierCurve(JsonParser.parseReader(in).getAsJsonObject(), p + "." + fieldName);
+            }
+            case "map" -> {
+                // 同 parseDataMap，数字为 Double；非对象忽略
+                if (token == JsonToken.BEGIN_OBJECT) yield readLoose(in, true);
+                in.skipValue();
+                yield null;
+            }
+            default -> {
+                in.skipValue();
+                yield null;
+            }
+        };
+    }
+
+    /** 任意值 → Float/Double、Boolean、String、Map、List；JSON null → null（容器内丢弃） */
+    private static Object readLoose(JsonReader in, boolean doubles) throws IOException {
+        switch (in.peek()) {
+            case NUMBER -> {
+                String number = in.nextString();
+                return doubles ? (Object) Double.parseDouble(number) : (Object) Float.parseFloat(number);
+            }
+            case BOOLEAN -> {
+                return in.nextBoolean();
+            }
+            case STRING -> {
+                return in.nextString();
+            }
+            case NULL -> {
+                in.nextNull();
+                return null;
+            }
+            case BEGIN_OBJECT -> {
+                Map<String, Object> map = new HashMap<>();
+                in.beginObject();
+                while (in.hasNext()) {
+                    String key = in.nextName();
+                    putField(map, key, readLoose(in, doubles));
+                }
+                in.endObject();
+                return map;
+            }
+            case BEGIN_ARRAY -> {
+                List<Object> list = new ArrayList<>();
+                in.beginArray();
+                while (in.hasNext()) {
+                    Object value = readLoose(in, doubles);
+                    if (value != null) list.add(value);
+                }
+                in.endArray();
+                return list;
+            }
+            default -> throw StreamFallback.INSTANCE;
+        }
+    }
+
+    /** 同 JsonPrimitive.getAsFloat：数字与字符串都按原文 Float.parseFloat */
+    private static float readFloat(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token != JsonToken.NUMBER && token != JsonToken.STRING) throw StreamFallback.INSTANCE;
+        return Float.parseFloat(in.nextString());
+    }
+
+    /** 同 JsonPrimitive.getAsString */
+    private static String readString(JsonReader in) throws IOException {
+        return switch (in.peek()) {
+            case STRING, NUMBER -> in.nextString();
+            case BOOLEAN -> Boolean.toString(in.nextBoolean());
+            default -> throw StreamFallback.INSTANCE;
+        };
+    }
+
+    /** 同 JsonPrimitive.getAsBoolean */
+    private static boolean readBool(JsonReader in) throws IOException {
+        return switch (in.peek()) {
+            case BOOLEAN -> in.nextBoolean();
+            case STRING, NUMBER -> Boolean.parseBoolean(in.nextString());
+            default -> throw StreamFallback.INSTANCE;
+        };
+    }
+
+    private static void expect(JsonReader in, JsonToken token) throws IOException {
+        if (in.peek() != token) throw StreamFallback.INSTANCE;
+    }
+
     // ========== 验证方法 ==========
 
     private static void validateTracks(List<TimelineTrack> tracks, String p) throws ScriptParseException {
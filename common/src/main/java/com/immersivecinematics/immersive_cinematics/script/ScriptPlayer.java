@@ -1,9 +1,11 @@
 package com.immersivecinematics.immersive_cinematics.script;
 
+import com.immersivecinematics.immersive_cinematics.Config;
 import com.immersivecinematics.immersive_cinematics.camera.CameraManager;
 import com.immersivecinematics.immersive_cinematics.control.CompletionReason;
 import com.immersivecinematics.immersive_cinematics.control.ExitReason;
 import com.immersivecinematics.immersive_cinematics.overlay.OverlayManager;
+import com.immersivecinematics.immersive_cinematics.util.TextureLoader;
 import net.minecraft.client.Minecraft;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.Mob;
@@ -16,6 +18,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,6 +31,7 @@ import org.slf4j.LoggerFactory;
  *   <li>创建并调度 TrackPlayer 实例（Camera/Letterbox/Audio/ModEvent）</li>
  *   <li>管理当前脚本的运行时行为（从 ScriptMeta.RuntimeBehavior 直接持有）</li>
  *   <li>处理脚本结束 / holdAtEnd</li>
+ *   <li>开始时按 {@link AssetManifest} 预取全部音频 / 图片，可选黑屏等待开场资源</li>
  * </ul>
  * <p>
  * 不再直接访问 CameraManager/OverlayManager 的写入方法 —
@@ -44,6 +48,9 @@ public class ScriptPlayer {
      */
     private static final float HOLD_END_EPSILON = 0.0001f;
 
+    /** 开场关键资源窗口（秒）：起播点之后这么久内用到的资源，hold-on-black 时等待其就绪 */
+    private static final float CRITICAL_WINDOW_SECONDS = 1.0f;
+
     // ========== 状态 ==========
 
     private CinematicScript script;
@@ -69,6 +76,19 @@ public class ScriptPlayer {
     // TrackPlayer 调度列表
     private List<TrackPlayer> trackPlayers = Collections.emptyList();
 
+    // ===== 资源预取 =====
+
+    /**
+     * 开场关键资源：预取持有的音频缓存引用 / 纹理句柄，按首次使用时间升序。
+     * 播放越过首次使用时间（片段已自行取得引用）即逐个归还，余下的在 stop 时归还。
+     */
+    private final List<PinnedAudio> criticalAudio = new ArrayList<>();
+    private final List<PinnedImage> criticalImages = new ArrayList<>();
+    /** hold-on-black：等待开场资源期间时钟停在 holdResumeAt，画面全黑 */
+    private boolean holdingForAssets = false;
+    private float holdResumeAt = 0f;
+    private long holdDeadlineNanos = 0L;
+
     /** 组 A：按轨道索引取 clips（动态数据源；支持同类型多条轨道——OVERLAY 多轨道） */
     public List<Clip> clipsForTrack(int trackIndex) {
         if (script == null) return Collections.emptyList();
@@ -159,6 +179,7 @@ public class ScriptPlayer {
 
     /** 停止并清空当前所有 TrackPlayer（start 前与 stop 时共用，防音频实例泄漏） */
     private void cleanupTrackPlayers() {
+        releasePrefetched();
         for (TrackPlayer tp : trackPlayers) {
             try {
                 tp.onStop();
@@ -229,16 +250,18 @@ public class ScriptPlayer {
         // 维度校验（0.3.5 B）：CAMERA clip 声明 dimension ≠ 玩家当前维度 → 提示（不做自动切换，0.4.0 F 类）
         validateClipDimensions(script);
 
-        // 预执行第一帧（避免首帧闪烁）— 用调用方期望的 elapsed（预览模式 = previewTime，避免 t=0 跳变）
-        float elapsedSeconds = preExecuteAt;
-        for (TrackPlayer tp : trackPlayers) {
-            if (tp.isActiveAt(elapsedSeconds)) {
-                try {
-                    tp.onRenderFrame(elapsedSeconds);
-                } catch (Exception e) {
-                    com.immersivecinematics.immersive_cinematics.util.ErrorLog.log("Playback", "TrackPlayer 首帧执行异常", e);
-                }
-            }
+        // 资源预取：全部音频 / 图片立即进入后台加载，不等片段激活时才读文件
+        prefetchAssets(script, preExecuteAt);
+
+        // hold-on-black：开场资源未就绪 → 时钟停在起点、画面全黑，就绪或超时后再开播（编辑器预览不等）
+        if (Config.assetHoldMaxSeconds > 0f && !CameraManager.INSTANCE.isPreviewMode() && !criticalAssetsReady()) {
+            holdingForAssets = true;
+            holdResumeAt = preExecuteAt;
+            holdDeadlineNanos = System.nanoTime() + (long) (Config.assetHoldMaxSeconds * 1_000_000_000L);
+            LOGGER.info("等待开场资源: {} ({} 音频, {} 图片, 上限 {}s)", script.getName(),
+                    criticalAudio.size(), criticalImages.size(), Config.assetHoldMaxSeconds);
+        } else {
+            preExecuteFirstFrame(preExecuteAt);
         }
 
         LOGGER.info("脚本播放开始: {} (总时长: {}s, TrackPlayer数: {})",
@@ -266,6 +289,24 @@ public class ScriptPlayer {
         this.currentBehavior = null;
     }
 
+    /** 预执行第一帧（避免首帧闪烁）— 用调用方期望的 elapsed（预览模式 = previewTime，避免 t=0 跳变） */
+    private void preExecuteFirstFrame(float elapsedSeconds) {
+        for (TrackPlayer tp : trackPlayers) {
+            if (tp.isActiveAt(elapsedSeconds)) {
+                try {
+                    tp.onRenderFrame(elapsedSeconds);
+                } catch (Exception e) {
+                    com.immersivecinematics.immersive_cinematics.util.ErrorLog.log("Playback", "TrackPlayer 首帧执行异常", e);
+                }
+            }
+        }
+    }
+
+    /** 是否正在黑屏等待开场资源（CinematicOverlay 据此画全黑） */
+    public boolean isHoldingForAssets() {
+        return playing && holdingForAssets;
+    }
+
     public boolean isPlaying() {
         return playing;
     }
@@ -344,6 +385,20 @@ public class ScriptPlayer {
     public void onRenderFrame(double gameTimeSeconds) {
         if (!playing || script == null) return;
 
+        if (holdingForAssets) {
+            boolean ready = criticalAssetsReady();
+            if (!ready && System.nanoTime() < holdDeadlineNanos) {
+                // 时钟停在起播点：等待期间不推进、不驱动轨道
+                this.startGameTimeSeconds = gameTimeSeconds - holdResumeAt;
+                return;
+            }
+            holdingForAssets = false;
+            this.startGameTimeSeconds = gameTimeSeconds - holdResumeAt;
+            if (!ready) {
+                LOGGER.warn("开场资源等待超时（{}s），直接开播: {}", Config.assetHoldMaxSeconds, script.getName());
+            }
+        }
+
         float elapsedSeconds = getElapsedSeconds();
         float totalDuration = script.getTotalDuration();
 
@@ -371,6 +426,8 @@ public class ScriptPlayer {
 
         // 玩家移动控制（EVENT position 关键帧驱动，与相机同一虚拟时钟，暂停感知）
         playerMovement.onRenderFrame(elapsedSeconds);
+
+        releaseUsedPins(elapsedSeconds);
     }
 
     /**
@@ -433,6 +490,81 @@ public class ScriptPlayer {
         return false;
     }
 
+    /**
+     * 按清单预取起播点之后仍会用到的音频 / 图片（音频走 AudioCache 的 2 线程解码池，图片走 TextureLoader 的
+     * 2 线程加载池，并发有界）。
+     * <ul>
+     *   <li>最晚结束时间不晚于起播点 → 跳过（本次播放用不到）</li>
+     *   <li>首次使用落在开场关键窗口内 → 持有引用，直到播放越过首次使用时间（见 {@link #releaseUsedPins}）</li>
+     *   <li>其余 → 只预热不持有：加载结果进缓存、无引用，超出预算时照常被 LRU 淘汰</li>
+     * </ul>
+     * 结构 / 方块基准不在此预取：游戏内 play 推送前服务端已替换为坐标，客户端仅编辑器预览兜底解析。
+     */
+    private void prefetchAssets(CinematicScript script, float from) {
+        AssetManifest manifest = script.getAssetManifest();
+        if (manifest.isEmpty()) return;
+        float criticalUntil = from + CRITICAL_WINDOW_SECONDS;
+        for (AssetManifest.Sound sound : manifest.getSounds()) {
+            if (sound.lastUse() <= from) continue;
+            CompletableFuture<AudioDecoder.DecodedAudio> future = AudioCache.acquire(sound.file(), sound.source());
+            if (sound.firstUse() <= criticalUntil) {
+                criticalAudio.add(new PinnedAudio(future, sound.firstUse()));
+            } else {
+                AudioCache.releaseWhenDone(future);
+            }
+        }
+        for (AssetManifest.Image image : manifest.getImages()) {
+            if (image.lastUse() <= from) continue;
+            if (image.firstUse() <= criticalUntil) {
+                criticalImages.add(new PinnedImage(TextureLoader.acquire(image.file()), image.firstUse()));
+            } else {
+                TextureLoader.request(image.file());
+            }
+        }
+        LOGGER.debug("资源预取: {} {}（关键 {} 音频 / {} 图片）", script.getName(), manifest,
+                criticalAudio.size(), criticalImages.size());
+    }
+
+    /** 开场关键资源均已有结果（成功或失败——失败不等待） */
+    private boolean criticalAssetsReady() {
+        for (PinnedAudio pin : criticalAudio) {
+            if (!pin.future().isDone()) return false;
+        }
+        for (PinnedImage pin : criticalImages) {
+            if (!pin.handle().isSettled()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * 归还首次使用时间已过的预取引用：在 TrackPlayer 调度之后调用，此时片段已自行取得引用，
+     * 预取引用不再需要，资源的去留交回缓存预算。两表按首次使用时间升序，从表头依次归还。
+     */
+    private void releaseUsedPins(float elapsedSeconds) {
+        while (!criticalAudio.isEmpty() && criticalAudio.get(0).firstUse() <= elapsedSeconds) {
+            AudioCache.releaseWhenDone(criticalAudio.remove(0).future());
+        }
+        while (!criticalImages.isEmpty() && criticalImages.get(0).firstUse() <= elapsedSeconds) {
+            criticalImages.remove(0).handle().release();
+        }
+    }
+
+    private void releasePrefetched() {
+        for (PinnedAudio pin : criticalAudio) {
+            AudioCache.releaseWhenDone(pin.future());
+        }
+        for (PinnedImage pin : criticalImages) {
+            pin.handle().release();
+        }
+        criticalAudio.clear();
+        criticalImages.clear();
+        holdingForAssets = false;
+    }
+
+    private record PinnedAudio(CompletableFuture<AudioDecoder.DecodedAudio> future, float firstUse) {}
+
+    private record PinnedImage(TextureLoader.Handle handle, float firstUse) {}
+
     private float getElapsedSeconds() {
         return (float)(CameraManager.INSTANCE.getGameTimeSeconds() - startGameTimeSeconds);
     }
@@ -0,0 +1,190 @@
+package com.immersivecinematics.immersive_cinematics.script;
+
+import com.immersivecinematics.immersive_cinematics.Config;
+import com.mojang.logging.LogUtils;
+import net.minecraft.server.MinecraftServer;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 脚本目录热重载（{@link Config#scriptHotReload}，默认关闭）
+ * <p>
+ * 监听线程用 WatchService 监视全局脚本目录及其子目录（深度 ≤ {@link ScriptManager#MAX_SCRIPT_DEPTH}），
+ * 变化事件去抖合并为一批（安静 {@link #DEBOUNCE_MS} 毫秒后结算），只重新解析被改动的 .json 文件。
+ * 解析在监听线程完成，结果排队；服务端 tick 开始时 {@link #applyPending} 在主线程一次性换入
+ * （{@link ScriptManager#applyFileChanges}），同一批的脚本与触发器同时生效。
+ * <p>
+ * 事件溢出或目录被删除时无法确定受影响文件 → 该批改为一次增量重载（{@link ScriptManager#reload}，按指纹复用）。
+ */
+public final class ScriptWatcher {
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+    public static final ScriptWatcher INSTANCE = new ScriptWatcher();
+
+    /** 去抖：最后一个事件之后安静这么久才结算（编辑器保存常伴随临时文件 + 重命名多个事件） */
+    private static final long DEBOUNCE_MS = 500;
+
+    /** 监听线程产出的一批变化 */
+    private record Batch(List<ScriptManager.FileResult> files, boolean rescan) {}
+
+    private final ConcurrentLinkedQueue<Batch> pending = new ConcurrentLinkedQueue<>();
+    /** WatchKey → 已注册监听的目录（启动后仅监听线程访问） */
+    private final Map<WatchKey, Path> keys = new HashMap<>();
+    private volatile WatchService watchService;
+    private Thread thread;
+    private Path root;
+
+    private ScriptWatcher() {}
+
+    /** 服务端启动后调用；配置关闭时什么都不做 */
+    public synchronized void start(Path scriptDir) {
+        if (!Config.scriptHotReload || thread != null) return;
+        try {
+            Files.createDirectories(scriptDir);
+            watchService = FileSystems.getDefault().newWatchService();
+        } catch (IOException e) {
+            com.immersivecinematics.immersive_cinematics.util.ErrorLog.log("ScriptLoad", "Failed to start script watcher: " + scriptDir, e);
+            return;
+        }
+        root = scriptDir;
+        keys.clear();
+        pending.clear();
+        registerTree(scriptDir);
+        thread = new Thread(this::run, "ImmersiveCinematics-ScriptWatch");
+        thread.setDaemon(true);
+        thread.start();
+        LOGGER.info("Script hot reload enabled: watching {} ({} directories)", scriptDir, keys.size());
+    }
+
+    /** 服务端停止时调用 */
+    public synchronized void stop() {
+        WatchService ws = watchService;
+        watchService = null;
+        if (ws != null) {
+            try {
+                ws.close();
+            } catch (IOException ignored) {
+                // 服务端正在停止：监听线程随后被中断退出，关闭失败无需处理
+            }
+        }
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+        pending.clear();
+    }
+
+    /** 服务端主线程 tick 开始时调用：换入已解析完的变化批次 */
+    public void applyPending(MinecraftServer server) {
+        Batch batch;
+        while ((batch = pending.poll()) != null) {
+            if (batch.rescan()) {
+                LOGGER.info("Script watcher: changes could not be attributed to files, running incremental reload");
+                ScriptManager.INSTANCE.reload(server);
+            } else {
+                ScriptManager.INSTANCE.applyFileChanges(root, batch.files());
+            }
+        }
+    }
+
+    // ===== 监听线程 =====
+
+    private void run() {
+        try {
+            while (watchService != null) {
+                WatchService ws = watchService;
+                Set<Path> touched = new LinkedHashSet<>();
+                boolean[] rescan = {false};
+                collect(ws.take(), touched, rescan);
+                WatchKey key;
+                while ((key = ws.poll(DEBOUNCE_MS, TimeUnit.MILLISECONDS)) != null) {
+                    collect(key, touched, rescan);
+                }
+                if (rescan[0]) {
+                    pending.add(new Batch(List.of(), true));
+                } else if (!touched.isEmpty()) {
+                    List<ScriptManager.FileResult> files = new ArrayList<>(touched.size());
+                    for (Path file : touched) {
+                        files.add(Files.isRegularFile(file)
+                                ? ScriptManager.parseFile(file, Map.of())
+                                : new ScriptManager.FileResult(file, null, false, null));
+                    }
+                    pending.add(new Batch(files, false));
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // stop()
+        } catch (RuntimeException e) {
+            com.immersivecinematics.immersive_cinematics.util.ErrorLog.log("ScriptLoad", "Script watcher stopped unexpectedly", e);
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> touched, boolean[] rescan) {
+        Path dir = keys.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || dir == null) {
+                rescan[0] = true;
+                continue;
+            }
+            Path path = dir.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                // 新子目录（可能是整个文件夹被拷入）：注册监听，并把其中已有的脚本算作改动
+                registerTree(path);
+                collectExisting(path, touched);
+            } else if (path.toString().endsWith(".json")) {
+                if (depth(path) <= ScriptManager.MAX_SCRIPT_DEPTH) touched.add(path);
+            } else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                // 非 .json 的删除可能是整个子目录，逐文件事件不一定送达
+                rescan[0] = true;
+            }
+        }
+        if (!key.reset()) {
+            keys.remove(key);
+        }
+    }
+
+    /** 注册 dir 及其子目录（目录本身深度 < MAX_SCRIPT_DEPTH，其中的文件才在加载范围内） */
+    private void registerTree(Path dir) {
+        WatchService ws = watchService;
+        if (ws == null || depth(dir) >= ScriptManager.MAX_SCRIPT_DEPTH) return;
+        try (Stream<Path> stream = Files.walk(dir, Math.max(0, ScriptManager.MAX_SCRIPT_DEPTH - 1 - depth(dir)))) {
+            for (Path d : (Iterable<Path>) stream.filter(Files::isDirectory)::iterator) {
+                keys.put(d.register(ws, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE), d);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Script watcher failed to register {}: {}", dir, e.getMessage());
+        }
+    }
+
+    private void collectExisting(Path dir, Set<Path> touched) {
+        try (Stream<Path> stream = Files.walk(dir, Math.max(0, ScriptManager.MAX_SCRIPT_DEPTH - depth(dir)))) {
+            stream.filter(p -> Files.isRegularFile(p) && p.toString().endsWith(".json")).forEach(touched::add);
+        } catch (IOException e) {
+            LOGGER.warn("Script watcher failed to scan {}: {}", dir, e.getMessage());
+        }
+    }
+
+    /** 相对脚本根目录的深度（与 Files.walk 的 maxDepth 同义：根 = 0，根下文件 = 1） */
+    private int depth(Path path) {
+        return path.equals(root) ? 0 : root.relativize(path).getNameCount();
+    }
+}
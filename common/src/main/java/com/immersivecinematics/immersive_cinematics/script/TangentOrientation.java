@@ -1,6 +1,6 @@
 package com.immersivecinematics.immersive_cinematics.script;
 
-import net.minecraft.world.phys.Vec3;
+import com.immersivecinematics.immersive_cinematics.util.MathUtil.MutableVec3;
 
 /**
  * 切线朝向（0.3.5）：让相机沿路径切线方向看，并叠加水平/垂直偏移角。
@@ -13,7 +13,7 @@ public final class TangentOrientation {
     private TangentOrientation() {}
 
     /**
-     * 根据路径切线计算最终朝向。
+     * 根据路径切线计算最终朝向（零分配：切线写入调用方提供的临时向量，结果写入 out）。
      *
      * @param from       段起点世界坐标
      * @param to         段终点世界坐标
@@ -22,11 +22,12 @@ public final class TangentOrientation {
      * @param strategy   路径策略（用于求切线）
      * @param yawOffset  水平偏移角（度）
      * @param pitchOffset 垂直偏移角（度）
-     * @return [yaw, pitch]
+     * @param tangent    切线临时向量（不得与 from/to 为同一对象）
+     * @param out        输出 [yaw, pitch]（长度 ≥ 2）
      */
-    public static float[] compute(Vec3 from, Vec3 to, float s, BezierCurve curve, PathStrategy strategy,
-                                  float yawOffset, float pitchOffset) {
-        Vec3 tangent = strategy.tangent(from, to, s, curve);
+    public static void compute(MutableVec3 from, MutableVec3 to, float s, BezierCurve curve, PathStrategy strategy,
+                               float yawOffset, float pitchOffset, MutableVec3 tangent, float[] out) {
+        strategy.tangent(from, to, s, curve, tangent);
         double dx = tangent.x;
         double dy = tangent.y;
         double dz = tangent.z;
@@ -39,13 +40,14 @@ public final class TangentOrientation {
             dz = to.z - from.z;
             horizontal = Math.sqrt(dx * dx + dz * dz);
             if (horizontal < 1.0E-6 && Math.abs(dy) < 1.0E-6) {
-                return new float[]{0f, 0f};
+                out[0] = 0f;
+                out[1] = 0f;
+                return;
             }
         }
 
         // 与 look_at / lineDir 保持同一套 MC 角度约定
-        float yaw = (float) Math.toDegrees(Math.atan2(dz, dx)) - 90f + yawOffset;
-        float pitch = (float) -Math.toDegrees(Math.atan2(dy, horizontal)) + pitchOffset;
-        return new float[]{yaw, pitch};
+        out[0] = (float) Math.toDegrees(Math.atan2(dz, dx)) - 90f + yawOffset;
+        out[1] = (float) -Math.toDegrees(Math.atan2(dy, horizontal)) + pitchOffset;
     }
 }
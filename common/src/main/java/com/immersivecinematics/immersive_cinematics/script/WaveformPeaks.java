@@ -0,0 +1,326 @@
+package com.immersivecinematics.immersive_cinematics.script;
+
+import com.immersivecinematics.immersive_cinematics.util.ResourcePath;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.sounds.AudioStream;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 编辑器波形 — 多分辨率 min/max 峰值金字塔
+ * <p>
+ * 第 0 层每个桶覆盖 {@link #BASE_FRAMES} 帧（48 kHz 下约 2.7 ms，足够 5000 px/s 的最大缩放），
+ * 往上每层两两合并，直到只剩一个桶。时间轴按当前缩放取"每像素至少一个桶"的最粗一层，
+ * 绘制开销与缩放无关。
+ * <p>
+ * 生成在后台线程：{@link #get} 未就绪时返回 null（时间轴先画占位），完成后下一帧自然取到。
+ * 结果按文件内容哈希写入 {@code cache/waveforms/<hash>.icwf}，同一内容下次打开编辑器直接读取，不再解码。
+ * 内存中的生成任务在每次打开编辑器时清空（{@link #invalidateAll}）：替换过的音频文件重新取哈希，
+ * 不会沿用旧波形；失败结果保留 {@link #RETRY_AFTER_MS} 后重试。
+ */
+public final class WaveformPeaks {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("ImmersiveCinematics/Waveform");
+
+    /** 第 0 层每桶帧数 */
+    public static final int BASE_FRAMES = 128;
+    /** 每次从解码流读取的字节数 */
+    private static final int READ_BYTES = 64 * 1024;
+
+    private static final int FILE_MAGIC = 0x49435746; // "ICWF"
+    private static final int FILE_VERSION = 1;
+    /** 生成失败后多久允许重试（文件可能稍后才放入 resource/） */
+    private static final long RETRY_AFTER_MS = 2000;
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "ImmersiveCinematics-Waveform");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** source|sound → 生成任务（完成后保留到下次打开编辑器；失败的到期后重新生成） */
+    private static final Map<String, CompletableFuture<WaveformPeaks>> requests = new ConcurrentHashMap<>();
+    /** source|sound → 生成失败时刻 */
+    private static final Map<String, Long> failedAt = new ConcurrentHashMap<>();
+
+    // ===== 数据 =====
+
+    private final int sampleRate;
+    private final int frames;
+    /** [层][桶]：峰值量化到 -127..127 */
+    private final byte[][] min;
+    private final byte[][] max;
+
+    private WaveformPeaks(int sampleRate, int frames, byte[][] min, byte[][] max) {
+        this.sampleRate = sampleRate;
+        this.frames = frames;
+        this.min = min;
+        this.max = max;
+    }
+
+    public float getDuration() {
+        return sampleRate > 0 ? (float) frames / sampleRate : 0f;
+    }
+
+    public int levelCount() {
+        return min.length;
+    }
+
+    /** 指定层每桶的时长（秒） */
+    public float bucketSeconds(int level) {
+        return (float) ((long) BASE_FRAMES << level) / sampleRate;
+    }
+
+    /** 每像素 secondsPerPixel 秒时应使用的层：桶不宽于一个像素的最粗一层 */
+    public int levelFor(float secondsPerPixel) {
+        int level = 0;
+        while (level + 1 < min.length && bucketSeconds(level + 1) <= secondsPerPixel) level++;
+        return level;
+    }
+
+    /** 层内桶数 */
+    public int bucketCount(int level) {
+        return min[level].length;
+    }
+
+    public float minAt(int level, int bucket) {
+        return min[level][bucket] / 127f;
+    }
+
+    public float maxAt(int level, int bucket) {
+        return max[level][bucket] / 127f;
+    }
+
+    // ===== 获取（编辑器渲染线程） =====
+
+    /**
+     * 取波形；未就绪时发起后台生成并返回 null。失败时同样返回 null，用 {@link #isFailed} 区分。
+     */
+    public static WaveformPeaks get(String fileName, String sourceType) {
+        String key = sourceType + "|" + fileName;
+        CompletableFuture<WaveformPeaks> future = requests.get(key);
+        if (future != null && future.isCompletedExceptionally()) {
+            Long failed = failedAt.get(key);
+            if (failed != null && System.currentTimeMillis() - failed < RETRY_AFTER_MS) return null;
+            // 失败已过重试间隔：丢弃，重新生成
+            requests.remove(key, future);
+            failedAt.remove(key);
+        }
+        future = requests.computeIfAbsent(key, k -> {
+            CompletableFuture<WaveformPeaks> f = CompletableFuture.supplyAsync(() -> load(fileName, sourceType), EXECUTOR);
+            f.whenComplete((peaks, e) -> {
+                if (e != null) failedAt.put(k, System.currentTimeMillis());
+            });
+            return f;
+        });
+        return future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+
+    public static boolean isFailed(String fileName, String sourceType) {
+        CompletableFuture<WaveformPeaks> future = requests.get(sourceType + "|" + fileName);
+        return future != null && future.isCompletedExceptionally();
+    }
+
+    /**
+     * 丢弃内存中的全部波形（打开编辑器时调用）：之后的 {@link #get} 重新按内容哈希取磁盘缓存或重新生成，
+     * 会话间被替换的音频文件不会显示旧波形，之前缺失的文件也会重新尝试。
+     * 进行中的任务照常完成，结果不再被引用。
+     */
+    public static void invalidateAll() {
+        requests.clear();
+        failedAt.clear();
+    }
+
+    // ===== 生成（后台线程） =====
+
+    private static WaveformPeaks load(String fileName, String sourceType) {
+        try {
+            String hash = contentHash(fileName, sourceType);
+            Path sidecar = ResourcePath.getCachePath("waveforms").resolve(hash + ".icwf");
+            if (Files.exists(sidecar)) {
+                try {
+                    return read(sidecar);
+                } catch (IOException e) {
+                    LOGGER.warn("Waveform cache unreadable, regenerating: {}", sidecar, e);
+                }
+            }
+            long start = System.nanoTime();
+            WaveformPeaks peaks = generate(fileName, sourceType);
+            LOGGER.debug("Waveform generated: {} levels={} took={}ms",
+                    fileName, peaks.levelCount(), (System.nanoTime() - start) / 1_000_000);
+            try {
+                write(sidecar, peaks);
+            } catch (IOException e) {
+                LOGGER.warn("Failed to write waveform cache: {}", sidecar, e);
+            }
+            return peaks;
+        } catch (RuntimeException e) {
+            com.immersivecinematics.immersive_cinematics.util.ErrorLog.log("Audio", "波形生成失败: " + fileName, e);
+            throw e;
+        }
+    }
+
+    private static WaveformPeaks generate(String fileName, String sourceType) {
+        AudioDecoder.DecodedAudio audio = AudioCache.acquireNow(fileName, sourceType);
+        int ch = Math.max(1, audio.getChannels());
+        int buckets = Math.max(1, (audio.getFrames() + BASE_FRAMES - 1) / BASE_FRAMES);
+        byte[] lo = new byte[buckets];
+        byte[] hi = new byte[buckets];
+        AudioStream stream = CinematicAudioInstance.openReader(audio);
+        try {
+            int bucket = 0, bMin = 0, bMax = 0, inBucket = 0;
+            while (bucket < buckets) {
+                ByteBuffer chunk = stream.read(READ_BYTES);
+                if (!chunk.hasRemaining()) break;
+                ShortBuffer samples = chunk.asShortBuffer();
+                while (samples.remaining() >= ch && bucket < buckets) {
+                    // 各声道合并为一列
+                    for (int c = 0; c < ch; c++) {
+                        int s = samples.get();
+                        if (s < bMin) bMin = s;
+                        if (s > bMax) bMax = s;
+                    }
+                    if (++inBucket == BASE_FRAMES) {
+                        lo[bucket] = quantize(bMin);
+                        hi[bucket] = quantize(bMax);
+                        bucket++;
+                        bMin = bMax = inBucket = 0;
+                    }
+                }
+            }
+            if (inBucket > 0 && bucket < buckets) {
+                lo[bucket] = quantize(bMin);
+                hi[bucket] = quantize(bMax);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("波形解码失败: " + fileName, e);
+        } finally {
+            try {
+                stream.close();
+            } catch (IOException ignored) {
+                // 峰值已读完：关闭失败不影响结果，解码数据由下方 release 归还
+            }
+            AudioCache.release(audio);
+        }
+        return new WaveformPeaks(audio.getSampleRate(), audio.getFrames(), pyramid(lo, false), pyramid(hi, true));
+    }
+
+    private static byte quantize(int sample) {
+        return (byte) Math.max(-127, Math.min(127, sample * 127 / 32767));
+    }
+
+    /** 第 0 层 → 逐层两两合并 */
+    private static byte[][] pyramid(byte[] base, boolean takeMax) {
+        int levels = 1;
+        for (int n = base.length; n > 1; n = (n + 1) / 2) levels++;
+        byte[][] out = new byte[levels][];
+        out[0] = base;
+        for (int l = 1; l < levels; l++) {
+            byte[] prev = out[l - 1];
+            byte[] cur = new byte[(prev.length + 1) / 2];
+            for (int i = 0; i < cur.length; i++) {
+                byte a = prev[2 * i];
+                byte b = 2 * i + 1 < prev.length ? prev[2 * i + 1] : a;
+                cur[i] = takeMax ? (byte) Math.max(a, b) : (byte) Math.min(a, b);
+            }
+            out[l] = cur;
+        }
+        return out;
+    }
+
+    // ===== 磁盘缓存 =====
+
+    /** 文件内容 SHA-256 前 16 字符 hex（与脚本指纹同一格式），流式计算 */
+    private static String contentHash(String fileName, String sourceType) {
+        try (InputStream in = openRaw(fileName, sourceType)) {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] buf = new byte[64 * 1024];
+            int n;
+            while ((n = in.read(buf)) > 0) md.update(buf, 0, n);
+            byte[] digest = md.digest();
+            StringBuilder sb = new StringBuilder(16);
+            for (int i = 0; i < 8; i++) {
+                sb.append(Character.forDigit((digest[i] >> 4) & 0xF, 16));
+                sb.append(Character.forDigit(digest[i] & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (Exception e) {
+            throw new RuntimeException("读取音频失败: " + fileName, e);
+        }
+    }
+
+    private static InputStream openRaw(String fileName, String sourceType) throws IOException {
+        if ("minecraft".equals(sourceType)) {
+            Resource resource = Minecraft.getInstance().getResourceManager()
+                    .getResource(new ResourceLocation(fileName)).orElse(null);
+            if (resource == null) throw new IOException("Minecraft 音频资源不存在: " + fileName);
+            return resource.open();
+        }
+        return Files.newInputStream(ResourcePath.resolve(fileName));
+    }
+
+    private static WaveformPeaks read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION || in.readInt() != BASE_FRAMES) {
+                throw new IOException("Unsupported waveform cache format");
+            }
+            int sampleRate = in.readInt();
+            int frames = in.readInt();
+            int levels = in.readInt();
+            if (sampleRate <= 0 || frames < 0 || levels < 1 || levels > 64) {
+                throw new IOException("Corrupt waveform cache header");
+            }
+            byte[][] lo = new byte[levels][];
+            byte[][] hi = new byte[levels][];
+            for (int l = 0; l < levels; l++) {
+                int n = in.readInt();
+                if (n < 1 || n > frames / BASE_FRAMES + 1) throw new IOException("Corrupt waveform cache level " + l);
+                lo[l] = new byte[n];
+                hi[l] = new byte[n];
+                in.readFully(lo[l]);
+                in.readFully(hi[l]);
+            }
+            return new WaveformPeaks(sampleRate, frames, lo, hi);
+        }
+    }
+
+    /** 先写临时文件再原子替换，避免并发的编辑器实例读到半截文件 */
+    private static void write(Path file, WaveformPeaks peaks) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(FILE_VERSION);
+            out.writeInt(BASE_FRAMES);
+            out.writeInt(peaks.sampleRate);
+            out.writeInt(peaks.frames);
+            out.writeInt(peaks.levelCount());
+            for (int l = 0; l < peaks.levelCount(); l++) {
+                out.writeInt(peaks.min[l].length);
+                out.write(peaks.min[l]);
+                out.write(peaks.max[l]);
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,35 @@
+package com.immersivecinematics.immersive_cinematics.trigger.client;
+
+import com.immersivecinematics.immersive_cinematics.script.CinematicScript;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 客户端已解析脚本缓存 — 按内容指纹（{@link com.immersivecinematics.immersive_cinematics.trigger.network.ScriptFingerprint}）索引
+ * <p>
+ * 服务端下发全文时解析一次并登记；之后同一内容的按指纹播放直接复用解析结果，不再传输、不再解析。
+ * 指纹由内容决定，跨服务器 / 重连后仍然有效，无需主动清空；按最近使用淘汰，条目数有上限。
+ * 播放期间只读取脚本数据，同一实例可重复播放。仅客户端主线程访问。
+ */
+public final class ClientParsedScriptStore {
+
+    private static final int MAX_ENTRIES = 64;
+
+    private static final Map<String, CinematicScript> STORE = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CinematicScript> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private ClientParsedScriptStore() {}
+
+    public static CinematicScript get(String fingerprint) {
+        return STORE.get(fingerprint);
+    }
+
+    public static void put(String fingerprint, CinematicScript script) {
+        STORE.put(fingerprint, script);
+    }
+}
@@ -4,7 +4,9 @@ import com.immersivecinematics.immersive_cinematics.camera.CameraManager;
 import com.immersivecinematics.immersive_cinematics.script.CinematicScript;
 import com.immersivecinematics.immersive_cinematics.script.ScriptParser;
 import com.immersivecinematics.immersive_cinematics.trigger.network.C2SPlaybackStartedPacket;
+import com.immersivecinematics.immersive_cinematics.trigger.network.C2SScriptFetchPacket;
 import com.immersivecinematics.immersive_cinematics.trigger.network.S2CPlayScriptPacket;
+import com.immersivecinematics.immersive_cinematics.trigger.network.S2CPlayScriptRefPacket;
 import com.immersivecinematics.immersive_cinematics.trigger.network.S2CScriptReloadPacket;
 import com.immersivecinematics.immersive_cinematics.trigger.network.S2CSkipVoteUpdatePacket;
 import com.immersivecinematics.immersive_cinematics.trigger.network.S2CStopScriptPacket;
@@ -47,18 +49,44 @@ public class ClientScriptReceiver {
     public static void handlePlayScript(S2CPlayScriptPacket packet) {
         Minecraft.getInstance().execute(() -> {
             try {
-                CinematicScript script = ScriptParser.parse(packet.getScriptJson());
-                CameraManager.INSTANCE.playCinematic(script);
-                LOGGER.info("Playing script from server: {}", script.getId());
-                // N1：play 回执（refId 随包回填）
-                com.immersivecinematics.immersive_cinematics.trigger.network.NetworkHandler.sendToServer(
-                        new C2SPlaybackStartedPacket(script.getId(), packet.getRefId()));
+                // 解析结果按内容指纹缓存，供之后的按指纹播放复用（同内容重复下发也免解析）
+                String fp = ScriptFingerprint.of(packet.getScriptJson().getBytes(StandardCharsets.UTF_8));
+                CinematicScript script = ClientParsedScriptStore.get(fp);
+                if (script == null) {
+                    script = ScriptParser.parse(packet.getScriptJson());
+                    ClientParsedScriptStore.put(fp, script);
+                }
+                startPlayback(script, packet.getRefId());
             } catch (Exception e) {
                 LOGGER.error("Failed to parse script from server", e);
             }
         });
     }
 
+    /**
+     * 按指纹播放：缓存命中直接播放；未命中向服务端请求全文（补发走 {@link #handlePlayScript}）。
+     */
+    public static void handlePlayScriptRef(S2CPlayScriptRefPacket packet) {
+        Minecraft.getInstance().execute(() -> {
+            CinematicScript script = ClientParsedScriptStore.get(packet.getFingerprint());
+            if (script == null) {
+                LOGGER.debug("Script {} ({}) not cached, fetching from server", packet.getScriptId(), packet.getFingerprint());
+                com.immersivecinematics.immersive_cinematics.trigger.network.NetworkHandler.sendToServer(
+                        new C2SScriptFetchPacket(packet.getFingerprint(), packet.getRefId()));
+                return;
+            }
+            startPlayback(script, packet.getRefId());
+        });
+    }
+
+    private static void startPlayback(CinematicScript script, String refId) {
+        CameraManager.INSTANCE.playCinematic(script);
+        LOGGER.info("Playing script from server: {}", script.getId());
+        // N1：play 回执（refId 随包回填）
+        com.immersivecinematics.immersive_cinematics.trigger.network.NetworkHandler.sendToServer(
+                new C2SPlaybackStartedPacket(script.getId(), refId));
+    }
+
     public static void handleStopScript(S2CStopScriptPacket packet) {
         Minecraft.getInstance().execute(() -> {
             resetSkipVote();
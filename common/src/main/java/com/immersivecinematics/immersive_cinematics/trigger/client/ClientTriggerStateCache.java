@@ -1,23 +1,64 @@
 package com.immersivecinematics.immersive_cinematics.trigger.client;
 
+import com.immersivecinematics.immersive_cinematics.trigger.network.C2STriggerStateResyncPacket;
+import com.immersivecinematics.immersive_cinematics.trigger.network.NetworkHandler;
+import com.immersivecinematics.immersive_cinematics.trigger.network.S2CTriggerStateDeltaPacket;
 import com.immersivecinematics.immersive_cinematics.trigger.network.S2CTriggerStateSyncPacket;
+import com.mojang.logging.LogUtils;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import org.slf4j.Logger;
 
 import java.util.Set;
 
+/**
+ * 客户端触发状态镜像 — 登录时的全量快照 + 之后按序号连续应用的增量。
+ * <p>
+ * 增量序号不连续 → 请求重发快照，快照到达前忽略后续增量。
+ */
 public class ClientTriggerStateCache {
 
+    private static final Logger LOGGER = LogUtils.getLogger();
+
     private static final ClientTriggerStateCache INSTANCE = new ClientTriggerStateCache();
 
     private Object2ObjectOpenHashMap<String, ObjectOpenHashSet<String>> triggeredScripts = new Object2ObjectOpenHashMap<>();
     private ObjectOpenHashSet<String> completedScripts = new ObjectOpenHashSet<>();
 
+    /** 最后应用的序号（快照或增量） */
+    private int seq;
+    /** 是否已收到过快照（之前的增量无从校验） */
+    private boolean synced;
+    /** 已请求快照，等待期间忽略增量 */
+    private boolean awaitingSnapshot;
+
     private ClientTriggerStateCache() {}
 
     public static void handleSync(S2CTriggerStateSyncPacket packet) {
         INSTANCE.triggeredScripts = packet.getTriggeredScripts();
         INSTANCE.completedScripts = packet.getCompletedScripts();
+        INSTANCE.seq = packet.getSeq();
+        INSTANCE.synced = true;
+        INSTANCE.awaitingSnapshot = false;
+    }
+
+    public static void handleDelta(S2CTriggerStateDeltaPacket packet) {
+        ClientTriggerStateCache c = INSTANCE;
+        if (c.awaitingSnapshot) return;
+        if (!c.synced || packet.getSeq() != c.seq + 1) {
+            LOGGER.debug("Trigger state delta out of order (have {}, got {}), requesting snapshot", c.seq, packet.getSeq());
+            c.awaitingSnapshot = true;
+            NetworkHandler.sendToServer(new C2STriggerStateResyncPacket(c.seq));
+            return;
+        }
+        c.seq = packet.getSeq();
+        String scriptId = packet.getScriptId();
+        switch (packet.getOp()) {
+            case S2CTriggerStateDeltaPacket.TRIGGERED ->
+                    c.triggeredScripts.computeIfAbsent(scriptId, k -> new ObjectOpenHashSet<>()).add(packet.getTriggerId());
+            case S2CTriggerStateDeltaPacket.COMPLETED -> c.completedScripts.add(scriptId);
+            default -> LOGGER.warn("Unknown trigger state delta op {}", packet.getOp());
+        }
     }
 
     public static boolean isTriggered(String scriptId, String triggerId) {
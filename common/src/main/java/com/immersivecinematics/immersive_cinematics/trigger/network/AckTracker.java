@@ -38,6 +38,16 @@ public final class AckTracker {
         sentAt.remove(refId);
     }
 
+    /**
+     * 顺延待确认包的超时：从现在起至少再等 extraMs + 常规超时（分片传输的回执要等全部分片到达后才发）。
+     * 多个目标玩家重复调用不累加；未登记的 refId 忽略。
+     */
+    public static void extend(String refId, long extraMs) {
+        if (refId == null || refId.isEmpty()) return;
+        long until = System.currentTimeMillis() + extraMs;
+        sentAt.computeIfPresent(refId, (k, t) -> Math.max(t, until));
+    }
+
     public static String newRefId() {
         return java.util.UUID.randomUUID().toString().substring(0, 8);
     }
@@ -56,6 +66,8 @@ public final class AckTracker {
                 }
                 Runnable resend = pending.get(refId);
                 if (resend != null) {
+                    // 先记重发时刻：重发过程中分片传输可能通过 extend 顺延截止时间
+                    sentAt.put(refId, now);
                     try {
                         resend.run();
                     } catch (Exception e) {
@@ -67,7 +79,6 @@ public final class AckTracker {
                         sentAt.remove(refId);
                         continue;
                     }
-                    sentAt.put(refId, now);
                 }
             }
         }
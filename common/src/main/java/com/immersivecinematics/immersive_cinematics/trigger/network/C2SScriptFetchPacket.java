@@ -0,0 +1,38 @@
+package com.immersivecinematics.immersive_cinematics.trigger.network;
+
+import com.immersivecinematics.immersive_cinematics.trigger.server.ScriptDelivery;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerPlayer;
+
+/**
+ * 客户端 → 服务端：按指纹播放时本地无缓存，请求脚本全文。
+ */
+public class C2SScriptFetchPacket implements CinematicC2SPacket {
+
+    private final String fingerprint;
+    private final String refId;
+
+    public C2SScriptFetchPacket(String fingerprint, String refId) {
+        this.fingerprint = fingerprint;
+        this.refId = refId;
+    }
+
+    public C2SScriptFetchPacket(FriendlyByteBuf buf) {
+        this.fingerprint = buf.readUtf();
+        this.refId = buf.readUtf();
+    }
+
+    @Override
+    public void write(FriendlyByteBuf buf) {
+        buf.writeUtf(fingerprint);
+        buf.writeUtf(refId);
+    }
+
+    @Override
+    public void handle(ServerPlayer player) {
+        ScriptDelivery.onFetch(player, fingerprint, refId);
+    }
+
+    public String getFingerprint() { return fingerprint; }
+    public String getRefId() { return refId; }
+}
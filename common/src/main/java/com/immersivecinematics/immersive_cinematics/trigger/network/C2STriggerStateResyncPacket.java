@@ -0,0 +1,34 @@
+package com.immersivecinematics.immersive_cinematics.trigger.network;
+
+import com.immersivecinematics.immersive_cinematics.trigger.server.TriggerStateSync;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerPlayer;
+
+/**
+ * 客户端 → 服务端：触发状态增量序号不连续，请求重发全量快照。
+ */
+public class C2STriggerStateResyncPacket implements CinematicC2SPacket {
+
+    /** 客户端最后应用的序号（仅日志用） */
+    private final int lastSeq;
+
+    public C2STriggerStateResyncPacket(int lastSeq) {
+        this.lastSeq = lastSeq;
+    }
+
+    public C2STriggerStateResyncPacket(FriendlyByteBuf buf) {
+        this.lastSeq = buf.readVarInt();
+    }
+
+    @Override
+    public void write(FriendlyByteBuf buf) {
+        buf.writeVarInt(lastSeq);
+    }
+
+    @Override
+    public void handle(ServerPlayer player) {
+        TriggerStateSync.onResyncRequest(player, lastSeq);
+    }
+
+    public int getLastSeq() { return lastSeq; }
+}
@@ -1,5 +1,6 @@
 package com.immersivecinematics.immersive_cinematics.trigger.network;
 
+import net.minecraft.network.protocol.Packet;
 import net.minecraft.server.level.ServerPlayer;
 
 /**
@@ -8,4 +9,10 @@ import net.minecraft.server.level.ServerPlayer;
 public interface NetworkBridge {
     void sendToPlayer(ServerPlayer player, CinematicS2CPacket packet);
     void sendToServer(CinematicC2SPacket packet);
+
+    /**
+     * 预编码：按平台通道格式序列化一次，得到可直接发给任意多个玩家的原版包
+     * （与原版 {@code PlayerList.broadcastAll} 同样，一个包实例多连接共享）。
+     */
+    Packet<?> encode(CinematicS2CPacket packet);
 }
@@ -1,5 +1,6 @@
 package com.immersivecinematics.immersive_cinematics.trigger.network;
 
+import net.minecraft.network.protocol.Packet;
 import net.minecraft.server.level.ServerPlayer;
 
 /**
@@ -19,6 +20,9 @@ public final class NetworkHandler {
     public static final String SCRIPT_PAUSE_ACK = "script_pause_ack";
     public static final String SCRIPT_RELOAD = "script_reload";
     public static final String PRELOAD_RESULT = "preload_result";
+    public static final String PLAY_SCRIPT_REF = "play_script_ref";
+    public static final String PAYLOAD_FRAGMENT = "payload_fragment";
+    public static final String TRIGGER_STATE_DELTA = "trigger_state_delta";
 
     public static final String SCRIPT_FINISHED = "script_finished";
     public static final String PLAYBACK_STARTED = "playback_started";
@@ -26,6 +30,8 @@ public final class NetworkHandler {
     public static final String SCRIPT_SAVED = "script_saved";
     public static final String PRELOAD_REQ = "preload_req";
     public static final String PRELOAD_POS = "preload_pos";
+    public static final String SCRIPT_FETCH = "script_fetch";
+    public static final String TRIGGER_STATE_RESYNC = "trigger_state_resync";
 
     private static NetworkBridge bridge;
 
@@ -43,6 +49,26 @@ public final class NetworkHandler {
         if (bridge != null) bridge.sendToServer(packet);
     }
 
+    /**
+     * 预编码 S2C 包（只序列化一次），配合 {@link #sendEncoded} 向多名玩家发送同一份字节。
+     * bridge 未注入时返回 null。
+     */
+    public static Packet<?> encode(CinematicS2CPacket packet) {
+        return bridge != null ? bridge.encode(packet) : null;
+    }
+
+    public static void sendEncoded(ServerPlayer player, Packet<?> encoded) {
+        if (encoded != null) player.connection.send(encoded);
+    }
+
+    /** 同一个包发给多名玩家：序列化一次，逐个连接发送 */
+    public static void sendToPlayers(Iterable<ServerPlayer> players, CinematicS2CPacket packet) {
+        Packet<?> encoded = encode(packet);
+        for (ServerPlayer player : players) {
+            sendEncoded(player, encoded);
+        }
+    }
+
     /** 兼容旧调用：由平台在 common init 前注入 bridge */
     public static void init() {
     }
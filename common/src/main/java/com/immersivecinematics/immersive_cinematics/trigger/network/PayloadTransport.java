@@ -0,0 +1,299 @@
+package com.immersivecinematics.immersive_cinematics.trigger.network;
+
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.server.level.ServerPlayer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 大负载传输层 — 服务端 → 客户端的脚本正文等批量数据
+ * <p>
+ * 发送：把负载包按自身 {@code write} 编码为字节，超过阈值则 deflate 压缩，
+ * 再切成不超过 {@link #FRAGMENT_SIZE} 的 {@link S2CPayloadFragmentPacket} 依次发送。
+ * 接收：按传输 id 收齐分片 → 解压 → 用登记的解码器还原负载包并调用其 {@code handle()}。
+ * <p>
+ * ACK 语义：refId 随首片携带、覆盖整次传输 — 负载包处理完成后才回执；
+ * 多分片传输按分片数顺延 {@link AckTracker} 超时，避免传输中途触发整包重发。
+ * 同一 refId 的新一轮传输（超时重发）取代客户端上尚未收齐的旧传输。
+ * <p>
+ * 负载类型需在 {@link #register} 登记（两端同一份静态表）。
+ */
+public final class PayloadTransport {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("ImmersiveCinematics/PayloadTransport");
+
+    /** 单个分片的数据上限（字节） */
+    public static final int FRAGMENT_SIZE = 32 * 1024;
+    /** 单次传输解压后的负载上限（字节） */
+    public static final int MAX_PAYLOAD = 16 * 1024 * 1024;
+    /** 小于此长度不压缩（压缩收益抵不过开销） */
+    private static final int COMPRESS_THRESHOLD = 512;
+    /** 多分片传输每片顺延的 ACK 超时 */
+    private static final long ACK_MS_PER_FRAGMENT = 50;
+    /** 未收齐的传输保留时长（断线 / 丢弃的传输由此回收） */
+    private static final long ASSEMBLY_TIMEOUT_MS = 30_000;
+
+    // ===== 负载类型 =====
+
+    public static final int KIND_PLAY_SCRIPT = 0;
+    public static final int KIND_SCRIPT_RELOAD = 1;
+
+    private static final Map<Class<?>, Integer> KINDS = new HashMap<>();
+    private static final Int2ObjectMap<Function<FriendlyByteBuf, ? extends CinematicS2CPacket>> DECODERS = new Int2ObjectOpenHashMap<>();
+
+    static {
+        register(KIND_PLAY_SCRIPT, S2CPlayScriptPacket.class, S2CPlayScriptPacket::new);
+        register(KIND_SCRIPT_RELOAD, S2CScriptReloadPacket.class, S2CScriptReloadPacket::new);
+    }
+
+    private static final AtomicInteger nextTransferId = new AtomicInteger();
+
+    /** 客户端：传输 id → 未收齐的传输（仅客户端主线程访问） */
+    private static final Int2ObjectMap<Assembly> assemblies = new Int2ObjectOpenHashMap<>();
+
+    private PayloadTransport() {}
+
+    /** 登记负载类型（kind 为 0~127 的唯一编号，两端一致） */
+    public static synchronized <T extends CinematicS2CPacket> void register(int kind, Class<T> type, Function<FriendlyByteBuf, T> decoder) {
+        if (kind < 0 || kind > Byte.MAX_VALUE || DECODERS.containsKey(kind)) {
+            throw new IllegalArgumentException("Invalid or duplicate payload kind " + kind + " for " + type.getName());
+        }
+        KINDS.put(type, kind);
+        DECODERS.put(kind, decoder);
+    }
+
+    // ========== 发送（服务端） ==========
+
+    /**
+     * 经传输层发送负载包。
+     *
+     * @param refId 负载包携带的 ACK refId（空串 = 不需要回执）；用于按分片数顺延超时
+     */
+    public static void send(ServerPlayer player, CinematicS2CPacket packet, String refId) {
+        Prepared prepared = prepare(packet, refId);
+        if (prepared != null) prepared.sendTo(player);
+    }
+
+    /**
+     * 同一负载发给多名玩家：编码、压缩、分片、平台序列化都只做一次，之后逐个连接发送同一组包。
+     */
+    public static void sendToAll(Iterable<ServerPlayer> players, CinematicS2CPacket packet, String refId) {
+        Prepared prepared = prepare(packet, refId);
+        if (prepared == null) return;
+        for (ServerPlayer player : players) {
+            prepared.sendTo(player);
+        }
+    }
+
+    /**
+     * 预处理负载：编码 → 按需压缩 → 分片 → 预编码为平台包。
+     *
+     * @return null = 负载超过上限（已记录错误）
+     */
+    public static Prepared prepare(CinematicS2CPacket packet, String refId) {
+        Integer kind = KINDS.get(packet.getClass());
+        if (kind == null) {
+            throw new IllegalArgumentException("Unregistered payload type: " + packet.getClass().getName());
+        }
+        byte[] raw = encode(packet);
+        if (raw.length > MAX_PAYLOAD) {
+            com.immersivecinematics.immersive_cinematics.util.ErrorLog.log("Network",
+                    "Payload too large (" + raw.length + " bytes > " + MAX_PAYLOAD + "): " + packet.getClass().getSimpleName());
+            return null;
+        }
+
+        byte[] body = raw;
+        boolean compressed = false;
+        if (raw.length >= COMPRESS_THRESHOLD) {
+            byte[] deflated = deflate(raw);
+            if (deflated.length < raw.length) {
+                body = deflated;
+                compressed = true;
+            }
+        }
+
+        int count = Math.max(1, (body.length + FRAGMENT_SIZE - 1) / FRAGMENT_SIZE);
+        int transferId = nextTransferId.getAndIncrement();
+        String ref = refId != null ? refId : "";
+        Packet<?>[] fragments = new Packet<?>[count];
+        for (int i = 0; i < count; i++) {
+            int from = i * FRAGMENT_SIZE;
+            byte[] data = count == 1 ? body : Arrays.copyOfRange(body, from, Math.min(body.length, from + FRAGMENT_SIZE));
+            fragments[i] = NetworkHandler.encode(
+                    new S2CPayloadFragmentPacket(transferId, i, count, kind, compressed, raw.length, ref, data));
+        }
+        if (count > 1) {
+            LOGGER.debug("Prepared {} ({} → {} bytes) as {} fragments",
+                    packet.getClass().getSimpleName(), raw.length, body.length, count);
+        }
+        return new Prepared(fragments, ref);
+    }
+
+    /**
+     * 预编码完成的负载：分片包实例在所有接收者间共享（同一传输 id 在各客户端各自独立重组）。
+     */
+    public static final class Prepared {
+        private final Packet<?>[] fragments;
+        private final String refId;
+
+        private Prepared(Packet<?>[] fragments, String refId) {
+            this.fragments = fragments;
+            this.refId = refId;
+        }
+
+        public void sendTo(ServerPlayer player) {
+            for (Packet<?> fragment : fragments) {
+                NetworkHandler.sendEncoded(player, fragment);
+            }
+            if (fragments.length > 1) {
+                AckTracker.extend(refId, fragments.length * ACK_MS_PER_FRAGMENT);
+            }
+        }
+
+        public int getFragmentCount() { return fragments.length; }
+    }
+
+    private static byte[] encode(CinematicS2CPacket packet) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        try {
+            packet.write(buf);
+            byte[] out = new byte[buf.readableBytes()];
+            buf.readBytes(out);
+            return out;
+        } finally {
+            buf.release();
+        }
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(chunk);
+                out.write(chunk, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    // ========== 接收（客户端） ==========
+
+    /** 收到一个分片（客户端主线程） */
+    static void accept(S2CPayloadFragmentPacket fragment) {
+        int index = fragment.getIndex();
+        int count = fragment.getCount();
+        if (index == 0) {
+            long now = System.currentTimeMillis();
+            assemblies.values().removeIf(a -> now - a.startedAt > ASSEMBLY_TIMEOUT_MS);
+            if (count < 1 || count > MAX_PAYLOAD / FRAGMENT_SIZE + 1
+                    || fragment.getRawLength() < 0 || fragment.getRawLength() > MAX_PAYLOAD
+                    || !DECODERS.containsKey(fragment.getKind())) {
+                LOGGER.warn("Rejected payload transfer {}: kind={} fragments={} length={}",
+                        fragment.getTransferId(), fragment.getKind(), count, fragment.getRawLength());
+                return;
+            }
+            String refId = fragment.getRefId();
+            if (!refId.isEmpty()) {
+                assemblies.values().removeIf(a -> a.refId.equals(refId));
+            }
+            if (count == 1) {
+                complete(fragment.getKind(), fragment.isCompressed(), fragment.getRawLength(), fragment.getData());
+                return;
+            }
+            assemblies.put(fragment.getTransferId(), new Assembly(fragment, now));
+        }
+
+        Assembly assembly = assemblies.get(fragment.getTransferId());
+        if (assembly == null) return; // 首片被拒 / 已被重发取代 / 已过期
+        if (index < 0 || index >= assembly.parts.length || count != assembly.parts.length || assembly.parts[index] != null) {
+            LOGGER.warn("Dropped payload transfer {}: unexpected fragment {}/{}", fragment.getTransferId(), index, count);
+            assemblies.remove(fragment.getTransferId());
+            return;
+        }
+        assembly.parts[index] = fragment.getData();
+        assembly.size += fragment.getData().length;
+        if (++assembly.received < assembly.parts.length) return;
+
+        assemblies.remove(fragment.getTransferId());
+        byte[] body = new byte[assembly.size];
+        int pos = 0;
+        for (byte[] part : assembly.parts) {
+            System.arraycopy(part, 0, body, pos, part.length);
+            pos += part.length;
+        }
+        complete(assembly.kind, assembly.compressed, assembly.rawLength, body);
+    }
+
+    private static void complete(int kind, boolean compressed, int rawLength, byte[] body) {
+        try {
+            byte[] raw = compressed ? inflate(body, rawLength) : body;
+            FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.wrappedBuffer(raw));
+            CinematicS2CPacket packet = DECODERS.get(kind).apply(buf);
+            packet.handle();
+        } catch (Exception e) {
+            com.immersivecinematics.immersive_cinematics.util.ErrorLog.log("Network",
+                    "Failed to decode payload of kind " + kind + " (" + body.length + " bytes)", e);
+        }
+    }
+
+    private static byte[] inflate(byte[] body, int rawLength) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(body);
+            byte[] out = new byte[rawLength];
+            int n = 0;
+            while (n < rawLength && !inflater.finished()) {
+                int r = inflater.inflate(out, n, rawLength - n);
+                if (r == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                n += r;
+            }
+            if (n != rawLength) {
+                throw new DataFormatException("Inflated " + n + " bytes, expected " + rawLength);
+            }
+            return out;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /** 未收齐的传输 */
+    private static final class Assembly {
+        final int kind;
+        final boolean compressed;
+        final int rawLength;
+        final String refId;
+        final long startedAt;
+        final byte[][] parts;
+        int received;
+        int size;
+
+        Assembly(S2CPayloadFragmentPacket first, long now) {
+            this.kind = first.getKind();
+            this.compressed = first.isCompressed();
+            this.rawLength = first.getRawLength();
+            this.refId = first.getRefId();
+            this.startedAt = now;
+            this.parts = new byte[first.getCount()][];
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.immersivecinematics.immersive_cinematics.trigger.network;
+
+import net.minecraft.network.FriendlyByteBuf;
+
+/**
+ * 服务端 → 客户端：大负载传输分片（由 {@link PayloadTransport} 拆分 / 重组）。
+ * <p>
+ * 首片（index 0）额外携带负载类型、是否压缩、原始长度与 refId；其余分片只有传输 id + 序号 + 数据。
+ */
+public class S2CPayloadFragmentPacket implements CinematicS2CPacket {
+
+    private final int transferId;
+    private final int index;
+    private final int count;
+    private final int kind;
+    private final boolean compressed;
+    private final int rawLength;
+    private final String refId;
+    private final byte[] data;
+
+    public S2CPayloadFragmentPacket(int transferId, int index, int count,
+                                    int kind, boolean compressed, int rawLength, String refId, byte[] data) {
+        this.transferId = transferId;
+        this.index = index;
+        this.count = count;
+        this.kind = kind;
+        this.compressed = compressed;
+        this.rawLength = rawLength;
+        this.refId = refId;
+        this.data = data;
+    }
+
+    public S2CPayloadFragmentPacket(FriendlyByteBuf buf) {
+        this.transferId = buf.readVarInt();
+        this.index = buf.readVarInt();
+        this.count = buf.readVarInt();
+        if (index == 0) {
+            this.kind = buf.readByte();
+            this.compressed = buf.readBoolean();
+            this.rawLength = buf.readVarInt();
+            this.refId = buf.readUtf();
+        } else {
+            this.kind = 0;
+            this.compressed = false;
+            this.rawLength = 0;
+            this.refId = "";
+        }
+        this.data = buf.readByteArray(PayloadTransport.FRAGMENT_SIZE);
+    }
+
+    @Override
+    public void write(FriendlyByteBuf buf) {
+        buf.writeVarInt(transferId);
+        buf.writeVarInt(index);
+        buf.writeVarInt(count);
+        if (index == 0) {
+            buf.writeByte(kind);
+            buf.writeBoolean(compressed);
+            buf.writeVarInt(rawLength);
+            buf.writeUtf(refId);
+        }
+        buf.writeByteArray(data);
+    }
+
+    @Override
+    public void handle() {
+        // 平台网络层保证在客户端主线程执行
+        PayloadTransport.accept(this);
+    }
+
+    public int getTransferId() { return transferId; }
+    public int getIndex() { return index; }
+    public int getCount() { return count; }
+    public int getKind() { return kind; }
+    public boolean isCompressed() { return compressed; }
+    public int getRawLength() { return rawLength; }
+    public String getRefId() { return refId; }
+    public byte[] getData() { return data; }
+}
@@ -4,8 +4,16 @@ import com.immersivecinematics.immersive_cinematics.trigger.client.ClientScriptR
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.server.level.ServerPlayer;
 
+/**
+ * 服务端 → 客户端：播放脚本（全文）。
+ * <p>
+ * 经 {@link PayloadTransport} 压缩分片发送，正文长度不受原版字符串上限（32767）限制。
+ */
 public class S2CPlayScriptPacket implements CinematicS2CPacket {
 
+    /** 脚本 JSON 长度上限（字符），与传输层负载上限一致 */
+    private static final int MAX_JSON_LENGTH = PayloadTransport.MAX_PAYLOAD;
+
     private final String scriptJson;
     private final String refId;
 
@@ -19,13 +27,13 @@ public class S2CPlayScriptPacket implements CinematicS2CPacket {
     }
 
     public S2CPlayScriptPacket(FriendlyByteBuf buf) {
-        this.scriptJson = buf.readUtf();
+        this.scriptJson = buf.readUtf(MAX_JSON_LENGTH);
         this.refId = buf.readUtf();
     }
 
     @Override
     public void write(FriendlyByteBuf buf) {
-        buf.writeUtf(scriptJson);
+        buf.writeUtf(scriptJson, MAX_JSON_LENGTH);
         buf.writeUtf(refId);
     }
 
@@ -39,10 +47,15 @@ public class S2CPlayScriptPacket implements CinematicS2CPacket {
     public String getRefId() { return refId; }
 
     public static void send(ServerPlayer player, String scriptJson) {
-        NetworkHandler.sendToPlayer(player, new S2CPlayScriptPacket(scriptJson));
+        send(player, scriptJson, "");
     }
 
     public static void send(ServerPlayer player, String scriptJson, String refId) {
-        NetworkHandler.sendToPlayer(player, new S2CPlayScriptPacket(scriptJson, refId));
+        PayloadTransport.send(player, new S2CPlayScriptPacket(scriptJson, refId), refId);
+    }
+
+    /** 同一脚本发给多名玩家（只编码 / 压缩一次） */
+    public static void sendToAll(Iterable<ServerPlayer> players, String scriptJson, String refId) {
+        PayloadTransport.sendToAll(players, new S2CPlayScriptPacket(scriptJson, refId), refId);
     }
 }
@@ -0,0 +1,45 @@
+package com.immersivecinematics.immersive_cinematics.trigger.network;
+
+import com.immersivecinematics.immersive_cinematics.trigger.client.ClientScriptReceiver;
+import net.minecraft.network.FriendlyByteBuf;
+
+/**
+ * 服务端 → 客户端：按指纹播放脚本（只带 id + 指纹，不含脚本内容）。
+ * <p>
+ * 客户端解析缓存命中则直接播放；未命中回 {@link C2SScriptFetchPacket}，
+ * 服务端再以 {@link S2CPlayScriptPacket} 补发全文（refId 原样带回）。
+ */
+public class S2CPlayScriptRefPacket implements CinematicS2CPacket {
+
+    private final String scriptId;
+    private final String fingerprint;
+    private final String refId;
+
+    public S2CPlayScriptRefPacket(String scriptId, String fingerprint, String refId) {
+        this.scriptId = scriptId;
+        this.fingerprint = fingerprint;
+        this.refId = refId;
+    }
+
+    public S2CPlayScriptRefPacket(FriendlyByteBuf buf) {
+        this.scriptId = buf.readUtf();
+        this.fingerprint = buf.readUtf();
+        this.refId = buf.readUtf();
+    }
+
+    @Override
+    public void write(FriendlyByteBuf buf) {
+        buf.writeUtf(scriptId);
+        buf.writeUtf(fingerprint);
+        buf.writeUtf(refId);
+    }
+
+    @Override
+    public void handle() {
+        ClientScriptReceiver.handlePlayScriptRef(this);
+    }
+
+    public String getScriptId() { return scriptId; }
+    public String getFingerprint() { return fingerprint; }
+    public String getRefId() { return refId; }
+}
@@ -0,0 +1,57 @@
+package com.immersivecinematics.immersive_cinematics.trigger.network;
+
+import com.immersivecinematics.immersive_cinematics.trigger.client.ClientTriggerStateCache;
+import net.minecraft.network.FriendlyByteBuf;
+
+/**
+ * 服务端 → 客户端：触发状态增量（单条变化 + 序号）。
+ * <p>
+ * 序号在每个玩家的会话内连续递增；客户端发现不连续时回 {@link C2STriggerStateResyncPacket}
+ * 请求全量快照（{@link S2CTriggerStateSyncPacket}）。
+ */
+public class S2CTriggerStateDeltaPacket implements CinematicS2CPacket {
+
+    // ===== 操作类型 =====
+
+    /** 脚本的某个触发器已触发（scriptId + triggerId） */
+    public static final byte TRIGGERED = 0;
+    /** 脚本播放完成（scriptId） */
+    public static final byte COMPLETED = 1;
+
+    private final int seq;
+    private final byte op;
+    private final String scriptId;
+    private final String triggerId;
+
+    public S2CTriggerStateDeltaPacket(int seq, byte op, String scriptId, String triggerId) {
+        this.seq = seq;
+        this.op = op;
+        this.scriptId = scriptId != null ? scriptId : "";
+        this.triggerId = triggerId != null ? triggerId : "";
+    }
+
+    public S2CTriggerStateDeltaPacket(FriendlyByteBuf buf) {
+        this.seq = buf.readVarInt();
+        this.op = buf.readByte();
+        this.scriptId = buf.readUtf();
+        this.triggerId = buf.readUtf();
+    }
+
+    @Override
+    public void write(FriendlyByteBuf buf) {
+        buf.writeVarInt(seq);
+        buf.writeByte(op);
+        buf.writeUtf(scriptId);
+        buf.writeUtf(triggerId);
+    }
+
+    @Override
+    public void handle() {
+        ClientTriggerStateCache.handleDelta(this);
+    }
+
+    public int getSeq() { return seq; }
+    public byte getOp() { return op; }
+    public String getScriptId() { return scriptId; }
+    public String getTriggerId() { return triggerId; }
+}
@@ -9,22 +9,29 @@ import net.minecraft.nbt.StringTag;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.server.level.ServerPlayer;
 
-import java.util.Map;
-import java.util.Set;
-
+/**
+ * 服务端 → 客户端：触发状态全量快照（登录时 / 客户端检测到序号缺口请求重同步时）。
+ * <p>
+ * 之后的变化由 {@link S2CTriggerStateDeltaPacket} 增量下发；seq 为快照对应的序号，
+ * 客户端据此校验后续增量是否连续。
+ */
 public class S2CTriggerStateSyncPacket implements CinematicS2CPacket {
 
+    private final int seq;
     private final Object2ObjectOpenHashMap<String, ObjectOpenHashSet<String>> triggeredScripts;
     private final ObjectOpenHashSet<String> completedScripts;
 
     public S2CTriggerStateSyncPacket(
+            int seq,
             Object2ObjectOpenHashMap<String, ObjectOpenHashSet<String>> triggeredScripts,
             ObjectOpenHashSet<String> completedScripts) {
+        this.seq = seq;
         this.triggeredScripts = triggeredScripts;
         this.completedScripts = completedScripts;
     }
 
     public S2CTriggerStateSyncPacket(FriendlyByteBuf buf) {
+        seq = buf.readVarInt();
         CompoundTag tag = buf.readNbt();
         if (tag == null) {
             triggeredScripts = new Object2ObjectOpenHashMap<>();
@@ -54,6 +61,7 @@ public class S2CTriggerStateSyncPacket implements CinematicS2CPacket {
 
     @Override
     public void write(FriendlyByteBuf buf) {
+        buf.writeVarInt(seq);
         CompoundTag tag = new CompoundTag();
         CompoundTag ts = new CompoundTag();
         for (var entry : triggeredScripts.object2ObjectEntrySet()) {
@@ -77,12 +85,13 @@ public class S2CTriggerStateSyncPacket implements CinematicS2CPacket {
         ClientTriggerStateCache.handleSync(this);
     }
 
+    public int getSeq() { return seq; }
     public Object2ObjectOpenHashMap<String, ObjectOpenHashSet<String>> getTriggeredScripts() { return triggeredScripts; }
     public ObjectOpenHashSet<String> getCompletedScripts() { return completedScripts; }
 
-    public static void send(ServerPlayer player,
+    public static void send(ServerPlayer player, int seq,
                             Object2ObjectOpenHashMap<String, ObjectOpenHashSet<String>> triggered,
                             ObjectOpenHashSet<String> completed) {
-        NetworkHandler.sendToPlayer(player, new S2CTriggerStateSyncPacket(triggered, completed));
+        NetworkHandler.sendToPlayer(player, new S2CTriggerStateSyncPacket(seq, triggered, completed));
     }
 }
@@ -0,0 +1,22 @@
+package com.immersivecinematics.immersive_cinematics.trigger.server;
+
+import com.immersivecinematics.immersive_cinematics.trigger.server.evaluator.Conditions;
+import net.minecraft.server.level.ServerPlayer;
+
+/**
+ * 已编译的触发条件 — 类型与其编译结果绑定，求值时无需再关心泛型参数
+ *
+ * @param type 触发器类型
+ * @param data 编译后的条件（不可变）
+ */
+public record CompiledCondition<C>(TriggerType<C> type, C data) {
+
+    public boolean test(ServerPlayer player) {
+        return type.evaluate(player, data);
+    }
+
+    /** 边沿型条件：依赖状态未变化时结果恒为 false（如 inventory 的数量变化模式） */
+    public boolean isEdgeTriggered() {
+        return data instanceof Conditions.EdgeTriggered edge && edge.isEdgeTriggered();
+    }
+}
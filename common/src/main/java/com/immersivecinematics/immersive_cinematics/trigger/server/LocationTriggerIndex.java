@@ -0,0 +1,146 @@
+package com.immersivecinematics.immersive_cinematics.trigger.server;
+
+import com.immersivecinematics.immersive_cinematics.trigger.server.evaluator.Conditions;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * location 触发器空间索引 — 按维度 + 区块段（16×16×16）分桶
+ * <p>
+ * 每个注册按其条件区域（含 exitBuffer 外扩后的离开区域）的包围盒登记到覆盖的所有区块段；
+ * 轮询时只取玩家当前所在区块段的桶，代价从 O(触发器 × 玩家) 降为 O(玩家 + 命中)。
+ * 注册只会落在一个分组里（有界 → 区块段桶；无界 → 常驻列表），同一次查询不会重复返回。
+ * <p>
+ * 不在候选中的注册其条件必然为 false，与逐个求值的结果一致。
+ */
+public class LocationTriggerIndex {
+
+    /** 单个区域最多登记的区块段数；超过按无界处理（大区域逐个求值比铺满桶更省） */
+    private static final int MAX_SECTIONS_PER_ZONE = 4096;
+
+    /** 不限维度的注册（条件未写 dimension）使用的维度键 */
+    private static final String ANY_DIMENSION = "*";
+
+    /** 维度 → 区块段键 → 注册 */
+    private final Map<String, Long2ObjectMap<List<TriggerRegistration>>> sections = new HashMap<>();
+    /** 维度 → 无界注册（整个维度 / 区域过大），每次查询都返回 */
+    private final Map<String, List<TriggerRegistration>> unbounded = new HashMap<>();
+
+    private int size;
+
+    /**
+     * 登记一个 location 注册。
+     *
+     * @return false = 条件不是 {@link Conditions.Location}，调用方应按普通轮询处理
+     */
+    public boolean add(TriggerRegistration reg) {
+        if (!(reg.getCondition().data() instanceof Conditions.Location loc)) return false;
+        String dim = loc.dimension() != null ? loc.dimension().getPattern() : ANY_DIMENSION;
+
+        double[] bounds = bounds(loc);
+        CompiledCondition<?> exit = reg.getExitCondition();
+        if (bounds != null && exit != null) {
+            // 离开判定同样需要在外扩区域内被求值
+            bounds = exit.data() instanceof Conditions.Location exitLoc ? union(bounds, bounds(exitLoc)) : null;
+        }
+        size++;
+
+        if (bounds == null) {
+            unbounded.computeIfAbsent(dim, k -> new ArrayList<>()).add(reg);
+            return true;
+        }
+        int minX = sectionCoord(bounds[0]), minY = sectionCoord(bounds[1]), minZ = sectionCoord(bounds[2]);
+        int maxX = sectionCoord(bounds[3]), maxY = sectionCoord(bounds[4]), maxZ = sectionCoord(bounds[5]);
+        long cells = (long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+        if (cells > MAX_SECTIONS_PER_ZONE) {
+            unbounded.computeIfAbsent(dim, k -> new ArrayList<>()).add(reg);
+            return true;
+        }
+
+        Long2ObjectMap<List<TriggerRegistration>> grid = sections.computeIfAbsent(dim, k -> new Long2ObjectOpenHashMap<>());
+        for (int sx = minX; sx <= maxX; sx++) {
+            for (int sy = minY; sy <= maxY; sy++) {
+                for (int sz = minZ; sz <= maxZ; sz++) {
+                    grid.computeIfAbsent(sectionKey(sx, sy, sz), k -> new ArrayList<>()).add(reg);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 收集玩家位置可能命中的注册（追加到 out，不清空）。
+     *
+     * @param dimension 玩家所在维度 id（"ns:path"）
+     */
+    public void collect(String dimension, double x, double y, double z, List<TriggerRegistration> out) {
+        long key = sectionKey(sectionCoord(x), sectionCoord(y), sectionCoord(z));
+        collect(ANY_DIMENSION, key, out);
+        collect(dimension, key, out);
+    }
+
+    private void collect(String dim, long key, List<TriggerRegistration> out) {
+        List<TriggerRegistration> always = unbounded.get(dim);
+        if (always != null) out.addAll(always);
+        Long2ObjectMap<List<TriggerRegistration>> grid = sections.get(dim);
+        if (grid != null) {
+            List<TriggerRegistration> bucket = grid.get(key);
+            if (bucket != null) out.addAll(bucket);
+        }
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 条件为 true 的区域包围盒 {minX, minY, minZ, maxX, maxY, maxZ}，null = 无界。
+     * <p>
+     * 与 {@code Evaluators.evaluateLocation} 对应：写了 position 时结果取决于 立方体 ∪ 球体；
+     * 未写 position 时，立方体外仍以"是否写了 dimension"为结果——写了 dimension 即整个维度（无界）。
+     */
+    private static double[] bounds(Conditions.Location loc) {
+        Conditions.Box box = loc.box();
+        Conditions.Sphere sphere = loc.sphere();
+        if (sphere != null) {
+            // Sphere.contains 比较的是 radius²：负半径按 |r| 生效，包围盒必须同样取绝对值
+            double r = Math.abs(sphere.radius());
+            double[] s = {sphere.x() - r, sphere.y() - r, sphere.z() - r,
+                    sphere.x() + r, sphere.y() + r, sphere.z() + r};
+            return box != null ? union(s, boxBounds(box)) : s;
+        }
+        if (box != null && loc.dimension() == null) {
+            return boxBounds(box);
+        }
+        return null;
+    }
+
+    private static double[] boxBounds(Conditions.Box b) {
+        return new double[]{b.minX(), b.minY(), b.minZ(), b.maxX(), b.maxY(), b.maxZ()};
+    }
+
+    private static double[] union(double[] a, double[] b) {
+        if (b == null) return null;
+        return new double[]{
+                Math.min(a[0], b[0]), Math.min(a[1], b[1]), Math.min(a[2], b[2]),
+                Math.max(a[3], b[3]), Math.max(a[4], b[4]), Math.max(a[5], b[5])};
+    }
+
+    private static int sectionCoord(double v) {
+        return (int) Math.floor(v) >> 4;
+    }
+
+    /** 区块段坐标打包（x/z 各 22 位、y 20 位，与原版 SectionPos 同布局） */
+    private static long sectionKey(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFL) << 42 | ((long) y & 0xFFFFFL) | ((long) z & 0x3FFFFFL) << 20;
+    }
+}
@@ -0,0 +1,147 @@
+package com.immersivecinematics.immersive_cinematics.trigger.server;
+
+import com.immersivecinematics.immersive_cinematics.trigger.server.evaluator.Evaluators;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.Arrays;
+
+/**
+ * 玩家轮询状态 — 轮询触发器的变化检测
+ * <p>
+ * 每个轮询 tick 对玩家做一次廉价采样（方块坐标、维度、背包摘要版本、经验），
+ * 与上次采样比较得到脏位掩码；每个变化通道维护一个递增纪元。
+ * 轮询注册的求值结果按"所依赖通道的纪元和"缓存：依赖通道均未变化 → 直接复用上次结果，
+ * 不调用求值器；上次结果为 false 时连前置 / 冷却检查也跳过（{@link #isKnownFalse}）。
+ * 静止玩家（挂机、开着界面）的轮询代价只剩几次数组读取。
+ * <p>
+ * 依赖掩码由 {@link TriggerType#getDependencies()} 声明，0 = 无可靠的变化来源（每次都求值）。
+ * 仅服务端主线程访问。
+ */
+public class PlayerPollState {
+
+    // ===== 变化通道 =====
+
+    /**
+     * 所在方块变化（location / structure / biome）。
+     * biome 也按方块：Level.getBiome 经 BiomeManager 的模糊缩放取值，同一 4×4×4 格内相邻方块的结果也可能不同
+     */
+    public static final int BLOCK = 1;
+    /** 维度变化 */
+    public static final int DIMENSION = 1 << 1;
+    /** 背包内容（物品 + 数量）变化（inventory） */
+    public static final int INVENTORY = 1 << 2;
+    /** 经验等级 / 总经验变化（xp） */
+    public static final int XP = 1 << 3;
+
+    private static final int CHANNELS = 4;
+
+    // ===== 上次采样 =====
+
+    private boolean sampled;
+    private Object dimension;
+    private int blockX, blockY, blockZ;
+    private int inventoryRevision = -1;
+    private int xpLevel, xpTotal;
+
+    /** 各通道纪元（变化一次 +1） */
+    private final int[] epochs = new int[CHANNELS];
+
+    // ===== 求值结果缓存（按 TriggerRegistration 轮询槽位） =====
+
+    private int generation = -1;
+    private int[] stamps = new int[0];
+    private boolean[] results = new boolean[0];
+
+    /**
+     * 采样并更新纪元。
+     *
+     * @param channels 需要检测的通道（本 tick 到期的轮询注册依赖的并集；维度始终检测）
+     * @return 自上次采样以来变化的通道掩码（首次采样 = 全部）
+     */
+    public int sample(ServerPlayer player, int channels) {
+        int mask = 0;
+
+        Object dim = player.level().dimension();
+        if (!sampled || dim != dimension) {
+            mask |= DIMENSION;
+            dimension = dim;
+        }
+
+        if ((channels & BLOCK) != 0) {
+            int bx = player.getBlockX(), by = player.getBlockY(), bz = player.getBlockZ();
+            if (!sampled || bx != blockX || by != blockY || bz != blockZ) {
+                mask |= BLOCK;
+                blockX = bx;
+                blockY = by;
+                blockZ = bz;
+            }
+        }
+
+        if ((channels & INVENTORY) != 0) {
+            // 与 inventory 求值器共用同一份摘要：本 tick 只遍历一次背包
+            int revision = Evaluators.InventoryTracker.digest(player).revision();
+            if (revision != inventoryRevision) {
+                mask |= INVENTORY;
+                inventoryRevision = revision;
+            }
+        }
+
+        if ((channels & XP) != 0
+                && (!sampled || player.experienceLevel != xpLevel || player.totalExperience != xpTotal)) {
+            mask |= XP;
+            xpLevel = player.experienceLevel;
+            xpTotal = player.totalExperience;
+        }
+
+        if ((mask & DIMENSION) != 0) {
+            // 换维度（含首次采样）：同坐标也视为不同位置
+            mask |= BLOCK;
+        }
+        sampled = true;
+
+        for (int i = 0; i < CHANNELS; i++) {
+            if ((mask & (1 << i)) != 0) epochs[i]++;
+        }
+        return mask;
+    }
+
+    /** 依赖掩码对应通道的纪元和（任一通道变化都会使其严格增大） */
+    public int stamp(int dependencies) {
+        int sum = 0;
+        for (int i = 0; i < CHANNELS; i++) {
+            if ((dependencies & (1 << i)) != 0) sum += epochs[i];
+        }
+        return sum;
+    }
+
+    /** 槽位缓存是否仍有效（注册表已重建 / 纪元变化 → 无效） */
+    public boolean isValid(int slot, int stamp, int currentGeneration) {
+        return generation == currentGeneration && slot < stamps.length && stamps[slot] == stamp;
+    }
+
+    public boolean getResult(int slot) {
+        return results[slot];
+    }
+
+    /**
+     * 依赖通道本次采样未变化，且槽位缓存仍有效、上次求值为 false → 本次必然仍为 false，可整体跳过。
+     * 无依赖类型（gamestage / observation）与无槽位注册始终返回 false（每次都求值）。
+     *
+     * @param dirty {@link #sample} 返回的变化掩码（先于纪元比较的廉价排除）
+     */
+    public boolean isKnownFalse(int slot, int dependencies, int dirty, int currentGeneration) {
+        if (dependencies == 0 || slot < 0 || (dirty & dependencies) != 0) return false;
+        return isValid(slot, stamp(dependencies), currentGeneration) && !results[slot];
+    }
+
+    public void store(int slot, int stamp, boolean result, int currentGeneration, int slotCount) {
+        if (generation != currentGeneration || stamps.length < slotCount) {
+            generation = currentGeneration;
+            stamps = new int[slotCount];
+            results = new boolean[slotCount];
+            Arrays.fill(stamps, -1);
+        }
+        stamps[slot] = stamp;
+        results[slot] = result;
+    }
+}
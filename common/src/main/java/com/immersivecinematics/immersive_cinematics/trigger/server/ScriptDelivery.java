@@ -0,0 +1,94 @@
+package com.immersivecinematics.immersive_cinematics.trigger.server;
+
+import com.immersivecinematics.immersive_cinematics.script.CinematicScript;
+import com.immersivecinematics.immersive_cinematics.script.ScriptManager;
+import com.immersivecinematics.immersive_cinematics.trigger.network.NetworkHandler;
+import com.immersivecinematics.immersive_cinematics.trigger.network.S2CPlayScriptPacket;
+import com.immersivecinematics.immersive_cinematics.trigger.network.S2CPlayScriptRefPacket;
+import net.minecraft.server.level.ServerPlayer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 脚本下发 — 按内容指纹去重
+ * <p>
+ * 本会话内首次向某玩家播放某脚本时发全文（{@link S2CPlayScriptPacket}），客户端解析后按指纹缓存；
+ * 之后同一内容只发 {@link S2CPlayScriptRefPacket}（id + 指纹）。客户端缓存被淘汰时回
+ * {@code C2SScriptFetchPacket}，由 {@link #onFetch} 补发全文。
+ * <p>
+ * 脚本 reload 后内容变化 → 指纹变化 → 自然按"未发送过"处理。玩家退出时清除记录。
+ * 仅服务端主线程访问。
+ */
+public final class ScriptDelivery {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("ImmersiveCinematics/ScriptDelivery");
+
+    /** 玩家 → 已发送过全文的脚本指纹 */
+    private static final Map<UUID, Set<String>> delivered = new HashMap<>();
+
+    private ScriptDelivery() {}
+
+    /**
+     * 向玩家播放脚本（已发送过全文 → 只发指纹）。
+     */
+    public static void sendPlay(ServerPlayer player, CinematicScript script, String refId) {
+        String fp = script.getFingerprint();
+        if (fp != null && !delivered.computeIfAbsent(player.getUUID(), k -> new HashSet<>()).add(fp)) {
+            NetworkHandler.sendToPlayer(player, new S2CPlayScriptRefPacket(script.getId(), fp, refId));
+            return;
+        }
+        S2CPlayScriptPacket.send(player, script.getRawJson(), refId);
+    }
+
+    /**
+     * 向多名玩家播放同一脚本：按是否已发送过全文分成两组，每组的包只编码一次后共享发送。
+     */
+    public static void sendPlayToAll(List<ServerPlayer> players, CinematicScript script, String refId) {
+        String fp = script.getFingerprint();
+        List<ServerPlayer> full = new ArrayList<>();
+        List<ServerPlayer> byRef = new ArrayList<>();
+        for (ServerPlayer p : players) {
+            if (fp != null && !delivered.computeIfAbsent(p.getUUID(), k -> new HashSet<>()).add(fp)) {
+                byRef.add(p);
+            } else {
+                full.add(p);
+            }
+        }
+        if (!byRef.isEmpty()) {
+            NetworkHandler.sendToPlayers(byRef, new S2CPlayScriptRefPacket(script.getId(), fp, refId));
+        }
+        if (!full.isEmpty()) {
+            S2CPlayScriptPacket.sendToAll(full, script.getRawJson(), refId);
+        }
+    }
+
+    /**
+     * 客户端按指纹播放未命中缓存 → 补发全文（refId 原样带回，回执链路不变）。
+     */
+    public static void onFetch(ServerPlayer player, String fingerprint, String refId) {
+        CinematicScript script = ScriptManager.INSTANCE.getScriptByFingerprint(fingerprint);
+        if (script == null) {
+            // 请求发出前脚本已 reload，旧内容已不存在
+            LOGGER.warn("Script fetch from {}: no script with fingerprint {}", player.getName().getString(), fingerprint);
+            return;
+        }
+        delivered.computeIfAbsent(player.getUUID(), k -> new HashSet<>()).add(fingerprint);
+        S2CPlayScriptPacket.send(player, script.getRawJson(), refId);
+    }
+
+    public static void onPlayerQuit(UUID uuid) {
+        delivered.remove(uuid);
+    }
+
+    public static void clearAll() {
+        delivered.clear();
+    }
+}
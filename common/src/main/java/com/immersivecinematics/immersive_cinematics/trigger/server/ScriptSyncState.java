@@ -40,11 +40,13 @@ public final class ScriptSyncState {
             byte[] content = Files.readAllBytes(file);
             fingerprints.put(fileName, ScriptFingerprint.of(content));
             // 广播 reload 给所有在线玩家（含发送者；客户端本地指纹对比去重）
+            java.util.List<ServerPlayer> targets = new java.util.ArrayList<>();
             for (ServerPlayer p : server.getPlayerList().getPlayers()) {
                 if (p instanceof com.immersivecinematics.immersive_cinematics.trigger.server.CameraFakePlayer) continue;
-                com.immersivecinematics.immersive_cinematics.trigger.network.NetworkHandler.sendToPlayer(
-                        p, new S2CScriptReloadPacket(fileName));
+                targets.add(p);
             }
+            com.immersivecinematics.immersive_cinematics.trigger.network.PayloadTransport.sendToAll(
+                    targets, new S2CScriptReloadPacket(fileName), "");
         } catch (IOException e) {
             LOGGER.error("C2SScriptSaved: 读取失败 {}", fileName, e);
         }
@@ -1,10 +1,9 @@
 package com.immersivecinematics.immersive_cinematics.trigger.server;
 
-import com.google.gson.JsonObject;
-import com.immersivecinematics.immersive_cinematics.trigger.network.S2CTriggerStateSyncPacket;
-import com.immersivecinematics.immersive_cinematics.trigger.server.store.PlayerTriggerState;
 import com.immersivecinematics.immersive_cinematics.trigger.server.store.TriggerStateStore;
 import com.mojang.logging.LogUtils;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import net.minecraft.server.MinecraftServer;
@@ -20,9 +19,24 @@ public class TriggerEngine {
 
     private final Map<String, List<TriggerRegistration>> eventIndex = new HashMap<>();
     private final Int2ObjectMap<List<TriggerRegistration>> pollBuckets = new Int2ObjectOpenHashMap<>();
+    /** location 类轮询注册按间隔分组的空间索引（不进 pollBuckets） */
+    private final Int2ObjectMap<LocationTriggerIndex> spatialBuckets = new Int2ObjectOpenHashMap<>();
+    /** 空间索引查询结果的复用列表（仅服务端主线程） */
+    private final List<TriggerRegistration> candidates = new ArrayList<>();
     private final List<TriggerRegistration> allRegistrations = new ArrayList<>();
     private int tickCounter = 0;
 
+    /** 轮询变化检测：玩家采样状态 + 求值结果缓存 */
+    private final Map<UUID, PlayerPollState> pollStates = new HashMap<>();
+    /** 轮询注册槽位数 / 索引代数（重建即递增，使所有玩家的缓存失效） */
+    private int pollSlotCount = 0;
+    private int pollGeneration = 0;
+    /**
+     * 轮询间隔 → 该间隔下注册所依赖通道的并集（含无依赖类型的间隔，值为 0）。
+     * 每 tick 只采样到期间隔的通道：通道采样时机与其求值器一致（背包摘要的"上次数量"语义不变）
+     */
+    private final Int2IntMap channelsByInterval = new Int2IntOpenHashMap();
+
     private final Map<UUID, List<DelayedFire>> delayedFires = new HashMap<>();
 
     private final Map<UUID, Map<String, Boolean>> enterStates = new HashMap<>();
@@ -46,26 +60,65 @@ public class TriggerEngine {
     public void rebuildIndex() {
         eventIndex.clear();
         pollBuckets.clear();
+        spatialBuckets.clear();
+        pollSlotCount = 0;
+        channelsByInterval.clear();
+        pollGeneration++;
 
         for (TriggerRegistration reg : allRegistrations) {
-            TriggerType type = reg.getType();
+            TriggerType<?> type = reg.getType();
+            reg.pollSlot = -1;
             if (type.getStrategy() == ListenStrategy.EVENT_DRIVEN) {
                 // 用触发器类型 ID 作为事件索引键
                 eventIndex.computeIfAbsent(type.getId(), k -> new ArrayList<>()).add(reg);
             } else if (type.getStrategy() == ListenStrategy.POLLING) {
                 int interval = type.getPollInterval();
-                pollBuckets.computeIfAbsent(interval, k -> new ArrayList<>()).add(reg);
+                reg.pollSlot = pollSlotCount++;
+                channelsByInterval.put(interval, channelsByInterval.get(interval) | type.getDependencies());
+                LocationTriggerIndex spatial = spatialBuckets.computeIfAbsent(interval, k -> new LocationTriggerIndex());
+                if (!spatial.add(reg)) {
+                    pollBuckets.computeIfAbsent(interval, k -> new ArrayList<>()).add(reg);
+                }
             }
         }
 
-        LOGGER.info("Rebuilt trigger index: {} event-driven, {} polling buckets ({} total registrations)",
-                eventIndex.size(), pollBuckets.size(), allRegistrations.size());
+        spatialBuckets.values().removeIf(LocationTriggerIndex::isEmpty);
+
+        int spatialCount = 0;
+        for (LocationTriggerIndex spatial : spatialBuckets.values()) spatialCount += spatial.size();
+        LOGGER.info("Rebuilt trigger index: {} event-driven, {} polling buckets, {} spatially indexed ({} total registrations)",
+                eventIndex.size(), pollBuckets.size(), spatialCount, allRegistrations.size());
+    }
+
+    /**
+     * 增量替换：移除 scriptIds 中各脚本的全部注册（连同其延迟触发 / 进入状态），加入新注册并重建索引。
+     * 其他脚本的注册与玩家状态保持不变（脚本重载只改了少数文件时不打断其余触发器）。
+     */
+    public void replaceScripts(Set<String> scriptIds, List<TriggerRegistration> registrations) {
+        allRegistrations.removeIf(reg -> scriptIds.contains(reg.getScriptId()));
+        for (List<DelayedFire> fires : delayedFires.values()) {
+            fires.removeIf(df -> scriptIds.contains(df.reg.getScriptId()));
+        }
+        delayedFires.values().removeIf(List::isEmpty);
+        // 进入状态键为 scriptId:triggerId（见 checkEnterState）
+        for (Map<String, Boolean> states : enterStates.values()) {
+            states.keySet().removeIf(key -> {
+                for (String id : scriptIds) {
+                    if (key.startsWith(id + ":")) return true;
+                }
+                return false;
+            });
+        }
+        allRegistrations.addAll(registrations);
+        rebuildIndex();
     }
 
     public void clear() {
         allRegistrations.clear();
         eventIndex.clear();
         pollBuckets.clear();
+        spatialBuckets.clear();
+        pollStates.clear();
         delayedFires.clear();
         enterStates.clear();
     }
@@ -87,7 +140,7 @@ public class TriggerEngine {
         for (TriggerRegistration reg : triggers) {
             if (!prerequisitesMet(player, reg)) continue;
             if (shouldSkip(player, reg)) continue;
-            if (reg.getType().evaluate(player, reg.getConditions())) {
+            if (reg.getCondition().test(player)) {
                 if (reg.isOnEnter() && !checkEnterState(player, reg)) continue;
                 fireTrigger(player, reg);
             }
@@ -100,26 +153,82 @@ public class TriggerEngine {
         if (!initialized) return;
         tickCounter++;
 
-        for (var entry : pollBuckets.int2ObjectEntrySet()) {
-            int interval = entry.getIntKey();
-            if (tickCounter % interval != 0) continue;
-
-            for (TriggerRegistration reg : entry.getValue()) {
-                for (ServerPlayer player : server.getPlayerList().getPlayers()) {
-                    if (player instanceof com.immersivecinematics.immersive_cinematics.trigger.server.CameraFakePlayer) continue;
-                    if (!prerequisitesMet(player, reg)) continue;
-                    if (shouldSkip(player, reg)) continue;
-                    if (reg.getType().evaluate(player, reg.getConditions())) {
-                        if (reg.isOnEnter() && !checkEnterState(player, reg)) continue;
-                        fireTrigger(player, reg);
+        boolean anyDue = false;
+        int dueChannels = 0;
+        for (var entry : channelsByInterval.int2IntEntrySet()) {
+            if (tickCounter % entry.getIntKey() != 0) continue;
+            anyDue = true;
+            dueChannels |= entry.getIntValue();
+        }
+
+        if (anyDue) {
+            for (ServerPlayer player : server.getPlayerList().getPlayers()) {
+                if (player instanceof com.immersivecinematics.immersive_cinematics.trigger.server.CameraFakePlayer) continue;
+                PlayerPollState state = pollStates.computeIfAbsent(player.getUUID(), k -> new PlayerPollState());
+                int dirty = state.sample(player, dueChannels);
+
+                for (var entry : pollBuckets.int2ObjectEntrySet()) {
+                    if (tickCounter % entry.getIntKey() != 0) continue;
+                    for (TriggerRegistration reg : entry.getValue()) {
+                        pollOne(player, state, dirty, reg);
+                    }
+                }
+
+                // location：只求值玩家所在区块段桶内的注册
+                for (var entry : spatialBuckets.int2ObjectEntrySet()) {
+                    if (tickCounter % entry.getIntKey() != 0) continue;
+                    candidates.clear();
+                    entry.getValue().collect(player.level().dimension().location().toString(),
+                            player.getX(), player.getY(), player.getZ(), candidates);
+                    for (int i = 0, n = candidates.size(); i < n; i++) {
+                        pollOne(player, state, dirty, candidates.get(i));
                     }
                 }
             }
+            candidates.clear();
         }
 
         processDelayedFires(server);
     }
 
+    /**
+     * @param dirty 本次采样的变化通道掩码：依赖通道未变、且上次求值为 false 的注册直接跳过，
+     *              不走前置 / 冷却检查（静止玩家的轮询代价只剩掩码与纪元比较）
+     */
+    private void pollOne(ServerPlayer player, PlayerPollState state, int dirty, TriggerRegistration reg) {
+        if (state.isKnownFalse(reg.pollSlot, reg.getType().getDependencies(), dirty, pollGeneration)) return;
+        if (!prerequisitesMet(player, reg)) return;
+        if (shouldSkip(player, reg)) return;
+        if (testPolled(player, state, reg)) {
+            if (reg.isOnEnter() && !checkEnterState(player, reg)) return;
+            fireTrigger(player, reg);
+        }
+    }
+
+    /**
+     * 轮询条件求值：依赖通道自上次求值以来未变化 → 复用缓存结果，不调用求值器。
+     * 边沿型条件（如背包数量变化）缓存 false——状态不变时它本就不会成立。
+     */
+    private boolean testPolled(ServerPlayer player, PlayerPollState state, TriggerRegistration reg) {
+        CompiledCondition<?> condition = reg.getCondition();
+        int deps = reg.getType().getDependencies();
+        int slot = reg.pollSlot;
+        if (deps == 0 || slot < 0) return condition.test(player);
+
+        int stamp = state.stamp(deps);
+        if (state.isValid(slot, stamp, pollGeneration)) {
+            return state.getResult(slot);
+        }
+        boolean result = condition.test(player);
+        state.store(slot, stamp, result && !condition.isEdgeTriggered(), pollGeneration, pollSlotCount);
+        return result;
+    }
+
+    /** 玩家下线：释放轮询采样状态 */
+    public void onPlayerQuit(UUID uuid) {
+        pollStates.remove(uuid);
+    }
+
     // ===== Delayed fire =====
 
     private void processDelayedFires(MinecraftServer server) {
@@ -154,9 +263,9 @@ public class TriggerEngine {
     public void onScriptFinished(ServerPlayer player, String scriptId,
                                  com.immersivecinematics.immersive_cinematics.control.CompletionReason reason) {
         // 完成状态落库 + 同步到客户端（C2SScriptFinishedPacket 的必经链路）
-        TriggerStateStore.INSTANCE.markScriptCompleted(player.getUUID(), scriptId);
-        PlayerTriggerState state = TriggerStateStore.INSTANCE.getOrCreate(player.getUUID());
-        S2CTriggerStateSyncPacket.send(player, state.getTriggeredScripts(), state.getCompletedScripts());
+        if (TriggerStateStore.INSTANCE.markScriptCompleted(player.getUUID(), scriptId)) {
+            TriggerStateSync.sendCompleted(player, scriptId);
+        }
         ScriptEventManager.INSTANCE.onScriptFinished(player, scriptId, reason);
         LOGGER.debug("Script finished: player={}, script={}, reason={}",
                 player.getName().getString(), scriptId, reason);
@@ -203,9 +312,10 @@ public class TriggerEngine {
                 player.getUUID(), reg.getScriptId(), reg.getTriggerId());
         if (!isNew && !reg.isRepeatable()) return;
 
-        // 触发成功 → 同步最新状态到客户端（编辑器 UI 消费）
-        PlayerTriggerState state = TriggerStateStore.INSTANCE.getOrCreate(player.getUUID());
-        S2CTriggerStateSyncPacket.send(player, state.getTriggeredScripts(), state.getCompletedScripts());
+        // 首次触发 → 增量同步到客户端（编辑器 UI 消费）；可重复触发器再次触发时状态不变，无需下发
+        if (isNew) {
+            TriggerStateSync.sendTriggered(player, reg.getScriptId(), reg.getTriggerId());
+        }
 
         int delayMs = reg.getDelayMs();
         if (delayMs > 0) {
@@ -233,10 +343,10 @@ public class TriggerEngine {
         Map<String, Boolean> playerStates = enterStates.computeIfAbsent(uuid, k -> new HashMap<>());
         boolean wasInside = playerStates.getOrDefault(key, false);
 
-        JsonObject exitCond = reg.getExitConditions();
+        CompiledCondition<?> exitCond = reg.getExitCondition();
         if (exitCond != null) {
-            boolean inExpanded = reg.getType().evaluate(player, exitCond);
-            boolean inOriginal = reg.getType().evaluate(player, reg.getConditions());
+            boolean inExpanded = exitCond.test(player);
+            boolean inOriginal = reg.getCondition().test(player);
 
             if (inOriginal) {
                 playerStates.put(key, true);
@@ -248,7 +358,7 @@ public class TriggerEngine {
             return false;
         }
 
-        boolean isInside = reg.getType().evaluate(player, reg.getConditions());
+        boolean isInside = reg.getCondition().test(player);
         playerStates.put(key, isInside);
         return isInside && !wasInside;
     }
@@ -1,6 +1,5 @@
 package com.immersivecinematics.immersive_cinematics.trigger.server;
 
-import com.google.gson.JsonObject;
 import com.immersivecinematics.immersive_cinematics.trigger.server.action.TriggerAction;
 
 import java.util.List;
@@ -9,9 +8,10 @@ public class TriggerRegistration {
 
     private final String scriptId;
     private final String triggerId;
-    private final TriggerType type;
-    private final JsonObject conditions;
-    private final JsonObject exitConditions;
+    private final TriggerType<?> type;
+    private final CompiledCondition<?> condition;
+    /** onEnter + exitBuffer 时的外扩条件（离开判定用），null = 无缓冲 */
+    private final CompiledCondition<?> exitCondition;
     private final List<TriggerAction> actions;
     private final boolean repeatable;
     private final int delayMs;
@@ -19,40 +19,42 @@ public class TriggerRegistration {
     private final float exitBuffer;
     /** 前置依赖：本触发器解锁前必须已触发的脚本 id 列表（AND），空 = 无前置 */
     private final List<String> requires;
+    /** 轮询结果缓存槽位（{@link TriggerEngine#rebuildIndex()} 分配，-1 = 非轮询） */
+    int pollSlot = -1;
 
-    public TriggerRegistration(String scriptId, String triggerId, TriggerType type,
-                                JsonObject conditions, List<TriggerAction> actions,
+    public TriggerRegistration(String scriptId, String triggerId, TriggerType<?> type,
+                                CompiledCondition<?> condition, List<TriggerAction> actions,
                                 boolean repeatable) {
-        this(scriptId, triggerId, type, conditions, actions, repeatable, 0, false, 0f, null, null);
+        this(scriptId, triggerId, type, condition, actions, repeatable, 0, false, 0f, null, null);
     }
 
-    public TriggerRegistration(String scriptId, String triggerId, TriggerType type,
-                                JsonObject conditions, List<TriggerAction> actions,
+    public TriggerRegistration(String scriptId, String triggerId, TriggerType<?> type,
+                                CompiledCondition<?> condition, List<TriggerAction> actions,
                                 boolean repeatable, int delayMs) {
-        this(scriptId, triggerId, type, conditions, actions, repeatable, delayMs, false, 0f, null, null);
+        this(scriptId, triggerId, type, condition, actions, repeatable, delayMs, false, 0f, null, null);
     }
 
-    public TriggerRegistration(String scriptId, String triggerId, TriggerType type,
-                                JsonObject conditions, List<TriggerAction> actions,
+    public TriggerRegistration(String scriptId, String triggerId, TriggerType<?> type,
+                                CompiledCondition<?> condition, List<TriggerAction> actions,
                                 boolean repeatable, int delayMs, boolean onEnter) {
-        this(scriptId, triggerId, type, conditions, actions, repeatable, delayMs, onEnter, 0f, null, null);
+        this(scriptId, triggerId, type, condition, actions, repeatable, delayMs, onEnter, 0f, null, null);
     }
 
-    public TriggerRegistration(String scriptId, String triggerId, TriggerType type,
-                                JsonObject conditions, List<TriggerAction> actions,
-                                boolean repeatable, int delayMs, boolean onEnter, float exitBuffer, JsonObject exitConditions) {
-        this(scriptId, triggerId, type, conditions, actions, repeatable, delayMs, onEnter, exitBuffer, exitConditions, null);
+    public TriggerRegistration(String scriptId, String triggerId, TriggerType<?> type,
+                                CompiledCondition<?> condition, List<TriggerAction> actions,
+                                boolean repeatable, int delayMs, boolean onEnter, float exitBuffer, CompiledCondition<?> exitCondition) {
+        this(scriptId, triggerId, type, condition, actions, repeatable, delayMs, onEnter, exitBuffer, exitCondition, null);
     }
 
-    public TriggerRegistration(String scriptId, String triggerId, TriggerType type,
-                                JsonObject conditions, List<TriggerAction> actions,
-                                boolean repeatable, int delayMs, boolean onEnter, float exitBuffer, JsonObject exitConditions,
+    public TriggerRegistration(String scriptId, String triggerId, TriggerType<?> type,
+                                CompiledCondition<?> condition, List<TriggerAction> actions,
+                                boolean repeatable, int delayMs, boolean onEnter, float exitBuffer, CompiledCondition<?> exitCondition,
                                 List<String> requires) {
         this.scriptId = scriptId;
         this.triggerId = triggerId;
         this.type = type;
-        this.conditions = conditions;
-        this.exitConditions = exitConditions;
+        this.condition = condition;
+        this.exitCondition = exitCondition;
         this.actions = actions;
         this.repeatable = repeatable;
         this.delayMs = delayMs;
@@ -63,9 +65,9 @@ public class TriggerRegistration {
 
     public String getScriptId() { return scriptId; }
     public String getTriggerId() { return triggerId; }
-    public TriggerType getType() { return type; }
-    public JsonObject getConditions() { return conditions; }
-    public JsonObject getExitConditions() { return exitConditions; }
+    public TriggerType<?> getType() { return type; }
+    public CompiledCondition<?> getCondition() { return condition; }
+    public CompiledCondition<?> getExitCondition() { return exitCondition; }
     public List<TriggerAction> getActions() { return actions; }
     public boolean isRepeatable() { return repeatable; }
     public int getDelayMs() { return delayMs; }
@@ -6,17 +6,17 @@ import java.util.Map;
 
 public class TriggerRegistry {
 
-    private static final Map<String, TriggerType> TYPES = new HashMap<>();
+    private static final Map<String, TriggerType<?>> TYPES = new HashMap<>();
 
-    public static void register(TriggerType type) {
+    public static void register(TriggerType<?> type) {
         TYPES.put(type.getId(), type);
     }
 
-    public static TriggerType get(String typeId) {
+    public static TriggerType<?> get(String typeId) {
         return TYPES.get(typeId);
     }
 
-    public static Collection<TriggerType> getAll() {
+    public static Collection<TriggerType<?>> getAll() {
         return TYPES.values();
     }
 
@@ -0,0 +1,65 @@
+package com.immersivecinematics.immersive_cinematics.trigger.server;
+
+import com.immersivecinematics.immersive_cinematics.trigger.network.NetworkHandler;
+import com.immersivecinematics.immersive_cinematics.trigger.network.S2CTriggerStateDeltaPacket;
+import com.immersivecinematics.immersive_cinematics.trigger.network.S2CTriggerStateSyncPacket;
+import com.immersivecinematics.immersive_cinematics.trigger.server.store.PlayerTriggerState;
+import com.immersivecinematics.immersive_cinematics.trigger.server.store.TriggerStateStore;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.server.level.ServerPlayer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.UUID;
+
+/**
+ * 触发状态同步（服务端 → 客户端编辑器 UI）— 登录全量快照 + 逐事件增量
+ * <p>
+ * 每个在线玩家维护一个递增序号：快照携带当前序号，每条增量序号 +1。
+ * 客户端发现增量不连续（丢包 / 重连竞争）时请求重发快照。
+ * 长期运营的服务器上玩家可能积累数百条触发记录，单次触发只下发一条变化。
+ * 仅服务端主线程访问。
+ */
+public final class TriggerStateSync {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("ImmersiveCinematics/TriggerStateSync");
+
+    /** 玩家 → 最近一次发送的序号 */
+    private static final Object2IntOpenHashMap<UUID> sequences = new Object2IntOpenHashMap<>();
+
+    private TriggerStateSync() {}
+
+    /** 全量快照（登录 / 重同步） */
+    public static void sendSnapshot(ServerPlayer player) {
+        PlayerTriggerState state = TriggerStateStore.INSTANCE.getOrCreate(player.getUUID());
+        S2CTriggerStateSyncPacket.send(player, sequences.getInt(player.getUUID()),
+                state.getTriggeredScripts(), state.getCompletedScripts());
+    }
+
+    public static void sendTriggered(ServerPlayer player, String scriptId, String triggerId) {
+        sendDelta(player, S2CTriggerStateDeltaPacket.TRIGGERED, scriptId, triggerId);
+    }
+
+    public static void sendCompleted(ServerPlayer player, String scriptId) {
+        sendDelta(player, S2CTriggerStateDeltaPacket.COMPLETED, scriptId, null);
+    }
+
+    private static void sendDelta(ServerPlayer player, byte op, String scriptId, String triggerId) {
+        int seq = sequences.addTo(player.getUUID(), 1) + 1;
+        NetworkHandler.sendToPlayer(player, new S2CTriggerStateDeltaPacket(seq, op, scriptId, triggerId));
+    }
+
+    public static void onResyncRequest(ServerPlayer player, int clientSeq) {
+        LOGGER.debug("Trigger state resync requested by {} (client seq {}, server seq {})",
+                player.getName().getString(), clientSeq, sequences.getInt(player.getUUID()));
+        sendSnapshot(player);
+    }
+
+    public static void onPlayerQuit(UUID uuid) {
+        sequences.removeInt(uuid);
+    }
+
+    public static void clearAll() {
+        sequences.clear();
+    }
+}
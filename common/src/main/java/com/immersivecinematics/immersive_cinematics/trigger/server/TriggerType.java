@@ -4,28 +4,55 @@ import com.google.gson.JsonObject;
 import net.minecraft.server.level.ServerPlayer;
 
 import java.util.function.BiPredicate;
+import java.util.function.Function;
 
-public class TriggerType {
+/**
+ * 触发器类型 — id + 监听策略 + 条件编译器 + 类型化求值器
+ * <p>
+ * 条件 JSON 在注册时经 {@link #compile(JsonObject)} 编译为 {@code C}（见 {@code Conditions}），
+ * 轮询/事件求值只读编译结果，不再每 tick 查询 Gson 树。
+ *
+ * @param <C> 编译后的条件类型
+ */
+public class TriggerType<C> {
 
     private final String id;
     private final ListenStrategy strategy;
     private final int pollInterval;
-    private final BiPredicate<ServerPlayer, JsonObject> evaluator;
+    /** 轮询求值依赖的玩家状态通道（{@link PlayerPollState} 位掩码），0 = 每次轮询都求值 */
+    private final int dependencies;
+    private final Function<JsonObject, C> compiler;
+    private final BiPredicate<ServerPlayer, C> evaluator;
 
     public TriggerType(String id, ListenStrategy strategy, int pollInterval,
-                       BiPredicate<ServerPlayer, JsonObject> evaluator) {
+                       Function<JsonObject, C> compiler,
+                       BiPredicate<ServerPlayer, C> evaluator) {
+        this(id, strategy, pollInterval, 0, compiler, evaluator);
+    }
+
+    public TriggerType(String id, ListenStrategy strategy, int pollInterval, int dependencies,
+                       Function<JsonObject, C> compiler,
+                       BiPredicate<ServerPlayer, C> evaluator) {
         this.id = id;
         this.strategy = strategy;
         this.pollInterval = pollInterval;
+        this.dependencies = dependencies;
+        this.compiler = compiler;
         this.evaluator = evaluator;
     }
 
     public String getId() { return id; }
     public ListenStrategy getStrategy() { return strategy; }
     public int getPollInterval() { return pollInterval; }
-    public BiPredicate<ServerPlayer, JsonObject> getEvaluator() { return evaluator; }
+    public int getDependencies() { return dependencies; }
+    public BiPredicate<ServerPlayer, C> getEvaluator() { return evaluator; }
+
+    /** 编译条件 JSON（字段类型错误时抛出，由调用方记录并跳过该触发器） */
+    public CompiledCondition<C> compile(JsonObject conditions) {
+        return new CompiledCondition<>(this, compiler.apply(conditions != null ? conditions : new JsonObject()));
+    }
 
-    public boolean evaluate(ServerPlayer player, JsonObject conditions) {
+    public boolean evaluate(ServerPlayer player, C conditions) {
         return evaluator.test(player, conditions);
     }
 }
@@ -3,11 +3,14 @@ package com.immersivecinematics.immersive_cinematics.trigger.server.action;
 import com.google.gson.JsonObject;
 import com.immersivecinematics.immersive_cinematics.script.CinematicScript;
 import com.immersivecinematics.immersive_cinematics.script.ScriptManager;
-import com.immersivecinematics.immersive_cinematics.trigger.network.S2CPlayScriptPacket;
+import com.immersivecinematics.immersive_cinematics.trigger.server.ScriptDelivery;
 import com.mojang.logging.LogUtils;
 import net.minecraft.server.level.ServerPlayer;
 import org.slf4j.Logger;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * 播放脚本动作（0.3.5 第3.5轮）：支持 target 广播。
  * <ul>
@@ -45,17 +48,17 @@ public class StartPlaybackAction implements TriggerAction {
             return;
         }
         switch (target) {
-            case "all" -> {
-                for (ServerPlayer p : player.server.getPlayerList().getPlayers()) {
-                    if (p instanceof com.immersivecinematics.immersive_cinematics.trigger.server.CameraFakePlayer) continue;
-                    sendTo(p, script);
-                }
-            }
-            case "all_except_trigger" -> {
+            case "all", "all_except_trigger" -> {
+                boolean includeTrigger = "all".equals(target);
+                List<ServerPlayer> targets = new ArrayList<>();
                 for (ServerPlayer p : player.server.getPlayerList().getPlayers()) {
                     if (p instanceof com.immersivecinematics.immersive_cinematics.trigger.server.CameraFakePlayer) continue;
-                    if (p != player) sendTo(p, script);
+                    if (includeTrigger || p != player) targets.add(p);
                 }
+                if (targets.isEmpty()) return;
+                LOGGER.info("Sending play packet for script '{}' to {} players (target={})", scriptId, targets.size(), target);
+                // 广播：包只编码一次，所有接收者共享同一份字节
+                ScriptDelivery.sendPlayToAll(targets, script, "");
             }
             default -> sendTo(player, script);
         }
@@ -63,6 +66,7 @@ public class StartPlaybackAction implements TriggerAction {
 
     private void sendTo(ServerPlayer p, CinematicScript script) {
         LOGGER.info("Sending play packet for script '{}' to player {}", scriptId, p.getName().getString());
-        S2CPlayScriptPacket.send(p, script.getRawJson());
+        // 同一内容已发过全文 → 只发指纹，客户端用缓存的解析结果
+        ScriptDelivery.sendPlay(p, script, "");
     }
 }
@@ -0,0 +1,251 @@
+package com.immersivecinematics.immersive_cinematics.trigger.server.evaluator;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 编译后的触发条件 — 每种触发器类型一个不可变 record
+ * <p>
+ * {@code ScriptManager.registerAllTriggers} 时由各 record 的 {@code parse(JsonObject)} 从条件 JSON 编译一次
+ * （坐标 → AABB / 平方半径，id 模式 → {@link IdMatcher}，模式列表 → 去重后的数组），
+ * 轮询/事件求值（{@link Evaluators}）直接读字段，不再每次查询 Gson 树。
+ * <p>
+ * 必填字段缺失时对应字段为 null，求值恒为 false（与历史"缺字段不触发"语义一致）；
+ * 字段类型错误在 parse 时抛出，由注册方记录错误并跳过该触发器。
+ */
+public final class Conditions {
+
+    private Conditions() {}
+
+    /**
+     * 边沿型条件：只在所依赖的玩家状态发生变化的那次求值可能为 true。
+     * 轮询变化检测在状态未变时直接视为 false，而不是复用上次结果。
+     */
+    public interface EdgeTriggered {
+        boolean isEdgeTriggered();
+    }
+
+    // ========== 几何 ==========
+
+    /** 轴对齐包围盒（两角点按分量取 min/max，闭区间） */
+    public record Box(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+
+        static Box parse(JsonObject c1, JsonObject c2) {
+            double x1 = c1.get("x").getAsDouble(), x2 = c2.get("x").getAsDouble();
+            double y1 = c1.get("y").getAsDouble(), y2 = c2.get("y").getAsDouble();
+            double z1 = c1.get("z").getAsDouble(), z2 = c2.get("z").getAsDouble();
+            return new Box(Math.min(x1, x2), Math.min(y1, y2), Math.min(z1, z2),
+                    Math.max(x1, x2), Math.max(y1, y2), Math.max(z1, z2));
+        }
+
+        public boolean contains(double x, double y, double z) {
+            return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+        }
+    }
+
+    /** 球形区域（存平方半径，判定免开方） */
+    public record Sphere(double x, double y, double z, double radius, double radiusSq) {
+
+        static Sphere parse(JsonObject pos, double radius) {
+            return new Sphere(pos.get("x").getAsDouble(), pos.get("y").getAsDouble(), pos.get("z").getAsDouble(),
+                    radius, radius * radius);
+        }
+
+        public boolean contains(double px, double py, double pz) {
+            double dx = px - x;
+            double dy = py - y;
+            double dz = pz - z;
+            return dx * dx + dy * dy + dz * dz <= radiusSq;
+        }
+    }
+
+    // ========== 各触发器类型 ==========
+
+    /** location：可选维度（完全相等）+ 立方体 / 球体；只写维度 = 整个维度 */
+    public record Location(IdMatcher dimension, Box box, Sphere sphere) {
+
+        public static Location parse(JsonObject c) {
+            IdMatcher dim = c.has("dimension") ? IdMatcher.exact(c.get("dimension").getAsString()) : null;
+            Box box = c.has("corner1") && c.has("corner2")
+                    ? Box.parse(c.getAsJsonObject("corner1"), c.getAsJsonObject("corner2"))
+                    : null;
+            Sphere sphere = c.has("position")
+                    ? Sphere.parse(c.getAsJsonObject("position"), c.has("radius") ? c.get("radius").getAsDouble() : 0.0)
+                    : null;
+            return new Location(dim, box, sphere);
+        }
+    }
+
+    /** 单个 id 模式（advancement / biome / item_* / block_interact 等"最近一次记录匹配模式"类型） */
+    public record IdPattern(IdMatcher pattern) {
+
+        public static IdPattern parse(JsonObject c, String key) {
+            return new IdPattern(c.has(key) ? IdMatcher.of(c.get(key).getAsString()) : null);
+        }
+    }
+
+    /** entity_kill 的场景条件（按击杀时刻记录判定） */
+    public record Scene(IdMatcher dimension, IdMatcher biome, Sphere sphere, Box box) {
+
+        static Scene parse(JsonObject c) {
+            return new Scene(
+                    c.has("dimension") ? IdMatcher.of(c.get("dimension").getAsString()) : null,
+                    c.has("biome") ? IdMatcher.of(c.get("biome").getAsString()) : null,
+                    c.has("position")
+                            ? Sphere.parse(c.getAsJsonObject("position"), c.has("radius") ? c.get("radius").getAsDouble() : 0.0)
+                            : null,
+                    c.has("corner1") && c.has("corner2")
+                            ? Box.parse(c.getAsJsonObject("corner1"), c.getAsJsonObject("corner2"))
+                            : null);
+        }
+    }
+
+    /** entity_kill：单实体模式 / 数组（or 任一、and 全部击杀过）+ 场景 */
+    public record EntityKill(List<IdMatcher> entities, boolean array, boolean and, Scene scene) {
+
+        public static EntityKill parse(JsonObject c) {
+            if (!c.has("entity")) return new EntityKill(null, false, false, null);
+            JsonElement entity = c.get("entity");
+            boolean array = entity.isJsonArray();
+            boolean and = array && "and".equals(c.has("mode") ? c.get("mode").getAsString() : "or");
+            return new EntityKill(matchers(entity), array, and, Scene.parse(c));
+        }
+    }
+
+    /** entity_interact：target 为 "*" 或完全相等（不走通配语义） */
+    public record Interact(String target) {
+
+        public static Interact parse(JsonObject c) {
+            return new Interact(c.has("target") ? c.get("target").getAsString() : null);
+        }
+    }
+
+    /** dimension_change / dimension：目标维度 + 可选来源维度 */
+    public record DimensionChange(IdMatcher dimension, IdMatcher from) {
+
+        public static DimensionChange parse(JsonObject c) {
+            return new DimensionChange(
+                    c.has("dimension") ? IdMatcher.of(c.get("dimension").getAsString()) : null,
+                    c.has("from_dimension") ? IdMatcher.of(c.get("from_dimension").getAsString()) : null);
+        }
+    }
+
+    /** 无条件（login） */
+    public record None() {
+
+        public static final None INSTANCE = new None();
+
+        public static None parse(JsonObject c) {
+            return INSTANCE;
+        }
+    }
+
+    /** xp：等级 / 总经验下限（至少写一个） */
+    public record Xp(boolean hasLevel, int level, boolean hasTotal, int total) {
+
+        public static Xp parse(JsonObject c) {
+            boolean hasLevel = c.has("level");
+            boolean hasTotal = c.has("total");
+            return new Xp(hasLevel, hasLevel ? c.get("level").getAsInt() : 0,
+                    hasTotal, hasTotal ? c.get("total").getAsInt() : 0);
+        }
+    }
+
+    /** item_pickup：单物品 / 数组（or 最近一次命中任一、and 本会话全部捡过） */
+    public record ItemPickup(List<IdMatcher> items, boolean array, boolean and) {
+
+        public static ItemPickup parse(JsonObject c) {
+            if (!c.has("item")) return new ItemPickup(null, false, false);
+            JsonElement item = c.get("item");
+            boolean array = item.isJsonArray();
+            boolean and = array && "and".equals(c.has("mode") ? c.get("mode").getAsString() : "or");
+            return new ItemPickup(matchers(item), array, and);
+        }
+    }
+
+    /** observation：注视目标 + 可选目标类型（block / entity）+ 射程 */
+    public record Observation(IdMatcher target, String targetType, double reach) {
+
+        public static Observation parse(JsonObject c) {
+            return new Observation(
+                    c.has("target") ? IdMatcher.of(c.get("target").getAsString()) : null,
+                    c.has("target_type") ? c.get("target_type").getAsString() : null,
+                    c.has("reach") ? c.get("reach").getAsDouble() : 4.5);
+        }
+    }
+
+    /** item_on_interact：手持物品 + 交互目标 + 可选目标类型 */
+    public record ItemOnInteract(IdMatcher item, IdMatcher target, String targetType) {
+
+        public static ItemOnInteract parse(JsonObject c) {
+            if (!c.has("item") || !c.has("target")) return new ItemOnInteract(null, null, null);
+            return new ItemOnInteract(
+                    IdMatcher.of(c.get("item").getAsString()),
+                    IdMatcher.of(c.get("target").getAsString()),
+                    c.has("target_type") ? c.get("target_type").getAsString() : null);
+        }
+    }
+
+    /**
+     * inventory：物品模式集合（去重）+ 持有模式（and 全部 / or 任一）或数量变化（increase / decrease）。
+     * change 模式按原串作为物品 id 精确查计数（历史语义，不解释通配符）。
+     */
+    public record Inventory(List<ItemMatcher> items, String change, boolean or) implements EdgeTriggered {
+
+        public static Inventory parse(JsonObject c) {
+            if (!c.has("items") || !c.get("items").isJsonArray() || c.getAsJsonArray("items").size() == 0) {
+                return new Inventory(null, null, false);
+            }
+            Set<String> unique = new LinkedHashSet<>();
+            for (JsonElement elem : c.getAsJsonArray("items")) {
+                unique.add(elem.getAsString());
+            }
+            List<ItemMatcher> items = new ArrayList<>(unique.size());
+            for (String p : unique) {
+                items.add(new ItemMatcher(p));
+            }
+            return new Inventory(List.copyOf(items),
+                    c.has("change") ? c.get("change").getAsString() : null,
+                    "or".equals(c.has("mode") ? c.get("mode").getAsString() : "and"));
+        }
+
+        /** change 模式比较的是相邻两次求值间的数量差，背包未变则必为 false */
+        @Override
+        public boolean isEdgeTriggered() {
+            return change != null;
+        }
+    }
+
+    /** structure：结构 id 模式 + 采样半径（0 = 仅脚下） */
+    public record Structure(IdMatcher structure, int radius) {
+
+        public static Structure parse(JsonObject c) {
+            return new Structure(
+                    c.has("structure") ? IdMatcher.of(c.get("structure").getAsString()) : null,
+                    c.has("radius") ? c.get("radius").getAsInt() : 0);
+        }
+    }
+
+    /** gamestage：阶段名（可选集成） */
+    public record Gamestage(String stage) {
+
+        public static Gamestage parse(JsonObject c) {
+            return new Gamestage(c.has("stage") ? c.get("stage").getAsString() : null);
+        }
+    }
+
+    /** 单个字符串或字符串数组 → 匹配器列表 */
+    private static List<IdMatcher> matchers(JsonElement e) {
+        if (!e.isJsonArray()) return List.of(IdMatcher.of(e.getAsString()));
+        List<IdMatcher> list = new ArrayList<>();
+        for (JsonElement elem : e.getAsJsonArray()) {
+            list.add(IdMatcher.of(elem.getAsString()));
+        }
+        return List.copyOf(list);
+    }
+}
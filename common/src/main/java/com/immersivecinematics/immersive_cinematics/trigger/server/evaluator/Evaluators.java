@@ -1,6 +1,5 @@
 package com.immersivecinematics.immersive_cinematics.trigger.server.evaluator;
 
-import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Holder;
@@ -10,6 +9,7 @@ import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.projectile.ProjectileUtil;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.ClipContext;
 import net.minecraft.world.level.biome.Biome;
@@ -21,10 +21,17 @@ import net.minecraft.world.phys.HitResult;
 import net.minecraft.world.phys.Vec3;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
+/**
+ * 触发器求值器 — 每种触发器类型一个 {@code evaluateXxx(ServerPlayer, Conditions.Xxx)}
+ * <p>
+ * 条件在注册时已编译为 {@link Conditions} 中的类型化 record，这里只读字段判定；
+ * 事件类型所需的"最近一次记录"由下方各 Tracker 在事件回调中写入。
+ */
 public class Evaluators {
 
     public static JsonObject expandConditions(JsonObject c, float buffer) {
@@ -49,74 +56,60 @@ public class Evaluators {
         return result;
     }
 
-    public static boolean evaluateLocation(ServerPlayer player, JsonObject c) {
-        if (c.has("dimension")) {
-            String targetDim = c.get("dimension").getAsString();
-            if (!player.level().dimension().location().toString().equals(targetDim)) {
-                return false;
-            }
+    public static boolean evaluateLocation(ServerPlayer player, Conditions.Location c) {
+        if (c.dimension() != null && !c.dimension().matchesId(player.level().dimension().location())) {
+            return false;
         }
-        if (c.has("corner1") && c.has("corner2")) {
-            if (inBox(player.getX(), player.getY(), player.getZ(),
-                    c.getAsJsonObject("corner1"), c.getAsJsonObject("corner2"))) {
-                return true;
-            }
+        if (c.box() != null && c.box().contains(player.getX(), player.getY(), player.getZ())) {
+            return true;
         }
-        if (c.has("position")) {
-            double radius = c.has("radius") ? c.get("radius").getAsDouble() : 0.0;
-            return inRadius(player.getX(), player.getY(), player.getZ(),
-                    c.getAsJsonObject("position"), radius);
+        if (c.sphere() != null) {
+            return c.sphere().contains(player.getX(), player.getY(), player.getZ());
         }
-        return c.has("dimension");
+        return c.dimension() != null;
     }
 
-    public static boolean evaluateAdvancement(ServerPlayer player, JsonObject c) {
-        if (!c.has("advancement")) return false;
+    public static boolean evaluateAdvancement(ServerPlayer player, Conditions.IdPattern c) {
+        if (c.pattern() == null) return false;
         String last = AdvancementTracker.getLastAdvancement(player);
-        return last != null && matchesId(last, c.get("advancement").getAsString());
+        return last != null && c.pattern().matches(last);
     }
 
-    public static boolean evaluateBiome(ServerPlayer player, JsonObject c) {
-        if (!c.has("biome")) return false;
-        String pattern = c.get("biome").getAsString();
+    public static boolean evaluateBiome(ServerPlayer player, Conditions.IdPattern c) {
+        if (c.pattern() == null) return false;
         Holder<Biome> biome = player.level().getBiome(player.blockPosition());
-        return biome.unwrapKey()
-                .map(key -> matchesId(key.location().toString(), pattern))
-                .orElse(false);
+        var key = biome.unwrapKey();
+        return key.isPresent() && c.pattern().matchesId(key.get().location());
     }
 
-    public static boolean evaluateEntityKill(ServerPlayer player, JsonObject c) {
-        if (!c.has("entity")) return false;
-        var entity = c.get("entity");
+    public static boolean evaluateEntityKill(ServerPlayer player, Conditions.EntityKill c) {
+        if (c.entities() == null) return false;
 
-        if (!entity.isJsonArray()) {
+        if (!c.array()) {
             KillTracker.KillRecord rec = KillTracker.getLastKill(player);
             if (rec == null) return false;
-            return matchesId(rec.entityId(), entity.getAsString()) && matchesScene(c, rec);
+            return c.entities().get(0).matches(rec.entityId()) && matchesScene(c.scene(), rec);
         }
 
-        String mode = c.has("mode") ? c.get("mode").getAsString() : "or";
-
-        if ("and".equals(mode)) {
+        if (c.and()) {
             Set<KillTracker.KillRecord> allKills = KillTracker.getAllKills(player);
             if (allKills.isEmpty()) return false;
-            for (var elem : entity.getAsJsonArray()) {
-                String pattern = elem.getAsString();
+            for (IdMatcher pattern : c.entities()) {
                 boolean matched = false;
                 for (KillTracker.KillRecord rec : allKills) {
-                    if (matchesId(rec.entityId(), pattern)) { matched = true; break; }
+                    if (pattern.matches(rec.entityId())) { matched = true; break; }
                 }
                 if (!matched) return false;
             }
             // 场景条件按最近一次击杀记录判定（击杀时刻的位置，非玩家当前位置）
             KillTracker.KillRecord last = KillTracker.getLastKill(player);
-            return last != null && matchesScene(c, last);
+            return last != null && matchesScene(c.scene(), last);
         }
 
         KillTracker.KillRecord rec = KillTracker.getLastKill(player);
         if (rec == null) return false;
-        for (var elem : entity.getAsJsonArray()) {
-            if (matchesId(rec.entityId(), elem.getAsString()) && matchesScene(c, rec)) return true;
+        for (IdMatcher pattern : c.entities()) {
+            if (pattern.matches(rec.entityId()) && matchesScene(c.scene(), rec)) return true;
         }
         return false;
     }
@@ -125,129 +118,82 @@ public class Evaluators {
      * entity_kill 场景条件：dimension / biome / position+radius / corner1+corner2，
      * 全部按击杀时刻的记录（KillRecord）判定，而非玩家当前位置。
      */
-    private static boolean matchesScene(JsonObject c, KillTracker.KillRecord rec) {
-        if (c.has("dimension") && !matchesId(rec.dimension(), c.get("dimension").getAsString())) return false;
-        if (c.has("biome") && !matchesId(rec.biome(), c.get("biome").getAsString())) return false;
-        if (c.has("position")) {
-            double radius = c.has("radius") ? c.get("radius").getAsDouble() : 0.0;
-            if (!inRadius(rec.x(), rec.y(), rec.z(), c.getAsJsonObject("position"), radius)) return false;
-        }
-        if (c.has("corner1") && c.has("corner2")) {
-            if (!inBox(rec.x(), rec.y(), rec.z(), c.getAsJsonObject("corner1"), c.getAsJsonObject("corner2"))) return false;
-        }
+    private static boolean matchesScene(Conditions.Scene s, KillTracker.KillRecord rec) {
+        if (s.dimension() != null && !s.dimension().matches(rec.dimension())) return false;
+        if (s.biome() != null && !s.biome().matches(rec.biome())) return false;
+        if (s.sphere() != null && !s.sphere().contains(rec.x(), rec.y(), rec.z())) return false;
+        if (s.box() != null && !s.box().contains(rec.x(), rec.y(), rec.z())) return false;
         return true;
     }
 
-    private static boolean inRadius(double x, double y, double z, JsonObject pos, double radius) {
-        double px = pos.get("x").getAsDouble();
-        double py = pos.get("y").getAsDouble();
-        double pz = pos.get("z").getAsDouble();
-        double dx = x - px;
-        double dy = y - py;
-        double dz = z - pz;
-        return dx * dx + dy * dy + dz * dz <= radius * radius;
-    }
-
-    private static boolean inBox(double x, double y, double z, JsonObject c1, JsonObject c2) {
-        double minX = Math.min(c1.get("x").getAsDouble(), c2.get("x").getAsDouble());
-        double maxX = Math.max(c1.get("x").getAsDouble(), c2.get("x").getAsDouble());
-        double minY = Math.min(c1.get("y").getAsDouble(), c2.get("y").getAsDouble());
-        double maxY = Math.max(c1.get("y").getAsDouble(), c2.get("y").getAsDouble());
-        double minZ = Math.min(c1.get("z").getAsDouble(), c2.get("z").getAsDouble());
-        double maxZ = Math.max(c1.get("z").getAsDouble(), c2.get("z").getAsDouble());
-        return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
-    }
-
-    public static boolean evaluateInteract(ServerPlayer player, JsonObject c) {
-        if (!c.has("target")) return false;
+    public static boolean evaluateInteract(ServerPlayer player, Conditions.Interact c) {
+        if (c.target() == null) return false;
         String lastInteract = InteractTracker.getLastInteraction(player);
         if (lastInteract == null) return false;
-        String target = c.get("target").getAsString();
-        return target.equals("*") || lastInteract.equals(target);
+        return c.target().equals("*") || lastInteract.equals(c.target());
     }
 
-    public static boolean evaluateDimensionChange(ServerPlayer player, JsonObject c) {
-        if (!c.has("dimension")) return false;
+    public static boolean evaluateDimensionChange(ServerPlayer player, Conditions.DimensionChange c) {
+        if (c.dimension() == null) return false;
         // 目标维度匹配（现有）
-        if (!matchesId(player.level().dimension().location().toString(),
-                c.get("dimension").getAsString())) {
+        if (!c.dimension().matchesId(player.level().dimension().location())) {
             return false;
         }
         // 可选来源维度过滤：from_dimension 不写 = 不限制来源（旧脚本零迁移）
-        if (c.has("from_dimension")) {
+        if (c.from() != null) {
             String from = DimensionTracker.getLastFrom(player);
             if (from == null) return false;
-            if (!matchesId(from, c.get("from_dimension").getAsString())) return false;
+            if (!c.from().matches(from)) return false;
         }
         return true;
     }
 
-    public static boolean evaluateLogin(ServerPlayer player, JsonObject c) {
+    public static boolean evaluateLogin(ServerPlayer player, Conditions.None c) {
         return true;
     }
 
-    public static boolean evaluateItemCraft(ServerPlayer player, JsonObject c) {
-        if (!c.has("item")) return false;
-        String lastCrafted = CraftTracker.getLastCrafted(player);
-        if (lastCrafted == null) return false;
-        return matchesId(lastCrafted, c.get("item").getAsString());
+    public static boolean evaluateItemCraft(ServerPlayer player, Conditions.IdPattern c) {
+        return c.pattern() != null && c.pattern().matches(CraftTracker.getLastCrafted(player));
     }
 
-    public static boolean evaluateItemUse(ServerPlayer player, JsonObject c) {
-        if (!c.has("item")) return false;
-        String lastUsed = UseItemTracker.getLastUsed(player);
-        if (lastUsed == null) return false;
-        return matchesId(lastUsed, c.get("item").getAsString());
+    public static boolean evaluateItemUse(ServerPlayer player, Conditions.IdPattern c) {
+        return c.pattern() != null && c.pattern().matches(UseItemTracker.getLastUsed(player));
     }
 
-    public static boolean evaluateItemConsume(ServerPlayer player, JsonObject c) {
-        if (!c.has("item")) return false;
-        String lastConsumed = UseItemTracker.getLastConsumed(player);
-        if (lastConsumed == null) return false;
-        return matchesId(lastConsumed, c.get("item").getAsString());
+    public static boolean evaluateItemConsume(ServerPlayer player, Conditions.IdPattern c) {
+        return c.pattern() != null && c.pattern().matches(UseItemTracker.getLastConsumed(player));
     }
 
-    public static boolean evaluateItemRelease(ServerPlayer player, JsonObject c) {
-        if (!c.has("item")) return false;
-        String lastReleased = UseItemTracker.getLastReleased(player);
-        if (lastReleased == null) return false;
-        return matchesId(lastReleased, c.get("item").getAsString());
+    public static boolean evaluateItemRelease(ServerPlayer player, Conditions.IdPattern c) {
+        return c.pattern() != null && c.pattern().matches(UseItemTracker.getLastReleased(player));
     }
 
-    public static boolean evaluateItemUseInterrupt(ServerPlayer player, JsonObject c) {
-        if (!c.has("item")) return false;
-        String lastInterrupted = UseItemTracker.getLastInterrupted(player);
-        if (lastInterrupted == null) return false;
-        return matchesId(lastInterrupted, c.get("item").getAsString());
+    public static boolean evaluateItemUseInterrupt(ServerPlayer player, Conditions.IdPattern c) {
+        return c.pattern() != null && c.pattern().matches(UseItemTracker.getLastInterrupted(player));
     }
 
-    public static boolean evaluateItemInstantUse(ServerPlayer player, JsonObject c) {
-        if (!c.has("item")) return false;
-        String lastInstantUsed = UseItemTracker.getLastInstantUsed(player);
-        if (lastInstantUsed == null) return false;
-        return matchesId(lastInstantUsed, c.get("item").getAsString());
+    public static boolean evaluateItemInstantUse(ServerPlayer player, Conditions.IdPattern c) {
+        return c.pattern() != null && c.pattern().matches(UseItemTracker.getLastInstantUsed(player));
     }
 
-    public static boolean evaluateXp(ServerPlayer player, JsonObject c) {
-        if (c.has("level") && player.experienceLevel < c.get("level").getAsInt()) return false;
-        if (c.has("total") && player.totalExperience < c.get("total").getAsInt()) return false;
-        return c.has("level") || c.has("total");
+    public static boolean evaluateXp(ServerPlayer player, Conditions.Xp c) {
+        if (c.hasLevel() && player.experienceLevel < c.level()) return false;
+        if (c.hasTotal() && player.totalExperience < c.total()) return false;
+        return c.hasLevel() || c.hasTotal();
     }
 
-    public static boolean evaluateItemPickup(ServerPlayer player, JsonObject c) {
-        if (!c.has("item")) return false;
-        JsonElement item = c.get("item");
+    public static boolean evaluateItemPickup(ServerPlayer player, Conditions.ItemPickup c) {
+        if (c.items() == null) return false;
 
         // 数组模式：item 为数组 + mode（"or" 默认 = 捡起任一触发；"and" = 全部捡过才触发，基于本会话捡起历史）
-        if (item.isJsonArray()) {
-            String mode = c.has("mode") ? c.get("mode").getAsString() : "or";
-            if ("and".equals(mode)) {
+        if (c.array()) {
+            if (c.and()) {
                 Set<String> picked = PickupDropTracker.getPickedUpSet(player);
                 if (picked == null || picked.isEmpty()) return false;
-                for (JsonElement elem : item.getAsJsonArray()) {
+                for (IdMatcher pattern : c.items()) {
                     boolean found = false;
                     for (String id : picked) {
-                        if (matchesId(id, elem.getAsString())) {
+                        if (pattern.matches(id)) {
                             found = true;
                             break;
                         }
@@ -258,34 +204,29 @@ public class Evaluators {
             }
             String lastPickedUp = PickupDropTracker.getLastPickedUp(player);
             if (lastPickedUp == null) return false;
-            for (JsonElement elem : item.getAsJsonArray()) {
-                if (matchesId(lastPickedUp, elem.getAsString())) return true;
+            for (IdMatcher pattern : c.items()) {
+                if (pattern.matches(lastPickedUp)) return true;
             }
             return false;
         }
 
         // 单物品模式：item 为字符串，匹配最近一次捡起
-        String lastPickedUp = PickupDropTracker.getLastPickedUp(player);
-        if (lastPickedUp == null) return false;
-        return matchesId(lastPickedUp, item.getAsString());
+        return c.items().get(0).matches(PickupDropTracker.getLastPickedUp(player));
     }
 
-    public static boolean evaluateItemDrop(ServerPlayer player, JsonObject c) {
-        if (!c.has("item")) return false;
-        String lastDropped = PickupDropTracker.getLastDropped(player);
-        if (lastDropped == null) return false;
-        return matchesId(lastDropped, c.get("item").getAsString());
+    public static boolean evaluateItemDrop(ServerPlayer player, Conditions.IdPattern c) {
+        return c.pattern() != null && c.pattern().matches(PickupDropTracker.getLastDropped(player));
     }
 
     /**
      * 注视检测（轮询，服务端射线）。{@code target} 必填；{@code target_type} 缺省时
      * 方块与实体都查、命中距离近者优先；可选 {@code reach}（默认 4.5 格）。
      */
-    public static boolean evaluateObservation(ServerPlayer player, JsonObject c) {
-        if (!c.has("target")) return false;
-        String target = c.get("target").getAsString();
-        String targetType = c.has("target_type") ? c.get("target_type").getAsString() : null;
-        double reach = c.has("reach") ? c.get("reach").getAsDouble() : 4.5;
+    public static boolean evaluateObservation(ServerPlayer player, Conditions.Observation c) {
+        if (c.target() == null) return false;
+        IdMatcher target = c.target();
+        String targetType = c.targetType();
+        double reach = c.reach();
         Vec3 eye = player.getEyePosition();
         Vec3 end = eye.add(player.getLookAngle().scale(reach));
         AABB searchArea = player.getBoundingBox().expandTowards(player.getLookAngle().scale(reach)).inflate(1.0);
@@ -294,14 +235,14 @@ public class Evaluators {
             BlockHitResult blockHit = player.level().clip(
                     new ClipContext(eye, end, ClipContext.Block.OUTLINE, ClipContext.Fluid.NONE, player));
             if (blockHit.getType() == HitResult.Type.MISS) return false;
-            return matchesId(BuiltInRegistries.BLOCK.getKey(
-                    player.level().getBlockState(blockHit.getBlockPos()).getBlock()).toString(), target);
+            return target.matchesId(BuiltInRegistries.BLOCK.getKey(
+                    player.level().getBlockState(blockHit.getBlockPos()).getBlock()));
         }
         if ("entity".equals(targetType)) {
             EntityHitResult entityHit = ProjectileUtil.getEntityHitResult(
                     player.level(), player, eye, end, searchArea, e -> !e.isSpectator() && e.isPickable(), 0.3f);
             if (entityHit == null) return false;
-            return matchesId(BuiltInRegistries.ENTITY_TYPE.getKey(entityHit.getEntity().getType()).toString(), target);
+            return target.matchesId(BuiltInRegistries.ENTITY_TYPE.getKey(entityHit.getEntity().getType()));
         }
         BlockHitResult blockHit = player.level().clip(
                 new ClipContext(eye, end, ClipContext.Block.OUTLINE, ClipContext.Fluid.NONE, player));
@@ -309,170 +250,103 @@ public class Evaluators {
                 player.level(), player, eye, end, searchArea, e -> !e.isSpectator() && e.isPickable(), 0.3f);
         if (entityHit != null && (blockHit.getType() == HitResult.Type.MISS
                 || entityHit.getLocation().distanceToSqr(eye) <= blockHit.getLocation().distanceToSqr(eye))) {
-            return matchesId(BuiltInRegistries.ENTITY_TYPE.getKey(entityHit.getEntity().getType()).toString(), target);
+            return target.matchesId(BuiltInRegistries.ENTITY_TYPE.getKey(entityHit.getEntity().getType()));
         }
         if (blockHit.getType() != HitResult.Type.MISS) {
-            return matchesId(BuiltInRegistries.BLOCK.getKey(
-                    player.level().getBlockState(blockHit.getBlockPos()).getBlock()).toString(), target);
+            return target.matchesId(BuiltInRegistries.BLOCK.getKey(
+                    player.level().getBlockState(blockHit.getBlockPos()).getBlock()));
         }
         return false;
     }
 
-    public static boolean evaluateBlockInteract(ServerPlayer player, JsonObject c) {
-        if (!c.has("target")) return false;
-        String lastInteract = InteractTracker.getLastInteraction(player);
-        if (lastInteract == null) return false;
-        return matchesId(lastInteract, c.get("target").getAsString());
-    }
-
-    public static boolean evaluateItemOnInteract(ServerPlayer player, JsonObject c) {
-        if (!c.has("item") || !c.has("target")) return false;
-        String lastItem = InteractTracker.getLastInteractionItem(player);
-        if (lastItem == null) return false;
-        String itemPattern = c.get("item").getAsString();
-        if (!matchesId(lastItem, itemPattern)) return false;
-        String lastTarget = InteractTracker.getLastInteraction(player);
-        if (lastTarget == null) return false;
-        String targetPattern = c.get("target").getAsString();
-        if (!matchesId(lastTarget, targetPattern)) return false;
-        if (c.has("target_type")
-                && !c.get("target_type").getAsString().equals(InteractTracker.getLastInteractionType(player))) {
+    public static boolean evaluateBlockInteract(ServerPlayer player, Conditions.IdPattern c) {
+        return c.pattern() != null && c.pattern().matches(InteractTracker.getLastInteraction(player));
+    }
+
+    public static boolean evaluateItemOnInteract(ServerPlayer player, Conditions.ItemOnInteract c) {
+        if (c.item() == null) return false;
+        if (!c.item().matches(InteractTracker.getLastInteractionItem(player))) return false;
+        if (!c.target().matches(InteractTracker.getLastInteraction(player))) return false;
+        if (c.targetType() != null
+                && !c.targetType().equals(InteractTracker.getLastInteractionType(player))) {
             return false;
         }
         return true;
     }
 
-    public static boolean evaluateInventory(ServerPlayer player, JsonObject c) {
-        if (!c.has("items") || !c.get("items").isJsonArray()) return false;
-        var items = c.getAsJsonArray("items");
-        if (items.size() == 0) return false;
-
-        java.util.Set<String> patterns = new java.util.HashSet<>();
-        for (var elem : items) {
-            patterns.add(elem.getAsString());
-        }
-
-        if (c.has("change")) {
-            String change = c.get("change").getAsString();
-            Map<String, Integer> snapshot = InventoryTracker.getSnapshot(player);
-            Map<String, Integer> current = scanInventoryCounts(player);
-            InventoryTracker.setSnapshot(player, current);
-
-            if (snapshot.isEmpty()) return false;
-
-            if ("increase".equals(change)) {
-                for (String p : patterns) {
-                    int prev = snapshot.getOrDefault(p, 0);
-                    int now = current.getOrDefault(p, 0);
-                    if (now > prev) return true;
-                }
-            } else if ("decrease".equals(change)) {
-                for (String p : patterns) {
-                    int prev = snapshot.getOrDefault(p, 0);
-                    int now = current.getOrDefault(p, 0);
-                    if (now < prev) return true;
-                }
+    public static boolean evaluateInventory(ServerPlayer player, Conditions.Inventory c) {
+        if (c.items() == null) return false;
+        InventoryDigest digest = InventoryTracker.digest(player);
+
+        if (c.change() != null) {
+            if (!digest.hasPrevious()) return false;
+            boolean increase = "increase".equals(c.change());
+            if (!increase && !"decrease".equals(c.change())) return false;
+            for (ItemMatcher m : c.items()) {
+                Item item = m.exactItem();
+                if (item == null) continue;
+                int prev = digest.previousCount(item);
+                int now = digest.count(item);
+                if (increase ? now > prev : now < prev) return true;
             }
             return false;
         }
 
-        String mode = c.has("mode") ? c.get("mode").getAsString() : "and";
-        var inventory = player.getInventory();
-        int size = inventory.getContainerSize();
-
-        if ("or".equals(mode)) {
-            for (int i = 0; i < size; i++) {
-                var stack = inventory.getItem(i);
-                if (!stack.isEmpty()) {
-                    String id = BuiltInRegistries.ITEM.getKey(stack.getItem()).toString();
-                    for (String p : patterns) {
-                        if (matchesId(id, p)) return true;
-                    }
+        List<ItemMatcher> items = c.items();
+        if (c.or()) {
+            for (Item held : digest.items()) {
+                for (int p = 0, n = items.size(); p < n; p++) {
+                    if (items.get(p).matches(held)) return true;
                 }
             }
             return false;
         }
 
-        java.util.Set<String> remaining = new java.util.HashSet<>(patterns);
-        for (int i = 0; i < size; i++) {
-            var stack = inventory.getItem(i);
-            if (!stack.isEmpty()) {
-                String id = BuiltInRegistries.ITEM.getKey(stack.getItem()).toString();
-                remaining.removeIf(pattern -> matchesId(id, pattern));
-                if (remaining.isEmpty()) return true;
+        // and：每个模式至少命中一种持有物品
+        for (int p = 0, n = items.size(); p < n; p++) {
+            ItemMatcher m = items.get(p);
+            boolean found = false;
+            for (Item held : digest.items()) {
+                if (m.matches(held)) { found = true; break; }
             }
+            if (!found) return false;
         }
-        return false;
+        return true;
     }
 
-    private static Map<String, Integer> scanInventoryCounts(ServerPlayer player) {
-        Map<String, Integer> counts = new java.util.HashMap<>();
-        var inventory = player.getInventory();
-        for (int i = 0; i < inventory.getContainerSize(); i++) {
-            var stack = inventory.getItem(i);
-            if (!stack.isEmpty()) {
-                String id = BuiltInRegistries.ITEM.getKey(stack.getItem()).toString();
-                counts.merge(id, stack.getCount(), Integer::sum);
-            }
+    public static boolean evaluateStructure(ServerPlayer player, Conditions.Structure c) {
+        if (c.structure() == null) return false;
+        for (ResourceLocation id : StructureTracker.nearby(player, c.radius())) {
+            if (c.structure().matchesId(id)) return true;
         }
-        return counts;
+        return false;
     }
 
-    public static boolean evaluateStructure(ServerPlayer player, JsonObject c) {
-        if (!c.has("structure")) return false;
-        String pattern = c.get("structure").getAsString();
-        var level = player.serverLevel();
-        var structureRegistry = level.registryAccess()
-                .registry(net.minecraft.core.registries.Registries.STRUCTURE).orElse(null);
-        if (structureRegistry == null) return false;
-
-        int radius = c.has("radius") ? c.get("radius").getAsInt() : 0;
-        BlockPos center = player.blockPosition();
-
-        if (radius > 0) {
-            for (int dx = -radius; dx <= radius; dx += 8) {
-                for (int dz = -radius; dz <= radius; dz += 8) {
-                    var structures = level.structureManager().getAllStructuresAt(center.offset(dx, 0, dz));
-                    for (var structure : structures.keySet()) {
-                        ResourceLocation id = structureRegistry.getKey(structure);
-                        if (id != null && matchesId(id.toString(), pattern)) return true;
-                    }
-                }
-            }
-        } else {
-            var structures = level.structureManager().getAllStructuresAt(center);
-            for (var structure : structures.keySet()) {
-                ResourceLocation id = structureRegistry.getKey(structure);
-                if (id != null && matchesId(id.toString(), pattern)) return true;
+    /** GameStageHelper.hasStage 反射句柄（首次求值时解析一次；模组未安装 = 保持 null） */
+    private static java.lang.reflect.Method gamestageHasStage;
+    private static boolean gamestageResolved;
+
+    public static boolean evaluateGamestage(ServerPlayer player, Conditions.Gamestage c) {
+        if (c.stage() == null) return false;
+        if (!gamestageResolved) {
+            gamestageResolved = true;
+            try {
+                Class<?> helper = Class.forName("net.darkhax.gamestages.GameStageHelper");
+                gamestageHasStage = helper.getMethod("hasStage", net.minecraft.world.entity.player.Player.class, String.class);
+            } catch (Exception e) {
+                // 可选集成：Gamestage 模组未安装 → 该触发永不生效（特性缺失即正确行为，非错误，不刷屏）
+                gamestageHasStage = null;
             }
         }
-        return false;
-    }
-
-    public static boolean evaluateGamestage(ServerPlayer player, JsonObject c) {
-        if (!c.has("stage")) return false;
-        String stage = c.get("stage").getAsString();
+        if (gamestageHasStage == null) return false;
         try {
-            Class<?> helper = Class.forName("net.darkhax.gamestages.GameStageHelper");
-            var hasStage = helper.getMethod("hasStage", net.minecraft.world.entity.player.Player.class, String.class);
-            return (boolean) hasStage.invoke(null, player, stage);
+            return (boolean) gamestageHasStage.invoke(null, player, c.stage());
         } catch (Exception e) {
-            // 可选集成：Gamestage 模组未安装 / 反射失败 → 该触发永不生效（特性缺失即正确行为，非错误，不刷屏）
+            // 反射调用失败同样视为未达成（不刷屏）
             return false;
         }
     }
 
-    private static boolean matchesId(String actual, String pattern) {
-        if (pattern.equals("*") || pattern.equals(actual)) return true;
-        if (pattern.endsWith(":*")) {
-            return actual.startsWith(pattern.substring(0, pattern.length() - 1));
-        }
-        if (!pattern.contains(":")) {
-            return actual.contains(pattern);
-        }
-        return false;
-    }
-
     public static class KillTracker {
         /** 击杀记录：实体 id + 击杀时刻的维度/群系/坐标（场景条件用） */
         public record KillRecord(String entityId, String dimension, String biome, double x, double y, double z) {}
@@ -645,13 +519,118 @@ public class Evaluators {
     }
 
     public static class InventoryTracker {
-        private static final Map<UUID, Map<String, Integer>> snapshots = new java.util.HashMap<>();
-        public static Map<String, Integer> getSnapshot(ServerPlayer player) {
-            return snapshots.getOrDefault(player.getUUID(), java.util.Collections.emptyMap());
+        private static final Map<UUID, InventoryDigest> digests = new java.util.HashMap<>();
+        /** 玩家背包摘要（本 tick 首次调用时增量刷新，之后同 tick 内共享） */
+        public static InventoryDigest digest(ServerPlayer player) {
+            return digests.computeIfAbsent(player.getUUID(), k -> new InventoryDigest()).update(player);
+        }
+        public static void clear(UUID uuid) { digests.remove(uuid); }
+    }
+
+    /**
+     * 结构查询缓存：区块 → 引用该区块的结构 id（与 {@code StructureManager.getAllStructuresAt} 同源：
+     * 区块的结构引用表）。区块结构引用在 STRUCTURE_REFERENCES 阶段后不再变化，按需填充、区块卸载时失效。
+     * <p>
+     * 另按玩家缓存本 tick 各采样半径的结果，同一玩家的多个 structure 注册共享一次查询。
+     */
+    public static class StructureTracker {
+        /** 单维度缓存区块数上限（超出整体清空，防止长时间跑图无限增长） */
+        private static final int MAX_CACHED_CHUNKS = 16384;
+        /** 采样步长（方块），与历史网格一致 */
+        private static final int SAMPLE_STEP = 8;
+        private static final ResourceLocation[] NONE = new ResourceLocation[0];
+
+        private static final Map<net.minecraft.resources.ResourceKey<net.minecraft.world.level.Level>,
+                it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap<ResourceLocation[]>> chunks = new java.util.HashMap<>();
+        private static final Map<UUID, Nearby> nearby = new java.util.HashMap<>();
+        private static final it.unimi.dsi.fastutil.longs.LongOpenHashSet visited = new it.unimi.dsi.fastutil.longs.LongOpenHashSet();
+
+        private static final class Nearby {
+            int tick = Integer.MIN_VALUE;
+            final it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap<ResourceLocation[]> byRadius =
+                    new it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap<>();
+        }
+
+        /**
+         * 玩家周围（半径内按 8 格网格采样，0 = 仅脚下区块）引用的结构 id，去重。
+         */
+        public static ResourceLocation[] nearby(ServerPlayer player, int radius) {
+            Nearby cache = nearby.computeIfAbsent(player.getUUID(), k -> new Nearby());
+            int tick = player.server.getTickCount();
+            if (cache.tick != tick) {
+                cache.tick = tick;
+                cache.byRadius.clear();
+            }
+            ResourceLocation[] ids = cache.byRadius.get(radius);
+            if (ids == null) {
+                ids = collect(player.serverLevel(), player.blockPosition(), radius);
+                cache.byRadius.put(radius, ids);
+            }
+            return ids;
+        }
+
+        private static ResourceLocation[] collect(ServerLevel level, BlockPos center, int radius) {
+            var structureRegistry = level.registryAccess()
+                    .registry(net.minecraft.core.registries.Registries.STRUCTURE).orElse(null);
+            if (structureRegistry == null) return NONE;
+
+            java.util.LinkedHashSet<ResourceLocation> result = new java.util.LinkedHashSet<>();
+            if (radius > 0) {
+                visited.clear();
+                for (int dx = -radius; dx <= radius; dx += SAMPLE_STEP) {
+                    for (int dz = -radius; dz <= radius; dz += SAMPLE_STEP) {
+                        int cx = (center.getX() + dx) >> 4;
+                        int cz = (center.getZ() + dz) >> 4;
+                        // 相邻采样点常落在同一区块，只查一次
+                        if (!visited.add(net.minecraft.world.level.ChunkPos.asLong(cx, cz))) continue;
+                        java.util.Collections.addAll(result, chunkStructures(level, structureRegistry, cx, cz));
+                    }
+                }
+            } else {
+                java.util.Collections.addAll(result,
+                        chunkStructures(level, structureRegistry, center.getX() >> 4, center.getZ() >> 4));
+            }
+            return result.isEmpty() ? NONE : result.toArray(NONE);
+        }
+
+        private static ResourceLocation[] chunkStructures(
+                ServerLevel level,
+                net.minecraft.core.Registry<net.minecraft.world.level.levelgen.structure.Structure> structureRegistry,
+                int cx, int cz) {
+            var perLevel = chunks.computeIfAbsent(level.dimension(),
+                    k -> new it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap<>());
+            long key = net.minecraft.world.level.ChunkPos.asLong(cx, cz);
+            ResourceLocation[] ids = perLevel.get(key);
+            if (ids != null) return ids;
+
+            var structures = level.structureManager().getAllStructuresAt(new BlockPos(cx << 4, 0, cz << 4));
+            if (structures.isEmpty()) {
+                ids = NONE;
+            } else {
+                List<ResourceLocation> list = new java.util.ArrayList<>(structures.size());
+                for (var structure : structures.keySet()) {
+                    ResourceLocation id = structureRegistry.getKey(structure);
+                    if (id != null) list.add(id);
+                }
+                ids = list.toArray(NONE);
+            }
+            if (perLevel.size() >= MAX_CACHED_CHUNKS) perLevel.clear();
+            perLevel.put(key, ids);
+            return ids;
         }
-        public static void setSnapshot(ServerPlayer player, Map<String, Integer> snapshot) {
-            snapshots.put(player.getUUID(), snapshot);
+
+        /** 区块卸载：丢弃该区块的缓存 */
+        public static void invalidate(ServerLevel level, int chunkX, int chunkZ) {
+            var perLevel = chunks.get(level.dimension());
+            if (perLevel != null) perLevel.remove(net.minecraft.world.level.ChunkPos.asLong(chunkX, chunkZ));
+        }
+
+        public static void clear(UUID uuid) { nearby.remove(uuid); }
+
+        /** 服务端停止：清空全部缓存 */
+        public static void clearAll() {
+            chunks.clear();
+            nearby.clear();
         }
-        public static void clear(UUID uuid) { snapshots.remove(uuid); }
     }
 }
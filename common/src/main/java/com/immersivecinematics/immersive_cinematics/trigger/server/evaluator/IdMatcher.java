@@ -0,0 +1,96 @@
+package com.immersivecinematics.immersive_cinematics.trigger.server.evaluator;
+
+import net.minecraft.resources.ResourceLocation;
+
+/**
+ * 预编译的注册名匹配器 — 触发条件中 id 模式（物品/实体/群系/结构/维度…）的编译结果
+ * <p>
+ * 模式语义（与历史 matchesId 完全一致）：
+ * <ul>
+ *   <li>{@code *}              → 任意 id</li>
+ *   <li>{@code ns:path}        → 完全相等</li>
+ *   <li>{@code ns:*}           → 命名空间前缀（actual 以 "ns:" 开头）</li>
+ *   <li>不含冒号（如 {@code ore}）→ 子串包含</li>
+ *   <li>其余含冒号的模式        → 仅完全相等</li>
+ * </ul>
+ * 注册时编译一次；{@link #matchesId(ResourceLocation)} 直接比对命名空间/路径，不拼接 id 字符串。
+ */
+public final class IdMatcher {
+
+    private enum Kind { ANY, EXACT, NAMESPACE, PREFIX, SUBSTRING }
+
+    private final String pattern;
+    private final Kind kind;
+    /** EXACT：模式本身是规范 ResourceLocation 时的解析结果（否则 null = 不可能与真实 id 相等） */
+    private final ResourceLocation exactId;
+    /** NAMESPACE：命名空间；PREFIX：去掉末尾 * 的前缀；SUBSTRING：子串 */
+    private final String part;
+
+    private IdMatcher(String pattern, Kind kind, ResourceLocation exactId, String part) {
+        this.pattern = pattern;
+        this.kind = kind;
+        this.exactId = exactId;
+        this.part = part;
+    }
+
+    /** 按模式语义编译 */
+    public static IdMatcher of(String pattern) {
+        if (pattern.equals("*")) {
+            return new IdMatcher(pattern, Kind.ANY, null, null);
+        }
+        if (pattern.endsWith(":*")) {
+            String prefix = pattern.substring(0, pattern.length() - 1);
+            // "ns:*" 且 ns 不含冒号 → 按命名空间比对；否则退回字符串前缀
+            if (prefix.indexOf(':') == prefix.length() - 1) {
+                return new IdMatcher(pattern, Kind.NAMESPACE, null, prefix.substring(0, prefix.length() - 1));
+            }
+            return new IdMatcher(pattern, Kind.PREFIX, null, prefix);
+        }
+        if (!pattern.contains(":")) {
+            return new IdMatcher(pattern, Kind.SUBSTRING, null, pattern);
+        }
+        return exact(pattern);
+    }
+
+    /** 仅完全相等（不解释通配符；location 的 dimension 过滤用） */
+    public static IdMatcher exact(String id) {
+        ResourceLocation parsed = ResourceLocation.tryParse(id);
+        // 非规范写法（如省略 minecraft: 命名空间）与真实 id 的字符串永不相等，保持该语义
+        if (parsed != null && !parsed.toString().equals(id)) parsed = null;
+        return new IdMatcher(id, Kind.EXACT, parsed, null);
+    }
+
+    public boolean matches(String actual) {
+        if (actual == null) return false;
+        return switch (kind) {
+            case ANY -> true;
+            case EXACT -> pattern.equals(actual);
+            case NAMESPACE -> actual.length() > part.length()
+                    && actual.charAt(part.length()) == ':' && actual.startsWith(part);
+            case PREFIX -> actual.startsWith(part);
+            case SUBSTRING -> actual.contains(part);
+        };
+    }
+
+    /** 按注册名直接匹配（不拼接 "ns:path" 字符串） */
+    public boolean matchesId(ResourceLocation id) {
+        if (id == null) return false;
+        return switch (kind) {
+            case ANY -> true;
+            case EXACT -> id.equals(exactId);
+            case NAMESPACE -> id.getNamespace().equals(part);
+            case PREFIX -> id.toString().startsWith(part);
+            // 模式不含冒号：不可能跨越 "ns:path" 的分隔符，分别在命名空间与路径内查找即可
+            case SUBSTRING -> id.getNamespace().contains(part) || id.getPath().contains(part);
+        };
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+}
@@ -0,0 +1,101 @@
+package com.immersivecinematics.immersive_cinematics.trigger.server.evaluator;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceSet;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.item.Item;
+
+/**
+ * 玩家背包摘要 — 按物品对象（注册表单例，引用即身份）汇总的数量表
+ * <p>
+ * 每 tick 最多刷新一次，同一 tick 内所有 inventory 注册共享；刷新时逐格与上次的
+ * (物品, 数量) 比较，只把变化的格子增量记入汇总，不解析注册名、不构造字符串键。
+ * 同时保留上一次刷新时的数量，供 change 模式比较增减；任一格变化时版本号递增，
+ * 供轮询变化检测（{@code PlayerPollState}）判断背包是否变化，不必再遍历一次。
+ * <p>
+ * 仅服务端主线程访问。
+ */
+public final class InventoryDigest {
+
+    private static final int NEVER = Integer.MIN_VALUE;
+
+    private final Reference2IntOpenHashMap<Item> counts = new Reference2IntOpenHashMap<>();
+    private final Reference2IntOpenHashMap<Item> previous = new Reference2IntOpenHashMap<>();
+    private boolean hasPrevious;
+
+    /** 逐格上次状态（空格 = null / 0） */
+    private Item[] slotItems = new Item[0];
+    private int[] slotCounts = new int[0];
+
+    private int lastTick = NEVER;
+    /** 内容版本（任一格变化 +1） */
+    private int revision;
+
+    /**
+     * 按当前背包刷新（同一服务端 tick 内重复调用直接返回）。
+     */
+    public InventoryDigest update(ServerPlayer player) {
+        int tick = player.server.getTickCount();
+        if (tick == lastTick) return this;
+        hasPrevious = lastTick != NEVER;
+        lastTick = tick;
+
+        previous.clear();
+        previous.putAll(counts);
+
+        var inventory = player.getInventory();
+        int size = inventory.getContainerSize();
+        if (slotItems.length != size) {
+            slotItems = new Item[size];
+            slotCounts = new int[size];
+            counts.clear();
+        }
+
+        boolean changed = false;
+        for (int i = 0; i < size; i++) {
+            var stack = inventory.getItem(i);
+            Item item = stack.isEmpty() ? null : stack.getItem();
+            int count = item != null ? stack.getCount() : 0;
+            Item oldItem = slotItems[i];
+            int oldCount = slotCounts[i];
+            if (item == oldItem && count == oldCount) continue;
+
+            if (oldItem != null && counts.addTo(oldItem, -oldCount) == oldCount) {
+                // 扣减后归零：移除键，保持 items() 只含实际持有的物品
+                counts.removeInt(oldItem);
+            }
+            if (item != null) {
+                counts.addTo(item, count);
+            }
+            slotItems[i] = item;
+            slotCounts[i] = count;
+            changed = true;
+        }
+        if (changed) revision++;
+        return this;
+    }
+
+    /** 当前持有的物品种类 */
+    public ReferenceSet<Item> items() {
+        return counts.keySet();
+    }
+
+    public int count(Item item) {
+        return counts.getInt(item);
+    }
+
+    /** 内容版本：两次读取相同 = 期间背包未变化 */
+    public int revision() {
+        return revision;
+    }
+
+    /** 上一次刷新时的数量（无上一次 = 0） */
+    public int previousCount(Item item) {
+        return previous.getInt(item);
+    }
+
+    /** 是否存在上一次刷新（首次刷新无从比较增减） */
+    public boolean hasPrevious() {
+        return hasPrevious;
+    }
+}
@@ -0,0 +1,58 @@
+package com.immersivecinematics.immersive_cinematics.trigger.server.evaluator;
+
+import it.unimi.dsi.fastutil.objects.Reference2BooleanOpenHashMap;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.Item;
+
+/**
+ * 物品模式匹配器 — {@link IdMatcher} 按物品对象记忆化
+ * <p>
+ * 物品注册表在服务端运行期不变，同一物品对同一模式的结果恒定：
+ * 首次遇到某物品时解析注册名并匹配，之后按引用查表（通配 {@code mod:*} / 子串同样只算一次）。
+ * 记忆表大小以注册物品总数为上限。仅服务端主线程访问。
+ */
+public final class ItemMatcher {
+
+    private final IdMatcher pattern;
+    private final Reference2BooleanOpenHashMap<Item> memo = new Reference2BooleanOpenHashMap<>();
+
+    /** change 模式按原串精确查找的物品（首次使用时解析；null = 原串不是已注册物品 id） */
+    private Item exactItem;
+    private boolean exactResolved;
+
+    public ItemMatcher(String pattern) {
+        this.pattern = IdMatcher.of(pattern);
+    }
+
+    public boolean matches(Item item) {
+        if (memo.containsKey(item)) return memo.getBoolean(item);
+        boolean result = pattern.matchesId(BuiltInRegistries.ITEM.getKey(item));
+        memo.put(item, result);
+        return result;
+    }
+
+    /**
+     * 原串作为物品 id 精确对应的物品（不解释通配符），未注册 / 非规范写法 = null。
+     */
+    public Item exactItem() {
+        if (!exactResolved) {
+            exactResolved = true;
+            String raw = pattern.getPattern();
+            ResourceLocation id = ResourceLocation.tryParse(raw);
+            if (id != null && id.toString().equals(raw) && BuiltInRegistries.ITEM.containsKey(id)) {
+                exactItem = BuiltInRegistries.ITEM.get(id);
+            }
+        }
+        return exactItem;
+    }
+
+    public String getPattern() {
+        return pattern.getPattern();
+    }
+
+    @Override
+    public String toString() {
+        return pattern.getPattern();
+    }
+}
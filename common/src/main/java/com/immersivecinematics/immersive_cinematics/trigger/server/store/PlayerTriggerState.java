@@ -64,6 +64,7 @@ public class PlayerTriggerState {
 
     public boolean isDirty() { return dirty; }
     public void markClean() { dirty = false; }
+    public void markDirty() { dirty = true; }
 
     public Object2ObjectOpenHashMap<String, ObjectOpenHashSet<String>> getTriggeredScripts() {
         return triggeredScripts;
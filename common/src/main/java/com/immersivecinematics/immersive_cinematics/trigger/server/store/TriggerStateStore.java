@@ -4,14 +4,16 @@ import com.mojang.logging.LogUtils;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtIo;
 import net.minecraft.nbt.StringTag;
-import net.minecraft.nbt.StringTagVisitor;
 import net.minecraft.nbt.TagParser;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.world.level.storage.LevelResource;
 import org.slf4j.Logger;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
@@ -19,7 +21,18 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * 触发状态存储 — 每玩家一个文件（世界目录 immersive_cinematics/trigger_state/&lt;uuid&gt;.dat，gzip 二进制 NBT）
+ * <p>
+ * 主线程只做内存查询/修改与保存时的 NBT 快照；文件写入由单个后台线程完成，
+ * 同一玩家多次保存在落盘前合并为最新一份。写入仍为"临时文件 + 原子重命名"。
+ */
 public class TriggerStateStore {
 
     private static final Logger LOGGER = LogUtils.getLogger();
@@ -27,13 +40,30 @@ public class TriggerStateStore {
 
     private static final String STORE_PATH = "immersive_cinematics/trigger_state";
     private static final int VERSION = 1;
+    private static final String DATA_EXT = ".dat";
+    /** 旧版 SNBT 文本格式（读取时迁移，写成 .dat 后删除） */
+    private static final String LEGACY_EXT = ".snbt";
+
+    /** 单个后台写线程（守护线程，跨集成服务端重启复用） */
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "ImmersiveCinematics-TriggerStateWriter");
+        t.setDaemon(true);
+        return t;
+    });
 
     private final Map<UUID, PlayerTriggerState> playerStates = new HashMap<>();
-    private Path storeRoot;
+    /** 待写入快照（玩家 → 最新 NBT），主线程写入、写线程取走 */
+    private final Map<UUID, CompoundTag> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    /** 单个玩家文件的读写互斥（读取时若快照已被取走，等待其落盘） */
+    private final Object ioLock = new Object();
+    private volatile Path storeRoot;
 
     private TriggerStateStore() {}
 
     public void initialize(MinecraftServer server) {
+        // 上一个（集成）服务端遗留的待写快照先落到原目录（flush 阻塞到写线程完成，之后才切换 storeRoot）
+        flush();
         this.storeRoot = server.getWorldPath(LevelResource.ROOT).resolve(STORE_PATH);
         try {
             Files.createDirectories(storeRoot);
@@ -91,24 +121,40 @@ public class TriggerStateStore {
         if (state != null) state.resetAll();
     }
 
-    // ===== Persistence (SNBT text format) =====
+    // ===== Persistence (binary NBT, background writer) =====
 
+    /**
+     * 读取玩家状态。优先级：待写入快照（刚下线又上线，写线程尚未落盘）→ 二进制 .dat → 旧版 .snbt。
+     * 从 .snbt 读入的状态标记为 dirty，下次保存写成 .dat 后删除旧文件（一次性迁移）。
+     */
     public void loadForPlayer(UUID player) {
         if (storeRoot == null) return;
-        Path file = storeRoot.resolve(player.toString() + ".snbt");
-        if (!Files.isRegularFile(file)) {
-            playerStates.put(player, new PlayerTriggerState());
-            return;
-        }
+        Path file = storeRoot.resolve(player.toString() + DATA_EXT);
+        Path legacy = storeRoot.resolve(player.toString() + LEGACY_EXT);
+        PlayerTriggerState state;
         try {
-            String snbt = Files.readString(file);
-            CompoundTag tag = TagParser.parseTag(snbt);
-            PlayerTriggerState state = deserialize(tag);
-            playerStates.put(player, state);
+            synchronized (ioLock) {
+                CompoundTag pendingTag = pending.get(player);
+                if (pendingTag != null) {
+                    state = deserialize(pendingTag);
+                    // 快照仍在队列中，由写线程照常落盘
+                } else if (Files.isRegularFile(file)) {
+                    try (InputStream in = Files.newInputStream(file)) {
+                        state = deserialize(NbtIo.readCompressed(in));
+                    }
+                } else if (Files.isRegularFile(legacy)) {
+                    state = deserialize(TagParser.parseTag(Files.readString(legacy)));
+                    state.markDirty();
+                    LOGGER.info("Migrating trigger state for player {} from SNBT", player);
+                } else {
+                    state = new PlayerTriggerState();
+                }
+            }
         } catch (Exception e) {
             LOGGER.error("Failed to load trigger state for player {}", player, e);
-            playerStates.put(player, new PlayerTriggerState());
+            state = new PlayerTriggerState();
         }
+        playerStates.put(player, state);
     }
 
     public void unloadForPlayer(UUID player) {
@@ -119,28 +165,76 @@ public class TriggerStateStore {
     public void saveIfChanged(UUID player) {
         PlayerTriggerState state = playerStates.get(player);
         if (state == null || !state.isDirty() || storeRoot == null) return;
-        savePlayer(player, state);
-        state.markClean();
+        enqueue(player, state);
     }
 
+    /** 排队保存全部脏玩家（序列化在调用线程，写盘在后台） */
     public void saveAll() {
         if (storeRoot == null) return;
         for (Map.Entry<UUID, PlayerTriggerState> entry : playerStates.entrySet()) {
             if (entry.getValue().isDirty()) {
-                savePlayer(entry.getKey(), entry.getValue());
-                entry.getValue().markClean();
+                enqueue(entry.getKey(), entry.getValue());
             }
         }
     }
 
-    private void savePlayer(UUID player, PlayerTriggerState state) {
-        Path file = storeRoot.resolve(player.toString() + ".snbt");
-        Path tmp = storeRoot.resolve(player.toString() + ".snbt.tmp");
+    /**
+     * 同步写完所有待保存快照（服务端停止时调用，保证进程退出前落盘）。
+     * <p>
+     * 排空任务提交到写线程并等待其完成：单线程执行器保证此前已在进行的写入（快照已从 pending 取走）
+     * 先结束，不会因为 pending 已空而提前返回。
+     */
+    public void flush() {
         try {
-            CompoundTag tag = serialize(state);
-            String snbt = new StringTagVisitor().visit(tag);
-            Files.writeString(tmp, snbt);
+            WRITER.submit(this::drainPending).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // 被中断时仍在当前线程写完剩余快照，再取一次 ioLock 等写线程手上那一份写完
+            drainPending();
+            synchronized (ioLock) {
+                // 仅用于等待进行中的写入
+            }
+        } catch (ExecutionException e) {
+            LOGGER.error("Failed to flush trigger state", e.getCause());
+        }
+    }
+
+    /**
+     * 在调用线程（服务端主线程）把状态快照成 NBT（与后续修改隔离），放入待写表；
+     * 同一玩家尚未落盘的旧快照被新快照覆盖（合并）。
+     */
+    private void enqueue(UUID player, PlayerTriggerState state) {
+        pending.put(player, serialize(state));
+        state.markClean();
+        if (drainScheduled.compareAndSet(false, true)) {
+            WRITER.execute(() -> {
+                drainScheduled.set(false);
+                drainPending();
+            });
+        }
+    }
+
+    private void drainPending() {
+        Path root = storeRoot;
+        if (root == null) return;
+        for (UUID player : pending.keySet()) {
+            synchronized (ioLock) {
+                CompoundTag tag = pending.remove(player);
+                if (tag != null) writePlayer(root, player, tag);
+            }
+        }
+    }
+
+    /** 二进制 NBT（gzip）写临时文件后原子重命名；成功后删除已迁移的旧 .snbt */
+    private void writePlayer(Path root, UUID player, CompoundTag tag) {
+        Path file = root.resolve(player.toString() + DATA_EXT);
+        Path tmp = root.resolve(player.toString() + DATA_EXT + ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                NbtIo.writeCompressed(tag, out);
+            }
             Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            Files.deleteIfExists(root.resolve(player.toString() + LEGACY_EXT));
         } catch (IOException e) {
             LOGGER.error("Failed to save trigger state for player {}", player, e);
             try {
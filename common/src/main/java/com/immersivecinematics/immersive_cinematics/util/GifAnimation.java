@@ -1,29 +1,96 @@
 package com.immersivecinematics.immersive_cinematics.util;
 
+import com.immersivecinematics.immersive_cinematics.mixin.NativeImageAccessor;
 import com.mojang.blaze3d.platform.NativeImage;
 import net.minecraft.client.renderer.texture.DynamicTexture;
-import java.util.List;
+import org.lwjgl.system.MemoryUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 /**
  * GIF 动图数据（0.3.5 第5轮 5C）。
  * <p>
- * 拆帧后持有全部 NativeImage 帧与每帧延迟；渲染时按 globalTime 计算帧索引，
- * 把目标帧 copy 进同一个 DynamicTexture 并 upload，显存只占一帧。
+ * 帧不再以 NativeImage 常驻（256 帧 × 1024² 可达 1 GB 堆外内存）：每帧与上一帧异或后 deflate 压缩，
+ * 每 {@link #KEY_INTERVAL} 帧存一个完整关键帧。GIF 相邻帧大多只有局部变化，异或结果几乎全 0，压缩率很高。
+ * <p>
+ * 渲染时按 globalTime 计算帧索引（延迟前缀和 + 二分），帧变化时才解压：顺序播放直接把增量异或进显示图像，
+ * 跳转则从最近的关键帧重放。显示图像 / 纹理只占一帧，另有一帧大小的解压缓冲。
  */
 public class GifAnimation {
 
-    private final List<NativeImage> frames;
-    private final int[] delays;
+    /** 关键帧间隔：随机跳转最多解压这么多帧 */
+    private static final int KEY_INTERVAL = 16;
+
+    /** 压缩后的帧：关键帧为原始 RGBA，其余为与上一帧的异或 */
+    private final byte[][] frames;
+    /** 延迟前缀和（毫秒）：frameEnds[i] = 第 0..i 帧延迟之和 */
+    private final long[] frameEnds;
     private final int width;
     private final int height;
-    private final DynamicTexture texture;
-    private int currentFrame = -1;
+    private final int frameSize;
+    private DynamicTexture texture;
+    private final Inflater inflater = new Inflater();
+    /** 解压缓冲（一帧大小，堆外） */
+    private ByteBuffer scratch;
+    private int currentFrame;
 
-    public GifAnimation(List<NativeImage> frames, int[] delays, int width, int height, DynamicTexture texture) {
+    private GifAnimation(byte[][] frames, int[] delays, int width, int height) {
         this.frames = frames;
-        this.delays = delays;
         this.width = width;
         this.height = height;
+        this.frameSize = width * height * 4;
+        this.frameEnds = new long[delays.length];
+        long acc = 0;
+        for (int i = 0; i < delays.length; i++) {
+            acc += Math.max(1, delays[i]);
+            frameEnds[i] = acc;
+        }
+        // 显示图像创建时已是第 0 帧
+        this.currentFrame = 0;
+    }
+
+    /**
+     * 从 stb_image 解出的连续 RGBA 帧缓冲构建动画；调用方随后释放 stb 缓冲。
+     * 显示图像 {@code display} 会被写入第 0 帧。不涉及 GL，可在加载线程执行；
+     * 之后在渲染线程用 display 创建纹理并 {@link #bindTexture}。
+     */
+    public static GifAnimation encode(ByteBuffer stbPixels, int frameCount, int[] delays, int width, int height,
+                                      NativeImage display) {
+        int frameSize = width * height * 4;
+        long base = MemoryUtil.memAddress(stbPixels);
+        MemoryUtil.memCopy(base, pixelsAddress(display), frameSize);
+
+        byte[][] frames = new byte[frameCount][];
+        ByteBuffer scratch = MemoryUtil.memAlloc(frameSize);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            for (int f = 0; f < frameCount; f++) {
+                ByteBuffer cur = MemoryUtil.memByteBuffer(base + (long) f * frameSize, frameSize);
+                ByteBuffer input;
+                if (f % KEY_INTERVAL == 0) {
+                    input = cur;
+                } else {
+                    ByteBuffer prev = MemoryUtil.memByteBuffer(base + (long) (f - 1) * frameSize, frameSize);
+                    scratch.clear();
+                    xor(scratch, prev, cur, frameSize);
+                    input = scratch;
+                }
+                frames[f] = deflate(deflater, input);
+            }
+        } finally {
+            deflater.end();
+            MemoryUtil.memFree(scratch);
+        }
+        return new GifAnimation(frames, delays, width, height);
+    }
+
+    /** 绑定显示纹理（渲染线程，纹理由 encode 时的 display 图像创建） */
+    public void bindTexture(DynamicTexture texture) {
         this.texture = texture;
     }
 
@@ -35,37 +102,104 @@ public class GifAnimation {
         return height;
     }
 
-    /** 按全局时间推进到对应帧；帧变化时才 copy + upload */
+    /** 压缩帧数据总字节数（堆内） */
+    public long getCompressedBytes() {
+        long total = 0;
+        for (byte[] f : frames) total += f.length;
+        return total;
+    }
+
+    /** 按全局时间推进到对应帧；帧变化时才解压 + upload */
     public void update(float globalTime) {
-        if (frames.isEmpty()) return;
+        if (frames.length == 0 || texture == null) return;
         int frame = frameIndex(globalTime);
         if (frame == currentFrame) return;
-        currentFrame = frame;
         NativeImage target = texture.getPixels();
-        if (target != null) {
-            target.copyFrom(frames.get(frame));
-            texture.upload();
+        if (target == null) return;
+        long dst = pixelsAddress(target);
+        if (dst == 0L) return;
+        try {
+            int key = frame - frame % KEY_INTERVAL;
+            int from;
+            if (currentFrame >= key && currentFrame < frame) {
+                // 同一关键帧段内向后推进（顺序播放的常态）：只叠加中间的增量
+                from = currentFrame + 1;
+            } else {
+                MemoryUtil.memCopy(MemoryUtil.memAddress(inflate(key)), dst, frameSize);
+                from = key + 1;
+            }
+            ByteBuffer out = MemoryUtil.memByteBuffer(dst, frameSize);
+            for (int f = from; f <= frame; f++) {
+                xor(out, out, inflate(f), frameSize);
+            }
+        } catch (DataFormatException e) {
+            ErrorLog.log("Texture", "GIF 帧解压失败: frame " + frame, e);
+            return;
         }
+        currentFrame = frame;
+        texture.upload();
     }
 
+    /** 延迟前缀和上二分：第一个 frameEnds[i] > t 的帧 */
     private int frameIndex(float globalTime) {
-        if (frames.size() <= 1) return 0;
-        long total = 0;
-        for (int delay : delays) total += Math.max(1, delay);
-        long t = (long)(globalTime * 1000.0) % total;
-        long acc = 0;
-        for (int i = 0; i < frames.size(); i++) {
-            acc += Math.max(1, delays[i]);
-            if (t < acc) return i;
+        if (frames.length <= 1) return 0;
+        long total = frameEnds[frameEnds.length - 1];
+        long t = (long) (globalTime * 1000.0) % total;
+        if (t < 0) t += total;
+        int i = Arrays.binarySearch(frameEnds, t);
+        // 命中边界 = 该帧刚结束，属于下一帧；未命中返回 -(插入点)-1
+        return i >= 0 ? Math.min(i + 1, frames.length - 1) : -i - 1;
+    }
+
+    private ByteBuffer inflate(int frame) throws DataFormatException {
+        if (scratch == null) scratch = MemoryUtil.memAlloc(frameSize);
+        inflater.reset();
+        inflater.setInput(frames[frame]);
+        scratch.clear();
+        while (scratch.hasRemaining() && !inflater.finished()) {
+            if (inflater.inflate(scratch) == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+        }
+        if (scratch.hasRemaining()) {
+            throw new DataFormatException("Truncated frame " + frame);
+        }
+        scratch.flip();
+        return scratch;
+    }
+
+    private static byte[] deflate(Deflater deflater, ByteBuffer input) {
+        deflater.reset();
+        deflater.setInput(input.duplicate());
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, input.remaining() / 32));
+        byte[] chunk = new byte[16 * 1024];
+        while (!deflater.finished()) {
+            int n = deflater.deflate(chunk);
+            out.write(chunk, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    /** dst = a ^ b（按绝对下标，8 字节一组） */
+    private static void xor(ByteBuffer dst, ByteBuffer a, ByteBuffer b, int size) {
+        int i = 0;
+        for (; i + 8 <= size; i += 8) {
+            dst.putLong(i, a.getLong(i) ^ b.getLong(i));
+        }
+        for (; i < size; i++) {
+            dst.put(i, (byte) (a.get(i) ^ b.get(i)));
         }
-        return frames.size() - 1;
+    }
+
+    private static long pixelsAddress(NativeImage image) {
+        return ((NativeImageAccessor) (Object) image).getPixelsAddress();
     }
 
     public void close() {
-        for (NativeImage frame : frames) {
-            frame.close();
+        inflater.end();
+        if (scratch != null) {
+            MemoryUtil.memFree(scratch);
+            scratch = null;
         }
-        frames.clear();
-        texture.close();
+        if (texture != null) texture.close();
     }
 }
@@ -9,6 +9,9 @@ import net.minecraft.world.phys.Vec3;
  * 多种插值曲线（smooth/easeIn/easeOut/easeInOut）、
  * 三次贝塞尔曲线、smoothstep 混合、NaN/Infinity 防护，
  * 供 CameraProperties、ScriptPlayer、KeyframeInterpolator 等组件共用。
+ * <p>
+ * 渲染帧热路径另有 {@link MutableVec3}（可变双精度向量）与 {@link Scratch}（帧内临时向量池），
+ * 相机求值管线用它们代替每帧新建的 Vec3 / float[]，稳态零分配。
  */
 public final class MathUtil {
 
@@ -151,6 +154,28 @@ public final class MathUtil {
         return new Vec3(x, y, z);
     }
 
+    /**
+     * 三次贝塞尔曲线插值（写入 out，零分配；公式与 {@link #cubicBezier(Vec3, Vec3, Vec3, Vec3, float)} 一致）
+     * <p>
+     * out 可与任一输入为同一对象。
+     *
+     * @return out
+     */
+    public static MutableVec3 cubicBezier(MutableVec3 p0, MutableVec3 p1, MutableVec3 p2, MutableVec3 p3,
+                                          float t, MutableVec3 out) {
+        float u = 1f - t;
+        float uu = u * u;
+        float uuu = uu * u;
+        float tt = t * t;
+        float ttt = tt * t;
+
+        double x = uuu * p0.x + 3 * uu * t * p1.x + 3 * u * tt * p2.x + ttt * p3.x;
+        double y = uuu * p0.y + 3 * uu * t * p1.y + 3 * u * tt * p2.y + ttt * p3.y;
+        double z = uuu * p0.z + 3 * uu * t * p1.z + 3 * u * tt * p2.z + ttt * p3.z;
+
+        return out.set(x, y, z);
+    }
+
     // ========== Crossfade 混合 ==========
 
     /**
@@ -214,4 +239,138 @@ public final class MathUtil {
         }
         return fallback;
     }
+
+    // ========== 可变向量 / 帧内临时缓冲 ==========
+
+    /**
+     * 可变双精度三维向量 — 渲染帧热路径专用
+     * <p>
+     * 与 Vec3 分量精度一致（double），所有写操作原地修改并返回 this 以便链式调用；
+     * 需要交给原版 API 时再用 {@link #toVec3()} 物化（会分配，热路径避免）。
+     * 非线程安全：只在持有它的渲染线程对象内复用。
+     */
+    public static final class MutableVec3 {
+
+        public double x;
+        public double y;
+        public double z;
+
+        public MutableVec3() {}
+
+        public MutableVec3(double x, double y, double z) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+
+        public MutableVec3 set(double x, double y, double z) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            return this;
+        }
+
+        public MutableVec3 set(Vec3 v) {
+            return set(v.x, v.y, v.z);
+        }
+
+        public MutableVec3 set(MutableVec3 v) {
+            return set(v.x, v.y, v.z);
+        }
+
+        public MutableVec3 add(double dx, double dy, double dz) {
+            return set(x + dx, y + dy, z + dz);
+        }
+
+        public MutableVec3 add(MutableVec3 v) {
+            return set(x + v.x, y + v.y, z + v.z);
+        }
+
+        /** this += v · scale */
+        public MutableVec3 addScaled(MutableVec3 v, double scale) {
+            return set(x + v.x * scale, y + v.y * scale, z + v.z * scale);
+        }
+
+        /** this = a − b */
+        public MutableVec3 sub(MutableVec3 a, MutableVec3 b) {
+            return set(a.x - b.x, a.y - b.y, a.z - b.z);
+        }
+
+        /** this = a + (b − a) · t（与 Vec3.lerp 同公式；this 可与 a/b 为同一对象） */
+        public MutableVec3 lerp(MutableVec3 a, MutableVec3 b, double t) {
+            return set(a.x + (b.x - a.x) * t, a.y + (b.y - a.y) * t, a.z + (b.z - a.z) * t);
+        }
+
+        /** this = a × b（this 可与 a/b 为同一对象） */
+        public MutableVec3 cross(MutableVec3 a, MutableVec3 b) {
+            return set(a.y * b.z - a.z * b.y, a.z * b.x - a.x * b.z, a.x * b.y - a.y * b.x);
+        }
+
+        /** 归一化（与 Vec3.normalize 同语义：长度过小时置零） */
+        public MutableVec3 normalize() {
+            double len = Math.sqrt(x * x + y * y + z * z);
+            return len < 1.0E-4 ? set(0, 0, 0) : set(x / len, y / len, z / len);
+        }
+
+        public boolean isFinite() {
+            return Double.isFinite(x) && Double.isFinite(y) && Double.isFinite(z);
+        }
+
+        /** 物化为不可变 Vec3（分配新对象） */
+        public Vec3 toVec3() {
+            return new Vec3(x, y, z);
+        }
+
+        @Override
+        public String toString() {
+            return "(" + x + ", " + y + ", " + z + ")";
+        }
+    }
+
+    /**
+     * 帧内临时向量池 — 栈式借用 {@link MutableVec3}
+     * <p>
+     * 用法：求值入口处 {@code int mark = scratch.mark()}，期间用 {@link #vec()} 借临时向量，
+     * 返回前 {@code scratch.release(mark)} 一次性归还。池容量按峰值自动增长，
+     * 稳态（每帧借还数量不变）下不再分配。借出的向量在 release 之后不得再持有。
+     */
+    public static final class Scratch {
+
+        private MutableVec3[] pool;
+        private int top;
+
+        public Scratch(int initialCapacity) {
+            pool = new MutableVec3[Math.max(1, initialCapacity)];
+            for (int i = 0; i < pool.length; i++) {
+                pool[i] = new MutableVec3();
+            }
+        }
+
+        /** 借一个临时向量（内容未清零，调用方负责 set） */
+        public MutableVec3 vec() {
+            if (top == pool.length) {
+                MutableVec3[] grown = java.util.Arrays.copyOf(pool, pool.length * 2);
+                for (int i = pool.length; i < grown.length; i++) {
+                    grown[i] = new MutableVec3();
+                }
+                pool = grown;
+            }
+            return pool[top++];
+        }
+
+        /** 当前借用位置 */
+        public int mark() {
+            return top;
+        }
+
+        /** 归还 mark 之后借出的全部向量 */
+        public void release(int mark) {
+            top = mark;
+        }
+
+        /** 全部归还 */
+        public void reset() {
+            top = 0;
+        }
+    }
 }
@@ -27,6 +27,14 @@ public final class ResourcePath {
                 .resolve(RESOURCE_DIR);
     }
 
+    /** 客户端派生数据缓存目录：{@code <gameDir>/immersive_cinematics/cache/<name>/}（可随时删除，按需重建） */
+    public static Path getCachePath(String name) {
+        return Minecraft.getInstance().gameDirectory.toPath()
+                .resolve("immersive_cinematics")
+                .resolve("cache")
+                .resolve(name);
+    }
+
     /**
      * 解析文件名到资源目录下的完整路径
      *
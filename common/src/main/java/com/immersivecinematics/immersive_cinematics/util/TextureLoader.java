@@ -1,5 +1,6 @@
 package com.immersivecinematics.immersive_cinematics.util;
 
+import com.immersivecinematics.immersive_cinematics.Config;
 import com.mojang.blaze3d.platform.NativeImage;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.texture.DynamicTexture;
@@ -19,74 +20,174 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * 从 {@link ResourcePath} 目录加载 PNG/GIF 纹理到 Minecraft 纹理系统。
  * <p>
- * 静态图注册为 DynamicTexture；GIF 拆帧后由 {@link GifAnimation} 持有帧序列，
- * 渲染时按全局时间轮播并只上传当前帧。加载过的纹理会被缓存，重复使用。
+ * 静态图注册为 DynamicTexture；GIF 拆帧后由 {@link GifAnimation} 以压缩增量形式持有帧序列，
+ * 渲染时按全局时间轮播并只上传当前帧。
+ * <p>
+ * 加载是异步的：读文件 + 解码（PNG 解码 / GIF 拆帧压缩）在加载线程，只有纹理创建与上传回到渲染线程。
+ * {@link #request} 发起加载（可提前预取），{@link #acquire} 取得引用计数句柄，{@link Handle#getTexture}
+ * 非阻塞查询；未就绪时调用方先不画。
+ * <p>
+ * 缓存：持有句柄的纹理常驻；无人引用的纹理按最近使用顺序保留，驻留字节数超过
+ * {@link Config#overlayTextureBudgetMb} 时从最久未用的开始释放（纹理 + 像素 + GIF 帧数据）。
+ * 缓存表只在渲染线程访问。
  */
 public final class TextureLoader {
 
     private static final Logger LOGGER = LoggerFactory.getLogger("ImmersiveCinematics/TextureLoader");
-    private static final Map<String, ResourceLocation> textureCache = new HashMap<>();
-    /** 纹理原始像素尺寸缓存（fileName → {width, height}），供 OVERLAY 按原图比例渲染 */
-    private static final Map<String, int[]> sizeCache = new HashMap<>();
-    /** GIF 帧序列缓存（fileName → GifAnimation） */
-    private static final Map<String, GifAnimation> gifCache = new HashMap<>();
+    /** fileName → 已加载纹理，访问顺序（最久未用在前） */
+    private static final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    /** fileName → 未释放的句柄数（可先于加载完成存在） */
+    private static final Map<String, Integer> refs = new HashMap<>();
+    /** 已加载纹理的驻留字节数合计 */
+    private static long residentBytes = 0;
+    /** 加载中的文件 */
+    private static final Set<String> pending = new HashSet<>();
+    /** 加载失败的文件 → 失败时刻（过一段时间允许重试，编辑器中可能刚放入文件） */
+    private static final Map<String, Long> failedAt = new HashMap<>();
+    /** clearCache 代数：清空前发起、清空后才完成的加载直接丢弃 */
+    private static int generation = 0;
 
     private static final int MAX_GIF_FRAMES = 256;
     private static final int MAX_GIF_DIMENSION = 1024;
+    private static final long RETRY_AFTER_MS = 2000;
+
+    /** 加载线程池（2 线程：脚本开始时成批预取，解码之间相互独立） */
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "ImmersiveCinematics-TextureLoad");
+        t.setDaemon(true);
+        return t;
+    });
 
     private TextureLoader() {}
 
     /**
-     * 从 resource/ 目录加载图片文件，返回可用的 ResourceLocation。
+     * 发起异步加载（渲染线程）；已加载 / 加载中 / 近期失败则什么都不做。
      * <p>
      * .gif 走拆帧 + 轮播路径；其余格式走 NativeImage 静态图路径。
      *
      * @param fileName 文件名（如 {@code "overlay.png"} 或 {@code "flame.gif"}）
-     * @return ResourceLocation 用于渲染，加载失败返回 null
      */
-    public static ResourceLocation loadTexture(String fileName) {
-        if (fileName == null || fileName.isEmpty()) return null;
+    public static void request(String fileName) {
+        if (fileName == null || fileName.isEmpty()) return;
+        if (entries.containsKey(fileName) || pending.contains(fileName)) return;
+        Long failed = failedAt.get(fileName);
+        if (failed != null && System.currentTimeMillis() - failed < RETRY_AFTER_MS) return;
+
+        pending.add(fileName);
+        int gen = generation;
+        EXECUTOR.execute(() -> {
+            Decoded decoded = decode(fileName);
+            Minecraft.getInstance().execute(() -> finish(fileName, gen, decoded));
+        });
+    }
+
+    /**
+     * 取得纹理句柄（引用 +1）并发起加载；用完必须 {@link Handle#release}（片段结束 / 层移除）。
+     * 持有句柄期间纹理不会被淘汰。
+     */
+    public static Handle acquire(String fileName) {
+        refs.merge(fileName, 1, Integer::sum);
+        request(fileName);
+        return new Handle(fileName);
+    }
+
+    /**
+     * 纹理句柄 — 只在渲染线程使用。{@link #release} 幂等，释放后各查询返回 null。
+     */
+    public static final class Handle {
+        private final String fileName;
+        private boolean released;
+
+        private Handle(String fileName) {
+            this.fileName = fileName;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        /** 已加载的纹理（刷新 LRU 顺序）；未就绪返回 null，加载失败过了重试间隔会再发起加载 */
+        public ResourceLocation getTexture() {
+            Entry e = lookup();
+            return e != null ? e.location : null;
+        }
 
-        ResourceLocation cached = textureCache.get(fileName);
-        if (cached != null) return cached;
+        /** 原始像素尺寸 {width, height}；未就绪返回 null。供 OVERLAY 按原图分辨率 × scale 百分比乘数渲染 */
+        public int[] getSize() {
+            Entry e = lookup();
+            return e != null ? new int[]{e.width, e.height} : null;
+        }
+
+        /** GIF 动图数据；非 GIF / 未就绪返回 null */
+        public GifAnimation getGif() {
+            Entry e = lookup();
+            return e != null ? e.gif : null;
+        }
+
+        /** 加载已有结果（成功或失败）；预取等待开场资源时用，不刷新 LRU 顺序 */
+        public boolean isSettled() {
+            return released || entries.containsKey(fileName) || failedAt.containsKey(fileName);
+        }
+
+        public void release() {
+            if (released) return;
+            released = true;
+            Integer n = refs.get(fileName);
+            if (n == null) return;
+            if (n <= 1) {
+                refs.remove(fileName);
+                evict();
+            } else {
+                refs.put(fileName, n - 1);
+            }
+        }
+
+        private Entry lookup() {
+            if (released) return null;
+            Entry e = entries.get(fileName);
+            if (e == null) request(fileName);
+            return e;
+        }
+    }
+
+    // ===== 加载线程：读文件 + 解码 =====
 
+    /** 解码结果（不涉及 GL）；GIF 的 image 为已写入第 0 帧的显示图像 */
+    private record Decoded(NativeImage image, GifAnimation gif) {}
+
+    /** 失败返回 null（已记录日志） */
+    private static Decoded decode(String fileName) {
         Path filePath = ResourcePath.resolve(fileName);
         if (!Files.exists(filePath)) {
             LOGGER.debug("Texture file not found: {}", filePath);
             return null;
         }
-
-        if (isGif(fileName)) {
-            return loadGif(fileName, filePath);
-        }
-        return loadStatic(fileName, filePath);
+        return isGif(fileName) ? decodeGif(fileName, filePath) : decodeStatic(filePath);
     }
 
-    private static ResourceLocation loadStatic(String fileName, Path filePath) {
+    private static Decoded decodeStatic(Path filePath) {
         try (InputStream is = Files.newInputStream(filePath)) {
-            NativeImage image = NativeImage.read(is);
-            DynamicTexture texture = new DynamicTexture(image);
-            ResourceLocation loc = buildLocation(fileName);
-            if (loc == null) return null;
-            Minecraft.getInstance().getTextureManager().register(loc, texture);
-            textureCache.put(fileName, loc);
-            sizeCache.put(fileName, new int[]{image.getWidth(), image.getHeight()});
-            LOGGER.debug("Loaded texture: {} -> {} ({}x{})", fileName, loc, image.getWidth(), image.getHeight());
-            return loc;
+            return new Decoded(NativeImage.read(is), null);
         } catch (Exception e) {
             LOGGER.warn("Failed to load texture: {}", filePath, e);
             return null;
         }
     }
 
-    private static ResourceLocation loadGif(String fileName, Path filePath) {
+    private static Decoded decodeGif(String fileName, Path filePath) {
         try {
             byte[] bytes = Files.readAllBytes(filePath);
             ByteBuffer buffer = BufferUtils.createByteBuffer(bytes.length);
@@ -121,40 +222,21 @@ public final class TextureLoader {
                 for (int i = 0; i < frameCount; i++) {
                     delays[i] = Math.max(1, delayBuf.get(i));
                 }
-
-                int frameSize = width * height * 4;
-                List<NativeImage> frames = new ArrayList<>(frameCount);
-                for (int f = 0; f < frameCount; f++) {
-                    NativeImage frame = new NativeImage(width, height, true);
-                    int base = f * frameSize;
-                    for (int p = 0; p < width * height; p++) {
-                        int off = base + p * 4;
-                        int r = pixels.get(off) & 0xFF;
-                        int g = pixels.get(off + 1) & 0xFF;
-                        int b = pixels.get(off + 2) & 0xFF;
-                        int a = pixels.get(off + 3) & 0xFF;
-                        frame.setPixelRGBA(p % width, p / width, (a << 24) | (b << 16) | (g << 8) | r);
-                    }
-                    frames.add(frame);
-                }
-                STBImage.stbi_image_free(pixels);
+                STBImage.nstbi_image_free(delaysAddr);
 
                 NativeImage display = new NativeImage(width, height, true);
-                display.copyFrom(frames.get(0));
-                DynamicTexture texture = new DynamicTexture(display);
-
-                ResourceLocation loc = buildLocation(fileName);
-                if (loc == null) {
+                GifAnimation gif;
+                try {
+                    gif = GifAnimation.encode(pixels, frameCount, delays, width, height, display);
+                } catch (RuntimeException e) {
                     display.close();
-                    for (NativeImage frame : frames) frame.close();
-                    return null;
+                    throw e;
+                } finally {
+                    STBImage.stbi_image_free(pixels);
                 }
-                Minecraft.getInstance().getTextureManager().register(loc, texture);
-                textureCache.put(fileName, loc);
-                sizeCache.put(fileName, new int[]{width, height});
-                gifCache.put(fileName, new GifAnimation(frames, delays, width, height, texture));
-                LOGGER.debug("Loaded GIF: {} -> {} ({}x{} frames={})", fileName, loc, width, height, frameCount);
-                return loc;
+                LOGGER.debug("Decoded GIF: {} ({}x{} frames={} compressed={}KB)",
+                        fileName, width, height, frameCount, gif.getCompressedBytes() / 1024);
+                return new Decoded(display, gif);
             }
         } catch (Exception e) {
             LOGGER.warn("Failed to load GIF: {}", filePath, e);
@@ -162,6 +244,117 @@ public final class TextureLoader {
         }
     }
 
+    // ===== 渲染线程：创建纹理 + 上传 =====
+
+    private static void finish(String fileName, int gen, Decoded decoded) {
+        if (gen != generation) {
+            // 加载期间缓存被清空：结果作废，下次使用时重新加载
+            discard(decoded);
+            return;
+        }
+        pending.remove(fileName);
+        ResourceLocation loc = decoded != null ? buildLocation(fileName) : null;
+        if (loc == null) {
+            discard(decoded);
+            failedAt.put(fileName, System.currentTimeMillis());
+            return;
+        }
+        failedAt.remove(fileName);
+        NativeImage image = decoded.image();
+        DynamicTexture texture = new DynamicTexture(image);
+        Minecraft.getInstance().getTextureManager().register(loc, texture);
+        if (decoded.gif() != null) {
+            decoded.gif().bindTexture(texture);
+        }
+        Entry entry = new Entry(loc, texture, image.getWidth(), image.getHeight(), decoded.gif());
+        entries.put(fileName, entry);
+        residentBytes += entry.bytes;
+        LOGGER.debug("Loaded texture: {} -> {} ({}x{}, {}KB)", fileName, loc,
+                image.getWidth(), image.getHeight(), entry.bytes / 1024);
+        evict();
+    }
+
+    // ===== 缓存淘汰 =====
+
+    /** 已加载纹理 */
+    private static final class Entry {
+        final ResourceLocation location;
+        final DynamicTexture texture;
+        final int width;
+        final int height;
+        final GifAnimation gif;
+        /**
+         * 驻留字节数估计：NativeImage 像素（DynamicTexture 常驻一份）+ 显存纹理，
+         * GIF 另计压缩帧数据与一帧解压缓冲
+         */
+        final long bytes;
+
+        Entry(ResourceLocation location, DynamicTexture texture, int width, int height, GifAnimation gif) {
+            this.location = location;
+            this.texture = texture;
+            this.width = width;
+            this.height = height;
+            this.gif = gif;
+            long frame = (long) width * height * 4;
+            this.bytes = frame * 2 + (gif != null ? gif.getCompressedBytes() + frame : 0);
+        }
+    }
+
+    /** 超出预算时从最久未用的无引用纹理开始释放 */
+    private static void evict() {
+        long budget = Math.max(0, Config.overlayTextureBudgetMb) * 1024L * 1024L;
+        if (residentBytes <= budget) return;
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (residentBytes > budget && it.hasNext()) {
+            Map.Entry<String, Entry> e = it.next();
+            if (refs.containsKey(e.getKey())) continue;
+            it.remove();
+            unload(e.getKey(), e.getValue());
+        }
+        if (residentBytes > budget && LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Texture cache over budget while in use:\n{}", String.join("\n", debugLines()));
+        }
+    }
+
+    private static void unload(String fileName, Entry entry) {
+        residentBytes -= entry.bytes;
+        // 直接 close 纹理：释放像素与 GL 纹理名并重置 id。1.20.1 的 TextureManager.release 只删 GL 名，
+        // 像素不释放、id 不重置——同一文件重新加载时 register 关闭旧纹理，会把已被新纹理复用的 GL 名再删一次。
+        // 纹理仍登记在 TextureManager 中，重新加载时由 register 替换（已 close 的纹理再次 close 无操作）
+        if (entry.gif != null) {
+            entry.gif.close(); // 连同其绑定的纹理
+        } else {
+            entry.texture.close();
+        }
+        LOGGER.debug("Evicted texture: {} ({}KB)", fileName, entry.bytes / 1024);
+    }
+
+    // ===== 调试读数 =====
+
+    /** 纹理数 / 驻留 / 上限 */
+    public static String debugSummary() {
+        return String.format("texture cache: %d textures, %.1f/%d MB", entries.size(),
+                residentBytes / (1024.0 * 1024.0), Config.overlayTextureBudgetMb);
+    }
+
+    /** 每个纹理一行：文件名、尺寸、驻留字节、引用数（最久未用在前） */
+    public static List<String> debugLines() {
+        List<String> lines = new ArrayList<>(entries.size() + 1);
+        lines.add(debugSummary());
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            Entry t = e.getValue();
+            lines.add(String.format("  %s %dx%d%s %.1f KB refs=%d", e.getKey(), t.width, t.height,
+                    t.gif != null ? " gif" : "", t.bytes / 1024.0, refs.getOrDefault(e.getKey(), 0)));
+        }
+        return lines;
+    }
+
+    private static void discard(Decoded decoded) {
+        if (decoded == null) return;
+        if (decoded.gif() != null) decoded.gif().close();
+        decoded.image().close();
+    }
+
     private static boolean isGif(String fileName) {
         return fileName.toLowerCase(Locale.ROOT).endsWith(".gif");
     }
@@ -177,26 +370,15 @@ public final class TextureLoader {
         return loc;
     }
 
-    /**
-     * 查询已加载纹理的原始像素尺寸（{width, height}）；未加载/失败返回 null。
-     * 供 OVERLAY 层按原图分辨率 × scale 百分比乘数渲染。
-     */
-    public static int[] getTextureSize(String fileName) {
-        return sizeCache.get(fileName);
-    }
-
-    /** 获取 GIF 动图数据；非 GIF/未加载返回 null */
-    public static GifAnimation getGif(String fileName) {
-        return gifCache.get(fileName);
-    }
-
-    /** 清空纹理缓存（在资源重载时调用） */
+    /** 清空纹理缓存（在资源重载时调用）；仍持有的句柄下次查询时重新加载 */
     public static void clearCache() {
-        for (GifAnimation gif : gifCache.values()) {
-            gif.close();
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            unload(e.getKey(), e.getValue());
         }
-        gifCache.clear();
-        textureCache.clear();
-        sizeCache.clear();
+        entries.clear();
+        residentBytes = 0;
+        pending.clear();
+        failedAt.clear();
+        generation++;
     }
 }
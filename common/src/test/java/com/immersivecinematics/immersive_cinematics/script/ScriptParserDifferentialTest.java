@@ -0,0 +1,140 @@
+package com.immersivecinematics.immersive_cinematics.script;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * 流式解析 {@link ScriptParser#parse} 与树解析 {@link ScriptParser#parseTree} 的差分测试
+ * <p>
+ * 对 cinematics/ 下每个 .json：两者都成功 → 解析出的模型逐字段相等（反射深比较）；
+ * 任一方失败 → 两者抛出同类异常，字段路径与报错文本一致。
+ */
+class ScriptParserDifferentialTest {
+
+    private static final String DIR_PROPERTY = "immersive_cinematics.cinematicsDir";
+
+    @TestFactory
+    Stream<DynamicTest> streamingMatchesTreeParser() throws IOException {
+        Path root = Path.of(System.getProperty(DIR_PROPERTY, "../cinematics"));
+        assertTrue(Files.isDirectory(root), "示例脚本目录不存在: " + root.toAbsolutePath());
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(root)) {
+            files = stream.filter(p -> Files.isRegularFile(p) && p.toString().endsWith(".json"))
+                          .sorted()
+                          .collect(Collectors.toList());
+        }
+        assertFalse(files.isEmpty(), "示例脚本目录为空: " + root.toAbsolutePath());
+        return files.stream().map(file -> DynamicTest.dynamicTest(
+                root.relativize(file).toString().replace('\\', '/'),
+                () -> assertSameResult(Files.readString(file, StandardCharsets.UTF_8))));
+    }
+
+    private static void assertSameResult(String json) {
+        Object streamed = parseOrThrowable(true, json);
+        Object tree = parseOrThrowable(false, json);
+        if (streamed instanceof Throwable || tree instanceof Throwable) {
+            if (!(streamed instanceof Throwable ts)) {
+                fail("流式解析成功，树解析失败: " + tree);
+                return;
+            }
+            if (!(tree instanceof Throwable tt)) {
+                fail("树解析成功，流式解析失败: " + streamed);
+                return;
+            }
+            assertEquals(tt.getClass(), ts.getClass(), "异常类型");
+            assertEquals(tt.getMessage(), ts.getMessage(), "异常文本");
+            if (tt instanceof ScriptParser.ScriptParseException pt) {
+                assertEquals(pt.getFieldPath(), ((ScriptParser.ScriptParseException) ts).getFieldPath(), "字段路径");
+            }
+            return;
+        }
+        assertNull(deepDiff(streamed, tree, "script", new IdentityHashMap<>()));
+    }
+
+    private static Object parseOrThrowable(boolean streaming, String json) {
+        try {
+            return streaming ? ScriptParser.parse(json) : ScriptParser.parseTree(json);
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    // ===== 反射深比较 =====
+
+    /** @return 第一处差异的描述（路径: 流式值 vs 树值）；相等 → null */
+    private static String deepDiff(Object a, Object b, String path, IdentityHashMap<Object, Object> seen) {
+        if (a == b) return null;
+        if (a == null || b == null) return path + ": " + a + " vs " + b;
+        if (a.getClass() != b.getClass()) return path + ": " + a.getClass().getName() + " vs " + b.getClass().getName();
+        if (a instanceof Number || a instanceof String || a instanceof Boolean || a instanceof Character || a instanceof Enum<?>) {
+            return a.equals(b) ? null : path + ": " + a + " vs " + b;
+        }
+        if (seen.put(a, b) != null) return null;
+        if (a instanceof Map<?, ?> ma) {
+            Map<?, ?> mb = (Map<?, ?>) b;
+            if (!ma.keySet().equals(mb.keySet())) return path + ": keys " + ma.keySet() + " vs " + mb.keySet();
+            for (Map.Entry<?, ?> e : ma.entrySet()) {
+                String d = deepDiff(e.getValue(), mb.get(e.getKey()), path + "." + e.getKey(), seen);
+                if (d != null) return d;
+            }
+            return null;
+        }
+        if (a instanceof Collection<?> ca) {
+            List<?> la = new ArrayList<>(ca);
+            List<?> lb = new ArrayList<>((Collection<?>) b);
+            if (la.size() != lb.size()) return path + ": size " + la.size() + " vs " + lb.size();
+            for (int i = 0; i < la.size(); i++) {
+                String d = deepDiff(la.get(i), lb.get(i), path + "[" + i + "]", seen);
+                if (d != null) return d;
+            }
+            return null;
+        }
+        if (a.getClass().isArray()) {
+            int n = Array.getLength(a);
+            if (n != Array.getLength(b)) return path + ": length " + n + " vs " + Array.getLength(b);
+            for (int i = 0; i < n; i++) {
+                String d = deepDiff(Array.get(a, i), Array.get(b, i), path + "[" + i + "]", seen);
+                if (d != null) return d;
+            }
+            return null;
+        }
+        // JDK 内部类型不可反射访问：交给其自身 equals
+        if (a.getClass().getName().startsWith("java.")) {
+            return a.equals(b) ? null : path + ": " + a + " vs " + b;
+        }
+        for (Class<?> c = a.getClass(); c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field f : c.getDeclaredFields()) {
+                if (Modifier.isStatic(f.getModifiers())) continue;
+                f.setAccessible(true);
+                try {
+                    String d = deepDiff(f.get(a), f.get(b), path + "." + f.getName(), seen);
+                    if (d != null) return d;
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -78,7 +78,14 @@ public class FabricConfig implements Config.ConfigProvider {
                 getInt("preloadForceRadiusValue", 8),
                 getFloat("preloadPrewarmLeadSeconds", 2.0f),
                 getInt("preloadPrewarmRadius", 8),
-                getInt("preloadPrewarmRequestsPerTick", 6)
+                getInt("preloadPrewarmRequestsPerTick", 6),
+                getFloat("audioLookaheadSeconds", 5.0f),
+                getInt("audioCacheBudgetMb", 64),
+                getFloat("overlayPrefetchSeconds", 3.0f),
+                getBoolean("overlayImagePlaceholder", false),
+                getInt("overlayTextureBudgetMb", 128),
+                getFloat("assetHoldMaxSeconds", 0f),
+                getBoolean("scriptHotReload", false)
         );
     }
 
@@ -151,6 +158,13 @@ public class FabricConfig implements Config.ConfigProvider {
         root.addProperty("preloadPrewarmLeadSeconds", 2.0f);
         root.addProperty("preloadPrewarmRadius", 8);
         root.addProperty("preloadPrewarmRequestsPerTick", 6);
+        root.addProperty("audioLookaheadSeconds", 5.0f);
+        root.addProperty("audioCacheBudgetMb", 64);
+        root.addProperty("overlayPrefetchSeconds", 3.0f);
+        root.addProperty("overlayImagePlaceholder", false);
+        root.addProperty("overlayTextureBudgetMb", 128);
+        root.addProperty("assetHoldMaxSeconds", 0f);
+        root.addProperty("scriptHotReload", false);
         save();
     }
 
@@ -8,6 +8,7 @@ import net.fabricmc.fabric.api.client.rendering.v1.HudRenderCallback;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
 import net.fabricmc.fabric.api.entity.event.v1.ServerEntityWorldChangeEvents;
 import net.fabricmc.fabric.api.entity.event.v1.ServerLivingEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
@@ -56,6 +57,8 @@ public final class FabricEvents {
             }
             return net.minecraft.world.InteractionResultHolder.pass(player.getItemInHand(hand));
         });
+        ServerChunkEvents.CHUNK_UNLOAD.register((world, chunk) ->
+                ServerEventHandler.onChunkUnload(world, chunk.getPos().x, chunk.getPos().z));
         ServerEntityEvents.ENTITY_LOAD.register((entity, world) -> ServerEventHandler.onEntityAdded(entity));
         ServerEntityWorldChangeEvents.AFTER_PLAYER_CHANGE_WORLD.register((player, origin, destination) ->
                 ServerEventHandler.onChangeDimension((ServerPlayer) player, origin.dimension(), destination.dimension()));
@@ -5,6 +5,7 @@ import com.immersivecinematics.immersive_cinematics.trigger.network.*;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
 import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.protocol.Packet;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerPlayer;
 
@@ -42,6 +43,14 @@ public final class FabricNetwork implements NetworkBridge {
             C2SPreloadPositionPacket pkt = new C2SPreloadPositionPacket(buf);
             server.execute(() -> pkt.handle(player));
         });
+        ServerPlayNetworking.registerGlobalReceiver(id(NetworkHandler.SCRIPT_FETCH), (server, player, handler, buf, responseSender) -> {
+            C2SScriptFetchPacket pkt = new C2SScriptFetchPacket(buf);
+            server.execute(() -> pkt.handle(player));
+        });
+        ServerPlayNetworking.registerGlobalReceiver(id(NetworkHandler.TRIGGER_STATE_RESYNC), (server, player, handler, buf, responseSender) -> {
+            C2STriggerStateResyncPacket pkt = new C2STriggerStateResyncPacket(buf);
+            server.execute(() -> pkt.handle(player));
+        });
 
         // ===== S2C =====
 
@@ -73,6 +82,18 @@ public final class FabricNetwork implements NetworkBridge {
             S2CPreloadResultPacket pkt = new S2CPreloadResultPacket(buf);
             client.execute(pkt::handle);
         });
+        ClientPlayNetworking.registerGlobalReceiver(id(NetworkHandler.PLAY_SCRIPT_REF), (client, handler, buf, responseSender) -> {
+            S2CPlayScriptRefPacket pkt = new S2CPlayScriptRefPacket(buf);
+            client.execute(pkt::handle);
+        });
+        ClientPlayNetworking.registerGlobalReceiver(id(NetworkHandler.PAYLOAD_FRAGMENT), (client, handler, buf, responseSender) -> {
+            S2CPayloadFragmentPacket pkt = new S2CPayloadFragmentPacket(buf);
+            client.execute(pkt::handle);
+        });
+        ClientPlayNetworking.registerGlobalReceiver(id(NetworkHandler.TRIGGER_STATE_DELTA), (client, handler, buf, responseSender) -> {
+            S2CTriggerStateDeltaPacket pkt = new S2CTriggerStateDeltaPacket(buf);
+            client.execute(pkt::handle);
+        });
     }
 
     @Override
@@ -83,6 +104,13 @@ public final class FabricNetwork implements NetworkBridge {
         ServerPlayNetworking.send(player, idFor(packet), buf);
     }
 
+    @Override
+    public Packet<?> encode(CinematicS2CPacket packet) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(io.netty.buffer.Unpooled.buffer());
+        packet.write(buf);
+        return ServerPlayNetworking.createS2CPacket(idFor(packet), buf);
+    }
+
     @Override
     public void sendToServer(CinematicC2SPacket packet) {
         FriendlyByteBuf buf = new FriendlyByteBuf(io.netty.buffer.Unpooled.buffer());
@@ -101,6 +129,8 @@ public final class FabricNetwork implements NetworkBridge {
         if (packet instanceof C2SScriptSavedPacket) return id(NetworkHandler.SCRIPT_SAVED);
         if (packet instanceof C2SPreloadRequestPacket) return id(NetworkHandler.PRELOAD_REQ);
         if (packet instanceof C2SPreloadPositionPacket) return id(NetworkHandler.PRELOAD_POS);
+        if (packet instanceof C2SScriptFetchPacket) return id(NetworkHandler.SCRIPT_FETCH);
+        if (packet instanceof C2STriggerStateResyncPacket) return id(NetworkHandler.TRIGGER_STATE_RESYNC);
         if (packet instanceof S2CPlayScriptPacket) return id(NetworkHandler.PLAY_SCRIPT);
         if (packet instanceof S2CStopScriptPacket) return id(NetworkHandler.STOP_SCRIPT);
         if (packet instanceof S2CTriggerStateSyncPacket) return id(NetworkHandler.TRIGGER_STATE_SYNC);
@@ -108,6 +138,9 @@ public final class FabricNetwork implements NetworkBridge {
         if (packet instanceof S2CScriptPauseAckPacket) return id(NetworkHandler.SCRIPT_PAUSE_ACK);
         if (packet instanceof S2CScriptReloadPacket) return id(NetworkHandler.SCRIPT_RELOAD);
         if (packet instanceof S2CPreloadResultPacket) return id(NetworkHandler.PRELOAD_RESULT);
+        if (packet instanceof S2CPlayScriptRefPacket) return id(NetworkHandler.PLAY_SCRIPT_REF);
+        if (packet instanceof S2CPayloadFragmentPacket) return id(NetworkHandler.PAYLOAD_FRAGMENT);
+        if (packet instanceof S2CTriggerStateDeltaPacket) return id(NetworkHandler.TRIGGER_STATE_DELTA);
         throw new IllegalArgumentException("Unknown cinematic packet: " + packet.getClass().getName());
     }
 }
@@ -131,6 +131,40 @@ public class ForgeConfig implements Config.ConfigProvider {
             .comment("lookahead 预载：每 tick 新增预载 ticket 上限（慢速，默认 6）")
             .defineInRange("preloadPrewarmRequestsPerTick", 6, 1, 1000);
 
+    // ===== 音频配置 =====
+
+    private static final ForgeConfigSpec.DoubleValue AUDIO_LOOKAHEAD_SECONDS = BUILDER
+            .comment("音频片段提前解码量（秒）：片段开始前多少秒在后台解码，0 = 到点才解码")
+            .defineInRange("audioLookaheadSeconds", 5.0, 0.0, 60.0);
+
+    private static final ForgeConfigSpec.IntValue AUDIO_CACHE_BUDGET_MB = BUILDER
+            .comment("已解码音频缓存上限（MB）：超出后淘汰最久未用且无人引用的条目")
+            .defineInRange("audioCacheBudgetMb", 64, 0, 4096);
+
+    // ===== 叠加层配置 =====
+
+    private static final ForgeConfigSpec.DoubleValue OVERLAY_PREFETCH_SECONDS = BUILDER
+            .comment("图片预取量（秒）：OVERLAY 图片片段开始前多少秒在后台加载，0 = 到点才加载")
+            .defineInRange("overlayPrefetchSeconds", 3.0, 0.0, 60.0);
+
+    private static final ForgeConfigSpec.BooleanValue OVERLAY_IMAGE_PLACEHOLDER = BUILDER
+            .comment("图片未加载完成时是否绘制半透明占位框")
+            .define("overlayImagePlaceholder", false);
+
+    private static final ForgeConfigSpec.IntValue OVERLAY_TEXTURE_BUDGET_MB = BUILDER
+            .comment("图片纹理缓存上限（MB）：超出后释放最久未用且无片段引用的纹理")
+            .defineInRange("overlayTextureBudgetMb", 128, 0, 4096);
+
+    private static final ForgeConfigSpec.DoubleValue ASSET_HOLD_MAX_SECONDS = BUILDER
+            .comment("开场资源等待上限（秒）：脚本开始时黑屏等待开场音频/图片就绪，最多等这么久；0 = 不等待")
+            .defineInRange("assetHoldMaxSeconds", 0.0, 0.0, 10.0);
+
+    // ===== 服务端脚本配置 =====
+
+    private static final ForgeConfigSpec.BooleanValue SCRIPT_HOT_RELOAD = BUILDER
+            .comment("脚本目录热重载：监听 immersive_cinematics/scripts，改动的文件自动重新解析生效（开发 / 测试服用）")
+            .define("scriptHotReload", false);
+
     // ===== 触发器轮询间隔配置 =====
 
     private static final ForgeConfigSpec.IntValue TRIGGER_POLL_LOCATION = BUILDER
@@ -192,7 +226,14 @@ public class ForgeConfig implements Config.ConfigProvider {
                 PRELOAD_FORCE_RADIUS_VALUE.get(),
                 (float) (double) PRELOAD_PREWARM_LEAD_SECONDS.get(),
                 PRELOAD_PREWARM_RADIUS.get(),
-                PRELOAD_PREWARM_REQUESTS_PER_TICK.get()
+                PRELOAD_PREWARM_REQUESTS_PER_TICK.get(),
+                (float) (double) AUDIO_LOOKAHEAD_SECONDS.get(),
+                AUDIO_CACHE_BUDGET_MB.get(),
+                (float) (double) OVERLAY_PREFETCH_SECONDS.get(),
+                OVERLAY_IMAGE_PLACEHOLDER.get(),
+                OVERLAY_TEXTURE_BUDGET_MB.get(),
+                (float) (double) ASSET_HOLD_MAX_SECONDS.get(),
+                SCRIPT_HOT_RELOAD.get()
         );
     }
 
@@ -287,6 +328,14 @@ public class ForgeConfig implements Config.ConfigProvider {
                 PRELOAD_PREWARM_REQUESTS_PER_TICK.set(value);
                 PRELOAD_PREWARM_REQUESTS_PER_TICK.save();
             }
+            case "audioCacheBudgetMb" -> {
+                AUDIO_CACHE_BUDGET_MB.set(value);
+                AUDIO_CACHE_BUDGET_MB.save();
+            }
+            case "overlayTextureBudgetMb" -> {
+                OVERLAY_TEXTURE_BUDGET_MB.set(value);
+                OVERLAY_TEXTURE_BUDGET_MB.save();
+            }
         }
     }
 
@@ -313,6 +362,14 @@ public class ForgeConfig implements Config.ConfigProvider {
                 PRELOAD_FORCE_RADIUS.set(value);
                 PRELOAD_FORCE_RADIUS.save();
             }
+            case "overlayImagePlaceholder" -> {
+                OVERLAY_IMAGE_PLACEHOLDER.set(value);
+                OVERLAY_IMAGE_PLACEHOLDER.save();
+            }
+            case "scriptHotReload" -> {
+                SCRIPT_HOT_RELOAD.set(value);
+                SCRIPT_HOT_RELOAD.save();
+            }
         }
     }
 
@@ -327,6 +384,18 @@ public class ForgeConfig implements Config.ConfigProvider {
                 PRELOAD_PREWARM_LEAD_SECONDS.set((double) value);
                 PRELOAD_PREWARM_LEAD_SECONDS.save();
             }
+            case "audioLookaheadSeconds" -> {
+                AUDIO_LOOKAHEAD_SECONDS.set((double) value);
+                AUDIO_LOOKAHEAD_SECONDS.save();
+            }
+            case "overlayPrefetchSeconds" -> {
+                OVERLAY_PREFETCH_SECONDS.set((double) value);
+                OVERLAY_PREFETCH_SECONDS.save();
+            }
+            case "assetHoldMaxSeconds" -> {
+                ASSET_HOLD_MAX_SECONDS.set((double) value);
+                ASSET_HOLD_MAX_SECONDS.save();
+            }
         }
     }
 
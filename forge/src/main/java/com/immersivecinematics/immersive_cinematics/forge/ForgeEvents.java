@@ -1,6 +1,7 @@
 package com.immersivecinematics.immersive_cinematics.forge;
 
 import com.immersivecinematics.immersive_cinematics.handler.ServerEventHandler;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraftforge.event.RegisterCommandsEvent;
 import net.minecraftforge.event.TickEvent;
@@ -8,6 +9,7 @@ import net.minecraftforge.event.entity.EntityJoinLevelEvent;
 import net.minecraftforge.event.entity.item.ItemTossEvent;
 import net.minecraftforge.event.entity.living.LivingDeathEvent;
 import net.minecraftforge.event.entity.player.*;
+import net.minecraftforge.event.level.ChunkEvent;
 import net.minecraftforge.event.level.LevelEvent;
 import net.minecraftforge.event.server.ServerStartedEvent;
 import net.minecraftforge.event.server.ServerStoppingEvent;
@@ -39,6 +41,7 @@ public final class ForgeEvents {
         forgeBus.addListener(ForgeEvents::onChangedDimension);
         forgeBus.addListener(ForgeEvents::onEntityJoinLevel);
         forgeBus.addListener(ForgeEvents::onLevelSave);
+        forgeBus.addListener(ForgeEvents::onChunkUnload);
     }
 
     private static void onServerStarted(ServerStartedEvent event) {
@@ -126,4 +129,10 @@ public final class ForgeEvents {
     private static void onLevelSave(LevelEvent.Save event) {
         ServerEventHandler.onLevelSave();
     }
+
+    private static void onChunkUnload(ChunkEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            ServerEventHandler.onChunkUnload(level, event.getChunk().getPos().x, event.getChunk().getPos().z);
+        }
+    }
 }
@@ -2,6 +2,7 @@ package com.immersivecinematics.immersive_cinematics.forge;
 
 import com.immersivecinematics.immersive_cinematics.ImmersiveCinematics;
 import com.immersivecinematics.immersive_cinematics.trigger.network.*;
+import net.minecraft.network.protocol.Packet;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraftforge.network.NetworkDirection;
@@ -14,7 +15,7 @@ import net.minecraftforge.network.simple.SimpleChannel;
  */
 public final class ForgeNetwork implements NetworkBridge {
 
-    private static final String PROTOCOL_VERSION = "1";
+    private static final String PROTOCOL_VERSION = "4";
     private static SimpleChannel CHANNEL;
 
     public static void init() {
@@ -69,6 +70,27 @@ public final class ForgeNetwork implements NetworkBridge {
         CHANNEL.registerMessage(id++, S2CPreloadResultPacket.class,
                 CinematicPacket::write, S2CPreloadResultPacket::new,
                 (pkt, ctx) -> { ctx.get().enqueueWork(pkt::handle); ctx.get().setPacketHandled(true); });
+
+        // ===== 按指纹播放（追加在末尾，已有包的判别号不变）=====
+        CHANNEL.registerMessage(id++, C2SScriptFetchPacket.class,
+                CinematicPacket::write, C2SScriptFetchPacket::new,
+                (pkt, ctx) -> { ctx.get().enqueueWork(() -> pkt.handle(ctx.get().getSender())); ctx.get().setPacketHandled(true); });
+        CHANNEL.registerMessage(id++, S2CPlayScriptRefPacket.class,
+                CinematicPacket::write, S2CPlayScriptRefPacket::new,
+                (pkt, ctx) -> { ctx.get().enqueueWork(pkt::handle); ctx.get().setPacketHandled(true); });
+
+        // ===== 大负载分片 =====
+        CHANNEL.registerMessage(id++, S2CPayloadFragmentPacket.class,
+                CinematicPacket::write, S2CPayloadFragmentPacket::new,
+                (pkt, ctx) -> { ctx.get().enqueueWork(pkt::handle); ctx.get().setPacketHandled(true); });
+
+        // ===== 触发状态增量同步 =====
+        CHANNEL.registerMessage(id++, C2STriggerStateResyncPacket.class,
+                CinematicPacket::write, C2STriggerStateResyncPacket::new,
+                (pkt, ctx) -> { ctx.get().enqueueWork(() -> pkt.handle(ctx.get().getSender())); ctx.get().setPacketHandled(true); });
+        CHANNEL.registerMessage(id++, S2CTriggerStateDeltaPacket.class,
+                CinematicPacket::write, S2CTriggerStateDeltaPacket::new,
+                (pkt, ctx) -> { ctx.get().enqueueWork(pkt::handle); ctx.get().setPacketHandled(true); });
     }
 
     @Override
@@ -76,6 +98,11 @@ public final class ForgeNetwork implements NetworkBridge {
         CHANNEL.send(PacketDistributor.PLAYER.with(() -> player), packet);
     }
 
+    @Override
+    public Packet<?> encode(CinematicS2CPacket packet) {
+        return CHANNEL.toVanillaPacket(packet, NetworkDirection.PLAY_TO_CLIENT);
+    }
+
     @Override
     public void sendToServer(CinematicC2SPacket packet) {
         CHANNEL.sendToServer(packet);